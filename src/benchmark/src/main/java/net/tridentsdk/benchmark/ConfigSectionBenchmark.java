@@ -0,0 +1,83 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.benchmark;
+
+import net.tridentsdk.config.Config;
+import net.tridentsdk.config.ConfigSection;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads values out of a loaded configuration, as plugins do on every command or event
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigSectionBenchmark {
+    private Path path;
+    private Config config;
+    private ConfigSection section;
+
+    @Setup
+    public void setup() throws Exception {
+        this.path = Files.createTempFile("benchmark", ".json");
+        Files.write(this.path, ("{\"max-players\": 100, \"motd\": \"A Trident server\", \"view-distance\": 7.5, " +
+                "\"world\": {\"name\": \"world\", \"seed\": 12345, \"spawn-protection\": 16}}")
+                .getBytes(StandardCharsets.UTF_8));
+
+        this.config = new Config(this.path);
+        this.section = this.config.getConfigSection("world");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(this.path);
+    }
+
+    @Benchmark
+    public int getInt() {
+        return this.config.getInt("max-players", 20);
+    }
+
+    @Benchmark
+    public String getString() {
+        return this.config.getString("motd", "");
+    }
+
+    @Benchmark
+    public double getDouble() {
+        return this.config.getDouble("view-distance", 10D);
+    }
+
+    @Benchmark
+    public int nestedInt() {
+        return this.section.getInt("spawn-protection", 0);
+    }
+
+    @Benchmark
+    public ConfigSection getConfigSection() {
+        return this.config.getConfigSection("world");
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.benchmark;
+
+import net.tridentsdk.meta.ChatColor;
+import net.tridentsdk.meta.MessageBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds a formatted chat message and turns it into JSON, which happens for every message sent to a player
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageBuilderBenchmark {
+    private MessageBuilder built;
+
+    @Setup
+    public void setup() {
+        this.built = this.message();
+    }
+
+    private MessageBuilder message() {
+        return new MessageBuilder("Welcome to ")
+                .color(ChatColor.GOLD)
+                .then("Trident")
+                .color(ChatColor.AQUA)
+                .link("https://tridentsdk.net")
+                .hover("Visit the website")
+                .build();
+    }
+
+    @Benchmark
+    public String asJson() {
+        return this.built.asJson();
+    }
+
+    @Benchmark
+    public String buildAndAsJson() {
+        return this.message().asJson();
+    }
+}
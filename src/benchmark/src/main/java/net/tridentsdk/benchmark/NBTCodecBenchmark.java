@@ -0,0 +1,126 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.benchmark;
+
+import net.tridentsdk.meta.nbt.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes a player-sized compound through the stream, buffer, lazy and compressed paths
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NBTCodecBenchmark {
+    private CompoundTag player;
+    private byte[] encoded;
+    private byte[] gzipped;
+
+    @Setup
+    public void setup() throws Exception {
+        this.player = player();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new NBTEncoder(new DataOutputStream(out)).encode(this.player);
+        this.encoded = out.toByteArray();
+        this.gzipped = NBTEncoder.encodeCompressed(this.player, Compression.GZIP);
+    }
+
+    static CompoundTag player() {
+        CompoundTag player = new CompoundTag("");
+        player.addTag(new StringTag("Name").setValue("Notch"));
+        player.putFloat("Health", 20F);
+        player.putInt("XpLevel", 30);
+        player.putLong("UUIDMost", 0x1234567890L);
+        player.addTag(new DoubleListTag("Pos", new double[] { 120.5D, 64D, -300.25D }));
+        player.addTag(new DoubleListTag("Motion", new double[] { 0D, -0.0784D, 0D }));
+        player.addTag(new FloatListTag("Rotation", new float[] { 90F, 12.5F }));
+
+        ListTag inventory = new ListTag("Inventory", TagType.COMPOUND);
+        for (int slot = 0; slot < 36; slot++) {
+            CompoundTag item = new CompoundTag(null);
+            item.putByte("Slot", (byte) slot);
+            item.putByte("Count", (byte) 64);
+            item.putShort("Damage", (short) 0);
+            item.addTag(new StringTag("id").setValue("minecraft:stone"));
+            if (slot % 4 == 0) {
+                CompoundTag display = new CompoundTag("display");
+                display.addTag(new StringTag("Name").setValue("Item " + slot));
+                CompoundTag tag = new CompoundTag("tag");
+                tag.addTag(display);
+                item.addTag(tag);
+            }
+            inventory.addTag(item);
+        }
+        player.addTag(inventory);
+        player.addTag(new ByteArrayTag("Data").setValue(new byte[2048]));
+        return player;
+    }
+
+    @Benchmark
+    public byte[] encodeStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new NBTEncoder(new DataOutputStream(out)).encode(this.player);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeArray() throws Exception {
+        return NBTEncoder.encodeToArray(this.player);
+    }
+
+    @Benchmark
+    public byte[] encodeGzip() throws Exception {
+        return NBTEncoder.encodeCompressed(this.player, Compression.GZIP);
+    }
+
+    @Benchmark
+    public CompoundTag decodeStream() throws Exception {
+        return new NBTDecoder(new DataInputStream(new ByteArrayInputStream(this.encoded))).decode();
+    }
+
+    @Benchmark
+    public CompoundTag decodeBuffer() throws Exception {
+        return new NBTDecoder(ByteBuffer.wrap(this.encoded)).decode();
+    }
+
+    @Benchmark
+    public CompoundTag decodeLazy() throws Exception {
+        return new NBTDecoder(ByteBuffer.wrap(this.encoded)).decodeLazy();
+    }
+
+    @Benchmark
+    public CompoundTag decodeGzip() throws Exception {
+        return NBTDecoder.decodeCompressed(this.gzipped, Compression.GZIP);
+    }
+
+    @Benchmark
+    public byte[] roundTrip() throws Exception {
+        return NBTEncoder.encodeToArray(new NBTDecoder(ByteBuffer.wrap(this.encoded)).decode());
+    }
+}
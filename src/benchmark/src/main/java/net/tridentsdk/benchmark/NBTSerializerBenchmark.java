@@ -0,0 +1,90 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.benchmark;
+
+import net.tridentsdk.meta.nbt.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compiled {@link NBTSerializer} codecs with the reflective path they replaced
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NBTSerializerBenchmark {
+    private Sample sample;
+    private CompoundTag tag;
+
+    @Setup
+    public void setup() {
+        this.sample = new Sample();
+        this.tag = NBTSerializer.serialize(this.sample);
+    }
+
+    @Benchmark
+    public CompoundTag serializeCompiled() {
+        return NBTSerializer.serialize(this.sample, "Sample");
+    }
+
+    @Benchmark
+    public CompoundTag serializeReflective() {
+        return ReflectiveNBTSerializer.serialize(this.sample, "Sample");
+    }
+
+    @Benchmark
+    public Sample deserializeCompiled() {
+        return NBTSerializer.deserialize(new Sample(), this.tag);
+    }
+
+    @Benchmark
+    public Sample deserializeReflective() {
+        return ReflectiveNBTSerializer.deserialize(new Sample(), this.tag);
+    }
+
+    /**
+     * Mirrors the fields of the serializer test, which the reflective path can only reach if they are not private
+     */
+    public static class Sample implements NBTSerializable {
+        @NBTField(name = "testByte", type = TagType.BYTE)
+        protected byte testByte = 1;
+        @NBTField(name = "testShort", type = TagType.SHORT)
+        protected short testShort = 5;
+        @NBTField(name = "testInt", type = TagType.INT)
+        protected int testInt = 123;
+        @NBTField(name = "testLong", type = TagType.LONG)
+        protected long testLong = 10000;
+        @NBTField(name = "testFloat", type = TagType.FLOAT)
+        protected float testFloat = 25.5f;
+        @NBTField(name = "testDouble", type = TagType.DOUBLE)
+        protected double testDouble = 35.5d;
+        @NBTField(name = "testByteArray", type = TagType.BYTE_ARRAY)
+        protected byte[] testByteArray = "byteArray".getBytes();
+        @NBTField(name = "testString", type = TagType.STRING)
+        protected String testString = "Hello World!";
+        @NBTField(name = "testIntArray", type = TagType.INT_ARRAY)
+        protected int[] testIntArray = new int[] { 1, 2, 3, 4, 5 };
+
+        public Sample() {
+        }
+    }
+}
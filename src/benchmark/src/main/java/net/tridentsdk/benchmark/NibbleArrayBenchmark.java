@@ -0,0 +1,69 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.benchmark;
+
+import net.tridentsdk.util.NibbleArray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes every nibble of a chunk section sized array
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NibbleArrayBenchmark {
+    private static final int SIZE = 4096;
+
+    private NibbleArray array;
+
+    @Setup
+    public void setup() {
+        this.array = new NibbleArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            NibbleArray.set(this.array.array(), i, (byte) i);
+        }
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(this.array.get(i));
+        }
+    }
+
+    @Benchmark
+    public byte[] set() {
+        byte[] data = this.array.array();
+        for (int i = 0; i < SIZE; i++) {
+            NibbleArray.set(data, i, (byte) (i * 7));
+        }
+        return data;
+    }
+
+    @Benchmark
+    public NibbleArray fill() {
+        this.array.fill((byte) 15);
+        return this.array;
+    }
+}
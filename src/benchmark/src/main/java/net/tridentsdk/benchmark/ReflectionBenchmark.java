@@ -0,0 +1,127 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.benchmark;
+
+import net.tridentsdk.reflect.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ReflectASM and method handle backends of the reflect package against direct calls
+ *
+ * <p>The accessors are kept in {@code static final} fields, the way callers should hold them. The public field and
+ * method are bound to the ReflectASM accessor and a lambda by the method handle backend, the private field to a
+ * method handle.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReflectionBenchmark {
+    private static final FastClass ASM = FastClass.get(Target.class, ReflectionBackend.ASM);
+    private static final FastClass HANDLES = FastClass.get(Target.class, ReflectionBackend.METHOD_HANDLES);
+
+    private static final FastField ASM_FIELD = ASM.fieldBy("value");
+    private static final FastField HANDLES_FIELD = HANDLES.fieldBy("value");
+    private static final FastField HANDLES_PRIVATE_FIELD = HANDLES.fieldBy("hidden");
+    private static final FastMethod ASM_METHOD = ASM.methodBy(null, "add");
+    private static final FastMethod HANDLES_METHOD = HANDLES.methodBy(null, "add");
+    private static final FastConstructor ASM_CONSTRUCTOR = ASM.constructor();
+    private static final FastConstructor HANDLES_CONSTRUCTOR = HANDLES.constructor();
+
+    private final Target target = new Target();
+    private final Integer argument = 3;
+    private int next;
+
+    @Benchmark
+    public int getIntDirect() {
+        return this.target.value;
+    }
+
+    @Benchmark
+    public int getIntAsm() {
+        return ASM_FIELD.getInt(this.target);
+    }
+
+    @Benchmark
+    public int getIntHandles() {
+        return HANDLES_FIELD.getInt(this.target);
+    }
+
+    @Benchmark
+    public int getPrivateIntHandles() {
+        return HANDLES_PRIVATE_FIELD.getInt(this.target);
+    }
+
+    @Benchmark
+    public void setIntDirect() {
+        this.target.value = this.next++;
+    }
+
+    @Benchmark
+    public void setIntAsm() {
+        ASM_FIELD.setInt(this.target, this.next++);
+    }
+
+    @Benchmark
+    public void setIntHandles() {
+        HANDLES_FIELD.setInt(this.target, this.next++);
+    }
+
+    @Benchmark
+    public Object invokeDirect() {
+        return this.target.add(this.argument);
+    }
+
+    @Benchmark
+    public Object invokeAsm() {
+        return ASM_METHOD.invoke(this.target, this.argument);
+    }
+
+    @Benchmark
+    public Object invokeHandles() {
+        return HANDLES_METHOD.invoke(this.target, this.argument);
+    }
+
+    @Benchmark
+    public Target newInstanceDirect() {
+        return new Target();
+    }
+
+    @Benchmark
+    public Target newInstanceAsm() {
+        return ASM_CONSTRUCTOR.newInstance();
+    }
+
+    @Benchmark
+    public Target newInstanceHandles() {
+        return HANDLES_CONSTRUCTOR.newInstance();
+    }
+
+    public static class Target {
+        public int value;
+        private int hidden;
+
+        public int add(int amount) {
+            return this.value + amount;
+        }
+    }
+}
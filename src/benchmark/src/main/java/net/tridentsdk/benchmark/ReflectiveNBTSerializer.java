@@ -0,0 +1,161 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.benchmark;
+
+import net.tridentsdk.meta.nbt.*;
+import net.tridentsdk.reflect.FastClass;
+import net.tridentsdk.reflect.FastField;
+
+import java.lang.reflect.Field;
+
+/**
+ * The reflective NBTSerializer that was replaced by the compiled codecs, kept as the baseline for
+ * {@link NBTSerializerBenchmark}
+ *
+ * <p>A new FastClass is built and every field annotation is re-read on each call, and values are boxed through
+ * {@link FastField}</p>
+ */
+final class ReflectiveNBTSerializer {
+    private ReflectiveNBTSerializer() {
+    }
+
+    static <T> T deserialize(T instance, CompoundTag tag) {
+        FastClass cls = FastClass.get(instance.getClass());
+
+        for (FastField field : cls.fields()) {
+            Field f = field.toField();
+
+            if (!f.isAnnotationPresent(NBTField.class)) {
+                continue;
+            }
+
+            NBTField nf = f.getAnnotation(NBTField.class);
+            String tagName = nf.name();
+            TagType type = nf.type();
+            NBTTag value;
+
+            if (!tag.containsTag(tagName)) {
+                value = new NullTag(tagName);
+            } else {
+                value = tag.getTag(tagName);
+            }
+
+            if (value.type() != type) {
+                continue;
+            }
+
+            field.set(instance, findJavaValue(value, field));
+        }
+
+        ((NBTSerializable) instance).process();
+        return instance;
+    }
+
+    private static Object findJavaValue(NBTTag value, FastField field) {
+        switch (value.type()) {
+            case BYTE:
+                if (field.toField().getType() == boolean.class) {
+                    return value.asType(ByteTag.class).value() == 1;
+                } else {
+                    return value.asType(ByteTag.class).value();
+                }
+            case BYTE_ARRAY:
+                return value.asType(ByteArrayTag.class).value();
+            case COMPOUND:
+                return value;
+            case DOUBLE:
+                return value.asType(DoubleTag.class).value();
+            case FLOAT:
+                return value.asType(FloatTag.class).value();
+            case INT:
+                return value.asType(IntTag.class).value();
+            case INT_ARRAY:
+                return value.asType(IntArrayTag.class).value();
+            case LONG:
+                return value.asType(LongTag.class).value();
+            case SHORT:
+                return value.asType(ShortTag.class).value();
+            case LIST:
+                return value;
+            case STRING:
+                return value.asType(StringTag.class).value();
+            default:
+                return null;
+        }
+    }
+
+    static CompoundTag serialize(NBTSerializable serializable, String name) {
+        FastClass cls = FastClass.get(serializable.getClass());
+        CompoundTagBuilder<NBTBuilder> builder = NBTBuilder.newBase(name);
+
+        for (FastField field : cls.fields()) {
+            Field f = field.toField();
+
+            if (!f.isAnnotationPresent(NBTField.class)) {
+                continue;
+            }
+
+            String tagName = f.getAnnotation(NBTField.class).name();
+            TagType tagType = f.getAnnotation(NBTField.class).type();
+            Object value = field.get(serializable);
+
+            switch (tagType) {
+                case BYTE:
+                    builder.byteTag(tagName, (byte) value);
+                    break;
+                case BYTE_ARRAY:
+                    builder.byteArrayTag(tagName, (byte[]) value);
+                    break;
+                case COMPOUND:
+                    builder.compoundTag((CompoundTag) value);
+                    break;
+                case DOUBLE:
+                    builder.doubleTag(tagName, (double) value);
+                    break;
+                case FLOAT:
+                    builder.floatTag(tagName, (float) value);
+                    break;
+                case INT:
+                    builder.intTag(tagName, (int) value);
+                    break;
+                case INT_ARRAY:
+                    builder.intArrayTag(tagName, (int[]) value);
+                    break;
+                case LONG:
+                    builder.longTag(tagName, (long) value);
+                    break;
+                case SHORT:
+                    builder.shortTag(tagName, (short) value);
+                    break;
+                case LIST:
+                    builder.listTag((ListTag) value);
+                    break;
+                case STRING:
+                    builder.stringTag(tagName, (String) value);
+                    break;
+                case NULL:
+                    builder.nullTag(tagName);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return builder.endCompoundTag().build();
+    }
+}
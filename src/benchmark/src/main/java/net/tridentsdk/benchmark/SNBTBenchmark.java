@@ -0,0 +1,76 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tridentsdk.benchmark;
+
+import net.tridentsdk.meta.nbt.CompoundTag;
+import net.tridentsdk.meta.nbt.ImmutableCompoundTag;
+import net.tridentsdk.meta.nbt.SNBT;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses and prints stringified NBT: a command-sized item, the same item through the parse cache, and the player
+ * compound of {@link NBTCodecBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SNBTBenchmark {
+    private static final String ITEM = "{id:\"minecraft:diamond_sword\",Count:1b,Damage:12s,tag:{display:" +
+            "{Name:\"Excalibur\",Lore:[\"Pulled from the stone\",\"Sharp\"]},ench:[{id:16s,lvl:5s}," +
+            "{id:34s,lvl:3s}],Unbreakable:1b,AttributeModifiers:[{Amount:7.5d,Operation:0,UUIDMost:1234L}]}}";
+
+    private CompoundTag item;
+    private CompoundTag player;
+    private String printedPlayer;
+
+    @Setup
+    public void setup() {
+        this.item = SNBT.parse(ITEM);
+        this.player = NBTCodecBenchmark.player();
+        this.printedPlayer = SNBT.print(this.player);
+    }
+
+    @Benchmark
+    public CompoundTag parseItem() {
+        return SNBT.parse(ITEM);
+    }
+
+    @Benchmark
+    public ImmutableCompoundTag parseItemCached() {
+        return SNBT.parseCached(ITEM);
+    }
+
+    @Benchmark
+    public String printItem() {
+        return SNBT.print(this.item);
+    }
+
+    @Benchmark
+    public CompoundTag parsePlayer() {
+        return SNBT.parse(this.printedPlayer);
+    }
+
+    @Benchmark
+    public String printPlayer() {
+        return SNBT.print(this.player);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.benchmark;
+
+import net.tridentsdk.base.Substance;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up substances by numeric and string id, from the start and the end of the enum
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubstanceBenchmark {
+    @Param({ "STONE", "RECORD_12" })
+    public Substance substance;
+
+    private int id;
+    private String stringId;
+
+    @Setup
+    public void setup() {
+        this.id = this.substance.id();
+        this.stringId = this.substance.idString();
+    }
+
+    @Benchmark
+    public Substance fromId() {
+        return Substance.fromId(this.id);
+    }
+
+    @Benchmark
+    public Substance fromStringId() {
+        return Substance.fromStringId(this.stringId);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tridentsdk.benchmark;
+
+import net.tridentsdk.concurrent.WorkStealingThreadPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+/**
+ * Compares {@link WorkStealingThreadPool} against a {@link ThreadPoolExecutor} with the same number of threads
+ *
+ * <p>Each operation submits a batch of tasks and waits for all of them: many tiny plugin tasks, tasks which compress
+ * a chunk section the way chunks are compressed before being written, and tasks which submit more tasks.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThreadPoolBenchmark {
+    private static final int THREADS = 4;
+    private static final int PLUGIN_TASKS = 1000;
+    private static final int CHUNK_TASKS = 64;
+    private static final int FAN_OUT = 8;
+    private static final int DEPTH = 3;
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(Deflater::new);
+    private static final ThreadLocal<byte[]> OUTPUT = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    @Param({ "stealing", "executor" })
+    public String pool;
+
+    private Executor executor;
+    private Runnable shutdown;
+    private final byte[] section = new byte[4096 + 2048 * 3];
+
+    @Setup
+    public void setup() {
+        if ("stealing".equals(this.pool)) {
+            WorkStealingThreadPool pool = new WorkStealingThreadPool("Benchmark", THREADS);
+            this.executor = pool;
+            this.shutdown = pool::shutdown;
+        } else {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>());
+            this.executor = pool;
+            this.shutdown = pool::shutdown;
+        }
+
+        // Mostly air and stone, like a typical section
+        Random random = new Random(0);
+        for (int i = 0; i < this.section.length; i++) {
+            this.section[i] = (byte) (random.nextInt(8) == 0 ? random.nextInt(256) : i < 4096 ? 1 : 0);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.shutdown.run();
+    }
+
+    @Benchmark
+    public void pluginTasks() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(PLUGIN_TASKS);
+        for (int i = 0; i < PLUGIN_TASKS; i++) {
+            this.executor.execute(done::countDown);
+        }
+        done.await();
+    }
+
+    @Benchmark
+    public int chunkCompress() throws InterruptedException {
+        AtomicInteger size = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(CHUNK_TASKS);
+        for (int i = 0; i < CHUNK_TASKS; i++) {
+            this.executor.execute(() -> {
+                Deflater deflater = DEFLATER.get();
+                byte[] output = OUTPUT.get();
+                deflater.reset();
+                deflater.setInput(this.section);
+                deflater.finish();
+                int written = 0;
+                while (!deflater.finished()) {
+                    written += deflater.deflate(output);
+                }
+                size.addAndGet(written);
+                done.countDown();
+            });
+        }
+        done.await();
+        return size.get();
+    }
+
+    @Benchmark
+    public void nestedTasks() throws InterruptedException {
+        int tasks = 0;
+        for (int level = 0, width = 1; level <= DEPTH; level++, width *= FAN_OUT) {
+            tasks += width;
+        }
+
+        CountDownLatch done = new CountDownLatch(tasks);
+        this.executor.execute(() -> this.spawn(0, done));
+        done.await();
+    }
+
+    private void spawn(int level, CountDownLatch done) {
+        if (level < DEPTH) {
+            for (int i = 0; i < FAN_OUT; i++) {
+                this.executor.execute(() -> this.spawn(level + 1, done));
+            }
+        }
+        done.countDown();
+    }
+}
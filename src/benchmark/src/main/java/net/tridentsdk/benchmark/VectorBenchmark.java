@@ -0,0 +1,86 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.benchmark;
+
+import net.tridentsdk.base.Position;
+import net.tridentsdk.util.Vector;
+import net.tridentsdk.world.World;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vector and position math which runs for every moving entity on every tick
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorBenchmark {
+    private Vector a;
+    private Vector b;
+    private Position from;
+    private Position to;
+
+    @Setup
+    public void setup() {
+        this.a = new Vector(1.5D, -2D, 3.25D);
+        this.b = new Vector(-0.5D, 4D, 0.75D);
+
+        World world = Stubs.of(World.class);
+        this.from = Position.create(world, 100D, 64D, -20D, 90F, 10F);
+        this.to = Position.create(world, 130D, 70D, 5D);
+    }
+
+    @Benchmark
+    public Vector addMultiply() {
+        return this.a.clone().add(this.b).multiply(0.98D);
+    }
+
+    @Benchmark
+    public Vector normalize() {
+        return this.a.clone().normalize();
+    }
+
+    @Benchmark
+    public Vector crossProduct() {
+        return this.a.clone().crossProduct(this.b);
+    }
+
+    @Benchmark
+    public double dotProduct() {
+        return this.a.dotProduct(this.b);
+    }
+
+    @Benchmark
+    public double distance() {
+        return this.from.distance(this.to);
+    }
+
+    @Benchmark
+    public Position relative() {
+        return this.from.relative(this.a);
+    }
+
+    @Benchmark
+    public Vector toDirection() {
+        return this.from.toDirection();
+    }
+}
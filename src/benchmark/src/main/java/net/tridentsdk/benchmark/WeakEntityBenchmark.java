@@ -0,0 +1,74 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.benchmark;
+
+import net.tridentsdk.entity.Entity;
+import net.tridentsdk.util.WeakEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates and reads {@link WeakEntity} references from several threads at once, all of which go through the shared
+ * reference queue
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class WeakEntityBenchmark {
+    private Entity[] entities;
+    private WeakEntity<Entity>[] references;
+
+    @Setup
+    public void setup() {
+        this.entities = new Entity[256];
+        this.references = new WeakEntity[this.entities.length];
+        for (int i = 0; i < this.entities.length; i++) {
+            this.entities[i] = Stubs.of(Entity.class);
+            this.references[i] = WeakEntity.of(this.entities[i]);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int index;
+
+        int next(int length) {
+            return this.index = (this.index + 1) & (length - 1);
+        }
+    }
+
+    @Benchmark
+    public WeakEntity<Entity> of(Cursor cursor) {
+        return WeakEntity.of(this.entities[cursor.next(this.entities.length)]);
+    }
+
+    @Benchmark
+    public boolean isNull(Cursor cursor) {
+        return this.references[cursor.next(this.references.length)].isNull();
+    }
+
+    @Benchmark
+    public Object searchFor(Cursor cursor) {
+        return WeakEntity.searchFor(this.entities[cursor.next(this.entities.length)]);
+    }
+}
@@ -35,6 +35,8 @@ import javax.annotation.concurrent.ThreadSafe;
  *
  * <p>This class can be accessed using {@link Registered#tasks()}</p>
  *
+ * <p>{@link TimingWheelScheduler} is an implementation which servers may use.</p>
+ *
  * @author The TridentSDK Team
  * @since 0.3-alpha-DP
  */
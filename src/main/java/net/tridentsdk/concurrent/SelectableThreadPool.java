@@ -34,6 +34,8 @@ import java.util.concurrent.Future;
  *   <li>Scaled: Creates a new thread if all workers are occupied and the count is below maxThreads. Otherwise returns nextThread.</li>
  * </ul></p>
  *
+ * <p>{@link WorkStealingThreadPool} is an implementation which servers may use.</p>
+ *
  * @author The TridentSDK Team
  * @since 0.3-alpha-DP
  */
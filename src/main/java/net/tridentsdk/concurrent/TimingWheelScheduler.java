@@ -0,0 +1,347 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tridentsdk.concurrent;
+
+import com.google.common.collect.ForwardingCollection;
+import net.tridentsdk.plugin.Plugin;
+import net.tridentsdk.util.TridentLogger;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A scheduler which keeps its tasks in a hashed hierarchical timing wheel, keyed by the tick they are due
+ *
+ * <p>The wheel has a level for each 6 bits of the tick number, with 64 slots on each level. A task is placed on the
+ * lowest level on which its due tick and the current tick differ in no higher bits, and moves down a level each time
+ * the current tick reaches its slot, until it is due. Scheduling and cancelling a task therefore take constant time,
+ * however many tasks are scheduled, and the tasks due on a tick are expired together as the list of one slot.</p>
+ *
+ * <p>The wheel is only modified by the thread which calls {@link #tick()}, which is the server's main thread. Tasks
+ * scheduled and cancelled from other threads are queued, and applied at the start of the next tick. Synchronous tasks
+ * which are due are run during {@link #tick()}, and asynchronous tasks are passed to the executor of the
+ * scheduler.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@ThreadSafe
+public class TimingWheelScheduler extends ForwardingCollection<ScheduledTask> implements Scheduler {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = (Long.SIZE + SLOT_BITS - 1) / SLOT_BITS;
+
+    // Tasks are linked into the slots of each level, and only touched by the ticking thread
+    private final WheelTask[][] wheel = new WheelTask[LEVELS][SLOTS];
+    private final Queue<WheelTask> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTask> cancelled = new ConcurrentLinkedQueue<>();
+    private final Set<ScheduledTask> tasks = ConcurrentHashMap.newKeySet();
+    private final Collection<ScheduledTask> view = Collections.unmodifiableSet(this.tasks);
+    private final Executor executor;
+    private volatile long tick;
+
+    /**
+     * Creates a new scheduler which runs asynchronous tasks on the common fork join pool
+     */
+    public TimingWheelScheduler() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new scheduler which runs asynchronous tasks on the given executor
+     *
+     * @param executor the executor of asynchronous tasks
+     */
+    public TimingWheelScheduler(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    protected Collection<ScheduledTask> delegate() {
+        return this.view;
+    }
+
+    /**
+     * Obtains the number of ticks which have been run
+     *
+     * @return the current tick
+     */
+    public long currentTick() {
+        return this.tick;
+    }
+
+    /**
+     * Advances the wheel by one tick, running the synchronous tasks which are due and passing the asynchronous ones
+     * to the executor
+     *
+     * <p>This must be called once per tick by the server's main thread, and by no other thread.</p>
+     */
+    public void tick() {
+        long now = this.tick + 1;
+        this.tick = now;
+
+        WheelTask task;
+        while ((task = this.cancelled.poll()) != null) {
+            this.unlink(task);
+        }
+
+        while ((task = this.scheduled.poll()) != null) {
+            if (task.state.get() == WheelTask.PENDING) {
+                task.deadline = now - 1 + Math.max(1, task.delay);
+                this.link(task, now);
+            }
+        }
+
+        // Higher levels move down first, since their tasks may become due on lower levels this tick
+        for (int level = LEVELS - 1; level > 0; level--) {
+            int shift = level * SLOT_BITS;
+            if ((now & ((1L << shift) - 1)) == 0) {
+                WheelTask head = this.detach(level, (int) (now >>> shift) & SLOT_MASK);
+                while (head != null) {
+                    WheelTask next = head.next;
+                    this.link(head, now);
+                    head = next;
+                }
+            }
+        }
+
+        WheelTask head = this.detach(0, (int) now & SLOT_MASK);
+        while (head != null) {
+            WheelTask next = head.next;
+            this.expire(head, now);
+            head = next;
+        }
+    }
+
+    private void link(WheelTask task, long now) {
+        long diff = task.deadline ^ now;
+        int level = diff == 0 ? 0 : (Long.SIZE - 1 - Long.numberOfLeadingZeros(diff)) / SLOT_BITS;
+        int slot = (int) (task.deadline >>> (level * SLOT_BITS)) & SLOT_MASK;
+
+        WheelTask head = this.wheel[level][slot];
+        task.level = level;
+        task.slot = slot;
+        task.prev = null;
+        task.next = head;
+        if (head != null) {
+            head.prev = task;
+        }
+        this.wheel[level][slot] = task;
+    }
+
+    private void unlink(WheelTask task) {
+        if (task.level < 0) {
+            return;
+        }
+
+        if (task.prev == null) {
+            this.wheel[task.level][task.slot] = task.next;
+        } else {
+            task.prev.next = task.next;
+        }
+
+        if (task.next != null) {
+            task.next.prev = task.prev;
+        }
+
+        task.level = -1;
+        task.prev = null;
+        task.next = null;
+    }
+
+    private WheelTask detach(int level, int slot) {
+        WheelTask head = this.wheel[level][slot];
+        this.wheel[level][slot] = null;
+        for (WheelTask task = head; task != null; task = task.next) {
+            task.level = -1;
+        }
+        return head;
+    }
+
+    private void expire(WheelTask task, long now) {
+        task.prev = null;
+        task.next = null;
+        if (task.state.get() != WheelTask.PENDING) {
+            return;
+        }
+
+        boolean repeat = task.type == TaskType.SYNC_REPEAT || task.type == TaskType.ASYNC_REPEAT;
+        if (repeat) {
+            task.deadline = now + Math.max(1, task.interval);
+            this.link(task, now);
+        } else if (task.state.compareAndSet(WheelTask.PENDING, WheelTask.DONE)) {
+            this.tasks.remove(task);
+        } else {
+            return;
+        }
+
+        try {
+            task.runnable.beforeRun();
+        } catch (Throwable t) {
+            this.failed(task, t);
+            return;
+        }
+
+        switch (task.type) {
+            case SYNC_RUN:
+            case SYNC_LATER:
+            case SYNC_REPEAT:
+                task.run();
+                break;
+            default:
+                this.executor.execute(task);
+                break;
+        }
+    }
+
+    /**
+     * Reports a task which threw an exception
+     *
+     * <p>The exception is logged by default</p>
+     *
+     * @param task the task which failed
+     * @param t    the exception thrown by the task
+     */
+    protected void failed(ScheduledTask task, Throwable t) {
+        TridentLogger.get().error(t);
+    }
+
+    private ScheduledTask schedule(Plugin plugin, ScheduledRunnable runnable, TaskType type, long delay,
+                                   long interval) {
+        WheelTask task = new WheelTask(plugin, runnable, type, delay, interval);
+        runnable.markSchedule(task);
+        this.tasks.add(task);
+        this.scheduled.add(task);
+        return task;
+    }
+
+    @Override
+    public ScheduledTask asyncRun(Plugin plugin, ScheduledRunnable runnable) {
+        return this.schedule(plugin, runnable, TaskType.ASYNC_RUN, 1, 0);
+    }
+
+    @Override
+    public ScheduledTask syncRun(Plugin plugin, ScheduledRunnable runnable) {
+        return this.schedule(plugin, runnable, TaskType.SYNC_RUN, 1, 0);
+    }
+
+    @Override
+    public ScheduledTask asyncLater(Plugin plugin, ScheduledRunnable runnable, long delay) {
+        return this.schedule(plugin, runnable, TaskType.ASYNC_LATER, delay, delay);
+    }
+
+    @Override
+    public ScheduledTask syncLater(Plugin plugin, ScheduledRunnable runnable, long delay) {
+        return this.schedule(plugin, runnable, TaskType.SYNC_LATER, delay, delay);
+    }
+
+    @Override
+    public ScheduledTask asyncRepeat(Plugin plugin, ScheduledRunnable runnable, long delay, long initialInterval) {
+        return this.schedule(plugin, runnable, TaskType.ASYNC_REPEAT, delay, initialInterval);
+    }
+
+    @Override
+    public ScheduledTask syncRepeat(Plugin plugin, ScheduledRunnable runnable, long delay, long initialInterval) {
+        return this.schedule(plugin, runnable, TaskType.SYNC_REPEAT, delay, initialInterval);
+    }
+
+    private final class WheelTask implements ScheduledTask {
+        static final int PENDING = 0;
+        static final int DONE = 1;
+        static final int CANCELLED = 2;
+
+        final Plugin plugin;
+        final ScheduledRunnable runnable;
+        final TaskType type;
+        final AtomicInteger state = new AtomicInteger(PENDING);
+        final long delay;
+        volatile long interval;
+
+        // Written and read by the ticking thread only
+        long deadline;
+        int level = -1;
+        int slot;
+        WheelTask prev;
+        WheelTask next;
+
+        WheelTask(Plugin plugin, ScheduledRunnable runnable, TaskType type, long delay, long interval) {
+            this.plugin = plugin;
+            this.runnable = runnable;
+            this.type = type;
+            this.delay = delay;
+            this.interval = interval;
+        }
+
+        @Override
+        public long interval() {
+            return this.interval;
+        }
+
+        @Override
+        public void setInterval(long interval) {
+            this.interval = interval;
+        }
+
+        @Override
+        public TaskType type() {
+            return this.type;
+        }
+
+        @Override
+        public ScheduledRunnable runnable() {
+            return this.runnable;
+        }
+
+        @Override
+        public Plugin owner() {
+            return this.plugin;
+        }
+
+        @Override
+        public void cancel() {
+            if (this.state.compareAndSet(PENDING, CANCELLED)) {
+                TimingWheelScheduler.this.tasks.remove(this);
+                TimingWheelScheduler.this.cancelled.add(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            boolean sync = this.type == TaskType.SYNC_RUN || this.type == TaskType.SYNC_LATER ||
+                    this.type == TaskType.SYNC_REPEAT;
+            try {
+                this.runnable.run();
+                if (sync) {
+                    this.runnable.afterSyncRun();
+                } else {
+                    this.runnable.afterAsyncRun();
+                }
+            } catch (Throwable t) {
+                TimingWheelScheduler.this.failed(this, t);
+            }
+        }
+    }
+}
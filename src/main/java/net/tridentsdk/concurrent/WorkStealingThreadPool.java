@@ -0,0 +1,538 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tridentsdk.concurrent;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import net.tridentsdk.util.TridentLogger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A thread pool in which idle workers steal queued tasks from busy ones
+ *
+ * <p>Each worker has two lock-free queues. Tasks given to the worker itself through
+ * {@link SelectableThread#execute(Runnable)} go to its own queue, and only ever run on that worker, so a selected
+ * thread can be used for thread confinement. Tasks given to the pool by a worker are pushed onto the front of its
+ * deque, keeping related tasks on the same thread while it keeps up, and other workers steal them from the back.
+ * Tasks given from outside the pool go to a lock-free queue shared by the workers, which take them in order once
+ * their own queues are empty, so that they are not handed from one worker to another.</p>
+ *
+ * <p>Idle workers park, and are unparked by the thread which gives them work, instead of blocking on a queue. Only
+ * one worker is woken at a time to look for tasks given to the pool, which it takes from the shared queue or steals
+ * from the busy workers. A worker giving a task only wakes another one if its deque was empty, as the workers which
+ * take tasks while more are waiting wake the next one themselves.</p>
+ *
+ * <p>The core workers are started with the pool and live until it is shut down. Expiring workers are added, up to
+ * {@link #maxThreads()} workers in total, when a scaled thread is selected while every worker is occupied. Tasks given
+ * to the pool do not add workers, as they can already be stolen by any idle worker. Expiring workers die once idle for
+ * {@link #threadExpiryTime()}, but never while tasks given to the worker itself are waiting, nor once selected by
+ * {@link #selectScaled()} until a task is given to it. A dying worker runs the tasks given to it before it dies, and
+ * afterwards rejects new ones with a {@link RejectedExecutionException}, as they cannot run anywhere else. Tasks given
+ * to the pool which are left on a dying worker are run by the rest of the pool, or by the dying worker if the pool
+ * has been shut down.</p>
+ *
+ * <p>Workers are daemon threads.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@ThreadSafe
+public class WorkStealingThreadPool implements SelectableThreadPool {
+    private static final Worker[] NONE = new Worker[0];
+
+    private final String name;
+    private final List<Worker> core;
+    // Replaced on each change, so that workers can be picked and scanned without allocating
+    private volatile Worker[] workers = NONE;
+    // Tasks given from outside the pool, which any worker takes in order
+    private final Queue<Runnable> submitted = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idle = new AtomicInteger();
+    private final AtomicInteger waking = new AtomicInteger();
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger created = new AtomicInteger();
+
+    private volatile int maxThreads = 50;
+    private volatile long threadExpiryTime = 60000;
+    private volatile boolean mustEmptyBeforeExpire = true;
+    private volatile boolean shutdown;
+
+    /**
+     * Creates a new pool and starts its core workers
+     *
+     * @param name        the name of the pool, which prefixes the names of its threads
+     * @param coreThreads the number of workers which never expire
+     */
+    public WorkStealingThreadPool(String name, int coreThreads) {
+        Preconditions.checkArgument(coreThreads > 0, "A pool needs at least one core thread");
+        this.name = name;
+
+        ImmutableList.Builder<Worker> core = ImmutableList.builder();
+        for (int i = 0; i < coreThreads; i++) {
+            core.add(this.start(false));
+        }
+        this.core = core.build();
+    }
+
+    private synchronized Worker start(boolean expiring) {
+        Worker worker = new Worker(this.name + " - Worker " + this.created.incrementAndGet(), expiring);
+        Worker[] workers = Arrays.copyOf(this.workers, this.workers.length + 1);
+        workers[workers.length - 1] = worker;
+        this.workers = workers;
+        worker.thread.start();
+        return worker;
+    }
+
+    private synchronized void remove(Worker worker) {
+        Worker[] workers = this.workers;
+        for (int i = 0; i < workers.length; i++) {
+            if (workers[i] == worker) {
+                Worker[] removed = new Worker[workers.length - 1];
+                System.arraycopy(workers, 0, removed, 0, i);
+                System.arraycopy(workers, i + 1, removed, i, removed.length - i);
+                this.workers = removed;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public int maxThreads() {
+        return this.maxThreads;
+    }
+
+    @Override
+    public void setMaxThreads(int maxScale) {
+        this.maxThreads = maxScale;
+    }
+
+    @Override
+    public long threadExpiryTime() {
+        return this.threadExpiryTime;
+    }
+
+    @Override
+    public void setThreadExpiryTime(long expireIntervalMillis) {
+        this.threadExpiryTime = expireIntervalMillis;
+    }
+
+    @Override
+    public boolean mustEmptyBeforeExpire() {
+        return this.mustEmptyBeforeExpire;
+    }
+
+    @Override
+    public void setMustEmptyBeforeExpire(boolean mustEmptyBeforeExpire) {
+        this.mustEmptyBeforeExpire = mustEmptyBeforeExpire;
+    }
+
+    @Override
+    public SelectableThread selectCore() {
+        return this.core.get(Math.floorMod(this.next.getAndIncrement(), this.core.size()));
+    }
+
+    @Override
+    public SelectableThread selectNext() {
+        Worker[] workers = this.workers;
+        if (workers.length == 0) {
+            return this.selectCore();
+        }
+
+        return workers[Math.floorMod(this.next.getAndIncrement(), workers.length)];
+    }
+
+    @Override
+    public SelectableThread selectScaled() {
+        while (true) {
+            for (Worker worker : this.workers) {
+                if (!worker.occupied() && worker.reserve()) {
+                    return worker;
+                }
+            }
+
+            synchronized (this) {
+                if (!this.shutdown && this.workers.length < this.maxThreads) {
+                    return this.start(true);
+                }
+            }
+
+            // Reserved as well, unless it is dying, in which case another worker is picked
+            Worker worker = (Worker) this.selectNext();
+            if (worker.reserve()) {
+                return worker;
+            }
+        }
+    }
+
+    @Override
+    public List<SelectableThread> workers() {
+        return ImmutableList.copyOf(this.workers);
+    }
+
+    @Override
+    public void execute(@Nonnull Runnable command) {
+        Thread current = Thread.currentThread();
+        while (true) {
+            if (this.shutdown) {
+                throw new RejectedExecutionException(this.name + " has been shut down");
+            }
+
+            Worker self = current instanceof WorkerThread ? ((WorkerThread) current).worker() : null;
+            if (self == null || self.pool() != this || self.state != Worker.RUNNING) {
+                if (this.workers.length == 0) {
+                    throw new RejectedExecutionException(this.name + " has no workers left");
+                }
+
+                this.submitted.offer(command);
+                this.signal();
+                return;
+            }
+
+            boolean empty = self.deque.peekFirst() == null;
+            self.deque.offerFirst(command);
+            if (self.state == Worker.RUNNING) {
+                if (empty) {
+                    this.signal();
+                }
+                return;
+            }
+
+            // Raced with the worker being interrupted, the task is given to the rest of the pool unless it was taken
+            if (!self.deque.removeFirstOccurrence(command)) {
+                return;
+            }
+        }
+    }
+
+    // Wakes a parked worker, if there is one and none is waking already, to look for tasks. A worker which is already
+    // waking up will find the task, or wake another worker when it does
+    private void signal() {
+        if (this.waking.get() == 0 && this.idle.get() > 0) {
+            for (Worker worker : this.workers) {
+                if (worker.wake()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Nonnull
+    @Override
+    public <V> Future<V> submit(Callable<V> callable) {
+        FutureTask<V> task = new FutureTask<>(callable);
+        this.execute(task);
+        return task;
+    }
+
+    @Override
+    public void shutdown() {
+        this.shutdown = true;
+        for (Worker worker : this.workers) {
+            worker.interrupt();
+        }
+        this.submitted.clear();
+    }
+
+    /**
+     * Reports a task which threw an exception
+     *
+     * <p>The exception is logged by default</p>
+     *
+     * @param t the exception thrown by the task
+     */
+    protected void failed(Throwable t) {
+        TridentLogger.get().error(t);
+    }
+
+    private Runnable steal(Worker thief) {
+        Worker[] workers = this.workers;
+        if (workers.length == 0) {
+            return null;
+        }
+
+        int start = ThreadLocalRandom.current().nextInt(workers.length);
+        for (int i = 0; i < workers.length; i++) {
+            Worker victim = workers[(start + i) % workers.length];
+            if (victim != thief) {
+                Runnable task = victim.deque.pollLast();
+                if (task != null) {
+                    return task;
+                }
+            }
+        }
+        return null;
+    }
+
+    private final class WorkerThread extends Thread {
+        private final Worker worker;
+
+        WorkerThread(Worker worker, String name) {
+            super(name);
+            this.worker = worker;
+        }
+
+        Worker worker() {
+            return this.worker;
+        }
+
+        @Override
+        public void run() {
+            this.worker.loop();
+        }
+    }
+
+    private final class Worker implements SelectableThread {
+        static final int RUNNING = 0;
+        static final int EXPIRED = 1;
+        static final int INTERRUPTED = 2;
+
+        final Queue<Runnable> own = new ConcurrentLinkedQueue<>();
+        final ConcurrentLinkedDeque<Runnable> deque = new ConcurrentLinkedDeque<>();
+        final AtomicBoolean parked = new AtomicBoolean();
+        final WorkerThread thread;
+        final boolean expiring;
+        // Only read to pick a scaled thread, so it is set without a fence
+        final AtomicBoolean busy = new AtomicBoolean();
+        volatile int state = RUNNING;
+        // Selected for a task which may not have been given yet, cleared once a task is given to the worker
+        volatile boolean reserved;
+        // Whether the last task polled was stolen, read by this worker only
+        boolean stole;
+
+        Worker(String name, boolean expiring) {
+            this.thread = new WorkerThread(this, name);
+            this.thread.setDaemon(true);
+            this.expiring = expiring;
+            // Expiring workers are only started by selectScaled
+            this.reserved = expiring;
+        }
+
+        WorkStealingThreadPool pool() {
+            return WorkStealingThreadPool.this;
+        }
+
+        boolean occupied() {
+            return this.busy.get() || this.own.peek() != null || this.deque.peekFirst() != null;
+        }
+
+        /**
+         * Keeps an expiring worker from expiring before the next task is given to it
+         *
+         * @return {@code false} if the worker is no longer running
+         */
+        boolean reserve() {
+            if (!this.expiring) {
+                return true;
+            }
+
+            synchronized (this) {
+                if (this.state != RUNNING) {
+                    return false;
+                }
+                this.reserved = true;
+                return true;
+            }
+        }
+
+        /**
+         * Unparks the worker if it is parked, only once for each time it parks
+         *
+         * @return {@code true} if the worker was parked
+         */
+        boolean wake() {
+            if (this.parked.get() && this.parked.compareAndSet(true, false)) {
+                WorkStealingThreadPool.this.waking.incrementAndGet();
+                LockSupport.unpark(this.thread);
+                return true;
+            }
+            return false;
+        }
+
+        // Clears the parked flag, and reports whether the worker was woken rather than cleared it itself
+        private boolean awake() {
+            WorkStealingThreadPool.this.idle.decrementAndGet();
+            if (this.parked.getAndSet(false)) {
+                return false;
+            }
+
+            WorkStealingThreadPool.this.waking.decrementAndGet();
+            return true;
+        }
+
+        Runnable poll() {
+            this.stole = false;
+            Runnable task = this.own.poll();
+            if (task == null) {
+                task = this.deque.pollFirst();
+                if (task == null) {
+                    task = WorkStealingThreadPool.this.submitted.poll();
+                }
+                if (task == null) {
+                    task = WorkStealingThreadPool.this.steal(this);
+                    this.stole = task != null;
+                }
+            }
+            return task;
+        }
+
+        void loop() {
+            long idleSince = System.nanoTime();
+            while (this.state == RUNNING) {
+                Runnable task = this.poll();
+                if (task == null) {
+                    // Published before checking again, so that a thread adding a task either sees this worker
+                    // parked and unparks it, or the task is seen here
+                    WorkStealingThreadPool.this.idle.incrementAndGet();
+                    this.parked.set(true);
+                    task = this.poll();
+                    if (task == null && this.state == RUNNING) {
+                        if (this.expiring && !this.reserved) {
+                            long expiry = TimeUnit.MILLISECONDS.toNanos(WorkStealingThreadPool.this.threadExpiryTime);
+                            LockSupport.parkNanos(this, expiry - (System.nanoTime() - idleSince));
+                        } else {
+                            LockSupport.park(this);
+                        }
+                    }
+
+                    if (this.awake() && task == null) {
+                        task = this.poll();
+                    }
+                }
+
+                if (task != null) {
+                    // More tasks may be waiting, which another worker can take while this one runs
+                    if (this.stole || this.deque.peekFirst() != null ||
+                            WorkStealingThreadPool.this.submitted.peek() != null) {
+                        WorkStealingThreadPool.this.signal();
+                    }
+                    this.run(task);
+                    if (this.expiring) {
+                        idleSince = System.nanoTime();
+                    }
+                } else if (this.expiring && this.expired(idleSince)) {
+                    this.expire();
+                }
+            }
+        }
+
+        private boolean expired(long idleSince) {
+            long expiry = TimeUnit.MILLISECONDS.toNanos(WorkStealingThreadPool.this.threadExpiryTime);
+            if (System.nanoTime() - idleSince < expiry) {
+                return false;
+            }
+            // Tasks given to this worker cannot run anywhere else
+            return this.own.peek() == null &&
+                    (!WorkStealingThreadPool.this.mustEmptyBeforeExpire || this.deque.peekFirst() == null);
+        }
+
+        private void expire() {
+            synchronized (this) {
+                if (this.reserved) {
+                    return;
+                }
+                this.state = EXPIRED;
+            }
+            WorkStealingThreadPool.this.remove(this);
+
+            // Tasks given to this worker before it expired, execute rejects the ones given afterwards
+            Runnable task;
+            while ((task = this.own.poll()) != null) {
+                this.run(task);
+            }
+            this.handOff();
+        }
+
+        // Gives the pool's tasks left on this worker to the rest of the pool, or runs them if the pool rejects them
+        private void handOff() {
+            Runnable task;
+            while ((task = this.deque.pollFirst()) != null) {
+                try {
+                    WorkStealingThreadPool.this.execute(task);
+                } catch (RejectedExecutionException e) {
+                    this.run(task);
+                }
+            }
+        }
+
+        private void run(Runnable task) {
+            this.busy.lazySet(true);
+            try {
+                task.run();
+            } catch (Throwable t) {
+                WorkStealingThreadPool.this.failed(t);
+            } finally {
+                this.busy.lazySet(false);
+                // Otherwise an interrupt left by the task would stop the worker from parking
+                Thread.interrupted();
+            }
+        }
+
+        /**
+         * Queues a task to run on this worker only
+         *
+         * @param task the task to run
+         * @throws RejectedExecutionException if the worker has expired or been interrupted
+         */
+        @Override
+        public void execute(Runnable task) {
+            this.own.add(task);
+            if (this.state == RUNNING) {
+                // The queued task keeps the worker from expiring instead
+                if (this.reserved) {
+                    this.reserved = false;
+                }
+                this.wake();
+                return;
+            }
+
+            // Otherwise the dying worker took the task, and runs it before it dies
+            if (this.own.remove(task)) {
+                throw new RejectedExecutionException(this.thread.getName() + " is no longer running");
+            }
+        }
+
+        @Override
+        public <V> Future<V> submitTask(Callable<V> task) {
+            FutureTask<V> future = new FutureTask<>(task);
+            this.execute(future);
+            return future;
+        }
+
+        @Override
+        public void interrupt() {
+            this.state = INTERRUPTED;
+            WorkStealingThreadPool.this.remove(this);
+            this.own.clear();
+            this.deque.clear();
+            this.thread.interrupt();
+            LockSupport.unpark(this.thread);
+        }
+
+        @Override
+        public Thread asThread() {
+            return this.thread;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.event;
+
+/**
+ * An event which can be merged with later events of the same key, such as consecutive movements of an entity
+ *
+ * <p>Listeners which set {@link ListenerOpts#coalesce()} are notified of one merged event per key each time the
+ * server flushes coalesced events with {@link Events#flushCoalesced()}, instead of every event fired.</p>
+ *
+ * @param <E> the type of the event
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+public interface Coalescable<E extends Event> {
+    /**
+     * Obtains the key of events which may be merged together, such as the entity which moved
+     *
+     * @return the key
+     */
+    Object coalesceKey();
+
+    /**
+     * Merges this event with an event of the same key which was fired after it
+     *
+     * <p>This event and the later event must not be modified, as listeners which do not coalesce have already been
+     * notified of them. The merged event is kept until the next flush, so it must not be an event which is recycled
+     * by an {@link EventPool}.</p>
+     *
+     * @param later the later event
+     * @return the event covering both events
+     */
+    E coalesce(E later);
+
+    /**
+     * Obtains an event with the state of this event which may be kept until the next flush
+     *
+     * <p>Events which are recycled by an {@link EventPool} must return a copy, as they are reused once released.</p>
+     *
+     * @return this event, or a copy of it
+     */
+    @SuppressWarnings("unchecked")
+    default E detach() {
+        return (E) this;
+    }
+}
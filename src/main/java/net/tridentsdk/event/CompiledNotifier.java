@@ -0,0 +1,112 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.event;
+
+import net.tridentsdk.plugin.Plugin;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.function.Predicate;
+
+/**
+ * A notifier which calls its listener method through an invoker bound when the listener was registered
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@ThreadSafe
+final class CompiledNotifier implements EventNotifier {
+    private final Plugin plugin;
+    private final Listener listener;
+    private final Class<? extends Event> eventType;
+    private final Importance importance;
+    private final boolean parallel;
+    private final long timeout;
+    private final boolean coalesce;
+    private final Predicate<Event> filter;
+    private final ListenerInvoker invoker;
+    private final ListenerStats stats = new ListenerStats();
+
+    CompiledNotifier(Plugin plugin, Listener listener, Class<? extends Event> eventType, ListenerOpts opts,
+                     @Nullable Predicate<Event> filter, ListenerInvoker invoker) {
+        this.plugin = plugin;
+        this.listener = listener;
+        this.eventType = eventType;
+        this.importance = opts == null ? Importance.MEDIUM : opts.importance();
+        this.parallel = opts != null && opts.parallel();
+        this.timeout = opts == null ? 0 : opts.timeout();
+        this.coalesce = opts != null && opts.coalesce();
+        this.filter = filter;
+        this.invoker = invoker;
+    }
+
+    @Override
+    public Plugin plugin() {
+        return this.plugin;
+    }
+
+    @Override
+    public Listener listener() {
+        return this.listener;
+    }
+
+    @Override
+    public Class<? extends Event> eventType() {
+        return this.eventType;
+    }
+
+    @Override
+    public Importance importance() {
+        return this.importance;
+    }
+
+    @Override
+    public boolean parallel() {
+        return this.parallel;
+    }
+
+    @Override
+    public long timeout() {
+        return this.timeout;
+    }
+
+    @Override
+    public boolean coalesce() {
+        return this.coalesce;
+    }
+
+    /**
+     * Checks the event against the {@link ListenerFilter} of the listener method
+     *
+     * @param event the event to check
+     * @return {@code true} if the listener should be notified of the event
+     */
+    boolean accepts(Event event) {
+        Predicate<Event> filter = this.filter;
+        return filter == null || filter.test(event);
+    }
+
+    ListenerStats stats() {
+        return this.stats;
+    }
+
+    @Override
+    public void handle(Event event) {
+        this.invoker.invoke(this.listener, event);
+    }
+}
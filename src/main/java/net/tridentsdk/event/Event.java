@@ -24,4 +24,21 @@ package net.tridentsdk.event;
  * @since 0.3-alpha-DP
  */
 public abstract class Event {
+    // null unless recycled by an EventPool, see EventPool#LEASED and EventPool#RELEASED
+    volatile Object poolState;
+
+    /**
+     * Checks that this event has not been released to the {@link EventPool} it was acquired from
+     *
+     * <p>Events which are {@link Poolable} call this when their state is accessed, so that listeners which keep a
+     * reference to the event after it was fired are caught.</p>
+     *
+     * @throws IllegalStateException if the event was released
+     */
+    protected final void checkLeased() {
+        Object state = this.poolState;
+        if (state != null && state != EventPool.LEASED) {
+            throw EventPool.retained(this, state);
+        }
+    }
 }
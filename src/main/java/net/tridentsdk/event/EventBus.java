@@ -0,0 +1,381 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.event;
+
+import com.google.common.collect.ForwardingCollection;
+import com.google.common.collect.ImmutableList;
+import net.tridentsdk.plugin.Plugin;
+import net.tridentsdk.plugin.annotation.IgnoreRegistration;
+import net.tridentsdk.util.TridentLogger;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
+
+/**
+ * An implementation of {@link Events} which compiles listener methods into dispatchers
+ *
+ * <p>Each listener method is bound to a {@link ListenerInvoker} when its listener is registered. Each event class has
+ * an array of the notifiers for it, including those listening for its superclasses, sorted by {@link Importance}. The
+ * array is looked up with a single {@link ClassValue} and is rebuilt only when a listener has been registered or
+ * unregistered since the last event, so firing an event walks the array without allocating.</p>
+ *
+ * <p>Listener methods are the methods of the listener class and its superclasses which take a single event
+ * parameter and are not static or annotated with {@link IgnoreRegistration}. Their importance is read from
+ * {@link ListenerOpts}. A {@link ListenerFilter} on the method is checked before each call, and events which fail it
+ * never reach the method.</p>
+ *
+ * <p>Events which are {@link Coalescable} are also merged for listeners which {@link ListenerOpts#coalesce()} them,
+ * which are notified when {@link #flushCoalesced()} is called.</p>
+ *
+ * <p>While {@link #setInstrumented(boolean) instrumented}, each call of a listener is timed, along with the bytes its
+ * thread allocated if the JVM tracks them. Otherwise, firing an event only reads one more volatile field.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@ThreadSafe
+public class EventBus extends ForwardingCollection<EventNotifier> implements Events {
+    private final ClassValue<EventDispatcher> dispatchers = new ClassValue<EventDispatcher>() {
+        @Override
+        protected EventDispatcher computeValue(Class<?> type) {
+            return new EventDispatcher(EventBus.this, type);
+        }
+    };
+
+    // Replaced on every change, then the generation is incremented so that dispatchers rebuild
+    private volatile ImmutableList<CompiledNotifier> notifiers = ImmutableList.of();
+    private volatile int generation;
+    private volatile boolean instrumented;
+
+    private final Executor executor;
+    // Dispatchers with events waiting to be flushed to coalescing listeners
+    private final Queue<EventDispatcher> pending = new ConcurrentLinkedQueue<>();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Collection<EventNotifier> delegate() {
+        // Safe as the list cannot be added to
+        return (Collection<EventNotifier>) (Collection<? extends EventNotifier>) this.notifiers;
+    }
+
+    ImmutableList<CompiledNotifier> compiled() {
+        return this.notifiers;
+    }
+
+    int generation() {
+        return this.generation;
+    }
+
+    /**
+     * Creates an event bus which fires asynchronous events on the common fork join pool
+     */
+    public EventBus() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an event bus which fires asynchronous events on the given executor
+     *
+     * @param executor the executor to run listeners of asynchronous events on
+     */
+    public EventBus(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void fire(Event event) {
+        EventDispatcher dispatcher = this.dispatchers.get(event.getClass());
+        CompiledNotifier[] notifiers = dispatcher.notifiers();
+        if (this.instrumented) {
+            for (int i = 0; i < notifiers.length; i++) {
+                CompiledNotifier notifier = notifiers[i];
+                if (notifier.accepts(event)) {
+                    this.handleTimed(notifier, event);
+                }
+            }
+        } else {
+            for (int i = 0; i < notifiers.length; i++) {
+                CompiledNotifier notifier = notifiers[i];
+                if (!notifier.accepts(event)) {
+                    continue;
+                }
+
+                try {
+                    notifier.handle(event);
+                } catch (Throwable t) {
+                    this.failed(notifier, event, t);
+                }
+            }
+        }
+
+        if (dispatcher.coalesced().length > 0) {
+            this.pend(dispatcher, event);
+        }
+    }
+
+    private void pend(EventDispatcher dispatcher, Event event) {
+        if (event instanceof Cancellable && ((Cancellable) event).isIgnored()) {
+            return;
+        }
+
+        if (dispatcher.pend(event)) {
+            this.pending.add(dispatcher);
+        }
+    }
+
+    @Override
+    public void flushCoalesced() {
+        EventDispatcher dispatcher;
+        while ((dispatcher = this.pending.poll()) != null) {
+            dispatcher.flush();
+        }
+    }
+
+    void handle(CompiledNotifier notifier, Event event) {
+        if (!notifier.accepts(event)) {
+            return;
+        }
+
+        if (this.instrumented) {
+            this.handleTimed(notifier, event);
+            return;
+        }
+
+        try {
+            notifier.handle(event);
+        } catch (Throwable t) {
+            this.failed(notifier, event, t);
+        }
+    }
+
+    private void handleTimed(CompiledNotifier notifier, Event event) {
+        long allocated = ListenerStats.allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            notifier.handle(event);
+        } catch (Throwable t) {
+            this.failed(notifier, event, t);
+        } finally {
+            long nanos = System.nanoTime() - start;
+            notifier.stats().record(nanos, allocated < 0 ? -1 : ListenerStats.allocatedBytes() - allocated);
+        }
+    }
+
+    @Override
+    public <E extends Event> CompletableFuture<E> fireAsync(E event) {
+        EventDispatcher dispatcher = this.dispatchers.get(event.getClass());
+        CompiledNotifier[] notifiers = dispatcher.notifiers();
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+
+        // Each importance starts once the previous one has finished
+        for (int start = 0, end; start < notifiers.length; start = end) {
+            Importance importance = notifiers[start].importance();
+            end = start;
+            while (end < notifiers.length && notifiers[end].importance() == importance) {
+                end++;
+            }
+
+            int from = start;
+            int to = end;
+            chain = chain.thenCompose(ignored -> this.handleLevel(notifiers, from, to, event));
+        }
+
+        return chain.thenApply(ignored -> {
+            if (dispatcher.coalesced().length > 0) {
+                this.pend(dispatcher, event);
+            }
+            return event;
+        });
+    }
+
+    private CompletableFuture<Void> handleLevel(CompiledNotifier[] notifiers, int from, int to, Event event) {
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+        CompletableFuture<Void> sequential = CompletableFuture.completedFuture(null);
+        for (int i = from; i < to; i++) {
+            CompiledNotifier notifier = notifiers[i];
+            if (notifier.parallel()) {
+                running.add(this.handleAsync(notifier, event));
+            } else {
+                sequential = sequential.thenCompose(ignored -> this.handleAsync(notifier, event));
+            }
+        }
+
+        if (running.isEmpty()) {
+            return sequential;
+        }
+
+        running.add(sequential);
+        return CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[running.size()]));
+    }
+
+    private CompletableFuture<Void> handleAsync(CompiledNotifier notifier, Event event) {
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> this.handle(notifier, event), this.executor);
+        long timeout = notifier.timeout();
+        if (timeout <= 0) {
+            return future;
+        }
+
+        CompletableFuture<Void> bounded = new CompletableFuture<>();
+        ScheduledFuture<?> timer = Timeouts.SCHEDULER.schedule(() -> {
+            if (bounded.complete(null)) {
+                this.timedOut(notifier, event, timeout);
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+        future.whenComplete((ignored, t) -> {
+            timer.cancel(false);
+            bounded.complete(null);
+        });
+
+        return bounded;
+    }
+
+    /**
+     * Reports a listener which threw an exception
+     *
+     * <p>The exception is logged by default</p>
+     *
+     * @param notifier the notifier of the listener
+     * @param event the event which the listener was notified of
+     * @param t the exception thrown by the listener
+     */
+    protected void failed(EventNotifier notifier, Event event, Throwable t) {
+        TridentLogger.get().error(t);
+    }
+
+    /**
+     * Reports a listener which did not finish within its {@link ListenerOpts#timeout()} when notified of an event
+     * fired asynchronously
+     *
+     * <p>A warning is logged by default</p>
+     *
+     * @param notifier the notifier of the listener
+     * @param event the event which the listener was notified of
+     * @param timeout the timeout of the listener, in milliseconds
+     */
+    protected void timedOut(EventNotifier notifier, Event event, long timeout) {
+        TridentLogger.get().warn("Listener " + notifier.listener().getClass().getName() + " took longer than " +
+                timeout + "ms to handle " + event.getClass().getSimpleName());
+    }
+
+    @Override
+    public boolean hasListeners(Class<? extends Event> type) {
+        EventDispatcher dispatcher = this.dispatchers.get(type);
+        return dispatcher.notifiers().length > 0 || dispatcher.coalesced().length > 0;
+    }
+
+    @Override
+    public void setInstrumented(boolean instrumented) {
+        this.instrumented = instrumented;
+    }
+
+    @Override
+    public boolean isInstrumented() {
+        return this.instrumented;
+    }
+
+    @Override
+    public List<ListenerTiming> timings() {
+        List<ListenerTiming> timings = new ArrayList<>();
+        for (CompiledNotifier notifier : this.notifiers) {
+            ListenerTiming timing = notifier.stats().snapshot(notifier);
+            if (timing.invocations() > 0) {
+                timings.add(timing);
+            }
+        }
+
+        timings.sort(Comparator.comparingLong(ListenerTiming::totalNanos).reversed());
+        return timings;
+    }
+
+    @Override
+    public void resetTimings() {
+        for (CompiledNotifier notifier : this.notifiers) {
+            notifier.stats().reset();
+        }
+    }
+
+    @Override
+    public void registerListener(Plugin plugin, Listener listener) {
+        ImmutableList.Builder<CompiledNotifier> added = ImmutableList.builder();
+        for (Class<?> c = listener.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                Class<?>[] parameters = method.getParameterTypes();
+                if (parameters.length != 1 || !Event.class.isAssignableFrom(parameters[0]) ||
+                        Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.isSynthetic() ||
+                        method.isAnnotationPresent(IgnoreRegistration.class)) {
+                    continue;
+                }
+
+                Class<? extends Event> eventType = parameters[0].asSubclass(Event.class);
+                ListenerOpts opts = method.getAnnotation(ListenerOpts.class);
+                try {
+                    Predicate<Event> filter = ListenerFilters.compile(method.getAnnotation(ListenerFilter.class),
+                            eventType);
+                    added.add(new CompiledNotifier(plugin, listener, eventType, opts, filter, Invokers.bind(method)));
+                } catch (IllegalAccessException | IllegalArgumentException e) {
+                    TridentLogger.get().error(e);
+                }
+            }
+        }
+
+        synchronized (this) {
+            this.notifiers = ImmutableList.<CompiledNotifier>builder()
+                    .addAll(this.notifiers)
+                    .addAll(added.build())
+                    .build();
+            this.generation++;
+        }
+    }
+
+    @Override
+    public void unregister(Class<? extends Listener> cls) {
+        synchronized (this) {
+            ImmutableList.Builder<CompiledNotifier> kept = ImmutableList.builder();
+            for (CompiledNotifier notifier : this.notifiers) {
+                if (notifier.listener().getClass() != cls) {
+                    kept.add(notifier);
+                }
+            }
+
+            this.notifiers = kept.build();
+            this.generation++;
+        }
+    }
+
+    // Shared by every bus, only used to end waits for listeners which time out
+    private static final class Timeouts {
+        static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "Trident - Event Timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            // Most listeners finish in time, and their timers should not pile up in the queue
+            SCHEDULER.setRemoveOnCancelPolicy(true);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.event;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The notifiers for a single event class, sorted in the order they are called
+ *
+ * <p>The notifiers are rebuilt when the first event is fired after a listener is registered or unregistered, and are
+ * otherwise only read.</p>
+ *
+ * <p>Listeners which {@link ListenerOpts#coalesce()} events of a {@link Coalescable} class are kept apart. Events for
+ * them are merged by key until the bus is flushed.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@ThreadSafe
+final class EventDispatcher {
+    private static final Comparator<CompiledNotifier> ORDER =
+            Comparator.comparingInt(notifier -> notifier.importance().level());
+    private static final CompiledNotifier[] NONE = new CompiledNotifier[0];
+
+    private final EventBus bus;
+    private final Class<?> eventType;
+    private final boolean coalescable;
+    private volatile Snapshot snapshot = new Snapshot(-1, NONE, NONE);
+
+    private final Map<Object, Event> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean queued = new AtomicBoolean();
+
+    EventDispatcher(EventBus bus, Class<?> eventType) {
+        this.bus = bus;
+        this.eventType = eventType;
+        this.coalescable = Coalescable.class.isAssignableFrom(eventType);
+    }
+
+    /**
+     * Obtains the notifiers of listeners for this event class, or any of its superclasses, which are notified as
+     * soon as the event is fired
+     *
+     * @return the notifiers, sorted from {@link Importance#LOWEST} to {@link Importance#HIGHEST}, which must not be
+     * modified
+     */
+    CompiledNotifier[] notifiers() {
+        return this.current().notifiers;
+    }
+
+    /**
+     * Obtains the notifiers of listeners which are notified of coalesced events when the bus is flushed
+     *
+     * @return the notifiers, sorted from {@link Importance#LOWEST} to {@link Importance#HIGHEST}, which must not be
+     * modified
+     */
+    CompiledNotifier[] coalesced() {
+        return this.current().coalesced;
+    }
+
+    private Snapshot current() {
+        Snapshot snapshot = this.snapshot;
+        int generation = this.bus.generation();
+        if (snapshot.generation != generation) {
+            snapshot = this.rebuild(generation);
+        }
+
+        return snapshot;
+    }
+
+    private synchronized Snapshot rebuild(int generation) {
+        Snapshot snapshot = this.snapshot;
+        if (snapshot.generation == generation) {
+            return snapshot;
+        }
+
+        List<CompiledNotifier> notifiers = new ArrayList<>();
+        List<CompiledNotifier> coalesced = new ArrayList<>();
+        for (CompiledNotifier notifier : this.bus.compiled()) {
+            if (notifier.eventType().isAssignableFrom(this.eventType)) {
+                (this.coalescable && notifier.coalesce() ? coalesced : notifiers).add(notifier);
+            }
+        }
+
+        // Stable, so listeners of the same importance are called in the order they were registered
+        notifiers.sort(ORDER);
+        coalesced.sort(ORDER);
+        this.snapshot = snapshot = new Snapshot(generation,
+                notifiers.isEmpty() ? NONE : notifiers.toArray(new CompiledNotifier[notifiers.size()]),
+                coalesced.isEmpty() ? NONE : coalesced.toArray(new CompiledNotifier[coalesced.size()]));
+        return snapshot;
+    }
+
+    /**
+     * Merges the event with the pending event for the same key
+     *
+     * @param event the event, which must be {@link Coalescable}
+     * @return {@code true} if this dispatcher had no pending events, and must be flushed
+     */
+    boolean pend(Event event) {
+        Object key = ((Coalescable<?>) event).coalesceKey();
+        this.pending.compute(key, (k, earlier) -> earlier == null ?
+                ((Coalescable<?>) event).detach() : coalesce(earlier, event));
+        return this.queued.compareAndSet(false, true);
+    }
+
+    // Both events are of the class of this dispatcher, which is the type the earlier event coalesces with
+    @SuppressWarnings("unchecked")
+    private static <E extends Event> Event coalesce(Event earlier, Event later) {
+        return ((Coalescable<E>) earlier).coalesce((E) later);
+    }
+
+    /**
+     * Notifies the coalescing listeners of every pending event
+     */
+    void flush() {
+        // Cleared first, so that events pended while flushing queue this dispatcher again
+        this.queued.set(false);
+
+        CompiledNotifier[] coalesced = this.coalesced();
+        for (Map.Entry<Object, Event> entry : this.pending.entrySet()) {
+            Event event = entry.getValue();
+            if (!this.pending.remove(entry.getKey(), event)) {
+                continue;
+            }
+
+            for (int i = 0; i < coalesced.length; i++) {
+                this.bus.handle(coalesced[i], event);
+            }
+        }
+    }
+
+    private static final class Snapshot {
+        final int generation;
+        final CompiledNotifier[] notifiers;
+        final CompiledNotifier[] coalesced;
+
+        Snapshot(int generation, CompiledNotifier[] notifiers, CompiledNotifier[] coalesced) {
+            this.generation = generation;
+            this.notifiers = notifiers;
+            this.coalesced = coalesced;
+        }
+    }
+}
@@ -53,6 +53,36 @@ public interface EventNotifier {
      */
     Importance importance();
 
+    /**
+     * Whether the listener may be run in parallel with other listeners of the same importance
+     *
+     * @return {@code true} if the listener is thread safe
+     * @see ListenerOpts#parallel()
+     */
+    default boolean parallel() {
+        return false;
+    }
+
+    /**
+     * Obtains the time after which an asynchronously fired event no longer waits for the listener
+     *
+     * @return the timeout in milliseconds, or {@code 0} for no timeout
+     * @see ListenerOpts#timeout()
+     */
+    default long timeout() {
+        return 0;
+    }
+
+    /**
+     * Whether the listener is notified of merged events rather than every event of a {@link Coalescable} class
+     *
+     * @return {@code true} if the listener receives coalesced events
+     * @see ListenerOpts#coalesce()
+     */
+    default boolean coalesce() {
+        return false;
+    }
+
     /**
      * Notifies the listener
      *
@@ -0,0 +1,163 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tridentsdk.event;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+
+/**
+ * Recycles instances of a {@link Poolable} event type which is fired often enough for its allocation to matter
+ *
+ * <p>Each thread keeps its own stack of idle events, so acquiring and releasing an event neither allocates nor
+ * contends once the stack has filled. An event released on another thread than the one which acquired it is kept
+ * by the releasing thread.</p>
+ *
+ * <p>The pool guards against listeners which keep references to events: releasing an event which is not leased
+ * throws, and so does accessing an event between its release and its next acquisition. In debug mode, enabled with
+ * {@link #setDebug(boolean)} or the {@code trident.event.pool.debug} system property, released events are poisoned
+ * instead of recycled, so that every later access throws with the stack trace of the release.</p>
+ *
+ * <pre>{@code
+ *     EventPool<BlockFlowEvent> pool = new EventPool<>(BlockFlowEvent::new, 64);
+ *
+ *     BlockFlowEvent event = pool.acquire().init(from, to);
+ *     try {
+ *         events.fire(event);
+ *     } finally {
+ *         pool.release(event);
+ *     }
+ * }</pre>
+ *
+ * @param <E> the type of event pooled
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@ThreadSafe
+public final class EventPool<E extends Event & Poolable> {
+    static final Object LEASED = new Object();
+    static final Object RELEASED = new Object();
+
+    private static volatile boolean debug = Boolean.getBoolean("trident.event.pool.debug");
+
+    private final Supplier<? extends E> factory;
+    private final int capacity;
+    private final ThreadLocal<ArrayDeque<E>> idle;
+
+    /**
+     * Creates a new pool
+     *
+     * @param factory  creates the events when a thread has none idle
+     * @param capacity the number of idle events kept by each thread
+     */
+    public EventPool(Supplier<? extends E> factory, int capacity) {
+        Preconditions.checkArgument(capacity > 0, "Capacity must be positive");
+        this.factory = factory;
+        this.capacity = capacity;
+        this.idle = ThreadLocal.withInitial(() -> new ArrayDeque<>(capacity));
+    }
+
+    /**
+     * Sets whether released events are poisoned instead of recycled
+     *
+     * @param debug {@code true} to poison released events
+     */
+    public static void setDebug(boolean debug) {
+        EventPool.debug = debug;
+    }
+
+    /**
+     * Whether released events are poisoned instead of recycled
+     *
+     * @return {@code true} if released events are poisoned
+     */
+    public static boolean isDebug() {
+        return debug;
+    }
+
+    /**
+     * Obtains a blank event, recycled if the current thread has one idle
+     *
+     * @return the event, which must be released once it has been fired
+     */
+    public E acquire() {
+        E event = this.idle.get().pollFirst();
+        if (event == null) {
+            event = this.factory.get();
+        }
+
+        event.poolState = LEASED;
+        return event;
+    }
+
+    /**
+     * Resets the event and returns it to the pool
+     *
+     * <p>This must be called once every listener has been notified of the event, for events fired asynchronously
+     * once the future has completed.</p>
+     *
+     * @param event the event acquired from this pool
+     * @throws IllegalStateException if the event is not leased from a pool, such as when it was already released
+     */
+    public void release(E event) {
+        if (event.poolState != LEASED) {
+            throw new IllegalStateException(event.getClass().getSimpleName() + " released while not leased");
+        }
+
+        event.reset();
+        if (debug) {
+            event.poolState = new Poisoned(event);
+            return;
+        }
+
+        event.poolState = RELEASED;
+        ArrayDeque<E> idle = this.idle.get();
+        if (idle.size() < this.capacity) {
+            idle.addFirst(event);
+        }
+    }
+
+    /**
+     * Obtains the number of events idle on the current thread
+     *
+     * @return the idle events
+     */
+    public int idle() {
+        return this.idle.get().size();
+    }
+
+    static IllegalStateException retained(Event event, Object state) {
+        String message = event.getClass().getSimpleName() + " accessed after it was released to its pool, a " +
+                "listener may have kept a reference to it";
+        if (state instanceof Poisoned) {
+            return new IllegalStateException(message, (Poisoned) state);
+        }
+
+        return new IllegalStateException(message);
+    }
+
+    // Records where a poisoned event was released
+    private static final class Poisoned extends Throwable {
+        private static final long serialVersionUID = 5354921790153620871L;
+
+        Poisoned(Event event) {
+            super(event.getClass().getSimpleName() + " released here");
+        }
+    }
+}
@@ -20,11 +20,18 @@ import net.tridentsdk.docs.InternalUseOnly;
 import net.tridentsdk.plugin.Plugin;
 import net.tridentsdk.registry.Registry;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * The access point to the server's event handler
  *
+ * <p>Events are fired on the hot path of the server, so implementations should bind listeners when they are
+ * registered rather than look them up when an event is fired. {@link EventBus} is such an implementation.</p>
+ *
  * @author The TridentSDK Team
  * @since 0.4-alpha
  */
@@ -37,6 +44,88 @@ public interface Events extends Registry<EventNotifier> {
      */
     void fire(Event event);
 
+    /**
+     * Notifies listeners of the event without blocking the caller
+     *
+     * <p>Listeners are run on the implementation's pool. Listeners of each importance only start after those of the
+     * previous importance have finished or timed out, so cancellation by a listener is seen by every listener of a
+     * higher importance. Listeners of the same importance run one at a time, except for those which are
+     * {@link ListenerOpts#parallel()}, which may run at the same time as any other listener of their importance.</p>
+     *
+     * @param event the event to fire
+     * @param <E> the type of event
+     * @return a future completed with the event once every listener has finished or timed out
+     */
+    <E extends Event> CompletableFuture<E> fireAsync(E event);
+
+    /**
+     * Notifies listeners which {@link ListenerOpts#coalesce()} events of the events merged since the last flush
+     *
+     * <p>The server calls this once per tick</p>
+     */
+    void flushCoalesced();
+
+    /**
+     * Checks whether any listener would be notified of an event of the given class
+     *
+     * <p>Use this to avoid building events which would not be listened to. The result is kept up to date as
+     * listeners are registered and unregistered, so checking is cheap.</p>
+     *
+     * @param type the class of the event
+     * @return {@code true} if a listener for the class or one of its superclasses is registered
+     */
+    boolean hasListeners(Class<? extends Event> type);
+
+    /**
+     * Creates and fires an event only if there are listeners for its class
+     *
+     * <p>The supplier must create events of exactly the given class, as listeners of subclasses are not checked.</p>
+     *
+     * @param type the class of the event created by the supplier
+     * @param supplier creates the event to fire
+     * @param <E> the type of event
+     * @return the event after it was fired, or {@code null} if there were no listeners and it was not created
+     */
+    @Nullable
+    default <E extends Event> E fire(Class<E> type, Supplier<? extends E> supplier) {
+        if (!this.hasListeners(type)) {
+            return null;
+        }
+
+        E event = supplier.get();
+        this.fire(event);
+        return event;
+    }
+
+    /**
+     * Enables or disables recording the time spent in each listener
+     *
+     * <p>This may be toggled at any time. Recording stops at the next event fired after it is disabled, and the
+     * recorded timings are kept until they are reset.</p>
+     *
+     * @param instrumented {@code true} to record listener timings
+     */
+    void setInstrumented(boolean instrumented);
+
+    /**
+     * Whether the time spent in each listener is being recorded
+     *
+     * @return {@code true} if listener timings are recorded
+     */
+    boolean isInstrumented();
+
+    /**
+     * Obtains the timings of every registered listener method which has been called since timings were last reset
+     *
+     * @return the timings, sorted from the most to the least total time spent
+     */
+    List<ListenerTiming> timings();
+
+    /**
+     * Clears the recorded listener timings
+     */
+    void resetTimings();
+
     /**
      * Normally not needed to be used. Plugin listeners are automatically registered when they are loaded.
      *
@@ -0,0 +1,118 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.event;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * Binds {@link ListenerInvoker}s to listener methods
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+final class Invokers {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType FACTORY = MethodType.methodType(ListenerInvoker.class);
+    private static final MethodType INVOKE = MethodType.methodType(void.class, Listener.class, Event.class);
+    // Creates a lookup with private access to a class, null if neither way is available
+    private static final MethodHandle PRIVATE_LOOKUP = privateLookup();
+
+    private Invokers() {
+    }
+
+    /**
+     * Binds an invoker to the given listener method
+     *
+     * <p>The invoker is generated next to the listener's class, in its class loader, so listeners loaded by plugins
+     * are called directly just as listeners of the SDK are. Java 14 and later only give a lookup in a class of another
+     * class loader private access without module access, which is not enough to define the invoker, and the method
+     * handle is used for those instead.</p>
+     *
+     * @param method the listener method, which takes a single event parameter
+     * @return the invoker
+     * @throws IllegalAccessException if the method cannot be accessed
+     */
+    static ListenerInvoker bind(Method method) throws IllegalAccessException {
+        method.setAccessible(true);
+        MethodHandle handle = LOOKUP.unreflect(method);
+
+        Class<?> owner = method.getDeclaringClass();
+        MethodHandles.Lookup lookup = lookupIn(owner);
+        if (lookup != null) {
+            try {
+                MethodType instantiated = MethodType.methodType(void.class, owner, method.getParameterTypes()[0]);
+                CallSite site = LambdaMetafactory.metafactory(lookup, "invoke", FACTORY, INVOKE,
+                        lookup.unreflect(method), instantiated);
+                return (ListenerInvoker) site.getTarget().invokeExact();
+            } catch (Throwable ignored) {
+                // Use the handle instead
+            }
+        }
+
+        MethodHandle exact = handle.asType(INVOKE);
+        return (listener, event) -> {
+            try {
+                exact.invokeExact(listener, event);
+            } catch (Throwable t) {
+                Invokers.<RuntimeException>sneakyThrow(t);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> void sneakyThrow(Throwable t) throws T {
+        throw (T) t;
+    }
+
+    // The generated invoker is defined next to the class of the lookup, which must have private access to it
+    private static MethodHandles.Lookup lookupIn(Class<?> owner) {
+        if (PRIVATE_LOOKUP == null) {
+            return null;
+        }
+
+        try {
+            return (MethodHandles.Lookup) PRIVATE_LOOKUP.invokeExact(owner);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    // MethodHandles.privateLookupIn on Java 9 and later, the private Lookup constructor on Java 8
+    private static MethodHandle privateLookup() {
+        MethodType type = MethodType.methodType(MethodHandles.Lookup.class, Class.class);
+        try {
+            Method method = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+            return MethodHandles.insertArguments(LOOKUP.unreflect(method), 1, LOOKUP).asType(type);
+        } catch (ReflectiveOperationException ignored) {
+            // Java 8
+        }
+
+        try {
+            Constructor<MethodHandles.Lookup> constructor =
+                    MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
+            constructor.setAccessible(true);
+            int modes = MethodHandles.Lookup.PUBLIC | MethodHandles.Lookup.PRIVATE | MethodHandles.Lookup.PROTECTED |
+                    MethodHandles.Lookup.PACKAGE;
+            return MethodHandles.insertArguments(LOOKUP.unreflectConstructor(constructor), 1, modes).asType(type);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tridentsdk.event;
+
+import net.tridentsdk.base.Substance;
+import net.tridentsdk.entity.types.EntityType;
+
+import java.lang.annotation.*;
+
+/**
+ * An annotation to declare which events a listener method is notified of
+ *
+ * <p>The filters are compiled when the listener is registered, and events which do not pass them never reach the
+ * listener method. Empty filters accept every event, and the filters which are set must all pass.</p>
+ *
+ * <p>Filters which cannot apply to the event type of the method, such as a substance filter on an event without a
+ * block, prevent the method from being registered.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ListenerFilter {
+    /**
+     * The names of the worlds which the event must take place in
+     *
+     * @return the world names, or none for any world
+     */
+    String[] world() default {};
+
+    /**
+     * The substances which the block of the event must be made of
+     *
+     * @return the substances, or none for any substance
+     */
+    Substance[] substance() default {};
+
+    /**
+     * The types of the entity of the event
+     *
+     * @return the entity types, or none for any entity
+     */
+    EntityType[] entity() default {};
+
+    /**
+     * Whether the event must be cancelled when the listener is notified
+     *
+     * @return the cancelled state of the events to notify the listener of
+     */
+    Cancelled cancelled() default Cancelled.ANY;
+
+    /**
+     * The cancelled states which a {@link Cancellable} event is filtered by
+     *
+     * @author The TridentSDK Team
+     * @since 0.4-alpha
+     */
+    enum Cancelled {
+        /**
+         * Events are passed on whether they are cancelled or not
+         */
+        ANY,
+        /**
+         * Only cancelled events are passed on
+         */
+        CANCELLED,
+        /**
+         * Only events which are not cancelled are passed on
+         */
+        NOT_CANCELLED
+    }
+}
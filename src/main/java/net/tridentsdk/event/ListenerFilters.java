@@ -0,0 +1,155 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tridentsdk.event;
+
+import com.google.common.collect.ImmutableSet;
+import net.tridentsdk.base.Block;
+import net.tridentsdk.base.Position;
+import net.tridentsdk.base.Substance;
+import net.tridentsdk.entity.Entity;
+import net.tridentsdk.entity.types.EntityType;
+import net.tridentsdk.event.block.BlockEvent;
+import net.tridentsdk.event.entity.EntityEvent;
+import net.tridentsdk.event.player.PlayerEvent;
+import net.tridentsdk.event.player.PlayerInteractEvent;
+import net.tridentsdk.event.weather.WeatherEvent;
+import net.tridentsdk.world.World;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Compiles {@link ListenerFilter} annotations into the checks made before a listener is notified
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+final class ListenerFilters {
+    private ListenerFilters() {
+    }
+
+    /**
+     * Compiles the filter of a listener method
+     *
+     * @param filter the filter on the method, or {@code null} if there is none
+     * @param eventType the event type of the method
+     * @return the check which an event must pass, or {@code null} if every event passes
+     * @throws IllegalArgumentException if one of the filters cannot apply to the event type
+     */
+    @Nullable
+    static Predicate<Event> compile(@Nullable ListenerFilter filter, Class<? extends Event> eventType) {
+        if (filter == null) {
+            return null;
+        }
+
+        Predicate<Event> predicate = null;
+        if (filter.world().length > 0) {
+            Function<Event, World> world = world(eventType);
+            Set<String> names = ImmutableSet.copyOf(filter.world());
+            predicate = and(predicate, event -> {
+                World w = world.apply(event);
+                return w != null && names.contains(w.name());
+            });
+        }
+
+        if (filter.substance().length > 0) {
+            Function<Event, Block> block = block(eventType);
+            Set<Substance> substances = EnumSet.copyOf(Arrays.asList(filter.substance()));
+            predicate = and(predicate, event -> {
+                Block b = block.apply(event);
+                return b != null && substances.contains(b.substance());
+            });
+        }
+
+        if (filter.entity().length > 0) {
+            Function<Event, Entity> entity = entity(eventType);
+            Set<EntityType> types = EnumSet.copyOf(Arrays.asList(filter.entity()));
+            predicate = and(predicate, event -> {
+                Entity e = entity.apply(event);
+                return e != null && types.contains(e.type());
+            });
+        }
+
+        if (filter.cancelled() != ListenerFilter.Cancelled.ANY) {
+            if (!Cancellable.class.isAssignableFrom(eventType)) {
+                throw new IllegalArgumentException(eventType.getSimpleName() + " cannot be cancelled");
+            }
+
+            boolean cancelled = filter.cancelled() == ListenerFilter.Cancelled.CANCELLED;
+            predicate = and(predicate, event -> ((Cancellable) event).isIgnored() == cancelled);
+        }
+
+        return predicate;
+    }
+
+    private static Predicate<Event> and(Predicate<Event> first, Predicate<Event> second) {
+        return first == null ? second : first.and(second);
+    }
+
+    private static Function<Event, World> world(Class<? extends Event> eventType) {
+        if (WeatherEvent.class.isAssignableFrom(eventType)) {
+            return event -> ((WeatherEvent) event).world();
+        }
+
+        if (BlockEvent.class.isAssignableFrom(eventType) || PlayerInteractEvent.class.isAssignableFrom(eventType)) {
+            Function<Event, Block> block = block(eventType);
+            return event -> {
+                Block b = block.apply(event);
+                Position position = b == null ? null : b.position();
+                return position == null ? null : position.world();
+            };
+        }
+
+        if (EntityEvent.class.isAssignableFrom(eventType) || PlayerEvent.class.isAssignableFrom(eventType)) {
+            Function<Event, Entity> entity = entity(eventType);
+            return event -> {
+                Entity e = entity.apply(event);
+                return e == null ? null : e.world();
+            };
+        }
+
+        throw new IllegalArgumentException(eventType.getSimpleName() + " does not take place in a world");
+    }
+
+    private static Function<Event, Block> block(Class<? extends Event> eventType) {
+        if (BlockEvent.class.isAssignableFrom(eventType)) {
+            return event -> ((BlockEvent) event).block();
+        }
+
+        if (PlayerInteractEvent.class.isAssignableFrom(eventType)) {
+            return event -> ((PlayerInteractEvent) event).block();
+        }
+
+        throw new IllegalArgumentException(eventType.getSimpleName() + " does not have a block");
+    }
+
+    private static Function<Event, Entity> entity(Class<? extends Event> eventType) {
+        if (EntityEvent.class.isAssignableFrom(eventType)) {
+            return event -> ((EntityEvent) event).entity();
+        }
+
+        if (PlayerEvent.class.isAssignableFrom(eventType)) {
+            return event -> ((PlayerEvent) event).player();
+        }
+
+        throw new IllegalArgumentException(eventType.getSimpleName() + " does not have an entity");
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.event;
+
+/**
+ * Calls a single listener method, bound when the listener is registered
+ *
+ * <p>Invokers are generated classes which call the listener method directly, including for listeners loaded by a
+ * plugin's class loader. Where a class cannot be generated, the invoker calls through a method handle, which happens
+ * for listeners of another class loader on Java 14 and later. Exceptions thrown by the listener method are thrown
+ * unwrapped.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@FunctionalInterface
+public interface ListenerInvoker {
+    /**
+     * Calls the listener method
+     *
+     * @param listener the listener which declares the method
+     * @param event the event, which must be of the type accepted by the method
+     */
+    void invoke(Listener listener, Event event);
+}
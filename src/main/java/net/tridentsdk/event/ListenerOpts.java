@@ -20,7 +20,7 @@ package net.tridentsdk.event;
 import java.lang.annotation.*;
 
 /**
- * An annotation to mark the priority of a listener method
+ * An annotation to mark the priority and other options of a listener method
  *
  * @author The TridentSDK Team
  * @since 0.3-alpha-DP
@@ -35,4 +35,33 @@ public @interface ListenerOpts {
      * @return the event priority
      */
     Importance importance() default Importance.MEDIUM;
+
+    /**
+     * Whether the listener is thread safe, and may run at the same time as other listeners of the same importance when
+     * the event is fired with {@link Events#fireAsync(Event)}
+     *
+     * @return {@code true} if the listener may run in parallel
+     */
+    boolean parallel() default false;
+
+    /**
+     * The time in milliseconds after which an asynchronously fired event moves on to the next listeners, and the
+     * listener is reported as having timed out
+     *
+     * <p>The listener is not interrupted, and may keep running after the event is passed to the next listeners.</p>
+     *
+     * @return the timeout, or {@code 0} for no timeout
+     */
+    long timeout() default 0;
+
+    /**
+     * Whether the listener is notified of one merged event per key each time coalesced events are flushed, rather than
+     * of every event, for events which are {@link Coalescable}
+     *
+     * <p>Such listeners are notified after the event was fired, so cancelling the event has no effect. Events which
+     * were cancelled by other listeners are not passed on to them.</p>
+     *
+     * @return {@code true} to receive coalesced events
+     */
+    boolean coalesce() default false;
 }
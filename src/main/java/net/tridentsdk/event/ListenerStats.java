@@ -0,0 +1,144 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.event;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The running totals of the time spent in a single listener method
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@ThreadSafe
+final class ListenerStats {
+    /**
+     * The number of buckets in the latency histogram, the last holds every call of a second or longer
+     */
+    static final int BUCKETS = 32;
+    // Bound to com.sun.management.ThreadMXBean.getThreadAllocatedBytes(long), null if the JVM does not have it
+    private static final MethodHandle ALLOCATED = allocated();
+
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder allocated = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    // Looked up reflectively, as the interface is specific to HotSpot based JVMs
+    private static MethodHandle allocated() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        try {
+            Class<?> sun = Class.forName("com.sun.management.ThreadMXBean");
+            if (!sun.isInstance(threads)) {
+                return null;
+            }
+
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodType flag = MethodType.methodType(boolean.class);
+            boolean supported = (boolean) lookup.findVirtual(sun, "isThreadAllocatedMemorySupported", flag)
+                    .invoke(threads);
+            boolean enabled = (boolean) lookup.findVirtual(sun, "isThreadAllocatedMemoryEnabled", flag)
+                    .invoke(threads);
+            if (!supported || !enabled) {
+                return null;
+            }
+
+            return lookup.findVirtual(sun, "getThreadAllocatedBytes", MethodType.methodType(long.class, long.class))
+                    .bindTo(threads);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    /**
+     * Obtains the number of bytes allocated by the current thread so far
+     *
+     * @return the allocated bytes, or {@code -1} if the JVM does not track them
+     */
+    static long allocatedBytes() {
+        if (ALLOCATED == null) {
+            return -1;
+        }
+
+        try {
+            return (long) ALLOCATED.invokeExact(Thread.currentThread().getId());
+        } catch (Throwable t) {
+            return -1;
+        }
+    }
+
+    /**
+     * Obtains the histogram bucket for a call of the given duration
+     *
+     * @param nanos the duration of the call
+     * @return the bucket, where bucket {@code i} holds calls shorter than {@code 2^i} nanoseconds
+     */
+    static int bucket(long nanos) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    /**
+     * Records a call of the listener
+     *
+     * @param nanos the duration of the call
+     * @param allocated the bytes allocated during the call, or a negative number if unknown
+     */
+    void record(long nanos, long allocated) {
+        this.invocations.increment();
+        this.nanos.add(nanos);
+        if (allocated > 0) {
+            this.allocated.add(allocated);
+        }
+        this.histogram.incrementAndGet(bucket(nanos));
+
+        long max;
+        while (nanos > (max = this.max.get()) && !this.max.compareAndSet(max, nanos)) {
+            // Retry until this is not the longest call, or has been recorded as such
+        }
+    }
+
+    void reset() {
+        this.invocations.reset();
+        this.nanos.reset();
+        this.allocated.reset();
+        this.max.set(0);
+        for (int i = 0; i < BUCKETS; i++) {
+            this.histogram.set(i, 0);
+        }
+    }
+
+    ListenerTiming snapshot(EventNotifier notifier) {
+        long[] histogram = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] = this.histogram.get(i);
+        }
+
+        return new ListenerTiming(notifier.plugin(), notifier.listener().getClass(), notifier.eventType(),
+                this.invocations.sum(), this.nanos.sum(), this.max.get(),
+                ALLOCATED == null ? -1 : this.allocated.sum(), histogram);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.event;
+
+import net.tridentsdk.plugin.Plugin;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time spent in a listener method since instrumentation was enabled, or the timings were last reset
+ *
+ * <p>Obtained from {@link Events#timings()}</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@Immutable
+public final class ListenerTiming {
+    private final Plugin plugin;
+    private final Class<? extends Listener> listener;
+    private final Class<? extends Event> eventType;
+    private final long invocations;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long allocatedBytes;
+    private final long[] histogram;
+
+    ListenerTiming(Plugin plugin, Class<? extends Listener> listener, Class<? extends Event> eventType,
+                   long invocations, long totalNanos, long maxNanos, long allocatedBytes, long[] histogram) {
+        this.plugin = plugin;
+        this.listener = listener;
+        this.eventType = eventType;
+        this.invocations = invocations;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.histogram = histogram;
+    }
+
+    /**
+     * The plugin which registered the listener
+     *
+     * @return the plugin, or {@code null} if the listener was not registered by a plugin
+     */
+    @Nullable
+    public Plugin plugin() {
+        return this.plugin;
+    }
+
+    /**
+     * The class of the listener
+     *
+     * @return the listener class
+     */
+    public Class<? extends Listener> listener() {
+        return this.listener;
+    }
+
+    /**
+     * The event type the listener method accepts
+     *
+     * @return the event type
+     */
+    public Class<? extends Event> eventType() {
+        return this.eventType;
+    }
+
+    /**
+     * The number of times the listener was called
+     *
+     * @return the invocation count
+     */
+    public long invocations() {
+        return this.invocations;
+    }
+
+    /**
+     * The time spent in the listener over all calls
+     *
+     * @return the total time in nanoseconds
+     */
+    public long totalNanos() {
+        return this.totalNanos;
+    }
+
+    /**
+     * The longest single call of the listener
+     *
+     * @return the longest time in nanoseconds
+     */
+    public long maxNanos() {
+        return this.maxNanos;
+    }
+
+    /**
+     * The average time of a call of the listener
+     *
+     * @return the average time in nanoseconds, or {@code 0} if it was not called
+     */
+    public long averageNanos() {
+        return this.invocations == 0 ? 0 : this.totalNanos / this.invocations;
+    }
+
+    /**
+     * The bytes allocated by the listener over all calls, as measured on the thread calling it
+     *
+     * @return the allocated bytes, or {@code -1} if the JVM does not track allocation
+     */
+    public long allocatedBytes() {
+        return this.allocatedBytes;
+    }
+
+    /**
+     * The number of calls which took less than {@code 2^bucket} nanoseconds, and at least {@code 2^(bucket - 1)}
+     *
+     * <p>The last bucket counts every call longer than its lower bound</p>
+     *
+     * @param bucket the bucket, from {@code 0} to {@link #buckets()} exclusive
+     * @return the number of calls in the bucket
+     */
+    public long histogram(int bucket) {
+        return this.histogram[bucket];
+    }
+
+    /**
+     * The number of buckets in the histogram
+     *
+     * @return the bucket count
+     */
+    public int buckets() {
+        return this.histogram.length;
+    }
+
+    /**
+     * Estimates the time under which the given fraction of calls completed, from the histogram
+     *
+     * @param percentile the fraction of calls, from {@code 0} to {@code 1}
+     * @return the upper bound of the bucket containing the percentile, in nanoseconds
+     */
+    public long percentileNanos(double percentile) {
+        long target = (long) Math.ceil(this.invocations * percentile);
+        long seen = 0;
+        for (int i = 0; i < this.histogram.length; i++) {
+            seen += this.histogram[i];
+            if (seen >= target && seen > 0) {
+                return i == this.histogram.length - 1 ? this.maxNanos : 1L << i;
+            }
+        }
+
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return (this.plugin == null ? "" : this.plugin.description().name() + " ") +
+                this.listener.getSimpleName() + "(" + this.eventType.getSimpleName() + "): " +
+                this.invocations + " calls, " +
+                TimeUnit.NANOSECONDS.toMillis(this.totalNanos) + "ms total, " +
+                TimeUnit.NANOSECONDS.toMicros(this.averageNanos()) + "us avg, " +
+                TimeUnit.NANOSECONDS.toMicros(this.percentileNanos(0.99)) + "us p99, " +
+                TimeUnit.NANOSECONDS.toMicros(this.maxNanos) + "us max" +
+                (this.allocatedBytes < 0 ? "" : ", " + this.allocatedBytes / 1024 + "KiB allocated");
+    }
+}
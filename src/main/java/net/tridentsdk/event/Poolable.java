@@ -0,0 +1,36 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tridentsdk.event;
+
+/**
+ * An event which can be recycled by an {@link EventPool} instead of being allocated each time it is fired
+ *
+ * <p>Pooled events are acquired from their pool, filled in, fired, then released back to the pool once every
+ * listener has been notified. Listeners must not keep a reference to a pooled event after they return, as the
+ * instance is reused for a later event. Accessing a released event throws an {@link IllegalStateException}, see
+ * {@link Event#checkLeased()}.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+public interface Poolable {
+    /**
+     * Clears the state of this event, including whether it was cancelled, so that it does not keep the objects it
+     * referenced alive while idle in its pool
+     */
+    void reset();
+}
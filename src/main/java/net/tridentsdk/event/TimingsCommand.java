@@ -0,0 +1,98 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.event;
+
+import net.tridentsdk.plugin.annotation.CommandDesc;
+import net.tridentsdk.plugin.cmd.Command;
+import net.tridentsdk.plugin.cmd.CommandIssuer;
+import net.tridentsdk.reflect.Inject;
+
+import java.util.List;
+
+/**
+ * Toggles and reports listener timings without restarting the server
+ *
+ * <p>Usage: {@code /timings <on|off|reset|report [count]>}, where report lists the listeners which have spent the
+ * most time handling events, 10 by default.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@CommandDesc(name = "timings", permission = "trident.timings")
+public class TimingsCommand extends Command {
+    private static final int DEFAULT_COUNT = 10;
+
+    private final Events events;
+
+    /**
+     * Creates the command for the given event handler
+     *
+     * <p>The command can be created with {@link net.tridentsdk.reflect.Injector#newObject(Class, Object...)} once
+     * the server's event handler is bound to {@link Events}.</p>
+     *
+     * @param events the event handler to report timings for
+     */
+    @Inject
+    public TimingsCommand(Events events) {
+        this.events = events;
+    }
+
+    @Override
+    public void handle(CommandIssuer sender, String arguments, String alias) {
+        String[] args = arguments.trim().split("\\s+");
+        switch (args[0]) {
+            case "on":
+                this.events.setInstrumented(true);
+                sender.sendRaw("Listener timings enabled");
+                break;
+            case "off":
+                this.events.setInstrumented(false);
+                sender.sendRaw("Listener timings disabled");
+                break;
+            case "reset":
+                this.events.resetTimings();
+                sender.sendRaw("Listener timings reset");
+                break;
+            case "report":
+                int count = DEFAULT_COUNT;
+                if (args.length > 1) {
+                    try {
+                        count = Integer.parseInt(args[1]);
+                    } catch (NumberFormatException e) {
+                        sender.sendRaw("Not a number: " + args[1]);
+                        return;
+                    }
+                }
+
+                List<ListenerTiming> timings = this.events.timings();
+                if (timings.isEmpty()) {
+                    sender.sendRaw(this.events.isInstrumented() ? "No listeners have been called" :
+                            "Listener timings are disabled, use /" + alias + " on");
+                    return;
+                }
+
+                for (int i = 0; i < Math.min(count, timings.size()); i++) {
+                    sender.sendRaw((i + 1) + ". " + timings.get(i));
+                }
+                break;
+            default:
+                sender.sendRaw("Usage: /" + alias + " <on|off|reset|report [count]>");
+                break;
+        }
+    }
+}
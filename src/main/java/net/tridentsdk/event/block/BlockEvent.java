@@ -29,7 +29,7 @@ import net.tridentsdk.event.Event;
  * @since 0.3-alpha-DP
  */
 public abstract class BlockEvent extends Event {
-    private final Block block;
+    private Block block;
 
     /**
      * @param block the block associated with the event
@@ -42,6 +42,14 @@ public abstract class BlockEvent extends Event {
      * @return return the block associated with the event
      */
     public Block block() {
+        this.checkLeased();
         return this.block;
     }
+
+    /**
+     * @param block the block associated with the event
+     */
+    protected void setBlock(Block block) {
+        this.block = block;
+    }
 }
@@ -19,17 +19,28 @@ package net.tridentsdk.event.block;
 
 import net.tridentsdk.base.Block;
 import net.tridentsdk.event.Cancellable;
+import net.tridentsdk.event.Poolable;
 
 /**
  * Called when a liquid flows from a block to another
  *
+ * <p>This event may be recycled by an {@link net.tridentsdk.event.EventPool}, so listeners must not keep a reference
+ * to it.</p>
+ *
  * @author The TridentSDK Team
  * @since 0.3-alpha-DP
  */
-public class BlockFlowEvent extends BlockEvent implements Cancellable {
-    private final Block to;
+public class BlockFlowEvent extends BlockEvent implements Cancellable, Poolable {
+    private Block to;
     private boolean cancelled;
 
+    /**
+     * Creates a blank event, to be filled in with {@link #init(Block, Block)}
+     */
+    public BlockFlowEvent() {
+        this(null, null);
+    }
+
     /**
      * @param from Block where the liquid is flowing from
      * @param to   Block where the liquid is flowing too
@@ -45,6 +56,7 @@ public class BlockFlowEvent extends BlockEvent implements Cancellable {
      * @return Block where the liquid is flowing too
      */
     public Block to() {
+        this.checkLeased();
         return this.to;
     }
 
@@ -57,8 +69,29 @@ public class BlockFlowEvent extends BlockEvent implements Cancellable {
         return super.block();
     }
 
+    /**
+     * Sets the blocks of a pooled event
+     *
+     * @param from Block where the liquid is flowing from
+     * @param to   Block where the liquid is flowing too
+     * @return this event
+     */
+    public BlockFlowEvent init(Block from, Block to) {
+        this.setBlock(from);
+        this.to = to;
+        return this;
+    }
+
+    @Override
+    public void reset() {
+        this.setBlock(null);
+        this.to = null;
+        this.cancelled = false;
+    }
+
     @Override
     public boolean isIgnored() {
+        this.checkLeased();
         return cancelled;
     }
 
@@ -38,6 +38,7 @@ public abstract class BlockGrowthEvent extends BlockEvent implements Cancellable
 
     @Override
     public boolean isIgnored() {
+        this.checkLeased();
         return cancelled;
     }
 
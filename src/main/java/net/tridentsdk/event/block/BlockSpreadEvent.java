@@ -18,15 +18,26 @@
 package net.tridentsdk.event.block;
 
 import net.tridentsdk.base.Block;
+import net.tridentsdk.event.Poolable;
 
 /**
  * Called when a block spreads, like grass or mycelium
  *
+ * <p>This event may be recycled by an {@link net.tridentsdk.event.EventPool}, so listeners must not keep a reference
+ * to it.</p>
+ *
  * @author The TridentSDK Team
  * @since 0.3-alpha-DP
  */
-public class BlockSpreadEvent extends BlockGrowthEvent {
-    private final Block blockFrom;
+public class BlockSpreadEvent extends BlockGrowthEvent implements Poolable {
+    private Block blockFrom;
+
+    /**
+     * Creates a blank event, to be filled in with {@link #init(Block, Block)}
+     */
+    public BlockSpreadEvent() {
+        this(null, null);
+    }
 
     /**
      * @param to   Block representing the position of the spread
@@ -43,6 +54,27 @@ public class BlockSpreadEvent extends BlockGrowthEvent {
      * @return Block representing the origin of the spread
      */
     public Block from() {
+        this.checkLeased();
         return this.blockFrom;
     }
+
+    /**
+     * Sets the blocks of a pooled event
+     *
+     * @param to   Block representing the position of the spread
+     * @param from Block which represents the origin
+     * @return this event
+     */
+    public BlockSpreadEvent init(Block to, Block from) {
+        this.setBlock(to);
+        this.blockFrom = from;
+        return this;
+    }
+
+    @Override
+    public void reset() {
+        this.setBlock(null);
+        this.blockFrom = null;
+        this.cancel(false);
+    }
 }
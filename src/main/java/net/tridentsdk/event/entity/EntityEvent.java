@@ -40,6 +40,7 @@ public class EntityEvent extends Event implements Cancellable {
      */
 
     public Entity entity() {
+        this.checkLeased();
         return this.entity;
     }
 
@@ -52,6 +53,7 @@ public class EntityEvent extends Event implements Cancellable {
 
     @Override
     public boolean isIgnored() {
+        this.checkLeased();
         return cancelled;
     }
 
@@ -14,19 +14,111 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package net.tridentsdk.event.entity;
 
+import net.tridentsdk.base.Position;
 import net.tridentsdk.entity.Entity;
+import net.tridentsdk.event.Coalescable;
+import net.tridentsdk.event.Poolable;
 
 /**
  * Called when an entity moves, cancels short movements
  *
+ * <p>Moves by the same entity coalesce into a single move from the first origin to the last destination.</p>
+ *
+ * <p>This event may be recycled by an {@link net.tridentsdk.event.EventPool}, so listeners must not keep a reference
+ * to it.</p>
+ *
  * @author The TridentSDK Team
  * @since 0.3-alpha-DP
  */
-public class EntityMoveEvent extends EntityEvent {
+public class EntityMoveEvent extends EntityEvent implements Coalescable<EntityMoveEvent>, Poolable {
+    private Position fromLoc;
+    private Position toLoc;
+
+    /**
+     * Creates a blank event, to be filled in with {@link #init(Entity, Position, Position)}
+     */
+    public EntityMoveEvent() {
+        this(null, null, null);
+    }
+
     public EntityMoveEvent(Entity entity) {
+        this(entity, null, null);
+    }
+
+    public EntityMoveEvent(Entity entity, Position from, Position to) {
         super(entity);
+        this.fromLoc = from;
+        this.toLoc = to;
+    }
+
+    /**
+     * Return previous position
+     *
+     * @return returns the previous entity position, or {@code null} if unknown
+     */
+    public Position fromLocation() {
+        this.checkLeased();
+        return this.fromLoc;
+    }
+
+    /**
+     * Return next position
+     *
+     * @return returns the next entity position, or {@code null} if unknown
+     */
+    public Position toLocation() {
+        this.checkLeased();
+        return this.toLoc;
+    }
+
+    /**
+     * Sets the entity and positions of a pooled event
+     *
+     * @param entity the entity which moved
+     * @param from   the previous position
+     * @param to     the next position
+     * @return this event
+     */
+    public EntityMoveEvent init(Entity entity, Position from, Position to) {
+        this.setEntity(entity);
+        this.fromLoc = from;
+        this.toLoc = to;
+        return this;
+    }
+
+    @Override
+    public void reset() {
+        this.setEntity(null);
+        this.fromLoc = null;
+        this.toLoc = null;
+        this.cancel(false);
+    }
+
+    /**
+     * Creates a new event of the same type as this event for the entity of this event
+     *
+     * @param from the previous position
+     * @param to   the next position
+     * @return the new event
+     */
+    protected EntityMoveEvent moved(Position from, Position to) {
+        return new EntityMoveEvent(this.entity(), from, to);
+    }
+
+    @Override
+    public Object coalesceKey() {
+        return this.entity();
+    }
+
+    @Override
+    public EntityMoveEvent coalesce(EntityMoveEvent later) {
+        return this.moved(this.fromLocation(), later.toLocation());
+    }
+
+    @Override
+    public EntityMoveEvent detach() {
+        return this.moved(this.fromLocation(), this.toLocation());
     }
 }
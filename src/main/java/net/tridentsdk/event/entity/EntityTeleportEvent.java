@@ -17,6 +17,7 @@
 
 package net.tridentsdk.event.entity;
 
+import net.tridentsdk.base.Position;
 import net.tridentsdk.entity.Entity;
 
 /**
@@ -29,4 +30,13 @@ public class EntityTeleportEvent extends EntityMoveEvent {
     public EntityTeleportEvent(Entity entity) {
         super(entity);
     }
+
+    public EntityTeleportEvent(Entity entity, Position from, Position to) {
+        super(entity, from, to);
+    }
+
+    @Override
+    protected EntityMoveEvent moved(Position from, Position to) {
+        return new EntityTeleportEvent(this.entity(), from, to);
+    }
 }
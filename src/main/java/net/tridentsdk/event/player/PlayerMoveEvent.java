@@ -20,14 +20,17 @@ package net.tridentsdk.event.player;
 import net.tridentsdk.base.Position;
 import net.tridentsdk.entity.living.Player;
 import net.tridentsdk.event.Cancellable;
+import net.tridentsdk.event.Coalescable;
 
 /**
  * Called when a player moves their position
  *
+ * <p>Moves by the same player coalesce into a single move from the first origin to the last destination.</p>
+ *
  * @author The TridentSDK Team
  * @since 0.3-alpha-DP
  */
-public class PlayerMoveEvent extends PlayerEvent implements Cancellable {
+public class PlayerMoveEvent extends PlayerEvent implements Cancellable, Coalescable<PlayerMoveEvent> {
     private final Position fromLoc;
     private final Position toLoc;
     private boolean cancelled;
@@ -66,4 +69,14 @@ public class PlayerMoveEvent extends PlayerEvent implements Cancellable {
     public void cancel(boolean cancelled) {
         this.cancelled = cancelled;
     }
+
+    @Override
+    public Object coalesceKey() {
+        return this.player();
+    }
+
+    @Override
+    public PlayerMoveEvent coalesce(PlayerMoveEvent later) {
+        return new PlayerMoveEvent(this.player(), this.fromLoc, later.toLoc);
+    }
 }
@@ -0,0 +1,145 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Writes big-endian primitives straight into an array which is expected to be allocated at its final size
+ *
+ * <p>The array is grown if more is written than expected, which only happens when a tag is modified while it is
+ * being encoded.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@NotThreadSafe
+class ArrayOutput implements DataOutput {
+    private byte[] bytes;
+    private int position;
+
+    ArrayOutput(int size) {
+        this.bytes = new byte[size];
+    }
+
+    private void require(int length) {
+        if (this.position + length > this.bytes.length) {
+            this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length << 1, this.position + length));
+        }
+    }
+
+    /**
+     * The written bytes, which is the array that was allocated if it was filled exactly
+     */
+    byte[] toByteArray() {
+        return this.position == this.bytes.length ? this.bytes : Arrays.copyOf(this.bytes, this.position);
+    }
+
+    @Override
+    public void write(int b) {
+        this.require(1);
+        this.bytes[this.position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b) {
+        this.write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        this.require(len);
+        System.arraycopy(b, off, this.bytes, this.position, len);
+        this.position += len;
+    }
+
+    @Override
+    public void writeBoolean(boolean v) {
+        this.write(v ? 1 : 0);
+    }
+
+    @Override
+    public void writeByte(int v) {
+        this.write(v);
+    }
+
+    @Override
+    public void writeShort(int v) {
+        this.require(2);
+        this.bytes[this.position++] = (byte) (v >>> 8);
+        this.bytes[this.position++] = (byte) v;
+    }
+
+    @Override
+    public void writeChar(int v) {
+        this.writeShort(v);
+    }
+
+    @Override
+    public void writeInt(int v) {
+        this.require(4);
+        this.bytes[this.position++] = (byte) (v >>> 24);
+        this.bytes[this.position++] = (byte) (v >>> 16);
+        this.bytes[this.position++] = (byte) (v >>> 8);
+        this.bytes[this.position++] = (byte) v;
+    }
+
+    @Override
+    public void writeLong(long v) {
+        this.writeInt((int) (v >>> 32));
+        this.writeInt((int) v);
+    }
+
+    @Override
+    public void writeFloat(float v) {
+        this.writeInt(Float.floatToIntBits(v));
+    }
+
+    @Override
+    public void writeDouble(double v) {
+        this.writeLong(Double.doubleToLongBits(v));
+    }
+
+    @Override
+    public void writeBytes(String s) {
+        this.require(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            this.bytes[this.position++] = (byte) s.charAt(i);
+        }
+    }
+
+    @Override
+    public void writeChars(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            this.writeShort(s.charAt(i));
+        }
+    }
+
+    @Override
+    public void writeUTF(String s) throws IOException {
+        int length = ModifiedUtf8.length(s);
+        ModifiedUtf8.check(length);
+
+        this.writeShort(length);
+        this.require(length);
+        this.position = ModifiedUtf8.encode(s, this.bytes, this.position);
+    }
+}
@@ -17,23 +17,87 @@
 
 package net.tridentsdk.meta.nbt;
 
+import java.nio.ByteBuffer;
+
 /**
  * @author The TridentSDK Team
  * @since 0.3-alpha-DP
  */
 public class ByteArrayTag extends NBTTag {
     volatile byte[] value;
+    // Read-only region of a decoded buffer, dropped once the value is copied out of it
+    volatile ByteBuffer view;
 
     public ByteArrayTag(String name) {
         super(name);
     }
 
+    /**
+     * Obtains the array held by this tag
+     *
+     * <p>If this tag was decoded as a view over a buffer, the bytes are copied into a new array on the first call.
+     * Use {@link #buffer()} or {@link #length()} to inspect the value without copying it.</p>
+     *
+     * @return the array value, which may be mutated
+     */
     public byte[] value() {
-        return this.value;
+        byte[] value = this.value;
+        if (value == null && this.view != null) {
+            synchronized (this) {
+                value = this.value;
+                if (value == null && this.view != null) {
+                    ByteBuffer view = this.view.duplicate();
+                    value = new byte[view.remaining()];
+                    view.get(value);
+
+                    this.value = value;
+                    this.view = null;
+                }
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Obtains the value as a read-only buffer, without copying a buffer backed value
+     *
+     * @return the read-only value, or {@code null} if there is none
+     */
+    public ByteBuffer buffer() {
+        ByteBuffer view = this.view;
+        if (view != null) {
+            return view.duplicate();
+        }
+
+        byte[] value = this.value;
+        return value == null ? null : ByteBuffer.wrap(value).asReadOnlyBuffer();
+    }
+
+    /**
+     * The amount of elements in the value
+     *
+     * @return the value length, {@code 0} if there is no value
+     */
+    public int length() {
+        ByteBuffer view = this.view;
+        if (view != null) {
+            return view.remaining();
+        }
+
+        byte[] value = this.value;
+        return value == null ? 0 : value.length;
     }
 
     public ByteArrayTag setValue(byte... value) {
         this.value = value;
+        this.view = null;
+        return this;
+    }
+
+    ByteArrayTag setView(ByteBuffer view) {
+        this.view = view;
+        this.value = null;
         return this;
     }
 
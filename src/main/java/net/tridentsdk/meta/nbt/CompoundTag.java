@@ -17,52 +17,265 @@
 
 package net.tridentsdk.meta.nbt;
 
-import com.google.common.collect.Lists;
-
-import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
+ * A named collection of tags
+ *
+ * <p>Children added with the typed {@code put} methods, which is how the {@link NBTDecoder} and
+ * {@link CompoundTagBuilder} add numbers, are stored unboxed. Reading them back through the typed {@code get}
+ * methods does not create any objects. A tag object for such a child is created the first time it is obtained with
+ * {@link #getTag(String)} or {@link #listTags()}, and the same object is returned from then on.</p>
+ *
  * @author The TridentSDK Team
  * @since 0.3-alpha-DP
  */
 public class CompoundTag extends NBTTag implements TagContainer {
-    // Will work for now
-    final Map<String, NBTTag> tags = Collections.synchronizedMap(new LinkedHashMap<>()); //Hashmap for quick lookup with names
+    final TagTable tags;
 
     public CompoundTag(String name) {
+        this(name, new TagTable());
+    }
+
+    /**
+     * Creates a compound with the given storage
+     *
+     * @param name the name of the compound
+     * @param tags the storage of the children, or {@code null} if the subclass overrides every method using it
+     */
+    CompoundTag(String name, TagTable tags) {
         super(name);
+        this.tags = tags;
     }
 
     public List<NBTTag> listTags() {
-        return Lists.newArrayList(this.tags.values());
+        synchronized (this.tags) {
+            return this.tags.boxAll();
+        }
+    }
+
+    // Children as they are stored, without creating tags for scalars or decoding lazily held children
+    TagTable storedTags() {
+        synchronized (this.tags) {
+            return this.tags.copy();
+        }
     }
 
     public boolean containsTag(String name) {
-        return this.tags.containsKey(name);
+        synchronized (this.tags) {
+            return this.tags.find(name) >= 0;
+        }
     }
 
     public NBTTag getTag(String name) {
-        return this.tags.containsKey(name) ? this.tags.get(name) : new NullTag(name);
+        synchronized (this.tags) {
+            int position = this.tags.find(name);
+            return position < 0 ? new NullTag(name) : this.tags.box(position);
+        }
     }
 
     public <T extends NBTTag> T getTagAs(String name) {
         return (T) getTag(name);
     }
 
+    /**
+     * Obtains the type of the child with the given name, without creating a tag for it
+     *
+     * @param name the name of the child
+     * @return the type of the child, or {@link TagType#NULL} if there is none
+     */
+    public TagType typeOf(String name) {
+        synchronized (this.tags) {
+            int position = this.tags.find(name);
+            return position < 0 ? TagType.NULL : TagType.fromId(this.tags.typeAt(position));
+        }
+    }
+
     @Override
     public void addTag(NBTTag tag) {
-        this.tags.put(tag.name(), tag);
+        synchronized (this.tags) {
+            this.tags.putTag(tag);
+        }
     }
 
     public void removeTag(String name) {
-        this.tags.remove(name);
+        synchronized (this.tags) {
+            this.tags.remove(name);
+        }
     }
 
     public void clearTags() {
-        this.tags.clear();
+        synchronized (this.tags) {
+            this.tags.clear();
+        }
+    }
+
+    /**
+     * Obtains the value of the {@code BYTE} child with the given name without creating a tag for it
+     *
+     * @param name the name of the child
+     * @param def the value to return if there is no {@code BYTE} child with the name
+     * @return the value of the child
+     */
+    public byte getByte(String name, byte def) {
+        return (byte) this.scalar(name, TagType.BYTE, def);
+    }
+
+    /**
+     * Obtains the value of the {@code SHORT} child with the given name without creating a tag for it
+     *
+     * @param name the name of the child
+     * @param def the value to return if there is no {@code SHORT} child with the name
+     * @return the value of the child
+     */
+    public short getShort(String name, short def) {
+        return (short) this.scalar(name, TagType.SHORT, def);
+    }
+
+    /**
+     * Obtains the value of the {@code INT} child with the given name without creating a tag for it
+     *
+     * @param name the name of the child
+     * @param def the value to return if there is no {@code INT} child with the name
+     * @return the value of the child
+     */
+    public int getInt(String name, int def) {
+        return (int) this.scalar(name, TagType.INT, def);
+    }
+
+    /**
+     * Obtains the value of the {@code LONG} child with the given name without creating a tag for it
+     *
+     * @param name the name of the child
+     * @param def the value to return if there is no {@code LONG} child with the name
+     * @return the value of the child
+     */
+    public long getLong(String name, long def) {
+        return this.scalar(name, TagType.LONG, def);
+    }
+
+    /**
+     * Obtains the value of the {@code FLOAT} child with the given name without creating a tag for it
+     *
+     * @param name the name of the child
+     * @param def the value to return if there is no {@code FLOAT} child with the name
+     * @return the value of the child
+     */
+    public float getFloat(String name, float def) {
+        return Float.intBitsToFloat((int) this.scalar(name, TagType.FLOAT, Float.floatToRawIntBits(def)));
+    }
+
+    /**
+     * Obtains the value of the {@code DOUBLE} child with the given name without creating a tag for it
+     *
+     * @param name the name of the child
+     * @param def the value to return if there is no {@code DOUBLE} child with the name
+     * @return the value of the child
+     */
+    public double getDouble(String name, double def) {
+        return Double.longBitsToDouble(this.scalar(name, TagType.DOUBLE, Double.doubleToRawLongBits(def)));
+    }
+
+    /**
+     * Adds or replaces a child of type {@code BYTE}, which is stored unboxed
+     *
+     * @param name the name of the child
+     * @param value the value of the child
+     */
+    public void putByte(String name, byte value) {
+        this.putScalar(name, TagType.BYTE, value);
+    }
+
+    /**
+     * Adds or replaces a child of type {@code SHORT}, which is stored unboxed
+     *
+     * @param name the name of the child
+     * @param value the value of the child
+     */
+    public void putShort(String name, short value) {
+        this.putScalar(name, TagType.SHORT, value);
+    }
+
+    /**
+     * Adds or replaces a child of type {@code INT}, which is stored unboxed
+     *
+     * @param name the name of the child
+     * @param value the value of the child
+     */
+    public void putInt(String name, int value) {
+        this.putScalar(name, TagType.INT, value);
+    }
+
+    /**
+     * Adds or replaces a child of type {@code LONG}, which is stored unboxed
+     *
+     * @param name the name of the child
+     * @param value the value of the child
+     */
+    public void putLong(String name, long value) {
+        this.putScalar(name, TagType.LONG, value);
+    }
+
+    /**
+     * Adds or replaces a child of type {@code FLOAT}, which is stored unboxed
+     *
+     * @param name the name of the child
+     * @param value the value of the child
+     */
+    public void putFloat(String name, float value) {
+        this.putScalar(name, TagType.FLOAT, Float.floatToRawIntBits(value));
+    }
+
+    /**
+     * Adds or replaces a child of type {@code DOUBLE}, which is stored unboxed
+     *
+     * @param name the name of the child
+     * @param value the value of the child
+     */
+    public void putDouble(String name, double value) {
+        this.putScalar(name, TagType.DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    void putScalar(String name, TagType type, long bits) {
+        synchronized (this.tags) {
+            this.tags.putScalar(name, type, bits);
+        }
+    }
+
+    long scalar(String name, TagType type, long def) {
+        synchronized (this.tags) {
+            int position = this.tags.find(name);
+            if (position < 0 || this.tags.typeAt(position) != type.id()) {
+                return def;
+            }
+
+            NBTTag tag = this.tags.tagAt(position);
+            if (tag == null) {
+                return this.tags.scalarAt(position);
+            }
+        }
+
+        // Held as an object, which may also need to be decoded first
+        return bits(this.getTag(name));
+    }
+
+    static long bits(NBTTag tag) {
+        switch (tag.type()) {
+            case BYTE:
+                return ((ByteTag) tag).value();
+            case SHORT:
+                return ((ShortTag) tag).value();
+            case INT:
+                return ((IntTag) tag).value();
+            case LONG:
+                return ((LongTag) tag).value();
+            case FLOAT:
+                return Float.floatToRawIntBits(((FloatTag) tag).value());
+            case DOUBLE:
+                return Double.doubleToRawLongBits(((DoubleTag) tag).value());
+            default:
+                return 0;
+        }
     }
 
     /* (non-Javadoc)
@@ -69,17 +69,17 @@ public class CompoundTagBuilder<B> {
     }
 
     public CompoundTagBuilder<B> byteTag(String name, byte value) {
-        this.current.addTag(new ByteTag(name).setValue(value));
+        this.current.putByte(name, value);
         return this;
     }
 
     public CompoundTagBuilder<B> doubleTag(String name, double value) {
-        this.current.addTag(new DoubleTag(name).setValue(value));
+        this.current.putDouble(name, value);
         return this;
     }
 
     public CompoundTagBuilder<B> floatTag(String name, float value) {
-        this.current.addTag(new FloatTag(name).setValue(value));
+        this.current.putFloat(name, value);
         return this;
     }
 
@@ -89,17 +89,17 @@ public class CompoundTagBuilder<B> {
     }
 
     public CompoundTagBuilder<B> intTag(String name, int value) {
-        this.current.addTag(new IntTag(name).setValue(value));
+        this.current.putInt(name, value);
         return this;
     }
 
     public CompoundTagBuilder<B> longTag(String name, long value) {
-        this.current.addTag(new LongTag(name).setValue(value));
+        this.current.putLong(name, value);
         return this;
     }
 
     public CompoundTagBuilder<B> shortTag(String name, short value) {
-        this.current.addTag(new ShortTag(name).setValue(value));
+        this.current.putShort(name, value);
         return this;
     }
 
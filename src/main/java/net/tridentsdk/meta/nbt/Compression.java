@@ -0,0 +1,61 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+/**
+ * The compression formats that NBT data is stored or sent in
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+public enum Compression {
+    /**
+     * Uncompressed data
+     */
+    NONE,
+    /**
+     * GZIP, used by level and player data files
+     */
+    GZIP,
+    /**
+     * zlib, used by region file chunks and the network protocol
+     */
+    ZLIB;
+
+    /**
+     * Guesses the compression of the data starting with the given two bytes
+     *
+     * <p>Uncompressed NBT starts with a compound tag id, which cannot be confused with the GZIP or zlib headers</p>
+     *
+     * @param first the first byte of the data
+     * @param second the second byte of the data
+     * @return the compression of the data
+     */
+    public static Compression detect(byte first, byte second) {
+        if (first == (byte) 0x1F && second == (byte) 0x8B) {
+            return GZIP;
+        }
+
+        // zlib CMF byte of deflate with any window size, the header must be a multiple of 31
+        if ((first & 0x0F) == 8 && (((first & 0xFF) << 8) | (second & 0xFF)) % 31 == 0) {
+            return ZLIB;
+        }
+
+        return NONE;
+    }
+}
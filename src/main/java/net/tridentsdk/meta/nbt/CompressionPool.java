@@ -0,0 +1,473 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Holds the {@link Deflater}s, {@link Inflater}s and buffers that compressed NBT is read and written with, one set per
+ * thread
+ *
+ * <p>A thread which is already using its set, for example because the stream being compressed to is itself
+ * compressing NBT, is given a temporary set which is discarded afterwards.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@NotThreadSafe
+final class CompressionPool {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int GZIP_MAGIC = 0x8B1F;
+    private static final ThreadLocal<CompressionPool> POOL = ThreadLocal.withInitial(() -> new CompressionPool(true));
+
+    private final boolean pooled;
+    private final byte[] input = new byte[BUFFER_SIZE];
+    private final byte[] output = new byte[BUFFER_SIZE];
+    private final CRC32 crc = new CRC32();
+    private Deflater gzipDeflater;
+    private Deflater zlibDeflater;
+    private Inflater gzipInflater;
+    private Inflater zlibInflater;
+    private boolean busy;
+
+    private CompressionPool(boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    private static CompressionPool acquire() {
+        CompressionPool pool = POOL.get();
+        if (pool.busy) {
+            pool = new CompressionPool(false);
+        }
+
+        pool.busy = true;
+        pool.crc.reset();
+        return pool;
+    }
+
+    /**
+     * Opens a stream which compresses the data written to it into the given stream
+     *
+     * <p>The stream must be closed to write the end of the compressed data, which does not close the given
+     * stream</p>
+     *
+     * @param out the stream to write the compressed data to
+     * @param compression the compression to use
+     * @param level the deflate level, from {@code 0} to {@code 9}, or {@link Deflater#DEFAULT_COMPRESSION}
+     * @return the compressing stream
+     */
+    static OutputStream compress(OutputStream out, Compression compression, int level) throws IOException {
+        CompressionPool pool = acquire();
+        Deflater deflater = null;
+        if (compression == Compression.GZIP) {
+            if (pool.gzipDeflater == null) {
+                pool.gzipDeflater = new Deflater(level, true);
+            }
+            deflater = pool.gzipDeflater;
+        } else if (compression == Compression.ZLIB) {
+            if (pool.zlibDeflater == null) {
+                pool.zlibDeflater = new Deflater(level);
+            }
+            deflater = pool.zlibDeflater;
+        }
+
+        if (deflater != null) {
+            deflater.reset();
+            deflater.setLevel(level);
+        }
+
+        try {
+            return new DeflatingOutput(pool, out, deflater, compression == Compression.GZIP);
+        } catch (IOException | RuntimeException e) {
+            pool.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a stream which decompresses the data read from the given stream
+     *
+     * <p>Data is read from the given stream in blocks, so it may be read past the end of the compressed data</p>
+     *
+     * @param in the stream to read the compressed data from
+     * @param compression the compression of the data
+     * @return the decompressing stream
+     */
+    static InflatingInput decompress(InputStream in, Compression compression) throws IOException {
+        CompressionPool pool = acquire();
+        Inflater inflater = null;
+        if (compression == Compression.GZIP) {
+            if (pool.gzipInflater == null) {
+                pool.gzipInflater = new Inflater(true);
+            }
+            inflater = pool.gzipInflater;
+        } else if (compression == Compression.ZLIB) {
+            if (pool.zlibInflater == null) {
+                pool.zlibInflater = new Inflater();
+            }
+            inflater = pool.zlibInflater;
+        }
+
+        if (inflater != null) {
+            inflater.reset();
+        }
+
+        InflatingInput stream = new InflatingInput(pool, in, inflater, compression == Compression.GZIP);
+        try {
+            stream.readHeader();
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+
+        return stream;
+    }
+
+    private void release() {
+        if (this.pooled) {
+            this.busy = false;
+            return;
+        }
+
+        if (this.gzipDeflater != null) this.gzipDeflater.end();
+        if (this.zlibDeflater != null) this.zlibDeflater.end();
+        if (this.gzipInflater != null) this.gzipInflater.end();
+        if (this.zlibInflater != null) this.zlibInflater.end();
+    }
+
+    private static final class DeflatingOutput extends OutputStream {
+        private final CompressionPool pool;
+        private final OutputStream out;
+        private final Deflater deflater;
+        private final boolean gzip;
+        private final byte[] input;
+        private int count;
+        private boolean closed;
+
+        DeflatingOutput(CompressionPool pool, OutputStream out, Deflater deflater, boolean gzip) throws IOException {
+            this.pool = pool;
+            this.out = out;
+            this.deflater = deflater;
+            this.gzip = gzip;
+            this.input = pool.input;
+
+            if (gzip) {
+                out.write(new byte[] { 0x1F, (byte) 0x8B, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 });
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (this.count == this.input.length) {
+                this.flushInput();
+            }
+
+            this.input[this.count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len >= this.input.length) {
+                this.flushInput();
+                this.deflate(b, off, len);
+                return;
+            }
+
+            if (this.count + len > this.input.length) {
+                this.flushInput();
+            }
+
+            System.arraycopy(b, off, this.input, this.count, len);
+            this.count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.flushInput();
+            this.out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.closed) {
+                return;
+            }
+
+            this.closed = true;
+            try {
+                this.flushInput();
+                if (this.deflater != null) {
+                    this.deflater.finish();
+                    byte[] output = this.pool.output;
+                    while (!this.deflater.finished()) {
+                        int length = this.deflater.deflate(output, 0, output.length);
+                        this.out.write(output, 0, length);
+                    }
+
+                    if (this.gzip) {
+                        this.writeTrailer((int) this.pool.crc.getValue(), (int) this.deflater.getBytesRead());
+                    }
+                }
+                this.out.flush();
+            } finally {
+                this.pool.release();
+            }
+        }
+
+        private void flushInput() throws IOException {
+            if (this.count > 0) {
+                this.deflate(this.input, 0, this.count);
+                this.count = 0;
+            }
+        }
+
+        private void deflate(byte[] b, int off, int len) throws IOException {
+            if (this.deflater == null) {
+                this.out.write(b, off, len);
+                return;
+            }
+
+            if (this.gzip) {
+                this.pool.crc.update(b, off, len);
+            }
+
+            byte[] output = this.pool.output;
+            this.deflater.setInput(b, off, len);
+            while (!this.deflater.needsInput()) {
+                int length = this.deflater.deflate(output, 0, output.length);
+                this.out.write(output, 0, length);
+            }
+        }
+
+        private void writeTrailer(int crc, int size) throws IOException {
+            byte[] trailer = new byte[8];
+            for (int i = 0; i < 4; i++) {
+                trailer[i] = (byte) (crc >>> (i << 3));
+                trailer[i + 4] = (byte) (size >>> (i << 3));
+            }
+            this.out.write(trailer);
+        }
+    }
+
+    static final class InflatingInput extends InputStream {
+        private final CompressionPool pool;
+        private final InputStream in;
+        private final Inflater inflater;
+        private final boolean gzip;
+        // Compressed data which has been read from the stream, but not yet given to the inflater
+        private final byte[] input;
+        private int inputPosition;
+        private int inputLimit;
+        // Decompressed data which has not been read yet
+        private final byte[] output;
+        private int outputPosition;
+        private int outputLimit;
+        private boolean eof;
+        private boolean closed;
+
+        InflatingInput(CompressionPool pool, InputStream in, Inflater inflater, boolean gzip) {
+            this.pool = pool;
+            this.in = in;
+            this.inflater = inflater;
+            this.gzip = gzip;
+            this.input = pool.input;
+            this.output = pool.output;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (this.outputPosition == this.outputLimit && !this.fill()) {
+                return -1;
+            }
+
+            return this.output[this.outputPosition++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+
+            if (this.outputPosition == this.outputLimit && !this.fill()) {
+                return -1;
+            }
+
+            int length = Math.min(len, this.outputLimit - this.outputPosition);
+            System.arraycopy(this.output, this.outputPosition, b, off, length);
+            this.outputPosition += length;
+            return length;
+        }
+
+        @Override
+        public int available() {
+            return this.outputLimit - this.outputPosition;
+        }
+
+        @Override
+        public void close() {
+            if (!this.closed) {
+                this.closed = true;
+                this.pool.release();
+            }
+        }
+
+        /**
+         * Reads the rest of the data so that the GZIP checksum is verified
+         */
+        void drain() throws IOException {
+            while (this.fill()) {
+                this.outputPosition = this.outputLimit;
+            }
+        }
+
+        private boolean fill() throws IOException {
+            if (this.eof) {
+                return false;
+            }
+
+            if (this.inflater == null) {
+                int length = this.in.read(this.output, 0, this.output.length);
+                if (length < 0) {
+                    this.eof = true;
+                    return false;
+                }
+
+                this.outputPosition = 0;
+                this.outputLimit = length;
+                return true;
+            }
+
+            try {
+                while (true) {
+                    int length = this.inflater.inflate(this.output, 0, this.output.length);
+                    if (length > 0) {
+                        if (this.gzip) {
+                            this.pool.crc.update(this.output, 0, length);
+                        }
+
+                        this.outputPosition = 0;
+                        this.outputLimit = length;
+                        return true;
+                    }
+
+                    if (this.inflater.finished()) {
+                        this.inputPosition = this.inputLimit - this.inflater.getRemaining();
+                        if (this.gzip) {
+                            this.readTrailer();
+                        }
+
+                        this.eof = true;
+                        return false;
+                    }
+
+                    if (this.inflater.needsDictionary()) {
+                        throw new IOException("Compressed NBT data requires a preset dictionary");
+                    }
+
+                    if (this.inflater.needsInput()) {
+                        this.refill();
+                        this.inflater.setInput(this.input, 0, this.inputLimit);
+                        this.inputPosition = this.inputLimit;
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt compressed NBT data", e);
+            }
+        }
+
+        private void refill() throws IOException {
+            int length = this.in.read(this.input, 0, this.input.length);
+            if (length < 0) {
+                throw new EOFException("Unexpected end of compressed NBT data");
+            }
+
+            this.inputPosition = 0;
+            this.inputLimit = length;
+        }
+
+        private int readRaw() throws IOException {
+            if (this.inputPosition == this.inputLimit) {
+                this.refill();
+            }
+
+            return this.input[this.inputPosition++] & 0xFF;
+        }
+
+        private int readRawShort() throws IOException {
+            return this.readRaw() | this.readRaw() << 8;
+        }
+
+        private int readRawInt() throws IOException {
+            return this.readRawShort() | this.readRawShort() << 16;
+        }
+
+        void readHeader() throws IOException {
+            if (!this.gzip) {
+                return;
+            }
+
+            if (this.readRawShort() != GZIP_MAGIC || this.readRaw() != Deflater.DEFLATED) {
+                throw new IOException("Not GZIP compressed data");
+            }
+
+            int flags = this.readRaw();
+            // Modification time, extra flags and operating system
+            for (int i = 0; i < 6; i++) {
+                this.readRaw();
+            }
+
+            if ((flags & 4) != 0) {
+                for (int extra = this.readRawShort(); extra > 0; extra--) {
+                    this.readRaw();
+                }
+            }
+
+            if ((flags & 8) != 0) {
+                while (this.readRaw() != 0);
+            }
+
+            if ((flags & 16) != 0) {
+                while (this.readRaw() != 0);
+            }
+
+            if ((flags & 2) != 0) {
+                this.readRawShort();
+            }
+
+            this.inflater.setInput(this.input, this.inputPosition, this.inputLimit - this.inputPosition);
+            this.inputPosition = this.inputLimit;
+        }
+
+        private void readTrailer() throws IOException {
+            int crc = this.readRawInt();
+            int size = this.readRawInt();
+            if (crc != (int) this.pool.crc.getValue() || size != (int) this.inflater.getBytesWritten()) {
+                throw new IOException("Corrupt GZIP trailer");
+            }
+        }
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import javax.annotation.concurrent.Immutable;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compound tag which cannot be modified, and which is changed by creating new versions with {@link #with(NBTTag)}
+ * and {@link #without(String)}
+ *
+ * <p>Children are held in a hash trie, so a new version is created in {@code O(log n)} and shares every unchanged
+ * child, including whole nested compounds and lists, with the version it was created from. Two item stacks which
+ * only differ in one enchantment or durability value hold one copy of the rest of their data.</p>
+ *
+ * <p>Nested compounds and lists are also immutable. Other children are copied when they are added and when they are
+ * obtained, so modifying an obtained tag does not change the compound. Array children are obtained as read-only
+ * views, which are only copied when their value is obtained. The methods inherited from {@link CompoundTag} which
+ * modify the compound throw {@link UnsupportedOperationException}.</p>
+ *
+ * <p>Children are listed and encoded in the order of their hashes, not in the order they were added.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@Immutable
+public final class ImmutableCompoundTag extends CompoundTag {
+    private final TagTrie trie;
+    private final int size;
+
+    private ImmutableCompoundTag(String name, TagTrie trie, int size) {
+        super(name, null);
+        this.trie = trie;
+        this.size = size;
+    }
+
+    /**
+     * Creates an empty compound
+     *
+     * @param name the name of the compound
+     * @return the new compound
+     */
+    public static ImmutableCompoundTag of(String name) {
+        return new ImmutableCompoundTag(name, TagTrie.EMPTY, 0);
+    }
+
+    /**
+     * Creates an immutable copy of a compound and everything nested inside of it
+     *
+     * @param tag the compound to copy
+     * @return the copy, or the given compound if it is already immutable
+     */
+    public static ImmutableCompoundTag copyOf(CompoundTag tag) {
+        if (tag instanceof ImmutableCompoundTag) {
+            return (ImmutableCompoundTag) tag;
+        }
+
+        TagTrie trie = TagTrie.EMPTY;
+        int size = 0;
+        boolean[] added = new boolean[1];
+
+        TagTable table = tag.storedTags();
+        for (int i = 0; i < table.used(); i++) {
+            String key = table.keyAt(i);
+            if (key == null) {
+                continue;
+            }
+
+            // Unboxed scalars are boxed into a tag nothing else holds, which needs no further copy
+            NBTTag child = table.tagAt(i);
+            if (child == null) {
+                child = TagTable.box(key, table.typeAt(i), table.scalarAt(i));
+            } else if (child instanceof RawTag) {
+                child = freeze(((RawTag) child).decode());
+            } else {
+                child = freeze(child);
+            }
+
+            added[0] = false;
+            trie = trie.put(key, TagTrie.hash(key), child, 0, added);
+            if (added[0]) {
+                size++;
+            }
+        }
+
+        return new ImmutableCompoundTag(tag.name(), trie, size);
+    }
+
+    /**
+     * Creates a version of this compound with the given child added, or replacing the child with the same name
+     *
+     * @param tag the child to add
+     * @return the new version
+     */
+    public ImmutableCompoundTag with(NBTTag tag) {
+        String key = TagTrie.key(tag.name());
+        boolean[] added = new boolean[1];
+        TagTrie trie = this.trie.put(key, TagTrie.hash(key), freeze(tag), 0, added);
+        return new ImmutableCompoundTag(this.name(), trie, added[0] ? this.size + 1 : this.size);
+    }
+
+    public ImmutableCompoundTag withByte(String name, byte value) {
+        return this.with(new ByteTag(name).setValue(value));
+    }
+
+    public ImmutableCompoundTag withShort(String name, short value) {
+        return this.with(new ShortTag(name).setValue(value));
+    }
+
+    public ImmutableCompoundTag withInt(String name, int value) {
+        return this.with(new IntTag(name).setValue(value));
+    }
+
+    public ImmutableCompoundTag withLong(String name, long value) {
+        return this.with(new LongTag(name).setValue(value));
+    }
+
+    public ImmutableCompoundTag withFloat(String name, float value) {
+        return this.with(new FloatTag(name).setValue(value));
+    }
+
+    public ImmutableCompoundTag withDouble(String name, double value) {
+        return this.with(new DoubleTag(name).setValue(value));
+    }
+
+    public ImmutableCompoundTag withString(String name, String value) {
+        return this.with(new StringTag(name).setValue(value));
+    }
+
+    /**
+     * Creates a version of this compound without the child with the given name
+     *
+     * @param name the name of the child to remove
+     * @return the new version, or this compound if there is no child with the name
+     */
+    public ImmutableCompoundTag without(String name) {
+        String key = TagTrie.key(name);
+        boolean[] removed = new boolean[1];
+        TagTrie trie = this.trie.remove(key, TagTrie.hash(key), 0, removed);
+        return removed[0] ? new ImmutableCompoundTag(this.name(), trie, this.size - 1) : this;
+    }
+
+    /**
+     * Creates a modifiable copy of this compound and everything nested inside of it
+     *
+     * @return the copy
+     */
+    public CompoundTag mutableCopy() {
+        CompoundTag copy = new CompoundTag(this.name());
+        for (NBTTag tag : this.listTags()) {
+            copy.addTag(thawDeep(tag));
+        }
+
+        return copy;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public List<NBTTag> listTags() {
+        List<NBTTag> tags = this.stored();
+        for (int i = 0; i < tags.size(); i++) {
+            tags.set(i, thaw(tags.get(i)));
+        }
+
+        return tags;
+    }
+
+    @Override
+    TagTable storedTags() {
+        TagTable table = new TagTable();
+        for (NBTTag tag : this.stored()) {
+            table.putTag(tag);
+        }
+
+        return table;
+    }
+
+    @Override
+    public boolean containsTag(String name) {
+        return this.stored(name) != null;
+    }
+
+    @Override
+    public NBTTag getTag(String name) {
+        NBTTag tag = this.stored(name);
+        return tag == null ? new NullTag(name) : thaw(tag);
+    }
+
+    @Override
+    public TagType typeOf(String name) {
+        NBTTag tag = this.stored(name);
+        return tag == null ? TagType.NULL : tag.type();
+    }
+
+    @Override
+    long scalar(String name, TagType type, long def) {
+        NBTTag tag = this.stored(name);
+        return tag == null || tag.type() != type ? def : bits(tag);
+    }
+
+    @Override
+    public void addTag(NBTTag tag) {
+        throw new UnsupportedOperationException("Immutable compound, use with(NBTTag)");
+    }
+
+    @Override
+    public void removeTag(String name) {
+        throw new UnsupportedOperationException("Immutable compound, use without(String)");
+    }
+
+    @Override
+    public void clearTags() {
+        throw new UnsupportedOperationException("Immutable compound");
+    }
+
+    @Override
+    void putScalar(String name, TagType type, long bits) {
+        throw new UnsupportedOperationException("Immutable compound, use with(NBTTag)");
+    }
+
+    private NBTTag stored(String name) {
+        String key = TagTrie.key(name);
+        return this.trie.get(key, TagTrie.hash(key), 0);
+    }
+
+    private List<NBTTag> stored() {
+        List<NBTTag> tags = new ArrayList<>(this.size);
+        this.trie.collect(tags);
+        return tags;
+    }
+
+    /**
+     * Turns a tag into one which is safe to share, by freezing containers and copying everything else
+     */
+    static NBTTag freeze(NBTTag tag) {
+        String name = tag.name();
+        switch (tag.type()) {
+            case COMPOUND:
+                return copyOf((CompoundTag) tag);
+
+            case LIST:
+                return ImmutableListTag.copyOf((ListTag) tag);
+
+            case BYTE_ARRAY:
+                ByteArrayTag barray = (ByteArrayTag) tag;
+                ByteBuffer bview = barray.view;
+                if (bview != null) {
+                    // Views are read-only already
+                    return new ByteArrayTag(name).setView(bview);
+                }
+                byte[] bvalue = barray.value;
+                return new ByteArrayTag(name).setValue(bvalue == null ? null : bvalue.clone());
+
+            case INT_ARRAY:
+                IntArrayTag iarray = (IntArrayTag) tag;
+                IntBuffer iview = iarray.view;
+                if (iview != null) {
+                    return new IntArrayTag(name).setView(iview);
+                }
+                int[] ivalue = iarray.value;
+                return new IntArrayTag(name).setValue(ivalue == null ? null : ivalue.clone());
+
+            default:
+                return thaw(tag);
+        }
+    }
+
+    /**
+     * Creates a tag which can be handed out for a frozen tag, without copying containers or array contents
+     */
+    static NBTTag thaw(NBTTag tag) {
+        String name = tag.name();
+        switch (tag.type()) {
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return TagTable.box(name, (byte) tag.type().id(), bits(tag));
+
+            case STRING:
+                return new StringTag(name).setValue(((StringTag) tag).value());
+
+            case BYTE_ARRAY:
+                ByteBuffer bbuffer = ((ByteArrayTag) tag).buffer();
+                return bbuffer == null ? new ByteArrayTag(name) : new ByteArrayTag(name).setView(bbuffer);
+
+            case INT_ARRAY:
+                IntBuffer ibuffer = ((IntArrayTag) tag).buffer();
+                return ibuffer == null ? new IntArrayTag(name) : new IntArrayTag(name).setView(ibuffer);
+
+            case COMPOUND:
+            case LIST:
+                return tag;
+
+            default:
+                return new NullTag(name);
+        }
+    }
+
+    static NBTTag thawDeep(NBTTag tag) {
+        if (tag instanceof ImmutableCompoundTag) {
+            return ((ImmutableCompoundTag) tag).mutableCopy();
+        }
+
+        if (tag instanceof ImmutableListTag) {
+            return ((ImmutableListTag) tag).mutableCopy();
+        }
+
+        return tag;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A list tag which cannot be modified, and which is changed by creating new versions
+ *
+ * <p>A new version copies the array of elements, but not the elements themselves, so nested compounds and lists are
+ * shared between versions. The same rules as for {@link ImmutableCompoundTag} apply to the elements.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@Immutable
+public final class ImmutableListTag extends ListTag {
+    private final NBTTag[] elements;
+
+    private ImmutableListTag(String name, TagType innerType, NBTTag[] elements) {
+        super(name, innerType, null);
+        this.elements = elements;
+    }
+
+    /**
+     * Creates an empty list
+     *
+     * @param name the name of the list
+     * @param innerType the type of the list elements
+     * @return the new list
+     */
+    public static ImmutableListTag of(String name, TagType innerType) {
+        return new ImmutableListTag(name, innerType, new NBTTag[0]);
+    }
+
+    /**
+     * Creates an immutable copy of a list and everything nested inside of it
+     *
+     * @param tag the list to copy
+     * @return the copy, or the given list if it is already immutable
+     */
+    public static ImmutableListTag copyOf(ListTag tag) {
+        if (tag instanceof ImmutableListTag) {
+            return (ImmutableListTag) tag;
+        }
+
+        List<NBTTag> tags = tag.listTags();
+        NBTTag[] elements = new NBTTag[tags.size()];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = ImmutableCompoundTag.freeze(tags.get(i));
+        }
+
+        return new ImmutableListTag(tag.name(), tag.getInnerType(), elements);
+    }
+
+    /**
+     * Creates a version of this list with the given element added to the end
+     *
+     * @param tag the element to add, which is ignored if it is not of the inner type of this list
+     * @return the new version
+     */
+    public ImmutableListTag with(NBTTag tag) {
+        if (tag.type() != this.getInnerType()) {
+            return this;
+        }
+
+        NBTTag[] elements = Arrays.copyOf(this.elements, this.elements.length + 1);
+        elements[this.elements.length] = ImmutableCompoundTag.freeze(tag);
+        return new ImmutableListTag(this.name(), this.getInnerType(), elements);
+    }
+
+    /**
+     * Creates a version of this list with the element at the given index replaced
+     *
+     * @param index the index of the element to replace
+     * @param tag the new element, which is ignored if it is not of the inner type of this list
+     * @return the new version
+     */
+    public ImmutableListTag with(int index, NBTTag tag) {
+        if (index < 0 || index >= this.elements.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.elements.length);
+        }
+
+        if (tag.type() != this.getInnerType()) {
+            return this;
+        }
+
+        NBTTag[] elements = this.elements.clone();
+        elements[index] = ImmutableCompoundTag.freeze(tag);
+        return new ImmutableListTag(this.name(), this.getInnerType(), elements);
+    }
+
+    /**
+     * Creates a version of this list without the element at the given index
+     *
+     * @param index the index of the element to remove
+     * @return the new version
+     */
+    public ImmutableListTag without(int index) {
+        if (index < 0 || index >= this.elements.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.elements.length);
+        }
+
+        NBTTag[] elements = new NBTTag[this.elements.length - 1];
+        System.arraycopy(this.elements, 0, elements, 0, index);
+        System.arraycopy(this.elements, index + 1, elements, index, elements.length - index);
+        return new ImmutableListTag(this.name(), this.getInnerType(), elements);
+    }
+
+    /**
+     * Creates a modifiable copy of this list and everything nested inside of it
+     *
+     * @return the copy
+     */
+    public ListTag mutableCopy() {
+        ListTag copy = ListTag.create(this.name(), this.getInnerType());
+        for (NBTTag element : this.elements) {
+            copy.addTag(ImmutableCompoundTag.thawDeep(ImmutableCompoundTag.thaw(element)));
+        }
+
+        return copy;
+    }
+
+    @Override
+    public int size() {
+        return this.elements.length;
+    }
+
+    @Override
+    public List<NBTTag> listTags() {
+        List<NBTTag> tags = new ArrayList<>(this.elements.length);
+        for (NBTTag element : this.elements) {
+            tags.add(ImmutableCompoundTag.thaw(element));
+        }
+
+        return tags;
+    }
+
+    @Override
+    public NBTTag getTag(int index) {
+        return ImmutableCompoundTag.thaw(this.elements[index]);
+    }
+
+    /**
+     * Checks whether the given compound or list is an element of this list, other elements are copies and are never
+     * found
+     *
+     * @param tag the tag to find
+     * @return {@code true} if the tag is an element
+     */
+    @Override
+    public boolean containsTag(NBTTag tag) {
+        for (NBTTag element : this.elements) {
+            if (element == tag) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void addTag(NBTTag tag) {
+        throw new UnsupportedOperationException("Immutable list, use with(NBTTag)");
+    }
+
+    @Override
+    void setTag(int index, NBTTag tag) {
+        throw new UnsupportedOperationException("Immutable list, use with(int, NBTTag)");
+    }
+
+    @Override
+    public void removeTag(NBTTag tag) {
+        throw new UnsupportedOperationException("Immutable list, use without(int)");
+    }
+
+    @Override
+    public void clearTags() {
+        throw new UnsupportedOperationException("Immutable list");
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Arrays;
+
+/**
+ * A list of {@code INT} tags which stores its elements in an {@code int[]}
+ *
+ * <p>The tags obtained through the {@link ListTag} methods are views of the elements, see {@link PackedListTag}.
+ * Use the {@code int} methods to work with the elements without creating any tags.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@ThreadSafe
+public class IntListTag extends PackedListTag {
+    private int[] values;
+
+    public IntListTag(String name) {
+        this(name, new int[0]);
+    }
+
+    /**
+     * Creates a new list holding the given values
+     *
+     * <p>The array is used as the storage of the list and is not copied</p>
+     *
+     * @param name the name of the list
+     * @param values the elements of the list
+     */
+    public IntListTag(String name, int[] values) {
+        super(name, TagType.INT, values.length);
+        this.values = values;
+    }
+
+    public synchronized int getInt(int index) {
+        this.check(index);
+        return this.values[index];
+    }
+
+    public synchronized void setInt(int index, int value) {
+        this.check(index);
+        this.values[index] = value;
+    }
+
+    public synchronized void addInt(int value) {
+        this.ensureSpace(this.values.length);
+        this.values[this.size++] = value;
+    }
+
+    /**
+     * Copies the elements of this list into a new array
+     *
+     * @return the elements
+     */
+    public synchronized int[] toIntArray() {
+        return Arrays.copyOf(this.values, this.size);
+    }
+
+    @Override
+    public void addTag(NBTTag tag) {
+        if (tag.type() == TagType.INT) {
+            this.addInt(((IntTag) tag).value());
+        }
+    }
+
+    @Override
+    void setTag(int index, NBTTag tag) {
+        this.setInt(index, ((IntTag) tag).value());
+    }
+
+    @Override
+    Object array() {
+        return this.values;
+    }
+
+    @Override
+    void resize(int capacity) {
+        this.values = Arrays.copyOf(this.values, capacity);
+    }
+
+    @Override
+    NBTTag view(int index) {
+        return new Element(index);
+    }
+
+    @Override
+    int indexOf(NBTTag tag) {
+        if (!(tag instanceof IntTag)) {
+            return -1;
+        }
+
+        int value = ((IntTag) tag).value();
+        for (int i = 0; i < this.size; i++) {
+            if (this.values[i] == value) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    // Reads and writes an element of the list
+    private final class Element extends IntTag {
+        private final int index;
+
+        Element(int index) {
+            super(null);
+            this.index = index;
+        }
+
+        @Override
+        public int value() {
+            return getInt(this.index);
+        }
+
+        @Override
+        public IntTag setValue(int value) {
+            setInt(this.index, value);
+            return this;
+        }
+    }
+}
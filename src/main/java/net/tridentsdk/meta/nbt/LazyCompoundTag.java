@@ -0,0 +1,89 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import java.util.List;
+
+/**
+ * A compound tag which decodes its children only when they are accessed
+ *
+ * <p>Produced by {@link NBTDecoder#decodeLazy()}, which skims over each child once to record where it starts and ends
+ * in the source buffer. A child is decoded the first time it is obtained through {@link #getTag(String)} or
+ * {@link #listTags()}, and {@link #containsTag(String)} does not decode anything. Children which were never decoded
+ * are written back by the {@link NBTEncoder} as a straight copy of their original bytes.</p>
+ *
+ * <p>Undecoded children reference the buffer that was decoded, which must not be modified while this tag is in
+ * use.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+public class LazyCompoundTag extends CompoundTag {
+    public LazyCompoundTag(String name) {
+        super(name);
+    }
+
+    @Override
+    public List<NBTTag> listTags() {
+        List<NBTTag> tags = super.listTags();
+        for (int i = 0; i < tags.size(); i++) {
+            NBTTag tag = tags.get(i);
+            if (tag instanceof RawTag) {
+                tags.set(i, this.inflate((RawTag) tag));
+            }
+        }
+
+        return tags;
+    }
+
+    @Override
+    public NBTTag getTag(String name) {
+        NBTTag tag = super.getTag(name);
+        if (tag instanceof RawTag) {
+            return this.inflate((RawTag) tag);
+        }
+
+        return tag;
+    }
+
+    /**
+     * Checks whether the child with the given name has been decoded
+     *
+     * @param name the name of the child
+     * @return {@code true} if the child is present and decoded
+     */
+    public boolean isDecoded(String name) {
+        synchronized (this.tags) {
+            int position = this.tags.find(name);
+            return position >= 0 && !(this.tags.tagAt(position) instanceof RawTag);
+        }
+    }
+
+    private NBTTag inflate(RawTag raw) {
+        NBTTag tag = raw.decode();
+
+        // Another thread may have decoded or replaced the child in the meantime
+        synchronized (this.tags) {
+            if (!this.tags.replace(raw.name(), raw, tag)) {
+                return this.getTag(raw.name());
+            }
+        }
+
+        return tag;
+    }
+}
@@ -28,12 +28,51 @@ import java.util.List;
  * @since 0.3-alpha-DP
  */
 public class ListTag extends NBTTag implements TagContainer {
-    final List<NBTTag> tags = Collections.synchronizedList(new ArrayList<>());
+    final List<NBTTag> tags;
     final TagType innerType;
 
     public ListTag(String name, TagType innerType) {
+        this(name, innerType, Collections.synchronizedList(new ArrayList<>()));
+    }
+
+    /**
+     * Creates a list with the given storage
+     *
+     * @param name the name of the list
+     * @param innerType the type of the list elements
+     * @param tags the storage of the elements, or {@code null} if the subclass overrides every method using it
+     */
+    ListTag(String name, TagType innerType, List<NBTTag> tags) {
         super(name);
         this.innerType = innerType;
+        this.tags = tags;
+    }
+
+    /**
+     * Creates a new list, which stores {@code INT}, {@code LONG}, {@code FLOAT} and {@code DOUBLE} elements in a
+     * primitive array
+     *
+     * @param name the name of the list
+     * @param innerType the type of the list elements
+     * @return the new list
+     */
+    public static ListTag create(String name, TagType innerType) {
+        switch (innerType) {
+            case INT:
+                return new IntListTag(name);
+            case LONG:
+                return new LongListTag(name);
+            case FLOAT:
+                return new FloatListTag(name);
+            case DOUBLE:
+                return new DoubleListTag(name);
+            default:
+                return new ListTag(name, innerType);
+        }
+    }
+
+    public int size() {
+        return this.tags.size();
     }
 
     public List<NBTTag> listTags() {
@@ -44,6 +83,16 @@ public class ListTag extends NBTTag implements TagContainer {
         return this.tags.get(index);
     }
 
+    /**
+     * Replaces the element at the given index with a tag of the inner type of this list
+     *
+     * @param index the index of the element
+     * @param tag the new element
+     */
+    void setTag(int index, NBTTag tag) {
+        this.tags.set(index, tag);
+    }
+
     public void clearTags() {
         this.tags.clear();
     }
@@ -31,7 +31,7 @@ public class ListTagBuilder<B> {
         this.parent = parent;
         this.parentBuilder = parentBuilder;
         this.type = type;
-        this.current = new ListTag(name, type);
+        this.current = ListTag.create(name, type);
         parent.addTag(this.current);
     }
 
@@ -61,22 +61,22 @@ public class ListTagBuilder<B> {
                 break;
             case INT:
                 if (value instanceof Integer) {
-                    this.current.addTag(new IntTag(null).setValue((int) value));
+                    ((IntListTag) this.current).addInt((int) value);
                 }
                 break;
             case LONG:
                 if (value instanceof Long) {
-                    this.current.addTag(new LongTag(null).setValue((long) value));
+                    ((LongListTag) this.current).addLong((long) value);
                 }
                 break;
             case FLOAT:
                 if (value instanceof Float) {
-                    this.current.addTag(new FloatTag(null).setValue((float) value));
+                    ((FloatListTag) this.current).addFloat((float) value);
                 }
                 break;
             case DOUBLE:
                 if (value instanceof Double) {
-                    this.current.addTag(new DoubleTag(null).setValue((double) value));
+                    ((DoubleListTag) this.current).addDouble((double) value);
                 }
                 break;
             case BYTE_ARRAY:
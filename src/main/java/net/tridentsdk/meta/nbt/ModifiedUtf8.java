@@ -0,0 +1,124 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import com.google.common.base.Charsets;
+
+import java.io.UTFDataFormatException;
+
+/**
+ * Encodes and decodes the modified UTF-8 used by NBT names and strings, which is the encoding of
+ * {@link java.io.DataOutput#writeUTF(String)}
+ *
+ * <p>It differs from standard UTF-8 only in that {@code '\u0000'} is written as two bytes and characters outside of
+ * the basic multilingual plane are written as two 3 byte surrogates.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+final class ModifiedUtf8 {
+    private ModifiedUtf8() {
+    }
+
+    /**
+     * The amount of bytes that a string is encoded to, not including the length prefix
+     *
+     * @param s the string to measure
+     * @return the encoded length
+     */
+    static int length(String s) {
+        int length = s.length();
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80 || c == 0) {
+                length += c >= 0x800 ? 2 : 1;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Encodes a string into an array, which must have space for {@link #length(String)} bytes
+     *
+     * @param s the string to encode
+     * @param dest the array to encode into
+     * @param offset the index to start writing at
+     * @return the index after the last written byte
+     */
+    static int encode(String s, byte[] dest, int offset) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80 && c != 0) {
+                dest[offset++] = (byte) c;
+            } else if (c < 0x800) {
+                dest[offset++] = (byte) (0xC0 | c >> 6);
+                dest[offset++] = (byte) (0x80 | c & 0x3F);
+            } else {
+                dest[offset++] = (byte) (0xE0 | c >> 12);
+                dest[offset++] = (byte) (0x80 | c >> 6 & 0x3F);
+                dest[offset++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+
+        return offset;
+    }
+
+    /**
+     * Decodes a string
+     *
+     * <p>Data which is not valid modified UTF-8, such as standard UTF-8 with 4 byte characters, is decoded as
+     * standard UTF-8 instead</p>
+     *
+     * @param bytes the array holding the encoded string
+     * @param offset the index of the first byte
+     * @param length the amount of bytes
+     * @return the decoded string
+     */
+    static String decode(byte[] bytes, int offset, int length) {
+        char[] chars = new char[length];
+        int count = 0;
+        int end = offset + length;
+
+        int i = offset;
+        while (i < end) {
+            int b = bytes[i] & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+                i++;
+            } else if ((b & 0xE0) == 0xC0 && i + 1 < end && (bytes[i + 1] & 0xC0) == 0x80) {
+                chars[count++] = (char) ((b & 0x1F) << 6 | bytes[i + 1] & 0x3F);
+                i += 2;
+            } else if ((b & 0xF0) == 0xE0 && i + 2 < end && (bytes[i + 1] & 0xC0) == 0x80 &&
+                    (bytes[i + 2] & 0xC0) == 0x80) {
+                chars[count++] = (char) ((b & 0x0F) << 12 | (bytes[i + 1] & 0x3F) << 6 | bytes[i + 2] & 0x3F);
+                i += 3;
+            } else {
+                return new String(bytes, offset, length, Charsets.UTF_8);
+            }
+        }
+
+        return new String(chars, 0, count);
+    }
+
+    static void check(int length) throws UTFDataFormatException {
+        if (length > 0xFFFF) {
+            throw new UTFDataFormatException("Encoded string too long: " + length + " bytes");
+        }
+    }
+}
@@ -47,5 +47,14 @@ public class NBTBuilder {
     public CompoundTag build() {
         return this.base;
     }
+
+    /**
+     * Builds the compound as an {@link ImmutableCompoundTag}, which is a copy of the compound built so far
+     *
+     * @return the immutable compound
+     */
+    public ImmutableCompoundTag freeze() {
+        return ImmutableCompoundTag.copyOf(this.base);
+    }
 }
 
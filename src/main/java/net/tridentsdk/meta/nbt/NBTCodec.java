@@ -0,0 +1,583 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import net.tridentsdk.util.TridentLogger;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The serialization plan for a single {@link NBTSerializable} class, built once on first use
+ *
+ * <p>Every {@link NBTField} is bound to a getter and setter method handle and to the tag type it reads and writes
+ * when the codec is created, so serializing does not reflect, re-read annotations or switch over the tag type.
+ * Primitive fields are read and written through exactly typed handles and are never boxed.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@ThreadSafe
+final class NBTCodec {
+    private static final ClassValue<NBTCodec> CODECS = new ClassValue<NBTCodec>() {
+        @Override
+        protected NBTCodec computeValue(Class<?> type) {
+            return new NBTCodec(type);
+        }
+    };
+
+    private static final MethodType OBJECT_GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType OBJECT_SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<?> type;
+    private final MethodHandle constructor;
+    private final Binding[] bindings;
+
+    private NBTCodec(Class<?> type) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<Binding> bindings = new ArrayList<>();
+
+        for (Field field : type.getDeclaredFields()) {
+            NBTField nf = field.getAnnotation(NBTField.class);
+            if (nf == null || Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+
+            try {
+                field.setAccessible(true);
+                bindings.add(bind(field, nf, lookup.unreflectGetter(field), lookup.unreflectSetter(field)));
+            } catch (IllegalAccessException | WrongMethodTypeException e) {
+                TridentLogger.get().error(new IllegalArgumentException("Field " + field + " cannot be bound as " +
+                        nf.type(), e));
+            }
+        }
+
+        this.type = type;
+        this.constructor = findConstructor(lookup, type);
+        this.bindings = bindings.toArray(new Binding[bindings.size()]);
+    }
+
+    /**
+     * Obtains the codec for the given class, building it if this is the first use
+     *
+     * @param type the serializable class
+     * @return the codec for the class
+     */
+    static NBTCodec of(Class<?> type) {
+        return CODECS.get(type);
+    }
+
+    private static MethodHandle findConstructor(MethodHandles.Lookup lookup, Class<?> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return lookup.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            // Only instances can be deserialized into
+            return null;
+        }
+    }
+
+    /**
+     * Creates a new instance of the class using its no-arg constructor
+     *
+     * @return the new instance, or {@code null} if there is no usable constructor
+     */
+    Object newInstance() {
+        if (this.constructor == null) {
+            TridentLogger.get().error(new IllegalArgumentException(this.type.getName() +
+                    " does not have a no-arg constructor"));
+            return null;
+        }
+
+        try {
+            return (Object) this.constructor.invokeExact();
+        } catch (Throwable t) {
+            TridentLogger.get().error(t);
+            return null;
+        }
+    }
+
+    /**
+     * Sets the bound fields of the instance from the given compound
+     *
+     * @param instance the instance to set fields on
+     * @param tag the tag to read values from
+     * @return {@code false} if a required tag is missing
+     */
+    boolean read(Object instance, CompoundTag tag) {
+        try {
+            for (Binding binding : this.bindings) {
+                NBTTag value = tag.getTag(binding.name);
+
+                if (binding.required && value.type() == TagType.NULL && !tag.containsTag(binding.name)) {
+                    TridentLogger.get().error(new UnsupportedOperationException(
+                            "Provided NBT does not contain tag: " + binding.name));
+                    return false;
+                }
+
+                if (value.type() != binding.type) {
+                    continue;
+                }
+
+                binding.read(instance, value);
+            }
+        } catch (Throwable t) {
+            TridentLogger.get().error(t);
+        }
+
+        return true;
+    }
+
+    /**
+     * Adds a tag for each bound field of the instance to the given compound
+     *
+     * @param instance the instance to read fields from
+     * @param tag the tag to add values to
+     */
+    void write(Object instance, CompoundTag tag) {
+        try {
+            for (Binding binding : this.bindings) {
+                binding.write(instance, tag);
+            }
+        } catch (Throwable t) {
+            TridentLogger.get().error(t);
+        }
+    }
+
+    private static Binding bind(Field field, NBTField nf, MethodHandle getter, MethodHandle setter) {
+        Class<?> fieldType = field.getType();
+
+        switch (nf.type()) {
+            case BYTE:
+                if (fieldType == boolean.class) {
+                    return new BooleanBinding(nf, getter, setter);
+                }
+
+                return new ByteBinding(nf, getter, setter);
+
+            case SHORT:
+                return new ShortBinding(nf, getter, setter);
+
+            case INT:
+                return new IntBinding(nf, getter, setter);
+
+            case LONG:
+                return new LongBinding(nf, getter, setter);
+
+            case FLOAT:
+                return new FloatBinding(nf, getter, setter);
+
+            case DOUBLE:
+                return new DoubleBinding(nf, getter, setter);
+
+            case BYTE_ARRAY:
+                return new ByteArrayBinding(nf, getter, setter);
+
+            case INT_ARRAY:
+                return new IntArrayBinding(nf, getter, setter);
+
+            case STRING:
+                return new StringBinding(nf, getter, setter);
+
+            case COMPOUND:
+                Class<?> nested = null;
+                if (nf.asClass() != NBTSerializable.class) {
+                    nested = nf.asClass();
+                } else if (NBTSerializable.class.isAssignableFrom(fieldType)) {
+                    nested = fieldType;
+                }
+
+                return new CompoundBinding(nf, getter, setter, nested);
+
+            case LIST:
+                Class<?> element = null;
+                Type generic = field.getGenericType();
+                if (generic instanceof ParameterizedType) {
+                    Type argument = ((ParameterizedType) generic).getActualTypeArguments()[0];
+                    if (argument instanceof Class) {
+                        element = (Class<?>) argument;
+                    }
+                }
+
+                return new ListBinding(nf, getter, setter, fieldType.isAssignableFrom(ListTag.class), element);
+
+            default:
+                return new NullBinding(nf, getter, setter, fieldType.isPrimitive());
+        }
+    }
+
+    private abstract static class Binding {
+        final String name;
+        final TagType type;
+        final boolean required;
+
+        Binding(NBTField nf) {
+            this.name = nf.name();
+            this.type = nf.type();
+            this.required = nf.required();
+        }
+
+        abstract void read(Object instance, NBTTag tag) throws Throwable;
+
+        abstract void write(Object instance, CompoundTag target) throws Throwable;
+    }
+
+    private static final class ByteBinding extends Binding {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        ByteBinding(NBTField nf, MethodHandle getter, MethodHandle setter) {
+            super(nf);
+            this.getter = getter.asType(MethodType.methodType(byte.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, byte.class));
+        }
+
+        @Override
+        void read(Object instance, NBTTag tag) throws Throwable {
+            this.setter.invokeExact(instance, ((ByteTag) tag).value());
+        }
+
+        @Override
+        void write(Object instance, CompoundTag target) throws Throwable {
+            target.putScalar(this.name, TagType.BYTE, (byte) this.getter.invokeExact(instance));
+        }
+    }
+
+    private static final class BooleanBinding extends Binding {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        BooleanBinding(NBTField nf, MethodHandle getter, MethodHandle setter) {
+            super(nf);
+            this.getter = getter.asType(MethodType.methodType(boolean.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, boolean.class));
+        }
+
+        @Override
+        void read(Object instance, NBTTag tag) throws Throwable {
+            this.setter.invokeExact(instance, ((ByteTag) tag).value() == 1);
+        }
+
+        @Override
+        void write(Object instance, CompoundTag target) throws Throwable {
+            target.putScalar(this.name, TagType.BYTE, (boolean) this.getter.invokeExact(instance) ? 1 : 0);
+        }
+    }
+
+    private static final class ShortBinding extends Binding {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        ShortBinding(NBTField nf, MethodHandle getter, MethodHandle setter) {
+            super(nf);
+            this.getter = getter.asType(MethodType.methodType(short.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, short.class));
+        }
+
+        @Override
+        void read(Object instance, NBTTag tag) throws Throwable {
+            this.setter.invokeExact(instance, ((ShortTag) tag).value());
+        }
+
+        @Override
+        void write(Object instance, CompoundTag target) throws Throwable {
+            target.putScalar(this.name, TagType.SHORT, (short) this.getter.invokeExact(instance));
+        }
+    }
+
+    private static final class IntBinding extends Binding {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        IntBinding(NBTField nf, MethodHandle getter, MethodHandle setter) {
+            super(nf);
+            this.getter = getter.asType(MethodType.methodType(int.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, int.class));
+        }
+
+        @Override
+        void read(Object instance, NBTTag tag) throws Throwable {
+            this.setter.invokeExact(instance, ((IntTag) tag).value());
+        }
+
+        @Override
+        void write(Object instance, CompoundTag target) throws Throwable {
+            target.putScalar(this.name, TagType.INT, (int) this.getter.invokeExact(instance));
+        }
+    }
+
+    private static final class LongBinding extends Binding {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        LongBinding(NBTField nf, MethodHandle getter, MethodHandle setter) {
+            super(nf);
+            this.getter = getter.asType(MethodType.methodType(long.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, long.class));
+        }
+
+        @Override
+        void read(Object instance, NBTTag tag) throws Throwable {
+            this.setter.invokeExact(instance, ((LongTag) tag).value());
+        }
+
+        @Override
+        void write(Object instance, CompoundTag target) throws Throwable {
+            target.putScalar(this.name, TagType.LONG, (long) this.getter.invokeExact(instance));
+        }
+    }
+
+    private static final class FloatBinding extends Binding {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        FloatBinding(NBTField nf, MethodHandle getter, MethodHandle setter) {
+            super(nf);
+            this.getter = getter.asType(MethodType.methodType(float.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, float.class));
+        }
+
+        @Override
+        void read(Object instance, NBTTag tag) throws Throwable {
+            this.setter.invokeExact(instance, ((FloatTag) tag).value());
+        }
+
+        @Override
+        void write(Object instance, CompoundTag target) throws Throwable {
+            target.putScalar(this.name, TagType.FLOAT,
+                    Float.floatToRawIntBits((float) this.getter.invokeExact(instance)));
+        }
+    }
+
+    private static final class DoubleBinding extends Binding {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        DoubleBinding(NBTField nf, MethodHandle getter, MethodHandle setter) {
+            super(nf);
+            this.getter = getter.asType(MethodType.methodType(double.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, double.class));
+        }
+
+        @Override
+        void read(Object instance, NBTTag tag) throws Throwable {
+            this.setter.invokeExact(instance, ((DoubleTag) tag).value());
+        }
+
+        @Override
+        void write(Object instance, CompoundTag target) throws Throwable {
+            target.putScalar(this.name, TagType.DOUBLE,
+                    Double.doubleToRawLongBits((double) this.getter.invokeExact(instance)));
+        }
+    }
+
+    private static final class ByteArrayBinding extends Binding {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        ByteArrayBinding(NBTField nf, MethodHandle getter, MethodHandle setter) {
+            super(nf);
+            this.getter = getter.asType(MethodType.methodType(byte[].class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, byte[].class));
+        }
+
+        @Override
+        void read(Object instance, NBTTag tag) throws Throwable {
+            this.setter.invokeExact(instance, ((ByteArrayTag) tag).value());
+        }
+
+        @Override
+        void write(Object instance, CompoundTag target) throws Throwable {
+            target.addTag(new ByteArrayTag(this.name).setValue((byte[]) this.getter.invokeExact(instance)));
+        }
+    }
+
+    private static final class IntArrayBinding extends Binding {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        IntArrayBinding(NBTField nf, MethodHandle getter, MethodHandle setter) {
+            super(nf);
+            this.getter = getter.asType(MethodType.methodType(int[].class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, int[].class));
+        }
+
+        @Override
+        void read(Object instance, NBTTag tag) throws Throwable {
+            this.setter.invokeExact(instance, ((IntArrayTag) tag).value());
+        }
+
+        @Override
+        void write(Object instance, CompoundTag target) throws Throwable {
+            target.addTag(new IntArrayTag(this.name).setValue((int[]) this.getter.invokeExact(instance)));
+        }
+    }
+
+    private static final class StringBinding extends Binding {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        StringBinding(NBTField nf, MethodHandle getter, MethodHandle setter) {
+            super(nf);
+            this.getter = getter.asType(MethodType.methodType(String.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, String.class));
+        }
+
+        @Override
+        void read(Object instance, NBTTag tag) throws Throwable {
+            this.setter.invokeExact(instance, ((StringTag) tag).value());
+        }
+
+        @Override
+        void write(Object instance, CompoundTag target) throws Throwable {
+            target.addTag(new StringTag(this.name).setValue((String) this.getter.invokeExact(instance)));
+        }
+    }
+
+    private static final class CompoundBinding extends Binding {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final Class<?> nested;
+
+        CompoundBinding(NBTField nf, MethodHandle getter, MethodHandle setter, Class<?> nested) {
+            super(nf);
+            this.getter = getter.asType(OBJECT_GETTER);
+            this.setter = setter.asType(OBJECT_SETTER);
+            this.nested = nested;
+        }
+
+        @Override
+        void read(Object instance, NBTTag tag) throws Throwable {
+            CompoundTag compound = (CompoundTag) tag;
+            Object value = this.nested == null ? compound : NBTSerializer.deserialize(this.nested, compound);
+            this.setter.invokeExact(instance, value);
+        }
+
+        @Override
+        void write(Object instance, CompoundTag target) throws Throwable {
+            Object value = (Object) this.getter.invokeExact(instance);
+
+            if (value instanceof NBTSerializable) {
+                target.addTag(NBTSerializer.serialize((NBTSerializable) value, this.name));
+            } else if (value instanceof CompoundTag) {
+                target.addTag((CompoundTag) value);
+            }
+        }
+    }
+
+    private static final class ListBinding extends Binding {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final boolean holdsTag;
+        private final Class<?> element;
+
+        ListBinding(NBTField nf, MethodHandle getter, MethodHandle setter, boolean holdsTag, Class<?> element) {
+            super(nf);
+            this.getter = getter.asType(OBJECT_GETTER);
+            this.setter = setter.asType(OBJECT_SETTER);
+            this.holdsTag = holdsTag;
+
+            // Only lists of strings and serializable objects can be converted
+            if (element != null && element != String.class && !NBTSerializable.class.isAssignableFrom(element)) {
+                element = null;
+            }
+            this.element = element;
+        }
+
+        @Override
+        void read(Object instance, NBTTag tag) throws Throwable {
+            ListTag list = (ListTag) tag;
+            if (this.holdsTag) {
+                this.setter.invokeExact(instance, (Object) list);
+                return;
+            }
+
+            if (this.element == null) {
+                this.setter.invokeExact(instance, (Object) null);
+                return;
+            }
+
+            List<NBTTag> tags = list.listTags();
+            List<Object> values = new ArrayList<>(tags.size());
+            for (NBTTag t : tags) {
+                if (this.element == String.class) {
+                    values.add(((StringTag) t).value());
+                } else {
+                    values.add(NBTSerializer.deserialize(this.element, (CompoundTag) t));
+                }
+            }
+
+            this.setter.invokeExact(instance, (Object) values);
+        }
+
+        @Override
+        void write(Object instance, CompoundTag target) throws Throwable {
+            Object value = (Object) this.getter.invokeExact(instance);
+
+            if (value instanceof ListTag) {
+                target.addTag((ListTag) value);
+            } else if (value instanceof List && this.element != null) {
+                boolean strings = this.element == String.class;
+                ListTag list = new ListTag(this.name, strings ? TagType.STRING : TagType.COMPOUND);
+
+                for (Object o : (List<?>) value) {
+                    if (strings) {
+                        list.addTag(new StringTag(null).setValue((String) o));
+                    } else {
+                        list.addTag(NBTSerializer.serialize((NBTSerializable) o, null));
+                    }
+                }
+
+                target.addTag(list);
+            }
+        }
+    }
+
+    private static final class NullBinding extends Binding {
+        private final MethodHandle setter;
+
+        NullBinding(NBTField nf, MethodHandle getter, MethodHandle setter, boolean primitive) {
+            super(nf);
+            // A primitive field cannot be set to null
+            this.setter = primitive ? null : setter.asType(OBJECT_SETTER);
+        }
+
+        @Override
+        void read(Object instance, NBTTag tag) throws Throwable {
+            if (this.setter != null) {
+                this.setter.invokeExact(instance, (Object) null);
+            }
+        }
+
+        @Override
+        void write(Object instance, CompoundTag target) {
+            target.addTag(new NullTag(this.name));
+        }
+    }
+}
@@ -17,21 +17,56 @@
 
 package net.tridentsdk.meta.nbt;
 
-import com.google.common.base.Charsets;
 import net.tridentsdk.util.TridentLogger;
 
+import java.io.ByteArrayInputStream;
 import java.io.DataInput;
+import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
+ * Decodes a {@link CompoundTag} tree from a stream or from a buffer
+ *
+ * <p>When decoding from a {@link ByteBuffer}, which may be a {@link java.nio.MappedByteBuffer}, byte and int array
+ * tags are returned as read-only views over the buffer and are only copied when their value is obtained. The buffer
+ * must not be modified while any of the decoded array tags are still in use.</p>
+ *
  * @author The TridentSDK Team
  * @since 0.3-alpha-DP
  */
 public class NBTDecoder {
     final DataInput input;
+    final NBTReader reader;
+    final boolean lazy;
 
     public NBTDecoder(DataInput input) {
-        this.input = input;
+        this(new NBTReader(input));
+    }
+
+    /**
+     * Creates a decoder over the remaining bytes of a buffer
+     *
+     * @param buffer the buffer to decode from, the position of which is not changed
+     */
+    public NBTDecoder(ByteBuffer buffer) {
+        this(new NBTReader(buffer));
+    }
+
+    /**
+     * Creates a decoder which materializes tags from the position of an existing reader
+     *
+     * @param reader the reader to decode from
+     */
+    public NBTDecoder(NBTReader reader) {
+        this(reader, false);
+    }
+
+    NBTDecoder(NBTReader reader, boolean lazy) {
+        this.input = reader.input;
+        this.reader = reader;
+        this.lazy = lazy && reader.buffer != null;
     }
 
     public CompoundTag decode() throws NBTException {
@@ -54,7 +89,78 @@ public class NBTDecoder {
         //Create the resulting CompoundTag to return
         //Uses recursion to recursively walk through the tag tree
         try {
-            return this.resolveCompoundTag(this.readString());
+            this.reader.header(TagType.COMPOUND);
+            return this.lazy ? this.skimCompoundTag(this.reader.name()) : this.resolveCompoundTag(this.reader.name());
+        } catch (IOException e) {
+            TridentLogger.get().error(new NBTException("IO Error decoding the NBT Data", e));
+            return null;
+        }
+    }
+
+    /**
+     * Decodes the root compound tag as a {@link LazyCompoundTag}, along with every compound nested inside it
+     *
+     * <p>Children are only skimmed to record their position, and are decoded when they are first accessed. This is
+     * only possible when decoding from a buffer, a decoder over a stream decodes everything up front, in the same
+     * way as {@link #decode()}.</p>
+     *
+     * @return the lazily decoded compound
+     */
+    public CompoundTag decodeLazy() throws NBTException {
+        if (this.lazy || this.reader.buffer == null) {
+            return this.decode();
+        }
+
+        return new NBTDecoder(this.reader, true).decode();
+    }
+
+    /**
+     * Decodes a compound tag from a compressed stream
+     *
+     * <p>The inflater and the buffers used to decompress the data are reused by the calling thread, so no compression
+     * state is allocated per call. The stream is read in blocks, so bytes after the end of the compressed data may be
+     * consumed as well. GZIP data is read to its end to verify its checksum.</p>
+     *
+     * @param in the stream to read from, which is not closed
+     * @param compression the compression of the data
+     * @return the decoded compound
+     */
+    public static CompoundTag decodeCompressed(InputStream in, Compression compression) throws NBTException {
+        try (CompressionPool.InflatingInput stream = CompressionPool.decompress(in, compression)) {
+            CompoundTag tag = new NBTDecoder(new DataInputStream(stream)).decode();
+            if (compression == Compression.GZIP) {
+                stream.drain();
+            }
+
+            return tag;
+        } catch (IOException e) {
+            TridentLogger.get().error(new NBTException("IO Error decoding the NBT Data", e));
+            return null;
+        }
+    }
+
+    /**
+     * Decodes a compound tag from compressed data
+     *
+     * @param data the compressed data
+     * @param compression the compression of the data
+     * @return the decoded compound
+     */
+    public static CompoundTag decodeCompressed(byte[] data, Compression compression) throws NBTException {
+        return decodeCompressed(new ByteArrayInputStream(data), compression);
+    }
+
+    /**
+     * Decodes the tag that the reader is currently positioned on, along with all of its children
+     *
+     * <p>This is used to materialize only the interesting parts of a structure which is otherwise walked with the
+     * {@link NBTReader}</p>
+     *
+     * @return the decoded tag
+     */
+    public NBTTag decodeTag() throws NBTException {
+        try {
+            return this.resolveTag();
         } catch (IOException e) {
             TridentLogger.get().error(new NBTException("IO Error decoding the NBT Data", e));
             return null;
@@ -63,116 +169,172 @@ public class NBTDecoder {
 
     private CompoundTag resolveCompoundTag(String name) throws IOException {
         CompoundTag compound = new CompoundTag(name);
-        TagType innerType;
 
-        while ((innerType = TagType.fromId(this.input.readByte())) != TagType.END) {
-            compound.addTag(this.resolveTag(innerType, true));
+        NBTReader reader = this.reader;
+        reader.enterCompound();
+        TagType type;
+        while ((type = reader.nextTag()) != TagType.END) {
+            //Numbers are stored in the compound without creating a tag
+            switch (type) {
+                case BYTE:
+                    compound.putByte(reader.name(), reader.readByte());
+                    break;
+                case SHORT:
+                    compound.putShort(reader.name(), reader.readShort());
+                    break;
+                case INT:
+                    compound.putInt(reader.name(), reader.readInt());
+                    break;
+                case LONG:
+                    compound.putLong(reader.name(), reader.readLong());
+                    break;
+                case FLOAT:
+                    compound.putFloat(reader.name(), reader.readFloat());
+                    break;
+                case DOUBLE:
+                    compound.putDouble(reader.name(), reader.readDouble());
+                    break;
+                default:
+                    compound.addTag(this.resolveTag());
+                    break;
+            }
+        }
+        reader.exitCompound();
+
+        return compound;
+    }
+
+    private CompoundTag skimCompoundTag(String name) throws IOException {
+        LazyCompoundTag compound = new LazyCompoundTag(name);
+        ByteBuffer buffer = this.reader.buffer;
+
+        this.reader.enterCompound();
+        while (true) {
+            int start = buffer.position();
+            TagType type = this.reader.nextTag();
+            if (type == TagType.END) {
+                break;
+            }
+
+            String child = this.reader.name();
+            this.reader.skipValue();
+
+            ByteBuffer bytes = buffer.asReadOnlyBuffer();
+            bytes.limit(buffer.position());
+            bytes.position(start);
+            compound.addTag(new RawTag(child, type, bytes.slice()));
         }
+        this.reader.exitCompound();
 
         return compound;
     }
 
     private ListTag resolveListTag(String name) throws IOException {
-        TagType listType = TagType.fromId(this.input.readByte());
-        ListTag list = new ListTag(name, listType);
-        int length = this.input.readInt();
+        NBTReader reader = this.reader;
+        int length = Math.max(reader.enterList(), 0);
+        TagType innerType = reader.listType();
+
+        //Numeric lists are read straight into their backing array
+        switch (innerType) {
+            case INT:
+                int[] ints = new int[length];
+                for (int i = 0; i < length; i++) {
+                    reader.nextTag();
+                    ints[i] = reader.readInt();
+                }
+                reader.exitList();
+                return new IntListTag(name, ints);
+
+            case LONG:
+                long[] longs = new long[length];
+                for (int i = 0; i < length; i++) {
+                    reader.nextTag();
+                    longs[i] = reader.readLong();
+                }
+                reader.exitList();
+                return new LongListTag(name, longs);
 
-        for (int i = 0; i < length; i++) {
-            list.addTag(this.resolveTag(listType, false));
+            case FLOAT:
+                float[] floats = new float[length];
+                for (int i = 0; i < length; i++) {
+                    reader.nextTag();
+                    floats[i] = reader.readFloat();
+                }
+                reader.exitList();
+                return new FloatListTag(name, floats);
+
+            case DOUBLE:
+                double[] doubles = new double[length];
+                for (int i = 0; i < length; i++) {
+                    reader.nextTag();
+                    doubles[i] = reader.readDouble();
+                }
+                reader.exitList();
+                return new DoubleListTag(name, doubles);
+
+            default:
+                break;
+        }
+
+        ListTag list = new ListTag(name, innerType);
+        while (this.reader.nextTag() != TagType.END) {
+            list.addTag(this.resolveTag());
         }
+        this.reader.exitList();
 
         return list;
     }
 
-    private NBTTag resolveTag(TagType type, boolean withName) throws IOException {
-        //Reads name if required
-        String name = null;
-        if (withName) {
-            name = this.readString();
-        }
+    NBTTag resolveTag() throws IOException {
+        NBTReader reader = this.reader;
+        //List elements do not have a name
+        String name = reader.name();
 
-        NBTTag result;
-        switch (type) {
+        switch (reader.tagType()) {
             case BYTE:
-                result = new ByteTag(name);
-                result.asType(ByteTag.class).setValue(this.input.readByte());
-                break;
+                return new ByteTag(name).setValue(reader.readByte());
 
             case SHORT:
-                result = new ShortTag(name);
-                result.asType(ShortTag.class).setValue(this.input.readShort());
-                break;
+                return new ShortTag(name).setValue(reader.readShort());
 
             case INT:
-                result = new IntTag(name);
-                result.asType(IntTag.class).setValue(this.input.readInt());
-                break;
+                return new IntTag(name).setValue(reader.readInt());
 
             case LONG:
-                result = new LongTag(name);
-                result.asType(LongTag.class).setValue(this.input.readLong());
-                break;
+                return new LongTag(name).setValue(reader.readLong());
 
             case FLOAT:
-                result = new FloatTag(name);
-                result.asType(FloatTag.class).setValue(this.input.readFloat());
-                break;
+                return new FloatTag(name).setValue(reader.readFloat());
 
             case DOUBLE:
-                result = new DoubleTag(name);
-                result.asType(DoubleTag.class).setValue(this.input.readDouble());
-                break;
+                return new DoubleTag(name).setValue(reader.readDouble());
 
             case BYTE_ARRAY:
-                result = new ByteArrayTag(name);
-                int balength = this.input.readInt();
-                byte[] babytes = new byte[balength];
+                if (reader.buffer != null) {
+                    return new ByteArrayTag(name).setView(reader.readByteArrayBuffer());
+                }
 
-                this.input.readFully(babytes);
-                result.asType(ByteArrayTag.class).setValue(babytes);
-
-                break;
+                return new ByteArrayTag(name).setValue(reader.readByteArray());
 
             case STRING:
-                result = new StringTag(name);
-                result.asType(StringTag.class).setValue(this.readString());
-
-                break;
+                return new StringTag(name).setValue(reader.readString());
 
             case LIST:
-                result = this.resolveListTag(name);
-                break;
+                return this.resolveListTag(name);
 
             case COMPOUND:
-                result = this.resolveCompoundTag(name);
-                break;
+                return this.lazy ? this.skimCompoundTag(name) : this.resolveCompoundTag(name);
 
             case INT_ARRAY:
-                result = new IntArrayTag(name);
-                int ialength = this.input.readInt();
-                int[] array = new int[ialength];
-
-                for (int i = 0; i < array.length; i++) {
-                    array[i] = this.input.readInt();
+                if (reader.buffer != null) {
+                    return new IntArrayTag(name).setView(reader.readIntArrayBuffer());
                 }
 
-                result.asType(IntArrayTag.class).setValue(array);
-                break;
+                return new IntArrayTag(name).setValue(reader.readIntArray());
 
             default:
-                result = new NullTag(name);
-                break;
+                reader.skipValue();
+                return new NullTag(name);
         }
-
-        return result;
-    }
-
-    private String readString() throws IOException {
-        short length = this.input.readShort();
-        byte[] bytes = new byte[(int) length];
-
-        this.input.readFully(bytes);
-
-        return new String(bytes, Charsets.UTF_8);
     }
 }
@@ -0,0 +1,479 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes and applies binary patches between two versions of a compound tag
+ *
+ * <p>A patch only holds the children which were added, removed or changed. Changed compounds are patched
+ * recursively, and lists which kept their size and type are patched per element, so changing one field of one item
+ * in an inventory produces a patch of a few bytes. A storage layer can append the patches of every save to a log and
+ * occasionally compact it by applying them to the base version and writing that out again.</p>
+ *
+ * <p>Unchanged subtrees are recognized without being compared when they are the same object, which is always the
+ * case for the shared children of two versions of an {@link ImmutableCompoundTag}, or when they are children of a
+ * {@link LazyCompoundTag} which were never decoded and have the same bytes.</p>
+ *
+ * <p>The names of the root compounds are not part of the patch.</p>
+ *
+ * <p>A patch is read and checked against the whole target before any of it is applied, so a patch which cannot be
+ * applied leaves the target unchanged.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@ThreadSafe
+public final class NBTDiff {
+    private static final byte VERSION = 1;
+
+    // Operations of a compound patch, which ends with END
+    private static final byte END = 0;
+    private static final byte SET = 1;
+    private static final byte REMOVE = 2;
+    private static final byte PATCH = 3;
+    private static final byte PATCH_LIST = 4;
+
+    private NBTDiff() {
+    }
+
+    /**
+     * Computes the patch which turns one version of a compound into another
+     *
+     * @param before the old version
+     * @param after the new version
+     * @return the patch
+     */
+    public static byte[] compute(CompoundTag before, CompoundTag after) throws NBTException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        try {
+            output.writeByte(VERSION);
+            diff(before, after, output, new NBTEncoder(output));
+        } catch (IOException e) {
+            throw new NBTException("Error writing the NBT patch", e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Checks whether a patch does not change anything
+     *
+     * @param patch the patch to check
+     * @return {@code true} if the compounds the patch was computed from are equal
+     */
+    public static boolean isEmpty(byte[] patch) {
+        return patch.length == 2 && patch[1] == END;
+    }
+
+    /**
+     * Applies a patch to the version of a compound it was computed from
+     *
+     * @param target the compound to modify
+     * @param patch the patch to apply
+     * @throws NBTException if the patch is invalid, was not computed from this version or modifies an immutable
+     *         compound or list
+     */
+    public static void apply(CompoundTag target, byte[] patch) throws NBTException {
+        apply(target, ByteBuffer.wrap(patch));
+    }
+
+    /**
+     * Applies a patch to the version of a compound it was computed from
+     *
+     * @param target the compound to modify
+     * @param patch the patch to apply, from its position to its limit, the position is not changed
+     * @throws NBTException if the patch is invalid, was not computed from this version or modifies an immutable
+     *         compound or list
+     */
+    public static void apply(CompoundTag target, ByteBuffer patch) throws NBTException {
+        DataInput input = new ByteBufferInput(patch.slice());
+        try {
+            byte version = input.readByte();
+            if (version != VERSION) {
+                throw new NBTException("Unsupported NBT patch version " + version);
+            }
+
+            List<Runnable> changes = new ArrayList<>();
+            patch(target, input, changes);
+            for (Runnable change : changes) {
+                change.run();
+            }
+        } catch (IOException e) {
+            throw new NBTException("Error reading the NBT patch", e);
+        }
+    }
+
+    /**
+     * Checks whether two tags have the same type, name and value
+     *
+     * <p>The order of compound children does not matter</p>
+     *
+     * @param a the first tag
+     * @param b the second tag
+     * @return {@code true} if the tags are equal
+     */
+    public static boolean equal(NBTTag a, NBTTag b) {
+        if (a == b) {
+            return true;
+        }
+
+        if (a.type() != b.type() || !TagTrie.key(a.name()).equals(TagTrie.key(b.name()))) {
+            return false;
+        }
+
+        return equalValues(a, b);
+    }
+
+    private static boolean equalValues(NBTTag a, NBTTag b) {
+        if (a == b) {
+            return true;
+        }
+
+        if (a instanceof RawTag && b instanceof RawTag && ((RawTag) a).bytes.equals(((RawTag) b).bytes)) {
+            return true;
+        }
+
+        a = materialize(a);
+        b = materialize(b);
+        switch (a.type()) {
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return CompoundTag.bits(a) == CompoundTag.bits(b);
+
+            case STRING:
+                String value = ((StringTag) a).value();
+                return value == null ? ((StringTag) b).value() == null : value.equals(((StringTag) b).value());
+
+            case BYTE_ARRAY:
+                return equalNullable(((ByteArrayTag) a).buffer(), ((ByteArrayTag) b).buffer());
+
+            case INT_ARRAY:
+                return equalNullable(((IntArrayTag) a).buffer(), ((IntArrayTag) b).buffer());
+
+            case LIST:
+                ListTag alist = (ListTag) a;
+                ListTag blist = (ListTag) b;
+                if (alist.getInnerType() != blist.getInnerType()) {
+                    return false;
+                }
+
+                List<NBTTag> atags = alist.listTags();
+                List<NBTTag> btags = blist.listTags();
+                if (atags.size() != btags.size()) {
+                    return false;
+                }
+
+                for (int i = 0; i < atags.size(); i++) {
+                    if (!equalValues(atags.get(i), btags.get(i))) {
+                        return false;
+                    }
+                }
+                return true;
+
+            case COMPOUND:
+                TagTable atable = ((CompoundTag) a).storedTags();
+                TagTable btable = ((CompoundTag) b).storedTags();
+                if (atable.size() != btable.size()) {
+                    return false;
+                }
+
+                for (int i = 0; i < atable.used(); i++) {
+                    String key = atable.keyAt(i);
+                    if (key == null) {
+                        continue;
+                    }
+
+                    int position = btable.find(key);
+                    if (position < 0 || !sameChild(atable, i, btable, position)) {
+                        return false;
+                    }
+                }
+                return true;
+
+            default:
+                return true;
+        }
+    }
+
+    private static boolean equalNullable(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static boolean sameChild(TagTable a, int apos, TagTable b, int bpos) {
+        if (a.typeAt(apos) != b.typeAt(bpos)) {
+            return false;
+        }
+
+        NBTTag atag = a.tagAt(apos);
+        NBTTag btag = b.tagAt(bpos);
+        if (atag == null || btag == null) {
+            // Numbers, at least one of which is stored unboxed
+            long abits = atag == null ? a.scalarAt(apos) : CompoundTag.bits(materialize(atag));
+            long bbits = btag == null ? b.scalarAt(bpos) : CompoundTag.bits(materialize(btag));
+            return abits == bbits;
+        }
+
+        return equalValues(atag, btag);
+    }
+
+    private static NBTTag materialize(NBTTag tag) {
+        return tag instanceof RawTag ? ((RawTag) tag).decode() : tag;
+    }
+
+    private static NBTTag child(TagTable table, int position) {
+        NBTTag tag = table.tagAt(position);
+        if (tag == null) {
+            return TagTable.box(table.keyAt(position), table.typeAt(position), table.scalarAt(position));
+        }
+
+        return materialize(tag);
+    }
+
+    private static void diff(CompoundTag before, CompoundTag after, DataOutput output, NBTEncoder encoder)
+            throws IOException {
+        TagTable old = before.storedTags();
+        TagTable now = after.storedTags();
+
+        for (int i = 0; i < old.used(); i++) {
+            String key = old.keyAt(i);
+            if (key != null && now.find(key) < 0) {
+                output.writeByte(REMOVE);
+                output.writeUTF(key);
+            }
+        }
+
+        for (int i = 0; i < now.used(); i++) {
+            String key = now.keyAt(i);
+            if (key == null) {
+                continue;
+            }
+
+            int position = old.find(key);
+            if (position >= 0 && sameChild(old, position, now, i)) {
+                continue;
+            }
+
+            if (position >= 0) {
+                NBTTag oldTag = child(old, position);
+                NBTTag newTag = child(now, i);
+
+                if (oldTag.type() == TagType.COMPOUND && newTag.type() == TagType.COMPOUND) {
+                    output.writeByte(PATCH);
+                    output.writeUTF(key);
+                    diff((CompoundTag) oldTag, (CompoundTag) newTag, output, encoder);
+                    continue;
+                }
+
+                if (oldTag.type() == TagType.LIST && newTag.type() == TagType.LIST &&
+                        diffList(key, (ListTag) oldTag, (ListTag) newTag, output, encoder)) {
+                    continue;
+                }
+            }
+
+            output.writeByte(SET);
+            NBTTag tag = now.tagAt(i);
+            if (tag instanceof RawTag) {
+                ByteBuffer bytes = ((RawTag) tag).bytes.duplicate();
+                byte[] raw = new byte[bytes.remaining()];
+                bytes.get(raw);
+                output.write(raw);
+            } else {
+                encoder.writeTag(child(now, i));
+            }
+        }
+
+        output.writeByte(END);
+    }
+
+    // Writes a patch per changed element if the list kept its size and type, and fewer than all elements changed
+    private static boolean diffList(String key, ListTag before, ListTag after, DataOutput output, NBTEncoder encoder)
+            throws IOException {
+        if (before.getInnerType() != after.getInnerType()) {
+            return false;
+        }
+
+        List<NBTTag> old = before.listTags();
+        List<NBTTag> now = after.listTags();
+        if (old.size() != now.size()) {
+            return false;
+        }
+
+        List<Integer> changed = new ArrayList<>();
+        for (int i = 0; i < now.size(); i++) {
+            if (!equalValues(old.get(i), now.get(i))) {
+                changed.add(i);
+            }
+        }
+
+        if (changed.size() == now.size() && now.size() > 1) {
+            return false;
+        }
+
+        output.writeByte(PATCH_LIST);
+        output.writeUTF(key);
+        output.writeInt(now.size());
+        output.writeInt(changed.size());
+        for (int index : changed) {
+            output.writeInt(index);
+
+            NBTTag tag = materialize(now.get(index));
+            if (tag.type() == TagType.COMPOUND) {
+                output.writeByte(PATCH);
+                diff((CompoundTag) materialize(old.get(index)), (CompoundTag) tag, output, encoder);
+            } else {
+                output.writeByte(SET);
+                encoder.writeTag(tag);
+            }
+        }
+
+        return true;
+    }
+
+    // Checks a compound patch against the target, and collects the changes it makes without applying them. Every
+    // child may only be changed once, so each operation is checked against the unchanged target
+    private static void patch(CompoundTag target, DataInput input, List<Runnable> changes)
+            throws IOException, NBTException {
+        if (target instanceof ImmutableCompoundTag) {
+            throw new NBTException("NBT patch cannot modify the immutable compound " + target.name());
+        }
+
+        Set<String> changed = new HashSet<>();
+        while (true) {
+            byte operation = input.readByte();
+            switch (operation) {
+                case END:
+                    return;
+
+                case SET:
+                    NBTTag tag = readTag(input);
+                    String key = TagTrie.key(tag.name());
+                    once(changed, key);
+                    switch (tag.type()) {
+                        case BYTE:
+                        case SHORT:
+                        case INT:
+                        case LONG:
+                        case FLOAT:
+                        case DOUBLE:
+                            long bits = CompoundTag.bits(tag);
+                            changes.add(() -> target.putScalar(key, tag.type(), bits));
+                            break;
+                        default:
+                            changes.add(() -> target.addTag(tag));
+                            break;
+                    }
+                    break;
+
+                case REMOVE:
+                    String removed = input.readUTF();
+                    once(changed, removed);
+                    changes.add(() -> target.removeTag(removed));
+                    break;
+
+                case PATCH:
+                    String name = input.readUTF();
+                    once(changed, name);
+                    NBTTag child = target.getTag(name);
+                    if (child.type() != TagType.COMPOUND) {
+                        throw new NBTException("NBT patch expected a compound named " + name);
+                    }
+                    patch((CompoundTag) child, input, changes);
+                    break;
+
+                case PATCH_LIST:
+                    patchList(target, input, changes, changed);
+                    break;
+
+                default:
+                    throw new NBTException("Invalid NBT patch operation " + operation);
+            }
+        }
+    }
+
+    private static void patchList(CompoundTag target, DataInput input, List<Runnable> changes, Set<String> changed)
+            throws IOException, NBTException {
+        String name = input.readUTF();
+        once(changed, name);
+        NBTTag child = target.getTag(name);
+        int size = input.readInt();
+        if (child.type() != TagType.LIST || ((ListTag) child).size() != size) {
+            throw new NBTException("NBT patch expected a list of " + size + " elements named " + name);
+        }
+
+        ListTag list = (ListTag) child;
+        if (list instanceof ImmutableListTag) {
+            throw new NBTException("NBT patch cannot modify the immutable list " + name);
+        }
+
+        BitSet indexes = new BitSet();
+        for (int count = input.readInt(); count > 0; count--) {
+            int index = input.readInt();
+            if (index < 0 || index >= size || indexes.get(index)) {
+                throw new NBTException("NBT patch has an invalid index " + index + " in " + name);
+            }
+            indexes.set(index);
+
+            byte operation = input.readByte();
+            if (operation == PATCH) {
+                NBTTag element = list.getTag(index);
+                if (element.type() != TagType.COMPOUND) {
+                    throw new NBTException("NBT patch expected a compound in " + name + " at " + index);
+                }
+                patch((CompoundTag) element, input, changes);
+            } else if (operation == SET) {
+                NBTTag element = readTag(input);
+                if (element.type() != list.getInnerType()) {
+                    throw new NBTException("NBT patch element does not match the type of " + name);
+                }
+                changes.add(() -> list.setTag(index, element));
+            } else {
+                throw new NBTException("Invalid NBT patch operation " + operation);
+            }
+        }
+    }
+
+    private static void once(Set<String> changed, String name) throws NBTException {
+        if (!changed.add(name)) {
+            throw new NBTException("NBT patch changes " + name + " more than once");
+        }
+    }
+
+    private static NBTTag readTag(DataInput input) throws IOException {
+        NBTReader reader = new NBTReader(input);
+        reader.nextTag();
+        return new NBTDecoder(reader).resolveTag();
+    }
+}
@@ -17,12 +17,17 @@
 
 package net.tridentsdk.meta.nbt;
 
-import com.google.common.base.Charsets;
 import net.tridentsdk.util.TridentLogger;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.util.List;
+import java.util.zip.Deflater;
 
 /**
  * @author The TridentSDK Team
@@ -30,6 +35,7 @@ import java.util.List;
  */
 public class NBTEncoder {
     final DataOutput output;
+    private byte[] scratch;
 
     public NBTEncoder(DataOutput output) {
         this.output = output;
@@ -43,9 +49,170 @@ public class NBTEncoder {
         }
     }
 
-    private void writeCompoundTag(CompoundTag tag) throws IOException {
+    /**
+     * Encodes a compound tag to a stream with the default compression level
+     *
+     * @param tag the tag to encode
+     * @param out the stream to write to, which is not closed
+     * @param compression the compression to use
+     */
+    public static void encodeCompressed(CompoundTag tag, OutputStream out, Compression compression)
+            throws NBTException {
+        encodeCompressed(tag, out, compression, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Encodes a compound tag to a stream
+     *
+     * <p>The deflater and the buffers used to compress the data are reused by the calling thread, so no compression
+     * state is allocated per call. The output is buffered, there is no need to wrap the stream in a
+     * {@link java.io.BufferedOutputStream}.</p>
+     *
+     * @param tag the tag to encode
+     * @param out the stream to write to, which is not closed
+     * @param compression the compression to use
+     * @param level the compression level, from {@code 0} to {@code 9}, or {@link Deflater#DEFAULT_COMPRESSION}
+     */
+    public static void encodeCompressed(CompoundTag tag, OutputStream out, Compression compression, int level)
+            throws NBTException {
+        try (OutputStream stream = CompressionPool.compress(out, compression, level)) {
+            new NBTEncoder(new DataOutputStream(stream)).encode(tag);
+        } catch (IOException e) {
+            TridentLogger.get().error(new NBTException("IO Error encoding the NBT Data", e));
+        }
+    }
+
+    /**
+     * Encodes a compound tag into a new array with the default compression level
+     *
+     * @param tag the tag to encode
+     * @param compression the compression to use
+     * @return the encoded data
+     */
+    public static byte[] encodeCompressed(CompoundTag tag, Compression compression) throws NBTException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encodeCompressed(tag, out, compression);
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes a compound tag into an array which is allocated once, at exactly the encoded size
+     *
+     * @param tag the tag to encode
+     * @return the encoded data
+     */
+    public static byte[] encodeToArray(CompoundTag tag) throws NBTException {
+        ArrayOutput output = new ArrayOutput(sizeOf(tag));
+        new NBTEncoder(output).encode(tag);
+        return output.toByteArray();
+    }
+
+    /**
+     * Computes the amount of bytes that {@link #encode(CompoundTag)} writes for a compound tag
+     *
+     * <p>Children of a {@link LazyCompoundTag} which were never decoded are measured and copied without being
+     * looked at, so the cost of encoding a mostly unchanged lazily decoded tree is the cost of its changes.</p>
+     *
+     * @param tag the tag to measure
+     * @return the encoded size
+     */
+    public static int sizeOf(CompoundTag tag) {
+        return sizeOf(tag, true);
+    }
+
+    private static int sizeOf(NBTTag tag, boolean named) {
+        int size = 0;
+        if (named) {
+            size += 3;
+            if (tag.hasName()) {
+                size += ModifiedUtf8.length(tag.name());
+            }
+        }
+
+        switch (tag.type()) {
+            case BYTE_ARRAY:
+                ByteArrayTag barray = tag.asType(ByteArrayTag.class);
+                ByteBuffer bview = barray.view;
+                return size + 4 + (bview != null ? bview.remaining() : barray.value.length);
+
+            case STRING:
+                return size + 2 + ModifiedUtf8.length(tag.asType(StringTag.class).value());
+
+            case LIST:
+                return size + sizeOfList(tag.asType(ListTag.class));
+
+            case COMPOUND:
+                return size + sizeOfCompound(tag.asType(CompoundTag.class));
+
+            case INT_ARRAY:
+                IntArrayTag iarray = tag.asType(IntArrayTag.class);
+                IntBuffer iview = iarray.view;
+                return size + 4 + 4 * (iview != null ? iview.remaining() : iarray.value.length);
+
+            default:
+                return size + Math.max(NBTReader.width(tag.type()), 0);
+        }
+    }
+
+    private static int sizeOfCompound(CompoundTag tag) {
+        TagTable table = tag.storedTags();
+        int size = 1;
+        for (int i = 0; i < table.used(); i++) {
+            String key = table.keyAt(i);
+            if (key == null) {
+                continue;
+            }
+
+            NBTTag inner = table.tagAt(i);
+            if (inner instanceof RawTag) {
+                size += ((RawTag) inner).bytes.remaining();
+            } else if (inner != null) {
+                size += sizeOf(inner, true);
+            } else {
+                size += 3 + ModifiedUtf8.length(key) + NBTReader.width(TagType.fromId(table.typeAt(i)));
+            }
+        }
+
+        return size;
+    }
+
+    private static int sizeOfList(ListTag tag) {
+        int size = 5;
+        int width = NBTReader.width(tag.getInnerType());
+        if (tag instanceof IntListTag || tag instanceof LongListTag || tag instanceof FloatListTag ||
+                tag instanceof DoubleListTag) {
+            return size + width * tag.size();
+        }
+
         for (NBTTag inner : tag.listTags()) {
-            this.writeTag(inner);
+            size += sizeOf(inner, false);
+        }
+
+        return size;
+    }
+
+    private void writeCompoundTag(CompoundTag tag) throws IOException {
+        TagTable table = tag.storedTags();
+        for (int i = 0; i < table.used(); i++) {
+            String key = table.keyAt(i);
+            if (key == null) {
+                //Removed entry
+                continue;
+            }
+
+            NBTTag inner = table.tagAt(i);
+            if (inner instanceof RawTag) {
+                //Children that were never decoded are copied as they are
+                this.writeBytes(((RawTag) inner).bytes.duplicate());
+            } else if (inner != null) {
+                this.writeTag(inner);
+            } else {
+                //Scalars are stored without a tag
+                byte type = table.typeAt(i);
+                this.output.writeByte(type);
+                this.writeString(key);
+                this.writeScalar(type, table.scalarAt(i));
+            }
         }
         //Write Tag_End to signify end of Compound
         this.output.writeByte(TagType.END.id());
@@ -55,6 +222,42 @@ public class NBTEncoder {
         //Write inner tag-type id
         this.output.writeByte(tag.getInnerType().id());
 
+        if (tag instanceof IntListTag) {
+            int[] values = ((IntListTag) tag).toIntArray();
+            this.output.writeInt(values.length);
+            for (int value : values) {
+                this.output.writeInt(value);
+            }
+            return;
+        }
+
+        if (tag instanceof LongListTag) {
+            long[] values = ((LongListTag) tag).toLongArray();
+            this.output.writeInt(values.length);
+            for (long value : values) {
+                this.output.writeLong(value);
+            }
+            return;
+        }
+
+        if (tag instanceof FloatListTag) {
+            float[] values = ((FloatListTag) tag).toFloatArray();
+            this.output.writeInt(values.length);
+            for (float value : values) {
+                this.output.writeFloat(value);
+            }
+            return;
+        }
+
+        if (tag instanceof DoubleListTag) {
+            double[] values = ((DoubleListTag) tag).toDoubleArray();
+            this.output.writeInt(values.length);
+            for (double value : values) {
+                this.output.writeDouble(value);
+            }
+            return;
+        }
+
         List<NBTTag> innerTags = tag.listTags();
         this.output.writeInt(innerTags.size());
 
@@ -72,8 +275,9 @@ public class NBTEncoder {
             this.output.writeByte(tag.type().id());
         }
 
-        if (tag.hasName() && name) {
-            this.writeString(tag.name());
+        if (name) {
+            //Tags in a compound always have a name, even if it is empty
+            this.writeString(tag.hasName() ? tag.name() : "");
         }
 
         switch (tag.type()) {
@@ -101,9 +305,16 @@ public class NBTEncoder {
                 break;
 
             case BYTE_ARRAY:
-                byte[] barray = tag.asType(ByteArrayTag.class).value();
-                this.output.writeInt(barray.length);
-                this.output.write(barray);
+                ByteArrayTag barray = tag.asType(ByteArrayTag.class);
+                ByteBuffer bview = barray.view;
+                if (bview != null) {
+                    this.output.writeInt(bview.remaining());
+                    this.writeBytes(bview.duplicate());
+                } else {
+                    byte[] bvalue = barray.value;
+                    this.output.writeInt(bvalue.length);
+                    this.output.write(bvalue);
+                }
                 break;
 
             case STRING:
@@ -119,10 +330,19 @@ public class NBTEncoder {
                 break;
 
             case INT_ARRAY:
-                int[] iarray = tag.asType(IntArrayTag.class).value();
-                this.output.writeInt(iarray.length);
-                for (int anIarray : iarray) {
-                    this.output.writeInt(anIarray);
+                IntArrayTag iarray = tag.asType(IntArrayTag.class);
+                IntBuffer iview = iarray.view;
+                if (iview != null) {
+                    this.output.writeInt(iview.remaining());
+                    for (int i = iview.position(); i < iview.limit(); i++) {
+                        this.output.writeInt(iview.get(i));
+                    }
+                } else {
+                    int[] ivalue = iarray.value;
+                    this.output.writeInt(ivalue.length);
+                    for (int anIarray : ivalue) {
+                        this.output.writeInt(anIarray);
+                    }
                 }
                 break;
 
@@ -132,8 +352,42 @@ public class NBTEncoder {
         }
     }
 
+    private void writeScalar(byte type, long bits) throws IOException {
+        switch (TagType.fromId(type)) {
+            case BYTE:
+                this.output.writeByte((int) bits);
+                break;
+            case SHORT:
+                this.output.writeShort((int) bits);
+                break;
+            case INT:
+            case FLOAT:
+                this.output.writeInt((int) bits);
+                break;
+            case LONG:
+            case DOUBLE:
+                this.output.writeLong(bits);
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Copies buffer backed values through a reusable array rather than materializing them
+    private void writeBytes(ByteBuffer buffer) throws IOException {
+        if (this.scratch == null) {
+            this.scratch = new byte[4096];
+        }
+
+        while (buffer.hasRemaining()) {
+            int length = Math.min(buffer.remaining(), this.scratch.length);
+            buffer.get(this.scratch, 0, length);
+            this.output.write(this.scratch, 0, length);
+        }
+    }
+
     private void writeString(String s) throws IOException {
-        this.output.writeShort(s.length());
-        this.output.write(s.getBytes(Charsets.UTF_8));
+        // Modified UTF-8 prefixed with its length in bytes
+        this.output.writeUTF(s);
     }
 }
@@ -0,0 +1,291 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compiled path to a tag inside of a compound, such as {@code Inventory[3].tag.display.Name}
+ *
+ * <p>A path is a sequence of child names separated by {@code .}, each of which may be followed by any amount of
+ * {@code [index]} selectors into a list, byte array or int array. Names containing {@code .}, {@code [} or
+ * {@code ]} are written in double quotes, in which {@code \"} and {@code \\} are escaped. The name of the root compound
+ * is not part of the path, and the empty path selects the root itself.</p>
+ *
+ * <p>A path can be evaluated against a decoded {@link CompoundTag}, or against encoded data with an
+ * {@link NBTReader}, in which case every subtree that is not on the path is skipped by its length and only the
+ * selected tag is decoded.</p>
+ *
+ * <p>Example, finding the second coordinate of every stored player:
+ * <pre><code>
+ *     NBTPath path = NBTPath.compile("Pos[1]");
+ *     for (ByteBuffer player : players) {
+ *         NBTTag y = path.find(player);
+ *     }
+ * </code></pre></p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@Immutable
+public final class NBTPath {
+    private final String expression;
+    // Child names, null for index selectors
+    private final String[] names;
+    private final byte[][] encodedNames;
+    private final int[] indexes;
+
+    private NBTPath(String expression, List<Object> segments) {
+        this.expression = expression;
+        this.names = new String[segments.size()];
+        this.encodedNames = new byte[segments.size()][];
+        this.indexes = new int[segments.size()];
+
+        for (int i = 0; i < segments.size(); i++) {
+            Object segment = segments.get(i);
+            if (segment instanceof String) {
+                String name = (String) segment;
+                this.names[i] = name;
+                this.encodedNames[i] = new byte[ModifiedUtf8.length(name)];
+                ModifiedUtf8.encode(name, this.encodedNames[i], 0);
+            } else {
+                this.indexes[i] = (Integer) segment;
+            }
+        }
+    }
+
+    /**
+     * Compiles a path expression
+     *
+     * @param expression the expression to compile
+     * @return the compiled path
+     * @throws IllegalArgumentException if the expression is not a valid path
+     */
+    public static NBTPath compile(String expression) {
+        List<Object> segments = new ArrayList<>();
+        int length = expression.length();
+        int i = 0;
+        boolean name = true;
+
+        while (i < length) {
+            char c = expression.charAt(i);
+            if (c == '[') {
+                int end = expression.indexOf(']', i);
+                if (end < 0 || segments.isEmpty()) {
+                    throw invalid(expression, i);
+                }
+
+                try {
+                    int index = Integer.parseInt(expression.substring(i + 1, end));
+                    if (index < 0) {
+                        throw invalid(expression, i + 1);
+                    }
+                    segments.add(index);
+                } catch (NumberFormatException e) {
+                    throw invalid(expression, i + 1);
+                }
+
+                i = end + 1;
+                name = false;
+            } else if (c == '.' && !name && !segments.isEmpty()) {
+                i++;
+                name = true;
+            } else if (name) {
+                StringBuilder builder = new StringBuilder();
+                if (c == '"') {
+                    i++;
+                    while (true) {
+                        if (i >= length) {
+                            throw invalid(expression, i);
+                        }
+
+                        char q = expression.charAt(i++);
+                        if (q == '"') {
+                            break;
+                        }
+
+                        if (q == '\\' && i < length) {
+                            q = expression.charAt(i++);
+                        }
+                        builder.append(q);
+                    }
+                } else {
+                    while (i < length && ".[]\"".indexOf(expression.charAt(i)) < 0) {
+                        builder.append(expression.charAt(i++));
+                    }
+
+                    if (builder.length() == 0) {
+                        throw invalid(expression, i);
+                    }
+                }
+
+                segments.add(builder.toString());
+                name = false;
+            } else {
+                throw invalid(expression, i);
+            }
+        }
+
+        if (name && !segments.isEmpty()) {
+            throw invalid(expression, length);
+        }
+
+        return new NBTPath(expression, segments);
+    }
+
+    private static IllegalArgumentException invalid(String expression, int index) {
+        return new IllegalArgumentException("Invalid NBT path \"" + expression + "\" at index " + index);
+    }
+
+    /**
+     * Finds the tag selected by this path
+     *
+     * <p>Only the children on the path are obtained, so the untouched children of a {@link LazyCompoundTag} are not
+     * decoded</p>
+     *
+     * @param root the compound to start from
+     * @return the selected tag, or {@code null} if there is none
+     */
+    public NBTTag find(CompoundTag root) {
+        NBTTag current = root;
+        for (int i = 0; i < this.names.length; i++) {
+            String name = this.names[i];
+            if (name != null) {
+                if (!(current instanceof CompoundTag)) {
+                    return null;
+                }
+
+                CompoundTag compound = (CompoundTag) current;
+                if (!compound.containsTag(name)) {
+                    return null;
+                }
+                current = compound.getTag(name);
+            } else if (current instanceof ListTag) {
+                ListTag list = (ListTag) current;
+                if (this.indexes[i] >= list.size()) {
+                    return null;
+                }
+                current = list.getTag(this.indexes[i]);
+            } else {
+                return this.last(i) ? element(current, this.indexes[i]) : null;
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Finds the tag selected by this path in encoded data
+     *
+     * @param data the encoded root compound, the position of which is not changed
+     * @return the selected tag, or {@code null} if there is none
+     * @throws IOException if the data ends unexpectedly
+     */
+    public NBTTag find(ByteBuffer data) throws IOException {
+        return this.find(new NBTReader(data));
+    }
+
+    /**
+     * Finds the tag selected by this path in encoded data
+     *
+     * <p>The reader must be positioned before the root compound. Afterwards, it is left somewhere inside of the
+     * structure and should not be used any further.</p>
+     *
+     * @param reader the reader over the encoded root compound
+     * @return the selected tag, or {@code null} if there is none
+     * @throws IOException if the data ends unexpectedly
+     */
+    public NBTTag find(NBTReader reader) throws IOException {
+        if (reader.nextTag() != TagType.COMPOUND) {
+            return null;
+        }
+
+        for (int i = 0; i < this.names.length; i++) {
+            TagType type = reader.tagType();
+            if (this.names[i] != null) {
+                if (type != TagType.COMPOUND) {
+                    return null;
+                }
+
+                reader.enterCompound();
+                byte[] name = this.encodedNames[i];
+                while (true) {
+                    if (reader.nextTag() == TagType.END) {
+                        return null;
+                    }
+
+                    if (reader.nameEquals(name)) {
+                        break;
+                    }
+                }
+            } else if (type == TagType.LIST) {
+                int index = this.indexes[i];
+                if (index >= reader.enterList()) {
+                    return null;
+                }
+
+                // Elements before the index are skipped by their length
+                for (int j = 0; j <= index; j++) {
+                    reader.nextTag();
+                }
+            } else if ((type == TagType.BYTE_ARRAY || type == TagType.INT_ARRAY) && this.last(i)) {
+                return element(new NBTDecoder(reader).resolveTag(), this.indexes[i]);
+            } else {
+                return null;
+            }
+        }
+
+        return new NBTDecoder(reader).resolveTag();
+    }
+
+    // Only the last selector may index into an array
+    private boolean last(int segment) {
+        return segment == this.names.length - 1;
+    }
+
+    // An array tag with no value has no elements
+    private static NBTTag element(NBTTag array, int index) {
+        if (array instanceof ByteArrayTag) {
+            ByteBuffer buffer = ((ByteArrayTag) array).buffer();
+            if (buffer == null || index >= buffer.remaining()) {
+                return null;
+            }
+            return new ByteTag(null).setValue(buffer.get(buffer.position() + index));
+        }
+
+        if (array instanceof IntArrayTag) {
+            IntBuffer buffer = ((IntArrayTag) array).buffer();
+            if (buffer == null || index >= buffer.remaining()) {
+                return null;
+            }
+            return new IntTag(null).setValue(buffer.get(buffer.position() + index));
+        }
+
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return this.expression;
+    }
+}
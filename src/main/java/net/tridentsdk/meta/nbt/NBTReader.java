@@ -0,0 +1,653 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * A pull-style reader which walks encoded NBT without building {@link NBTTag} objects
+ *
+ * <p>The reader is positioned on one tag at a time. {@link #nextTag()} advances to the next tag in the current
+ * container, after which the value may be read with one of the typed read methods, skipped with
+ * {@link #skipValue()}, or entered if it is a compound or a list. A value which is not read before the next call to
+ * {@link #nextTag()} is skipped by its length, so whole subtrees can be passed over without being decoded.</p>
+ *
+ * <p>Tag names are buffered as raw bytes and only turned into a {@code String} when {@link #name()} is called.</p>
+ *
+ * <p>A reader created over a {@link ByteBuffer} reads directly from the buffer, skips by moving the position and
+ * can hand out array values as read-only views instead of copies. This works with heap, direct and mapped buffers,
+ * so a region or level file can be mapped with {@link java.nio.channels.FileChannel#map} and only the touched parts
+ * are ever paged in.</p>
+ *
+ * <p>Example, reading the {@code Health} of an entity compound:
+ * <pre><code>
+ *     NBTReader reader = new NBTReader(input);
+ *     reader.nextTag();
+ *     reader.enterCompound();
+ *     while (reader.nextTag() != TagType.END) {
+ *         if ("Health".equals(reader.name())) {
+ *             health = reader.readFloat();
+ *         }
+ *     }
+ *     reader.exitCompound();
+ * </code></pre></p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@NotThreadSafe
+public class NBTReader {
+    private static final int COMPOUND_OPEN = -1;
+
+    final DataInput input;
+    final ByteBuffer buffer;
+
+    // Container stack, a null list type marks a compound frame
+    private TagType[] listTypes = new TagType[8];
+    private int[] remaining = new int[8];
+    private int depth;
+
+    private TagType type = TagType.END;
+    private boolean pending;
+
+    private byte[] nameBytes = new byte[32];
+    private int nameLength = -1;
+    private String name;
+
+    private byte[] valueBytes = new byte[64];
+
+    /**
+     * Creates a new reader over the given input
+     *
+     * @param input the source of the encoded NBT
+     */
+    public NBTReader(DataInput input) {
+        this.input = input;
+        this.buffer = null;
+    }
+
+    /**
+     * Creates a new reader over the remaining bytes of the given buffer
+     *
+     * <p>The reader works on a slice of the buffer, so the position of the buffer passed in is not changed</p>
+     *
+     * @param buffer the buffer holding the encoded NBT
+     */
+    public NBTReader(ByteBuffer buffer) {
+        this.buffer = buffer.slice();
+        this.input = new ByteBufferInput(this.buffer);
+    }
+
+    /**
+     * Advances to the next tag in the current container
+     *
+     * <p>If the value of the current tag has not been read or entered, it is skipped first. {@link TagType#END} is
+     * returned once the current compound or list has no more tags.</p>
+     *
+     * @return the type of the tag the reader is now positioned on
+     * @throws IOException if the input could not be read
+     */
+    public TagType nextTag() throws IOException {
+        if (this.pending) {
+            this.skipValue();
+        }
+
+        if (this.depth > 0) {
+            int top = this.depth - 1;
+            TagType listType = this.listTypes[top];
+
+            if (listType != null) {
+                if (this.remaining[top] == 0) {
+                    return this.end();
+                }
+
+                this.remaining[top]--;
+                this.type = listType;
+                this.nameLength = -1;
+                this.name = null;
+                this.pending = true;
+                return listType;
+            }
+
+            if (this.remaining[top] == 0) {
+                return this.end();
+            }
+        }
+
+        TagType type = TagType.fromId(this.input.readByte());
+        if (type == TagType.END) {
+            if (this.depth > 0) {
+                this.remaining[this.depth - 1] = 0;
+            }
+
+            return this.end();
+        }
+
+        this.header(type);
+        return type;
+    }
+
+    /**
+     * Positions the reader on a tag whose type id has already been consumed from the input
+     *
+     * @param type the type of the tag
+     * @throws IOException if the name could not be read
+     */
+    void header(TagType type) throws IOException {
+        this.type = type;
+        this.readName();
+        this.pending = true;
+    }
+
+    /**
+     * The type of the tag the reader is positioned on
+     *
+     * @return the current tag type, or {@link TagType#END} at the end of a container
+     */
+    public TagType tagType() {
+        return this.type;
+    }
+
+    /**
+     * The name of the current tag
+     *
+     * @return the name, or {@code null} for list elements and container ends
+     */
+    public String name() {
+        if (this.nameLength < 0) {
+            return null;
+        }
+
+        if (this.name == null) {
+            this.name = ModifiedUtf8.decode(this.nameBytes, 0, this.nameLength);
+        }
+
+        return this.name;
+    }
+
+    /**
+     * Compares the name of the current tag to an encoded name without decoding it
+     *
+     * @param encoded the modified UTF-8 bytes of the name
+     * @return {@code true} if the names are the same
+     */
+    boolean nameEquals(byte[] encoded) {
+        if (this.nameLength != encoded.length) {
+            return false;
+        }
+
+        for (int i = 0; i < encoded.length; i++) {
+            if (this.nameBytes[i] != encoded[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * The amount of containers which have been entered and not yet exited
+     *
+     * @return the nesting depth, {@code 0} at the root
+     */
+    public int depth() {
+        return this.depth;
+    }
+
+    /**
+     * The element type of the innermost entered list
+     *
+     * @return the list element type
+     * @throws IllegalStateException if the innermost container is not a list
+     */
+    public TagType listType() {
+        this.checkContainer(true);
+        return this.listTypes[this.depth - 1];
+    }
+
+    /**
+     * Reads the value of the current {@code BYTE} tag
+     *
+     * @return the value
+     * @throws IOException if the input could not be read
+     * @throws IllegalStateException if the reader is not positioned on an unread {@code BYTE} tag
+     */
+    public byte readByte() throws IOException {
+        this.consume(TagType.BYTE);
+        return this.input.readByte();
+    }
+
+    /**
+     * Reads the value of the current {@code SHORT} tag
+     *
+     * @return the value
+     * @throws IOException if the input could not be read
+     * @throws IllegalStateException if the reader is not positioned on an unread {@code SHORT} tag
+     */
+    public short readShort() throws IOException {
+        this.consume(TagType.SHORT);
+        return this.input.readShort();
+    }
+
+    /**
+     * Reads the value of the current {@code INT} tag
+     *
+     * @return the value
+     * @throws IOException if the input could not be read
+     * @throws IllegalStateException if the reader is not positioned on an unread {@code INT} tag
+     */
+    public int readInt() throws IOException {
+        this.consume(TagType.INT);
+        return this.input.readInt();
+    }
+
+    /**
+     * Reads the value of the current {@code LONG} tag
+     *
+     * @return the value
+     * @throws IOException if the input could not be read
+     * @throws IllegalStateException if the reader is not positioned on an unread {@code LONG} tag
+     */
+    public long readLong() throws IOException {
+        this.consume(TagType.LONG);
+        return this.input.readLong();
+    }
+
+    /**
+     * Reads the value of the current {@code FLOAT} tag
+     *
+     * @return the value
+     * @throws IOException if the input could not be read
+     * @throws IllegalStateException if the reader is not positioned on an unread {@code FLOAT} tag
+     */
+    public float readFloat() throws IOException {
+        this.consume(TagType.FLOAT);
+        return this.input.readFloat();
+    }
+
+    /**
+     * Reads the value of the current {@code DOUBLE} tag
+     *
+     * @return the value
+     * @throws IOException if the input could not be read
+     * @throws IllegalStateException if the reader is not positioned on an unread {@code DOUBLE} tag
+     */
+    public double readDouble() throws IOException {
+        this.consume(TagType.DOUBLE);
+        return this.input.readDouble();
+    }
+
+    /**
+     * Reads the value of the current {@code STRING} tag
+     *
+     * @return the value
+     * @throws IOException if the input could not be read
+     * @throws IllegalStateException if the reader is not positioned on an unread {@code STRING} tag
+     */
+    public String readString() throws IOException {
+        this.consume(TagType.STRING);
+
+        int length = this.input.readUnsignedShort();
+        if (length > this.valueBytes.length) {
+            this.valueBytes = new byte[length];
+        }
+
+        this.input.readFully(this.valueBytes, 0, length);
+        return ModifiedUtf8.decode(this.valueBytes, 0, length);
+    }
+
+    /**
+     * Reads the value of the current {@code BYTE_ARRAY} tag
+     *
+     * @return the value
+     * @throws IOException if the input could not be read, or holds a negative or too large length
+     * @throws IllegalStateException if the reader is not positioned on an unread {@code BYTE_ARRAY} tag
+     */
+    public byte[] readByteArray() throws IOException {
+        this.consume(TagType.BYTE_ARRAY);
+
+        byte[] bytes = new byte[length(this.input.readInt(), 1, TagType.BYTE_ARRAY)];
+        this.input.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Reads the value of the current {@code INT_ARRAY} tag
+     *
+     * @return the value
+     * @throws IOException if the input could not be read, or holds a negative or too large length
+     * @throws IllegalStateException if the reader is not positioned on an unread {@code INT_ARRAY} tag
+     */
+    public int[] readIntArray() throws IOException {
+        this.consume(TagType.INT_ARRAY);
+
+        int[] ints = new int[length(this.input.readInt(), 4, TagType.INT_ARRAY)];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = this.input.readInt();
+        }
+
+        return ints;
+    }
+
+    /**
+     * Reads the value of the current {@code BYTE_ARRAY} tag as a buffer
+     *
+     * <p>If this reader was created over a {@link ByteBuffer}, the returned buffer is a read-only view of the
+     * underlying bytes and nothing is copied. Otherwise, the bytes are read into a new array which is wrapped.</p>
+     *
+     * @return the value
+     * @throws IOException if the input could not be read, or holds a negative or too large length
+     * @throws IllegalStateException if the reader is not positioned on an unread {@code BYTE_ARRAY} tag
+     */
+    public ByteBuffer readByteArrayBuffer() throws IOException {
+        if (this.buffer == null) {
+            return ByteBuffer.wrap(this.readByteArray());
+        }
+
+        this.consume(TagType.BYTE_ARRAY);
+        return this.slice(length(this.input.readInt(), 1, TagType.BYTE_ARRAY));
+    }
+
+    /**
+     * Reads the value of the current {@code INT_ARRAY} tag as a buffer
+     *
+     * <p>If this reader was created over a {@link ByteBuffer}, the returned buffer is a read-only view of the
+     * underlying bytes and nothing is copied. Otherwise, the ints are read into a new array which is wrapped.</p>
+     *
+     * @return the value
+     * @throws IOException if the input could not be read, or holds a negative or too large length
+     * @throws IllegalStateException if the reader is not positioned on an unread {@code INT_ARRAY} tag
+     */
+    public IntBuffer readIntArrayBuffer() throws IOException {
+        if (this.buffer == null) {
+            return IntBuffer.wrap(this.readIntArray());
+        }
+
+        this.consume(TagType.INT_ARRAY);
+        return this.slice(length(this.input.readInt(), 4, TagType.INT_ARRAY) * 4).asIntBuffer();
+    }
+
+    /**
+     * Skips the value of the current tag, including every tag nested inside of it
+     *
+     * <p>Does nothing if the value has already been read or entered.</p>
+     *
+     * @throws IOException if the input could not be read, or holds a negative or too large length
+     */
+    public void skipValue() throws IOException {
+        if (!this.pending) {
+            return;
+        }
+
+        this.pending = false;
+        this.skipPayload(this.type);
+    }
+
+    /**
+     * Enters the current compound tag, so that {@link #nextTag()} walks its children
+     *
+     * @throws IllegalStateException if the reader is not positioned on an unread compound
+     */
+    public void enterCompound() {
+        this.consume(TagType.COMPOUND);
+        this.push(null, COMPOUND_OPEN);
+    }
+
+    /**
+     * Skips the rest of the innermost compound and returns to its parent container
+     *
+     * @throws IOException if the input could not be read
+     * @throws IllegalStateException if the innermost container is not a compound
+     */
+    public void exitCompound() throws IOException {
+        this.checkContainer(false);
+        while (this.nextTag() != TagType.END) {
+            // Unread children are skipped by nextTag()
+        }
+
+        this.pop(TagType.COMPOUND);
+    }
+
+    /**
+     * Enters the current list tag, so that {@link #nextTag()} walks its elements
+     *
+     * @return the amount of elements in the list
+     * @throws IOException if the list header could not be read
+     * @throws IllegalStateException if the reader is not positioned on an unread list
+     */
+    public int enterList() throws IOException {
+        this.consume(TagType.LIST);
+
+        TagType listType = TagType.fromId(this.input.readByte());
+        int length = this.input.readInt();
+        this.push(listType, length);
+        return length;
+    }
+
+    /**
+     * Skips the rest of the innermost list and returns to its parent container
+     *
+     * @throws IOException if the input could not be read
+     * @throws IllegalStateException if the innermost container is not a list
+     */
+    public void exitList() throws IOException {
+        this.checkContainer(true);
+        this.skipValue();
+
+        int top = this.depth - 1;
+        this.skipPayloads(this.listTypes[top], this.remaining[top]);
+        this.pop(TagType.LIST);
+    }
+
+    private TagType end() {
+        this.type = TagType.END;
+        this.nameLength = -1;
+        this.name = null;
+        this.pending = false;
+        return TagType.END;
+    }
+
+    private void consume(TagType expected) {
+        if (!this.pending || this.type != expected) {
+            throw new IllegalStateException("Expected an unread " + expected + " value, but the reader is on " +
+                    (this.pending ? "an unread " : "a consumed ") + this.type);
+        }
+
+        this.pending = false;
+    }
+
+    private void checkContainer(boolean list) {
+        if (this.depth == 0 || (this.listTypes[this.depth - 1] != null) != list) {
+            throw new IllegalStateException("Innermost container is not a " + (list ? "list" : "compound"));
+        }
+    }
+
+    private void push(TagType listType, int remaining) {
+        if (this.depth == this.remaining.length) {
+            int length = this.depth << 1;
+
+            TagType[] listTypes = new TagType[length];
+            System.arraycopy(this.listTypes, 0, listTypes, 0, this.depth);
+            this.listTypes = listTypes;
+
+            int[] counts = new int[length];
+            System.arraycopy(this.remaining, 0, counts, 0, this.depth);
+            this.remaining = counts;
+        }
+
+        this.listTypes[this.depth] = listType;
+        this.remaining[this.depth] = remaining;
+        this.depth++;
+
+        this.nameLength = -1;
+        this.name = null;
+    }
+
+    private void pop(TagType container) {
+        this.depth--;
+        this.listTypes[this.depth] = null;
+
+        this.type = container;
+        this.pending = false;
+        this.nameLength = -1;
+        this.name = null;
+    }
+
+    private ByteBuffer slice(int length) throws IOException {
+        ByteBuffer buffer = this.buffer;
+        int position = buffer.position();
+        if (length < 0 || buffer.remaining() < length) {
+            throw new EOFException("Array of " + length + " bytes runs past the end of the buffer");
+        }
+
+        ByteBuffer view = buffer.asReadOnlyBuffer();
+        view.limit(position + length);
+        buffer.position(position + length);
+        return view.slice();
+    }
+
+    private void readName() throws IOException {
+        int length = this.input.readUnsignedShort();
+        if (length > this.nameBytes.length) {
+            this.nameBytes = new byte[length];
+        }
+
+        this.input.readFully(this.nameBytes, 0, length);
+        this.nameLength = length;
+        this.name = null;
+    }
+
+    private void skipPayload(TagType type) throws IOException {
+        switch (type) {
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                this.skip(width(type));
+                break;
+
+            case BYTE_ARRAY:
+                this.skip(length(this.input.readInt(), 1, TagType.BYTE_ARRAY));
+                break;
+
+            case STRING:
+                this.skip(this.input.readUnsignedShort());
+                break;
+
+            case INT_ARRAY:
+                this.skip(length(this.input.readInt(), 4, TagType.INT_ARRAY) * 4L);
+                break;
+
+            case LIST:
+                TagType listType = TagType.fromId(this.input.readByte());
+                this.skipPayloads(listType, length(this.input.readInt(), 1, TagType.LIST));
+                break;
+
+            case COMPOUND:
+                TagType inner;
+                while ((inner = TagType.fromId(this.input.readByte())) != TagType.END) {
+                    this.skip(this.input.readUnsignedShort());
+                    this.skipPayload(inner);
+                }
+                break;
+
+            default:
+                // END and NULL tags have no payload
+                break;
+        }
+    }
+
+    private void skipPayloads(TagType type, int count) throws IOException {
+        int width = width(type);
+        if (width >= 0) {
+            this.skip((long) width * count);
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            this.skipPayload(type);
+        }
+    }
+
+    private void skip(long bytes) throws IOException {
+        if (bytes < 0) {
+            throw malformed("Cannot skip " + bytes + " bytes");
+        }
+
+        while (bytes > 0) {
+            int skipped = this.input.skipBytes((int) Math.min(bytes, Integer.MAX_VALUE));
+            if (skipped <= 0) {
+                // skipBytes is allowed to give up early, readByte will throw at the end of the input
+                this.input.readByte();
+                skipped = 1;
+            }
+
+            bytes -= skipped;
+        }
+    }
+
+    /**
+     * Checks a length read from the input, before anything is allocated or sliced for it
+     *
+     * @param length the number of elements
+     * @param width the size of an element in bytes
+     * @param type the type of the tag the length belongs to
+     * @return the length
+     * @throws IOException with an {@link NBTException} as the cause, if the length is negative or the size of the
+     *         elements does not fit an int
+     */
+    private static int length(int length, int width, TagType type) throws IOException {
+        if (length < 0 || length > Integer.MAX_VALUE / width) {
+            throw malformed("Invalid " + type + " length " + length);
+        }
+
+        return length;
+    }
+
+    // The reader only throws IOExceptions, so malformed data is reported as one caused by an NBTException
+    private static IOException malformed(String message) {
+        return new IOException(message, new NBTException(message));
+    }
+
+    static int width(TagType type) {
+        switch (type) {
+            case BYTE:
+                return 1;
+            case SHORT:
+                return 2;
+            case INT:
+            case FLOAT:
+                return 4;
+            case LONG:
+            case DOUBLE:
+                return 8;
+            case END:
+            case NULL:
+                return 0;
+            default:
+                return -1;
+        }
+    }
+}
@@ -17,62 +17,39 @@
 
 package net.tridentsdk.meta.nbt;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.util.ArrayList;
-import java.util.List;
-
-import net.tridentsdk.reflect.FastClass;
-import net.tridentsdk.reflect.FastField;
 import net.tridentsdk.util.TridentLogger;
 
+/**
+ * Converts {@link NBTSerializable} objects to and from compound tags using their {@link NBTField} annotations
+ *
+ * <p>The fields of each class are bound once, on first use, and the binding is reused for every later call</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.3-alpha-DP
+ */
 public final class NBTSerializer {
     public static <T> T deserialize(Class<T> clzz, CompoundTag tag) {
         if (!NBTSerializable.class.isAssignableFrom(clzz)) {
             TridentLogger.get().error(new IllegalArgumentException("Provided object is not serializable!"));
         }
 
-        FastClass cls = FastClass.get(clzz);
-        T instance = cls.constructor().newInstance();
+        @SuppressWarnings("unchecked")
+        T instance = (T) NBTCodec.of(clzz).newInstance();
+        if (instance == null) {
+            return null;
+        }
 
         return NBTSerializer.deserialize(instance, tag);
     }
 
     public static <T> T deserialize(T instance, CompoundTag tag) {
-        if (!NBTSerializable.class.isAssignableFrom(instance.getClass())) {
+        if (!(instance instanceof NBTSerializable)) {
             TridentLogger.get().error(new IllegalArgumentException("Provided object is not serializable!"));
             return null;
         }
 
-        FastClass cls = FastClass.get(instance.getClass());
-
-        for (FastField field : cls.fields()) {
-            Field f = field.toField();
-
-            if (!f.isAnnotationPresent(NBTField.class)) {
-                continue;
-            }
-
-            NBTField nf = f.getAnnotation(NBTField.class);
-            String tagName = nf.name();
-            TagType type = nf.type();
-            NBTTag value;
-
-            if (!tag.containsTag(tagName)) {
-                if (nf.required()) {
-                    TridentLogger.get().error(new UnsupportedOperationException("Provided NBT does not contain tag: " + tagName));
-                    return null;
-                }
-                value = new NullTag(tagName);
-            } else {
-                value = tag.getTag(tagName);
-            }
-
-            if (value.type() != type) {
-                continue;
-            }
-
-            field.set(instance, NBTSerializer.findJavaValue(value, field, f));
+        if (!NBTCodec.of(instance.getClass()).read(instance, tag)) {
+            return null;
         }
 
         // This allows NBTSerializable classes to process their newly-found data. Useful for caching stuff into fields.
@@ -81,155 +58,11 @@ public final class NBTSerializer {
         return instance;
     }
 
-    private static Object findJavaValue(NBTTag value, FastField field, Field f) {
-
-        NBTField nf = field.toField().getAnnotation(NBTField.class);
-
-        switch (value.type()) {
-            case BYTE:
-
-                if (field.toField().getType() == boolean.class) {
-                    return value.asType(ByteTag.class).value() == 1;
-                } else {
-                    return value.asType(ByteTag.class).value();
-                }
-
-            case BYTE_ARRAY:
-                return value.asType(ByteArrayTag.class).value();
-
-            case COMPOUND:
-                if (nf != null && nf.asClass() != null && nf.asClass() != NBTSerializable.class) {
-                    return NBTSerializer.deserialize(nf.asClass(), value.asType(CompoundTag.class));
-                } else if (NBTSerializable.class.isAssignableFrom(field.toField().getType())) {
-                    return NBTSerializer.deserialize(field.toField().getType(), value.asType(CompoundTag.class));
-                } else {
-                    return value;
-                }
-
-            case DOUBLE:
-                return value.asType(DoubleTag.class).value();
-
-            case FLOAT:
-                return value.asType(FloatTag.class).value();
-
-            case INT:
-                return value.asType(IntTag.class).value();
-
-            case INT_ARRAY:
-                return value.asType(IntArrayTag.class).value();
-
-            case LONG:
-                return value.asType(LongTag.class).value();
-
-            case SHORT:
-                return value.asType(ShortTag.class).value();
-
-            case LIST:
-                ListTag list = value.asType(ListTag.class);
-                Class<?> listType = (Class<?>) ((ParameterizedType) f.getGenericType())
-                        .getActualTypeArguments()[0];
-                boolean isPrimitive = listType.isPrimitive() || listType.equals(String.class);
-
-                if (!NBTSerializable.class.isAssignableFrom(listType) && !isPrimitive) {
-                    break;
-                }
-
-                List<Object> l = new ArrayList<>();
-
-                for (NBTTag t : list.listTags()) {
-                    if (isPrimitive) {
-                        l.add(NBTSerializer.findJavaValue(t, null, null));
-                        continue;
-                    }
-
-                    CompoundTag compound = t.asType(CompoundTag.class);
-
-                    l.add(NBTSerializer.deserialize(listType, compound));
-                }
-
-                return f.getType().cast(l);
-
-            case STRING:
-                return value.asType(StringTag.class).value();
-
-            case NULL:
-            default:
-                return null;
-        }
-
-        return null;
-    }
-
     public static CompoundTag serialize(NBTSerializable serializable, String name) {
-        FastClass cls = FastClass.get(serializable.getClass());
-        CompoundTagBuilder<NBTBuilder> builder = NBTBuilder.newBase(name);
-
-        for (FastField field : cls.fields()) {
-            Field f = field.toField();
-
-            if (!f.isAnnotationPresent(NBTField.class)) {
-                continue;
-            }
-
-            String tagName = f.getAnnotation(NBTField.class).name();
-            TagType tagType = f.getAnnotation(NBTField.class).type();
-            Object value = field.get(serializable);
-
-            switch (tagType) {
-                case BYTE:
-                    builder.byteTag(tagName, (byte) value);
-                    break;
-
-                case BYTE_ARRAY:
-                    builder.byteArrayTag(tagName, (byte[]) value);
-                    break;
-
-                case COMPOUND:
-                    builder.compoundTag((CompoundTag) value);
-                    break;
-
-                case DOUBLE:
-                    builder.doubleTag(tagName, (double) value);
-                    break;
-
-                case FLOAT:
-                    builder.floatTag(tagName, (float) value);
-                    break;
-
-                case INT:
-                    builder.intTag(tagName, (int) value);
-                    break;
-
-                case INT_ARRAY:
-                    builder.intArrayTag(tagName, (int[]) value);
-                    break;
-
-                case LONG:
-                    builder.longTag(tagName, (long) value);
-                    break;
-
-                case SHORT:
-                    builder.shortTag(tagName, (short) value);
-                    break;
-
-                case LIST:
-                    builder.listTag((ListTag) value);
-                    break;
-
-                case STRING:
-                    builder.stringTag(tagName, (String) value);
-                    break;
-
-                case NULL:
-                    builder.nullTag(tagName);
-                    break;
-
-                default:
-                    break;
-            }
-        }
+        CompoundTag tag = new CompoundTag(name);
+        NBTCodec.of(serializable.getClass()).write(serializable, tag);
 
-        return builder.endCompoundTag().build();
+        return tag;
     }
 
     public static CompoundTag serialize(NBTSerializable serializable) {
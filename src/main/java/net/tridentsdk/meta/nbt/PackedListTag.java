@@ -0,0 +1,136 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tridentsdk.meta.nbt;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A list of numeric tags which stores its elements in a primitive array
+ *
+ * <p>The {@link ListTag} methods still work with tags. The tags returned by {@link #getTag(int)} and
+ * {@link #listTags()} are views of the element at their index: reading them reads the list, and setting their value
+ * sets the element. A view follows its index, not its value, so removing an earlier element moves the view onto the
+ * next value, and a view past the end of the list throws {@link IndexOutOfBoundsException} when used.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@ThreadSafe
+abstract class PackedListTag extends ListTag {
+    int size;
+
+    PackedListTag(String name, TagType innerType, int size) {
+        super(name, innerType, null);
+        this.size = size;
+    }
+
+    /**
+     * @return the backing array, which may be longer than the list
+     */
+    abstract Object array();
+
+    /**
+     * Replaces the backing array with a copy of the given length
+     *
+     * @param capacity the length of the new array
+     */
+    abstract void resize(int capacity);
+
+    /**
+     * Creates a tag which reads and writes the element at the given index
+     *
+     * @param index the index of the element
+     * @return the view of the element
+     */
+    abstract NBTTag view(int index);
+
+    /**
+     * Finds the first element with the value of the given tag
+     *
+     * @param tag the tag to find the value of
+     * @return the index of the element, or {@code -1} if there is none
+     */
+    abstract int indexOf(NBTTag tag);
+
+    /**
+     * Makes room for one more element, growing the backing array if it is full
+     */
+    final void ensureSpace(int length) {
+        if (this.size == length) {
+            this.resize(Math.max(4, this.size << 1));
+        }
+    }
+
+    final void check(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        return this.size;
+    }
+
+    @Override
+    public synchronized List<NBTTag> listTags() {
+        List<NBTTag> tags = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            tags.add(this.view(i));
+        }
+
+        return tags;
+    }
+
+    @Override
+    public synchronized NBTTag getTag(int index) {
+        this.check(index);
+        return this.view(index);
+    }
+
+    @Override
+    public synchronized void clearTags() {
+        this.size = 0;
+    }
+
+    /**
+     * Checks whether an element has the value of the given tag
+     *
+     * @param tag the tag to find the value of
+     * @return {@code true} if an element has the same value
+     */
+    @Override
+    public synchronized boolean containsTag(NBTTag tag) {
+        return this.indexOf(tag) >= 0;
+    }
+
+    /**
+     * Removes the first element with the value of the given tag
+     *
+     * @param tag the tag to remove the value of
+     */
+    @Override
+    public synchronized void removeTag(NBTTag tag) {
+        int index = this.indexOf(tag);
+        if (index >= 0) {
+            System.arraycopy(this.array(), index + 1, this.array(), index, this.size - index - 1);
+            this.size--;
+        }
+    }
+}
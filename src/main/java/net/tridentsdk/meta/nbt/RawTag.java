@@ -0,0 +1,61 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import net.tridentsdk.util.TridentLogger;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Placeholder held by a {@link LazyCompoundTag} for a child which has not been decoded yet
+ *
+ * <p>The bytes span the complete encoded child, type id and name included, so they can be copied back out
+ * unchanged by the {@link NBTEncoder}</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+class RawTag extends NBTTag {
+    final TagType type;
+    final ByteBuffer bytes;
+
+    RawTag(String name, TagType type, ByteBuffer bytes) {
+        super(name);
+        this.type = type;
+        this.bytes = bytes;
+    }
+
+    NBTTag decode() {
+        NBTReader reader = new NBTReader(this.bytes);
+        try {
+            reader.nextTag();
+            return new NBTDecoder(reader, true).decodeTag();
+        } catch (Exception e) {
+            TridentLogger.get().error(new NBTException("Error decoding lazily held tag " + this.name(), e));
+            return new NullTag(this.name());
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see net.tridentsdk.meta.nbt.NBTTag#type()
+     */
+    @Override
+    public TagType type() {
+        return this.type;
+    }
+}
@@ -0,0 +1,671 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parses and prints stringified NBT, the text form used in commands, such as
+ * {@code {display:{Name:"Excalibur"},Damage:3s}}
+ *
+ * <p>Numbers are suffixed with their type: {@code b} for bytes, {@code s} for shorts, {@code L} for longs, {@code f}
+ * for floats and {@code d} for doubles. Numbers without a suffix are ints, or doubles if they have a decimal point.
+ * Floats and doubles which are not finite are written as {@code NaN}, {@code Infinity} or {@code -Infinity} with their
+ * suffix, without it they are strings.
+ * {@code true} and {@code false} are bytes. Strings may be quoted with double or single quotes, and only need to be
+ * quoted if they contain characters other than letters, digits, {@code _-.+} or would otherwise be read as a number.
+ * Lists are written as {@code [a,b]}, byte arrays as {@code [B;1b,2b]} and int arrays as {@code [I;1,2]}.</p>
+ *
+ * <p>The parser runs over the text once and creates the tags as it goes. Parsing the same text again, as happens
+ * with command blocks and repeated commands, can skip parsing entirely with {@link #parseCached(String)}.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@ThreadSafe
+public final class SNBT {
+    private static final int CACHE_SIZE = 512;
+    private static final Cache<String, ImmutableCompoundTag> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .build();
+
+    private SNBT() {
+    }
+
+    /**
+     * Parses a compound
+     *
+     * @param snbt the text to parse
+     * @return the parsed compound, which has no name
+     * @throws IllegalArgumentException if the text is not a valid compound
+     */
+    public static CompoundTag parse(String snbt) {
+        Parser parser = new Parser(snbt);
+        parser.skipWhitespace();
+        CompoundTag tag = parser.readCompound(null);
+        parser.end();
+        return tag;
+    }
+
+    /**
+     * Parses a tag of any type
+     *
+     * @param snbt the text to parse
+     * @return the parsed tag, which has no name
+     * @throws IllegalArgumentException if the text is not a valid tag
+     */
+    public static NBTTag parseTag(String snbt) {
+        Parser parser = new Parser(snbt);
+        NBTTag tag = parser.readValue(null);
+        parser.end();
+        return tag;
+    }
+
+    /**
+     * Parses a compound, or obtains it from the cache of recently parsed text
+     *
+     * <p>The result is immutable, as it is shared with every other caller parsing the same text. Use
+     * {@link ImmutableCompoundTag#mutableCopy()} to obtain a compound which can be modified.</p>
+     *
+     * @param snbt the text to parse
+     * @return the parsed compound, which has no name
+     * @throws IllegalArgumentException if the text is not a valid compound
+     */
+    public static ImmutableCompoundTag parseCached(String snbt) {
+        ImmutableCompoundTag tag = CACHE.getIfPresent(snbt);
+        if (tag == null) {
+            tag = ImmutableCompoundTag.copyOf(parse(snbt));
+            CACHE.put(snbt, tag);
+        }
+
+        return tag;
+    }
+
+    /**
+     * Prints a tag, which can be parsed back into the same tag
+     *
+     * <p>The name of the given tag itself is not printed</p>
+     *
+     * @param tag the tag to print
+     * @return the text form of the tag
+     */
+    public static String print(NBTTag tag) {
+        StringBuilder builder = new StringBuilder();
+        print(tag, builder);
+        return builder.toString();
+    }
+
+    private static void print(NBTTag tag, StringBuilder builder) {
+        switch (tag.type()) {
+            case BYTE:
+                builder.append(((ByteTag) tag).value()).append('b');
+                break;
+            case SHORT:
+                builder.append(((ShortTag) tag).value()).append('s');
+                break;
+            case INT:
+                builder.append(((IntTag) tag).value());
+                break;
+            case LONG:
+                builder.append(((LongTag) tag).value()).append('L');
+                break;
+            case FLOAT:
+                builder.append(((FloatTag) tag).value()).append('f');
+                break;
+            case DOUBLE:
+                builder.append(((DoubleTag) tag).value()).append('d');
+                break;
+            case STRING:
+                printString(((StringTag) tag).value(), builder);
+                break;
+
+            case BYTE_ARRAY:
+                builder.append("[B;");
+                ByteArrayTag bytes = (ByteArrayTag) tag;
+                ByteBuffer bbuffer = bytes.buffer();
+                for (int i = 0; bbuffer != null && i < bbuffer.remaining(); i++) {
+                    if (i > 0) {
+                        builder.append(',');
+                    }
+                    builder.append(bbuffer.get(bbuffer.position() + i)).append('b');
+                }
+                builder.append(']');
+                break;
+
+            case INT_ARRAY:
+                builder.append("[I;");
+                IntArrayTag ints = (IntArrayTag) tag;
+                IntBuffer ibuffer = ints.buffer();
+                for (int i = 0; ibuffer != null && i < ibuffer.remaining(); i++) {
+                    if (i > 0) {
+                        builder.append(',');
+                    }
+                    builder.append(ibuffer.get(ibuffer.position() + i));
+                }
+                builder.append(']');
+                break;
+
+            case LIST:
+                builder.append('[');
+                List<NBTTag> elements = ((ListTag) tag).listTags();
+                for (int i = 0; i < elements.size(); i++) {
+                    if (i > 0) {
+                        builder.append(',');
+                    }
+                    print(elements.get(i), builder);
+                }
+                builder.append(']');
+                break;
+
+            case COMPOUND:
+                builder.append('{');
+                boolean first = true;
+                for (NBTTag child : ((CompoundTag) tag).listTags()) {
+                    if (!first) {
+                        builder.append(',');
+                    }
+                    first = false;
+
+                    String name = TagTrie.key(child.name());
+                    if (isPlain(name) && !name.isEmpty()) {
+                        builder.append(name);
+                    } else {
+                        printString(name, builder);
+                    }
+                    builder.append(':');
+                    print(child, builder);
+                }
+                builder.append('}');
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    private static void printString(String value, StringBuilder builder) {
+        builder.append('"');
+        for (int i = 0; value != null && i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\');
+            }
+            builder.append(c);
+        }
+        builder.append('"');
+    }
+
+    private static boolean isPlainChar(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_' || c == '-' ||
+                c == '.' || c == '+';
+    }
+
+    private static boolean isPlain(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (!isPlainChar(s.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads tags from text, with the position kept between calls
+     */
+    private static final class Parser {
+        private final String source;
+        private final int length;
+        private int position;
+
+        Parser(String source) {
+            this.source = source;
+            this.length = source.length();
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid SNBT at index " + this.position + ": " + message);
+        }
+
+        void skipWhitespace() {
+            while (this.position < this.length && Character.isWhitespace(this.source.charAt(this.position))) {
+                this.position++;
+            }
+        }
+
+        void end() {
+            this.skipWhitespace();
+            if (this.position != this.length) {
+                throw this.error("expected the end of the text");
+            }
+        }
+
+        private char peek() {
+            if (this.position >= this.length) {
+                throw this.error("unexpected end of the text");
+            }
+
+            return this.source.charAt(this.position);
+        }
+
+        private void expect(char c) {
+            this.skipWhitespace();
+            if (this.peek() != c) {
+                throw this.error("expected '" + c + "'");
+            }
+            this.position++;
+        }
+
+        // Consumes the separator and returns true if another element follows
+        private boolean next(char close) {
+            this.skipWhitespace();
+            char c = this.peek();
+            this.position++;
+            if (c == ',') {
+                return true;
+            }
+
+            if (c != close) {
+                this.position--;
+                throw this.error("expected ',' or '" + close + "'");
+            }
+            return false;
+        }
+
+        NBTTag readValue(String name) {
+            this.skipWhitespace();
+            char c = this.peek();
+            if (c == '{') {
+                return this.readCompound(name);
+            }
+
+            if (c == '[') {
+                return this.readList(name);
+            }
+
+            if (c == '"' || c == '\'') {
+                return new StringTag(name).setValue(this.readQuoted());
+            }
+
+            return this.readPlain(name);
+        }
+
+        CompoundTag readCompound(String name) {
+            this.expect('{');
+            CompoundTag compound = new CompoundTag(name);
+
+            this.skipWhitespace();
+            if (this.peek() == '}') {
+                this.position++;
+                return compound;
+            }
+
+            do {
+                this.skipWhitespace();
+                char c = this.peek();
+                String key;
+                if (c == '"' || c == '\'') {
+                    key = this.readQuoted();
+                } else {
+                    key = this.readPlainString();
+                    if (key.isEmpty()) {
+                        throw this.error("expected a name");
+                    }
+                }
+
+                this.expect(':');
+                this.skipWhitespace();
+                c = this.peek();
+                if (c == '{' || c == '[' || c == '"' || c == '\'') {
+                    compound.addTag(this.readValue(key));
+                } else {
+                    this.readPlainInto(compound, key);
+                }
+            } while (this.next('}'));
+
+            return compound;
+        }
+
+        private NBTTag readList(String name) {
+            this.expect('[');
+
+            // Typed arrays start with their type and a semicolon
+            if (this.position + 1 < this.length && this.source.charAt(this.position + 1) == ';') {
+                char type = this.source.charAt(this.position);
+                if (type == 'B' || type == 'I') {
+                    this.position += 2;
+                    return type == 'B' ? this.readByteArray(name) : this.readIntArray(name);
+                }
+                throw this.error("unsupported array type " + type);
+            }
+
+            this.skipWhitespace();
+            if (this.peek() == ']') {
+                this.position++;
+                return new ListTag(name, TagType.END);
+            }
+
+            NBTTag first = this.readValue(null);
+            ListTag list = ListTag.create(name, first.type());
+            list.addTag(first);
+            while (this.next(']')) {
+                NBTTag element = this.readValue(null);
+                if (element.type() != first.type()) {
+                    throw this.error("list elements must all be " + first.type());
+                }
+                list.addTag(element);
+            }
+
+            return list;
+        }
+
+        private ByteArrayTag readByteArray(String name) {
+            byte[] values = new byte[8];
+            int count = 0;
+
+            this.skipWhitespace();
+            if (this.peek() == ']') {
+                this.position++;
+            } else {
+                do {
+                    NBTTag element = this.readValue(null);
+                    if (element.type() != TagType.BYTE) {
+                        throw this.error("byte arrays may only contain bytes");
+                    }
+
+                    if (count == values.length) {
+                        values = Arrays.copyOf(values, count << 1);
+                    }
+                    values[count++] = ((ByteTag) element).value();
+                } while (this.next(']'));
+            }
+
+            return new ByteArrayTag(name).setValue(Arrays.copyOf(values, count));
+        }
+
+        private IntArrayTag readIntArray(String name) {
+            int[] values = new int[8];
+            int count = 0;
+
+            this.skipWhitespace();
+            if (this.peek() == ']') {
+                this.position++;
+            } else {
+                do {
+                    NBTTag element = this.readValue(null);
+                    if (element.type() != TagType.INT) {
+                        throw this.error("int arrays may only contain ints");
+                    }
+
+                    if (count == values.length) {
+                        values = Arrays.copyOf(values, count << 1);
+                    }
+                    values[count++] = ((IntTag) element).value();
+                } while (this.next(']'));
+            }
+
+            return new IntArrayTag(name).setValue(Arrays.copyOf(values, count));
+        }
+
+        private String readQuoted() {
+            char quote = this.source.charAt(this.position++);
+            int start = this.position;
+
+            // Fast path for strings without escapes
+            while (this.position < this.length) {
+                char c = this.source.charAt(this.position);
+                if (c == quote) {
+                    return this.source.substring(start, this.position++);
+                }
+
+                if (c == '\\') {
+                    break;
+                }
+                this.position++;
+            }
+
+            StringBuilder builder = new StringBuilder(this.position - start + 16);
+            builder.append(this.source, start, this.position);
+            while (true) {
+                char c = this.peek();
+                this.position++;
+                if (c == quote) {
+                    return builder.toString();
+                }
+
+                if (c == '\\') {
+                    c = this.peek();
+                    this.position++;
+                }
+                builder.append(c);
+            }
+        }
+
+        private String readPlainString() {
+            int start = this.position;
+            while (this.position < this.length && isPlainChar(this.source.charAt(this.position))) {
+                this.position++;
+            }
+
+            return this.source.substring(start, this.position);
+        }
+
+        private NBTTag readPlain(String name) {
+            int start = this.position;
+            int end = this.plainEnd();
+            if (end == start) {
+                throw this.error("expected a value");
+            }
+
+            TagType type = this.classify(start, end);
+            this.position = end;
+            if (type == TagType.STRING) {
+                return new StringTag(name).setValue(this.source.substring(start, end));
+            }
+
+            return TagTable.box(name, (byte) type.id(), this.bits(type, start, end));
+        }
+
+        // Numbers in a compound are stored unboxed
+        private void readPlainInto(CompoundTag compound, String name) {
+            int start = this.position;
+            int end = this.plainEnd();
+            if (end == start) {
+                throw this.error("expected a value");
+            }
+
+            TagType type = this.classify(start, end);
+            this.position = end;
+            if (type == TagType.STRING) {
+                compound.addTag(new StringTag(name).setValue(this.source.substring(start, end)));
+            } else {
+                compound.putScalar(name, type, this.bits(type, start, end));
+            }
+        }
+
+        private int plainEnd() {
+            int end = this.position;
+            while (end < this.length && isPlainChar(this.source.charAt(end))) {
+                end++;
+            }
+
+            return end;
+        }
+
+        private TagType classify(int start, int end) {
+            String source = this.source;
+            if (end - start == 4 && source.startsWith("true", start) ||
+                    end - start == 5 && source.startsWith("false", start)) {
+                return TagType.BYTE;
+            }
+
+            char last = source.charAt(end - 1);
+            TagType suffixed;
+            switch (last) {
+                case 'b':
+                case 'B':
+                    suffixed = TagType.BYTE;
+                    break;
+                case 's':
+                case 'S':
+                    suffixed = TagType.SHORT;
+                    break;
+                case 'l':
+                case 'L':
+                    suffixed = TagType.LONG;
+                    break;
+                case 'f':
+                case 'F':
+                    suffixed = TagType.FLOAT;
+                    break;
+                case 'd':
+                case 'D':
+                    suffixed = TagType.DOUBLE;
+                    break;
+                default:
+                    suffixed = null;
+                    break;
+            }
+
+            int numberEnd = suffixed == null ? end : end - 1;
+            if ((suffixed == TagType.FLOAT || suffixed == TagType.DOUBLE) && this.nonFinite(start, numberEnd)) {
+                return suffixed;
+            }
+
+            int digits = 0;
+            int points = 0;
+            int exponent = -1;
+            for (int i = start; i < numberEnd; i++) {
+                char c = source.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    digits++;
+                } else if (c == '.' && exponent < 0) {
+                    points++;
+                } else if ((c == 'e' || c == 'E') && exponent < 0 && digits > 0) {
+                    // Printed floating point numbers may have an exponent, which makes them decimal
+                    exponent = i;
+                    points = Math.max(points, 1);
+                } else if (!((c == '-' || c == '+') && (i == start || i == exponent + 1))) {
+                    return TagType.STRING;
+                }
+            }
+
+            char lastDigit = source.charAt(numberEnd - 1);
+            if (exponent >= 0 && (lastDigit < '0' || lastDigit > '9')) {
+                return TagType.STRING;
+            }
+
+            if (digits == 0 || points > 1) {
+                return TagType.STRING;
+            }
+
+            if (suffixed == null) {
+                suffixed = points == 0 ? TagType.INT : TagType.DOUBLE;
+            } else if (points == 1 && suffixed != TagType.FLOAT && suffixed != TagType.DOUBLE) {
+                return TagType.STRING;
+            }
+
+            if (points == 0 && suffixed != TagType.FLOAT && suffixed != TagType.DOUBLE) {
+                // Integers which do not fit their type are strings
+                if (numberEnd - start > 20) {
+                    return TagType.STRING;
+                }
+
+                long value;
+                try {
+                    value = Long.parseLong(source.substring(start, numberEnd));
+                } catch (NumberFormatException e) {
+                    return TagType.STRING;
+                }
+
+                switch (suffixed) {
+                    case BYTE:
+                        return value == (byte) value ? suffixed : TagType.STRING;
+                    case SHORT:
+                        return value == (short) value ? suffixed : TagType.STRING;
+                    case INT:
+                        return value == (int) value ? suffixed : TagType.STRING;
+                    default:
+                        return suffixed;
+                }
+            }
+
+            return suffixed;
+        }
+
+        // NaN and the infinities as printed by Float.toString and Double.toString
+        private boolean nonFinite(int start, int end) {
+            String source = this.source;
+            if (end - start == 3 && source.startsWith("NaN", start)) {
+                return true;
+            }
+
+            char sign = source.charAt(start);
+            if (sign == '-' || sign == '+') {
+                start++;
+            }
+            return end - start == 8 && source.startsWith("Infinity", start);
+        }
+
+        private long bits(TagType type, int start, int end) {
+            String source = this.source;
+            if (end - start == 4 && source.startsWith("true", start)) {
+                return 1;
+            }
+
+            if (end - start == 5 && source.startsWith("false", start)) {
+                return 0;
+            }
+
+            char last = source.charAt(end - 1);
+            int numberEnd = last >= '0' && last <= '9' || last == '.' ? end : end - 1;
+            switch (type) {
+                case FLOAT:
+                    return Float.floatToRawIntBits(Float.parseFloat(source.substring(start, numberEnd)));
+                case DOUBLE:
+                    return Double.doubleToRawLongBits(Double.parseDouble(source.substring(start, numberEnd)));
+                default:
+                    return parseLong(source, start, numberEnd);
+            }
+        }
+
+        // Avoids the substring of Long.parseLong, classify already checked the syntax and range
+        private static long parseLong(String source, int start, int end) {
+            boolean negative = false;
+            char sign = source.charAt(start);
+            if (sign == '-' || sign == '+') {
+                negative = sign == '-';
+                start++;
+            }
+
+            long value = 0;
+            for (int i = start; i < end; i++) {
+                value = value * 10 - (source.charAt(i) - '0');
+            }
+
+            return negative ? value : -value;
+        }
+    }
+}
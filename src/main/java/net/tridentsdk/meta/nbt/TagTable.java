@@ -0,0 +1,283 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The children of a {@link CompoundTag}, kept in insertion order
+ *
+ * <p>Entries are appended to parallel arrays and found through an open-addressed index of entry positions. Byte,
+ * short, int, long, float and double children can be held as raw bits instead of tag objects, in which case a tag is
+ * only created, and then kept, when the child is asked for as an {@link NBTTag}.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@NotThreadSafe
+final class TagTable {
+    private static final int EMPTY = 0;
+    private static final int REMOVED = -1;
+
+    // Removed entries have a null key until the table is compacted
+    private String[] keys;
+    // The tag object of an entry, or null if the value is held in scalars
+    private NBTTag[] tags;
+    private long[] scalars;
+    private byte[] types;
+    private int used;
+    private int size;
+
+    // Entry position + 1 for each hash slot
+    private int[] index;
+
+    TagTable() {
+        this(4);
+    }
+
+    private TagTable(int capacity) {
+        this.keys = new String[capacity];
+        this.tags = new NBTTag[capacity];
+        this.scalars = new long[capacity];
+        this.types = new byte[capacity];
+        this.index = new int[capacity << 1];
+    }
+
+    private static String key(String name) {
+        // Unnamed tags share the blank name, as NBTTag treats both the same
+        return name == null ? "" : name;
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * The amount of entry positions to iterate, some of which may be removed
+     */
+    int used() {
+        return this.used;
+    }
+
+    String keyAt(int position) {
+        return this.keys[position];
+    }
+
+    byte typeAt(int position) {
+        return this.types[position];
+    }
+
+    long scalarAt(int position) {
+        return this.scalars[position];
+    }
+
+    NBTTag tagAt(int position) {
+        return this.tags[position];
+    }
+
+    int find(String name) {
+        int slot = this.slot(key(name));
+        return slot < 0 ? -1 : this.index[slot] - 1;
+    }
+
+    private int slot(String key) {
+        int[] index = this.index;
+        int mask = index.length - 1;
+
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            int entry = index[i];
+            if (entry == EMPTY) {
+                return -1;
+            }
+
+            if (entry > 0 && key.equals(this.keys[entry - 1])) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Obtains the tag at the position, creating and keeping a tag object if the value is held as a scalar
+     */
+    NBTTag box(int position) {
+        NBTTag tag = this.tags[position];
+        if (tag == null) {
+            tag = box(this.keys[position], this.types[position], this.scalars[position]);
+            this.tags[position] = tag;
+        }
+
+        return tag;
+    }
+
+    void putTag(NBTTag tag) {
+        int position = this.insert(key(tag.name()));
+        this.tags[position] = tag;
+        this.types[position] = (byte) tag.type().id();
+    }
+
+    void putScalar(String name, TagType type, long bits) {
+        int position = this.insert(key(name));
+        this.tags[position] = null;
+        this.types[position] = (byte) type.id();
+        this.scalars[position] = bits;
+    }
+
+    boolean replace(String name, NBTTag expected, NBTTag tag) {
+        int position = this.find(name);
+        if (position < 0 || this.tags[position] != expected) {
+            return false;
+        }
+
+        this.tags[position] = tag;
+        this.types[position] = (byte) tag.type().id();
+        return true;
+    }
+
+    boolean remove(String name) {
+        int slot = this.slot(key(name));
+        if (slot < 0) {
+            return false;
+        }
+
+        int position = this.index[slot] - 1;
+        this.index[slot] = REMOVED;
+        this.keys[position] = null;
+        this.tags[position] = null;
+        this.size--;
+        return true;
+    }
+
+    void clear() {
+        Arrays.fill(this.keys, 0, this.used, null);
+        Arrays.fill(this.tags, 0, this.used, null);
+        Arrays.fill(this.index, EMPTY);
+        this.used = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Lists every child as a tag object, in insertion order
+     */
+    List<NBTTag> boxAll() {
+        List<NBTTag> list = new ArrayList<>(this.size);
+        for (int i = 0; i < this.used; i++) {
+            if (this.keys[i] != null) {
+                list.add(this.box(i));
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * Copies the live entries into a new table, which can be iterated without holding the lock of this one
+     */
+    TagTable copy() {
+        // The index is masked by its length, so the capacity must stay a power of two
+        TagTable copy = new TagTable(Math.max(4, Integer.highestOneBit(this.size - 1) << 1));
+        copy.fill(this);
+        return copy;
+    }
+
+    private int insert(String key) {
+        int slot = this.slot(key);
+        if (slot >= 0) {
+            return this.index[slot] - 1;
+        }
+
+        if (this.used == this.keys.length) {
+            // Only grow if removed entries do not make up half of the table
+            this.rebuild(this.size << 1 >= this.keys.length ? this.keys.length << 1 : this.keys.length);
+        }
+
+        int position = this.used++;
+        this.keys[position] = key;
+        this.size++;
+        this.index(key, position);
+        return position;
+    }
+
+    private void index(String key, int position) {
+        int[] index = this.index;
+        int mask = index.length - 1;
+
+        int i = hash(key) & mask;
+        while (index[i] > 0) {
+            i = (i + 1) & mask;
+        }
+
+        index[i] = position + 1;
+    }
+
+    private void rebuild(int capacity) {
+        TagTable table = new TagTable(capacity);
+        table.fill(this);
+
+        this.keys = table.keys;
+        this.tags = table.tags;
+        this.scalars = table.scalars;
+        this.types = table.types;
+        this.index = table.index;
+        this.used = table.used;
+    }
+
+    private void fill(TagTable source) {
+        for (int i = 0; i < source.used; i++) {
+            String key = source.keys[i];
+            if (key == null) {
+                continue;
+            }
+
+            int position = this.used++;
+            this.keys[position] = key;
+            this.tags[position] = source.tags[i];
+            this.scalars[position] = source.scalars[i];
+            this.types[position] = source.types[i];
+            this.index(key, position);
+        }
+
+        this.size = this.used;
+    }
+
+    static NBTTag box(String name, byte type, long bits) {
+        switch (TagType.fromId(type)) {
+            case BYTE:
+                return new ByteTag(name).setValue((byte) bits);
+            case SHORT:
+                return new ShortTag(name).setValue((short) bits);
+            case INT:
+                return new IntTag(name).setValue((int) bits);
+            case LONG:
+                return new LongTag(name).setValue(bits);
+            case FLOAT:
+                return new FloatTag(name).setValue(Float.intBitsToFloat((int) bits));
+            case DOUBLE:
+                return new DoubleTag(name).setValue(Double.longBitsToDouble(bits));
+            default:
+                return new NullTag(name);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A node of a persistent hash trie mapping tag names to tags, which backs {@link ImmutableCompoundTag}
+ *
+ * <p>Each node branches 32 ways on 5 bits of the name hash. Entries are kept in the node they hash to as long as
+ * they do not share that position, and moved into a child node when they do, so lookups, additions and removals
+ * copy at most one node per level and share every other node with the previous version. Names with the same hash
+ * end up together in a collision node at the bottom of the trie.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@Immutable
+final class TagTrie {
+    static final TagTrie EMPTY = new TagTrie(0, 0, new Object[0], false);
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private final int dataMap;
+    private final int nodeMap;
+    // Names and tags in pairs at the front, followed by the child nodes in reverse order
+    private final Object[] content;
+    private final boolean collision;
+
+    private TagTrie(int dataMap, int nodeMap, Object[] content, boolean collision) {
+        this.dataMap = dataMap;
+        this.nodeMap = nodeMap;
+        this.content = content;
+        this.collision = collision;
+    }
+
+    static String key(String name) {
+        return name == null ? "" : name;
+    }
+
+    static int hash(String key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private int dataIndex(int bit) {
+        return Integer.bitCount(this.dataMap & (bit - 1)) << 1;
+    }
+
+    private int nodeIndex(int bit) {
+        return this.content.length - 1 - Integer.bitCount(this.nodeMap & (bit - 1));
+    }
+
+    boolean isEmpty() {
+        return this.content.length == 0;
+    }
+
+    NBTTag get(String key, int hash, int shift) {
+        if (this.collision) {
+            for (int i = 0; i < this.content.length; i += 2) {
+                if (key.equals(this.content[i])) {
+                    return (NBTTag) this.content[i + 1];
+                }
+            }
+            return null;
+        }
+
+        int bit = bit(hash, shift);
+        if ((this.dataMap & bit) != 0) {
+            int index = this.dataIndex(bit);
+            return key.equals(this.content[index]) ? (NBTTag) this.content[index + 1] : null;
+        }
+
+        if ((this.nodeMap & bit) != 0) {
+            return ((TagTrie) this.content[this.nodeIndex(bit)]).get(key, hash, shift + BITS);
+        }
+
+        return null;
+    }
+
+    /**
+     * Creates a version of this node with the given entry added or replaced
+     *
+     * @param added set to {@code true} if the name was not present before
+     * @return the new node, or this node if the tag was already present
+     */
+    TagTrie put(String key, int hash, NBTTag tag, int shift, boolean[] added) {
+        if (this.collision) {
+            for (int i = 0; i < this.content.length; i += 2) {
+                if (key.equals(this.content[i])) {
+                    return this.content[i + 1] == tag ? this : this.replace(i + 1, tag);
+                }
+            }
+
+            Object[] content = Arrays.copyOf(this.content, this.content.length + 2);
+            content[this.content.length] = key;
+            content[this.content.length + 1] = tag;
+            added[0] = true;
+            return new TagTrie(0, 0, content, true);
+        }
+
+        int bit = bit(hash, shift);
+        if ((this.dataMap & bit) != 0) {
+            int index = this.dataIndex(bit);
+            String other = (String) this.content[index];
+            if (key.equals(other)) {
+                return this.content[index + 1] == tag ? this : this.replace(index + 1, tag);
+            }
+
+            // Both entries move into a new child node
+            TagTrie child = merge(other, hash(other), (NBTTag) this.content[index + 1], key, hash, tag,
+                    shift + BITS);
+            added[0] = true;
+
+            Object[] content = new Object[this.content.length - 1];
+            System.arraycopy(this.content, 0, content, 0, index);
+            int nodeIndex = this.nodeIndex(bit) - 1;
+            System.arraycopy(this.content, index + 2, content, index, nodeIndex - index);
+            content[nodeIndex] = child;
+            System.arraycopy(this.content, nodeIndex + 2, content, nodeIndex + 1, this.content.length - nodeIndex - 2);
+            return new TagTrie(this.dataMap ^ bit, this.nodeMap | bit, content, false);
+        }
+
+        if ((this.nodeMap & bit) != 0) {
+            int index = this.nodeIndex(bit);
+            TagTrie child = (TagTrie) this.content[index];
+            TagTrie updated = child.put(key, hash, tag, shift + BITS, added);
+            return updated == child ? this : this.replace(index, updated);
+        }
+
+        int index = this.dataIndex(bit);
+        Object[] content = new Object[this.content.length + 2];
+        System.arraycopy(this.content, 0, content, 0, index);
+        content[index] = key;
+        content[index + 1] = tag;
+        System.arraycopy(this.content, index, content, index + 2, this.content.length - index);
+        added[0] = true;
+        return new TagTrie(this.dataMap | bit, this.nodeMap, content, false);
+    }
+
+    /**
+     * Creates a version of this node without the given entry
+     *
+     * @param removed set to {@code true} if the name was present
+     * @return the new node, or this node if the name was not present
+     */
+    TagTrie remove(String key, int hash, int shift, boolean[] removed) {
+        if (this.collision) {
+            for (int i = 0; i < this.content.length; i += 2) {
+                if (key.equals(this.content[i])) {
+                    removed[0] = true;
+                    Object[] content = new Object[this.content.length - 2];
+                    System.arraycopy(this.content, 0, content, 0, i);
+                    System.arraycopy(this.content, i + 2, content, i, content.length - i);
+                    return new TagTrie(0, 0, content, true);
+                }
+            }
+            return this;
+        }
+
+        int bit = bit(hash, shift);
+        if ((this.dataMap & bit) != 0) {
+            int index = this.dataIndex(bit);
+            if (!key.equals(this.content[index])) {
+                return this;
+            }
+
+            removed[0] = true;
+            Object[] content = new Object[this.content.length - 2];
+            System.arraycopy(this.content, 0, content, 0, index);
+            System.arraycopy(this.content, index + 2, content, index, content.length - index);
+            return new TagTrie(this.dataMap ^ bit, this.nodeMap, content, false);
+        }
+
+        if ((this.nodeMap & bit) != 0) {
+            int index = this.nodeIndex(bit);
+            TagTrie child = (TagTrie) this.content[index];
+            TagTrie updated = child.remove(key, hash, shift + BITS, removed);
+            if (updated == child) {
+                return this;
+            }
+
+            if (updated.nodeMap == 0 && updated.content.length == 2) {
+                // A single remaining entry moves back up into this node
+                int dataIndex = this.dataIndex(bit);
+                Object[] content = new Object[this.content.length + 1];
+                System.arraycopy(this.content, 0, content, 0, dataIndex);
+                content[dataIndex] = updated.content[0];
+                content[dataIndex + 1] = updated.content[1];
+                System.arraycopy(this.content, dataIndex, content, dataIndex + 2, index - dataIndex);
+                System.arraycopy(this.content, index + 1, content, index + 2, this.content.length - index - 1);
+                return new TagTrie(this.dataMap | bit, this.nodeMap ^ bit, content, false);
+            }
+
+            return this.replace(index, updated);
+        }
+
+        return this;
+    }
+
+    void collect(List<NBTTag> tags) {
+        int nodes = Integer.bitCount(this.nodeMap);
+        for (int i = 0; i < this.content.length - nodes; i += 2) {
+            tags.add((NBTTag) this.content[i + 1]);
+        }
+
+        for (int i = this.content.length - 1; i >= this.content.length - nodes; i--) {
+            ((TagTrie) this.content[i]).collect(tags);
+        }
+    }
+
+    private TagTrie replace(int index, Object value) {
+        Object[] content = this.content.clone();
+        content[index] = value;
+        return new TagTrie(this.dataMap, this.nodeMap, content, this.collision);
+    }
+
+    private static TagTrie merge(String key1, int hash1, NBTTag tag1, String key2, int hash2, NBTTag tag2,
+                                 int shift) {
+        if (shift >= Integer.SIZE) {
+            return new TagTrie(0, 0, new Object[] { key1, tag1, key2, tag2 }, true);
+        }
+
+        int bit1 = bit(hash1, shift);
+        int bit2 = bit(hash2, shift);
+        if (bit1 == bit2) {
+            return new TagTrie(0, bit1, new Object[] { merge(key1, hash1, tag1, key2, hash2, tag2, shift + BITS) },
+                    false);
+        }
+
+        Object[] content = Integer.compareUnsigned(bit1, bit2) < 0 ? new Object[] { key1, tag1, key2, tag2 } :
+                new Object[] { key2, tag2, key1, tag1 };
+        return new TagTrie(bit1 | bit2, 0, content, false);
+    }
+}
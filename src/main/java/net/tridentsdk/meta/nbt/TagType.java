@@ -48,6 +48,16 @@ public enum TagType {
 
     INT_ARRAY(11, IntArrayTag.class);
 
+    private static final TagType[] BY_ID = new TagType[12];
+
+    static {
+        for (TagType type : TagType.values()) {
+            if (type.id >= 0) {
+                BY_ID[type.id] = type;
+            }
+        }
+    }
+
     final int id;
     final Class<? extends NBTTag> implClass;
 
@@ -57,12 +67,11 @@ public enum TagType {
     }
 
     public static TagType fromId(byte fromId) {
-        for (TagType type : TagType.values()) {
-            if (type.id == fromId) {
-                return type;
-            }
+        if (fromId < 0 || fromId >= BY_ID.length) {
+            return NULL;
         }
-        return NULL;
+
+        return BY_ID[fromId];
     }
 
     public Class<? extends NBTTag> implementation() {
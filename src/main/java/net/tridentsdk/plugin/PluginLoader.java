@@ -16,9 +16,15 @@
  */
 package net.tridentsdk.plugin;
 
+import com.google.common.collect.Lists;
 import net.tridentsdk.docs.PossiblyThreadSafe;
+import net.tridentsdk.plugin.index.PluginIndex;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.jar.JarFile;
 
 /**
  * Loads plugin classes
@@ -62,4 +68,56 @@ public interface PluginLoader {
      * Unloads the classes that were loaded from this class loader
      */
     void unloadClasses();
+
+    /**
+     * Reads the index of the classes to register from the plugin jar
+     *
+     * <p>If the plugin has an index, only the classes it lists need to be registered, and the jar does not need to be
+     * scanned. Plugins compiled against an older SDK do not have one.</p>
+     *
+     * @param jar the plugin jar
+     * @return the index, or {@code null} if the plugin does not have one
+     * @throws PluginLoadException if the index could not be read
+     */
+    @Nullable
+    default PluginIndex index(JarFile jar) {
+        try {
+            return PluginIndex.read(jar);
+        } catch (IOException e) {
+            throw new PluginLoadException(e);
+        }
+    }
+
+    /**
+     * Obtains the indexed classes of the given kind
+     *
+     * <p>Classes which have not been loaded yet are loaded if this loader is a {@link ClassLoader}</p>
+     *
+     * @param index the index of the plugin loaded by this loader
+     * @param kind the kind of classes to obtain
+     * @return the classes, in the order they are listed in the index
+     * @throws PluginLoadException if a listed class could not be found
+     */
+    default List<Class<?>> indexedClasses(PluginIndex index, PluginIndex.Kind kind) {
+        Map<String, Class<?>> loaded = this.loadedClasses();
+        List<String> names = index.classes(kind);
+        List<Class<?>> classes = Lists.newArrayListWithCapacity(names.size());
+        for (String name : names) {
+            Class<?> cls = loaded.get(name);
+            if (cls == null) {
+                if (!(this instanceof ClassLoader)) {
+                    throw new PluginLoadException("Indexed class " + name + " has not been loaded");
+                }
+
+                try {
+                    cls = Class.forName(name, true, (ClassLoader) this);
+                } catch (ClassNotFoundException e) {
+                    throw new PluginLoadException(e);
+                }
+            }
+            classes.add(cls);
+        }
+
+        return classes;
+    }
 }
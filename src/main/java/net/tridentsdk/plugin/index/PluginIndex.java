@@ -0,0 +1,225 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.plugin.index;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import net.tridentsdk.event.Listener;
+import net.tridentsdk.plugin.Plugin;
+import net.tridentsdk.plugin.cmd.Command;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+/**
+ * The classes of a plugin which need to be registered, listed by the {@link PluginIndexProcessor} when the plugin is
+ * compiled
+ *
+ * <p>The index is stored in the plugin jar as {@link #RESOURCE}. Each line after the header lists the kinds of a class
+ * followed by its binary name, such as {@code LI com.example.JoinListener} for a listener with injected members.</p>
+ *
+ * <p>A plugin loader which finds an index can register the listed classes instead of loading and reflecting over
+ * every class in the jar.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@Immutable
+public final class PluginIndex {
+    /**
+     * The path of the index inside the plugin jar
+     */
+    public static final String RESOURCE = "META-INF/trident/plugin.index";
+    static final String HEADER = "# TridentSDK plugin index 1";
+
+    private final Map<String, Set<Kind>> classes;
+    private final Map<Kind, List<String>> byKind;
+
+    PluginIndex(Map<String, Set<Kind>> classes) {
+        Map<Kind, ImmutableList.Builder<String>> builders = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            builders.put(kind, ImmutableList.builder());
+        }
+
+        ImmutableMap.Builder<String, Set<Kind>> copy = ImmutableMap.builder();
+        for (Map.Entry<String, Set<Kind>> entry : classes.entrySet()) {
+            copy.put(entry.getKey(), Collections.unmodifiableSet(EnumSet.copyOf(entry.getValue())));
+            for (Kind kind : entry.getValue()) {
+                builders.get(kind).add(entry.getKey());
+            }
+        }
+
+        Map<Kind, List<String>> byKind = new EnumMap<>(Kind.class);
+        for (Map.Entry<Kind, ImmutableList.Builder<String>> entry : builders.entrySet()) {
+            byKind.put(entry.getKey(), entry.getValue().build());
+        }
+
+        this.classes = copy.build();
+        this.byKind = byKind;
+    }
+
+    /**
+     * Reads the index from the plugin jar
+     *
+     * @param jar the plugin jar
+     * @return the index, or {@code null} if the plugin was not compiled with the index processor
+     * @throws IOException if the index could not be read
+     */
+    @Nullable
+    public static PluginIndex read(JarFile jar) throws IOException {
+        ZipEntry entry = jar.getEntry(RESOURCE);
+        if (entry == null) {
+            return null;
+        }
+
+        try (InputStream stream = jar.getInputStream(entry)) {
+            return read(stream);
+        }
+    }
+
+    /**
+     * Reads the index from the given stream, which is not closed
+     *
+     * @param stream the stream containing the index
+     * @return the index
+     * @throws IOException if the stream could not be read, or does not contain an index
+     */
+    public static PluginIndex read(InputStream stream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        String line = reader.readLine();
+        if (!HEADER.equals(line)) {
+            throw new IOException("Not a plugin index, or written by an unsupported SDK: " + line);
+        }
+
+        Map<String, Set<Kind>> classes = new LinkedHashMap<>();
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+
+            int space = line.indexOf(' ');
+            if (space <= 0) {
+                throw new IOException("Malformed plugin index line: " + line);
+            }
+
+            Set<Kind> kinds = EnumSet.noneOf(Kind.class);
+            for (int i = 0; i < space; i++) {
+                kinds.add(Kind.fromCode(line.charAt(i)));
+            }
+            classes.put(line.substring(space + 1), kinds);
+        }
+
+        return new PluginIndex(classes);
+    }
+
+    /**
+     * Writes the index in the format read by {@link #read(InputStream)}
+     *
+     * @param writer the writer to write to, which is not closed
+     * @throws IOException if the index could not be written
+     */
+    void write(Writer writer) throws IOException {
+        writer.write(HEADER);
+        writer.write('\n');
+        for (Map.Entry<String, Set<Kind>> entry : this.classes.entrySet()) {
+            for (Kind kind : entry.getValue()) {
+                writer.write(kind.code);
+            }
+            writer.write(' ');
+            writer.write(entry.getKey());
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Obtains the binary names of the indexed classes of the given kind, in the order they were compiled
+     *
+     * @param kind the kind of class
+     * @return the class names
+     */
+    public List<String> classes(Kind kind) {
+        return this.byKind.get(kind);
+    }
+
+    /**
+     * Obtains the kinds of the given class
+     *
+     * @param name the binary name of the class
+     * @return the kinds of the class, empty if the class is not indexed
+     */
+    public Set<Kind> kinds(String name) {
+        Set<Kind> kinds = this.classes.get(name);
+        return kinds == null ? Collections.emptySet() : kinds;
+    }
+
+    /**
+     * Obtains the binary names of all indexed classes
+     *
+     * @return the class names
+     */
+    public Set<String> classes() {
+        return this.classes.keySet();
+    }
+
+    /**
+     * A reason for a class to be indexed
+     */
+    public enum Kind {
+        /**
+         * A concrete subclass of {@link Plugin}
+         */
+        PLUGIN('P'),
+
+        /**
+         * A concrete implementation of {@link Listener} without
+         * {@link net.tridentsdk.plugin.annotation.IgnoreRegistration}
+         */
+        LISTENER('L'),
+
+        /**
+         * A concrete subclass of {@link Command} without {@link net.tridentsdk.plugin.annotation.IgnoreRegistration}
+         */
+        COMMAND('C'),
+
+        /**
+         * A class with a field or constructor annotated with {@link net.tridentsdk.reflect.Inject}
+         */
+        INJECTED('I');
+
+        private final char code;
+
+        Kind(char code) {
+            this.code = code;
+        }
+
+        static Kind fromCode(char code) throws IOException {
+            for (Kind kind : values()) {
+                if (kind.code == code) {
+                    return kind;
+                }
+            }
+
+            throw new IOException("Unknown plugin index kind: " + code);
+        }
+    }
+}
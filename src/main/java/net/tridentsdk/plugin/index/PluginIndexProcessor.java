@@ -0,0 +1,175 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.plugin.index;
+
+import net.tridentsdk.event.Listener;
+import net.tridentsdk.plugin.Plugin;
+import net.tridentsdk.plugin.annotation.IgnoreRegistration;
+import net.tridentsdk.plugin.cmd.Command;
+import net.tridentsdk.reflect.Inject;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Writes the {@link PluginIndex} of the plugin being compiled
+ *
+ * <p>The processor is registered in the SDK jar, and so runs for any plugin which has the SDK on its compile
+ * classpath. Classes from an earlier compilation which are still present are kept in the index, so that compiling a
+ * few changed classes does not drop the rest.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@SupportedAnnotationTypes("*")
+public class PluginIndexProcessor extends AbstractProcessor {
+    private final Map<String, Set<PluginIndex.Kind>> classes = new LinkedHashMap<>();
+    private final Set<String> compiled = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            this.write();
+            return false;
+        }
+
+        TypeMirror plugin = this.type(Plugin.class);
+        TypeMirror listener = this.type(Listener.class);
+        TypeMirror command = this.type(Command.class);
+        for (Element element : roundEnv.getRootElements()) {
+            this.index(element, plugin, listener, command);
+        }
+
+        // Other processors may need the annotations
+        return false;
+    }
+
+    private TypeMirror type(Class<?> cls) {
+        TypeElement element = this.processingEnv.getElementUtils().getTypeElement(cls.getCanonicalName());
+        return element == null ? null : this.processingEnv.getTypeUtils().erasure(element.asType());
+    }
+
+    private void index(Element element, TypeMirror plugin, TypeMirror listener, TypeMirror command) {
+        if (!element.getKind().isClass() && !element.getKind().isInterface()) {
+            return;
+        }
+
+        for (Element enclosed : element.getEnclosedElements()) {
+            this.index(enclosed, plugin, listener, command);
+        }
+
+        if (element.getKind() != ElementKind.CLASS) {
+            return;
+        }
+
+        TypeElement type = (TypeElement) element;
+        Set<PluginIndex.Kind> kinds = EnumSet.noneOf(PluginIndex.Kind.class);
+        Set<Modifier> modifiers = type.getModifiers();
+        boolean concrete = !modifiers.contains(Modifier.ABSTRACT) &&
+                (type.getNestingKind() != NestingKind.MEMBER || modifiers.contains(Modifier.STATIC));
+        if (concrete) {
+            Types types = this.processingEnv.getTypeUtils();
+            TypeMirror erased = types.erasure(type.asType());
+            boolean ignored = type.getAnnotation(IgnoreRegistration.class) != null;
+
+            if (plugin != null && types.isSubtype(erased, plugin) && !types.isSameType(erased, plugin)) {
+                kinds.add(PluginIndex.Kind.PLUGIN);
+            }
+
+            if (!ignored && listener != null && types.isSubtype(erased, listener)) {
+                kinds.add(PluginIndex.Kind.LISTENER);
+            }
+
+            if (!ignored && command != null && types.isSubtype(erased, command)) {
+                kinds.add(PluginIndex.Kind.COMMAND);
+            }
+        }
+
+        for (Element member : type.getEnclosedElements()) {
+            ElementKind kind = member.getKind();
+            if ((kind == ElementKind.FIELD || kind == ElementKind.CONSTRUCTOR) &&
+                    member.getAnnotation(Inject.class) != null) {
+                kinds.add(PluginIndex.Kind.INJECTED);
+                break;
+            }
+        }
+
+        String name = this.processingEnv.getElementUtils().getBinaryName(type).toString();
+        this.compiled.add(name);
+        if (!kinds.isEmpty()) {
+            this.classes.put(name, kinds);
+        }
+    }
+
+    private void write() {
+        Map<String, Set<PluginIndex.Kind>> classes = new LinkedHashMap<>();
+        boolean existed = false;
+        try {
+            FileObject previous = this.processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", PluginIndex.RESOURCE);
+            try (InputStream stream = previous.openInputStream()) {
+                PluginIndex index = PluginIndex.read(stream);
+                existed = true;
+                for (String name : index.classes()) {
+                    // Classes compiled this time are indexed again, removed classes are dropped
+                    if (!this.compiled.contains(name) &&
+                            this.processingEnv.getElementUtils().getTypeElement(name.replace('$', '.')) != null) {
+                        classes.put(name, index.kinds(name));
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException ignored) {
+            // No earlier index
+        }
+
+        classes.putAll(this.classes);
+        if (classes.isEmpty() && !existed) {
+            return;
+        }
+
+        try {
+            FileObject resource = this.processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", PluginIndex.RESOURCE);
+            try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+                new PluginIndex(classes).write(writer);
+            }
+        } catch (IOException e) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write " + PluginIndex.RESOURCE + ": " + e.getMessage());
+        }
+    }
+}
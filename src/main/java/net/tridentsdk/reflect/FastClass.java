@@ -21,40 +21,74 @@ import com.esotericsoftware.reflectasm.ConstructorAccess;
 import com.esotericsoftware.reflectasm.FieldAccess;
 import com.esotericsoftware.reflectasm.MethodAccess;
 
+import javax.annotation.concurrent.ThreadSafe;
 import java.lang.reflect.Field;
+import java.util.function.Supplier;
 
 /**
  * Accessors to the members of a class, does not actually have a ReflectASM equivalent
  *
+ * <p>Instances are cached per class, so obtaining one for a class that has been seen before costs a lookup instead of
+ * generating new accessor classes. The accessors themselves are only generated when they are first needed.</p>
+ *
+ * <p>Members are accessed through ReflectASM unless the class is obtained with
+ * {@link ReflectionBackend#METHOD_HANDLES}, see {@link ReflectionBackend} for the differences.</p>
+ *
  * @author The TridentSDK Team
  * @since 0.3-alpha-DP
  */
+@ThreadSafe
 public class FastClass {
+    private static final ClassValue<FastClass> CACHE = new ClassValue<FastClass>() {
+        @Override
+        protected FastClass computeValue(Class<?> type) {
+            return new FastClass(type, ReflectionBackend.ASM);
+        }
+    };
+    private static final ClassValue<FastClass> HANDLES_CACHE = new ClassValue<FastClass>() {
+        @Override
+        protected FastClass computeValue(Class<?> type) {
+            return new FastClass(type, ReflectionBackend.METHOD_HANDLES);
+        }
+    };
+
     private final Class<?> cls;
+    private final ReflectionBackend backend;
 
-    private final FieldAccess fieldAccess;
-    private final MethodAccess methodAccess;
-    private final ConstructorAccess constructorAccess;
+    // Generated on first use, racing threads may each generate one but only one is kept
+    private volatile FieldAccess fieldAccess;
+    private volatile MethodAccess methodAccess;
+    private volatile FastField[] fields;
+    private volatile FastConstructor constructor;
 
-    private FastClass(Class<?> cls) {
+    private FastClass(Class<?> cls, ReflectionBackend backend) {
         this.cls = cls;
-        this.fieldAccess = FieldAccess.get(cls);
-        this.methodAccess = MethodAccess.get(cls);
-        this.constructorAccess = ConstructorAccess.get(cls);
+        this.backend = backend;
     }
 
     /**
-     * Creates a new FastClass from a Java class
+     * Obtains the FastClass for a Java class
      *
      * @param cls the class to use
      * @return the member accessors for the class
      */
     public static FastClass get(Class<?> cls) {
-        return new FastClass(cls);
+        return CACHE.get(cls);
     }
 
     /**
-     * Creates a new FastClass from the class object of the object
+     * Obtains the FastClass for a Java class which accesses members using the given backend
+     *
+     * @param cls the class to use
+     * @param backend the way to access members
+     * @return the member accessors for the class
+     */
+    public static FastClass get(Class<?> cls, ReflectionBackend backend) {
+        return backend == ReflectionBackend.METHOD_HANDLES ? HANDLES_CACHE.get(cls) : CACHE.get(cls);
+    }
+
+    /**
+     * Obtains the FastClass for the class object of the object
      *
      * @param obj the object's class to use
      * @return the member accessors for the class
@@ -63,24 +97,57 @@ public class FastClass {
         return get(obj.getClass());
     }
 
+    FieldAccess fieldAccess() {
+        FieldAccess access = this.fieldAccess;
+        if (access == null) {
+            access = this.fieldAccess = FieldAccess.get(this.cls);
+        }
+
+        return access;
+    }
+
+    MethodAccess methodAccess() {
+        MethodAccess access = this.methodAccess;
+        if (access == null) {
+            access = this.methodAccess = MethodAccess.get(this.cls);
+        }
+
+        return access;
+    }
+
     /**
      * Get a field from the class
      *
+     * <p>The returned field is bound to the field's index, keep it rather than looking it up again</p>
+     *
      * @param name Name of the field
      * @return FastField instance
      */
     public FastField fieldBy(String name) {
-        return new FastField(this, this.fieldAccess, name);
+        if (this.backend == ReflectionBackend.METHOD_HANDLES) {
+            Field field = Handles.findField(this.cls, name);
+            if (field != null) {
+                return new FastField(this, field);
+            }
+        }
+
+        return new FastField(this, this.fieldAccess(), name);
     }
 
     /**
      * Get a method from the class
      *
+     * <p>The returned method is bound to the method's index, keep it rather than looking it up again</p>
+     *
      * @param name Name of the method
      * @return FastMethod instance
      */
     public FastMethod methodBy(Object object, String name) {
-        return new FastMethod(object, this.methodAccess, name);
+        if (this.backend == ReflectionBackend.METHOD_HANDLES) {
+            return new FastMethod(object, this, name);
+        }
+
+        return new FastMethod(object, this.methodAccess(), name);
     }
 
     /**
@@ -89,14 +156,20 @@ public class FastClass {
      * @return the fast field representation of field members from the class
      */
     public FastField[] fields() {
-        Field[] fields = this.cls.getDeclaredFields();
-        FastField[] fastFields = new FastField[fields.length];
+        FastField[] fastFields = this.fields;
+        if (fastFields == null) {
+            Field[] fields = this.cls.getDeclaredFields();
+            fastFields = new FastField[fields.length];
 
-        for (int i = 0; i < fields.length; i += 1) {
-            fastFields[i] = new FastField(this, this.fieldAccess, fields[i].getName());
+            for (int i = 0; i < fields.length; i += 1) {
+                fastFields[i] = this.backend == ReflectionBackend.METHOD_HANDLES ?
+                        new FastField(this, fields[i]) : new FastField(this, this.fieldAccess(), fields[i]);
+            }
+
+            this.fields = fastFields;
         }
 
-        return fastFields;
+        return fastFields.clone();
     }
 
     /**
@@ -105,7 +178,24 @@ public class FastClass {
      * @return the default FastConstructor
      */
     public FastConstructor constructor() {
-        return new FastConstructor(this.constructorAccess);
+        FastConstructor constructor = this.constructor;
+        if (constructor == null) {
+            Supplier<Object> supplier = this.backend == ReflectionBackend.METHOD_HANDLES ?
+                    Handles.constructor(this.cls) : null;
+            constructor = this.constructor = supplier == null ?
+                    new FastConstructor(ConstructorAccess.get(this.cls)) : new FastConstructor(supplier);
+        }
+
+        return constructor;
+    }
+
+    /**
+     * The way this class accesses its members
+     *
+     * @return the backend used by the accessors
+     */
+    public ReflectionBackend backend() {
+        return this.backend;
     }
 
     /**
@@ -19,14 +19,18 @@ package net.tridentsdk.reflect;
 
 import com.esotericsoftware.reflectasm.ConstructorAccess;
 
+import java.util.function.Supplier;
+
 /**
- * Instance creator using ASM
+ * Instance creator using ASM, or a lambda bound to the constructor with the
+ * {@link ReflectionBackend#METHOD_HANDLES} backend
  *
  * @author The TridentSDK Team
  * @since 0.3-alpha-DP
  */
 public class FastConstructor {
     private final ConstructorAccess access;
+    private final Supplier<Object> supplier;
 
     /**
      * Creates a new instance accessor to assemble bytecode for fast class creation
@@ -35,6 +39,12 @@ public class FastConstructor {
      */
     public FastConstructor(ConstructorAccess access) {
         this.access = access;
+        this.supplier = null;
+    }
+
+    FastConstructor(Supplier<Object> supplier) {
+        this.access = null;
+        this.supplier = supplier;
     }
 
     /**
@@ -43,7 +53,12 @@ public class FastConstructor {
      * @param <T> the class type
      * @return the instance of T
      */
+    @SuppressWarnings("unchecked")
     public <T> T newInstance() {
+        if (this.supplier != null) {
+            return (T) this.supplier.get();
+        }
+
         return (T) this.access.newInstance();
     }
 }
@@ -19,37 +19,346 @@ package net.tridentsdk.reflect;
 
 import com.esotericsoftware.reflectasm.FieldAccess;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 
 /*
  * @NotJavaDoc
- * NOTE: This class only applies to any field which is not private
+ * NOTE: With the ASM backend, this class only applies to any field which is not private
+ *
+ * The index of the field is resolved when this is created, so get and set index straight into the accessor. The
+ * primitive getters and setters avoid boxing, and must match the declared type of the field.
+ *
+ * With the method handle backend, fields which the ASM accessor can reach still use it, since a handle held in an
+ * instance field is not constant folded by the JIT and takes about twice as long. Private, static and final fields go
+ * through handles bound to the field instead. Fields for which the handles cannot be bound use the ASM accessor.
  */
 public class FastField {
+    private static final MethodType OBJECT_GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType OBJECT_SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
     private final FieldAccess access;
     private final String field;
     private final FastClass owner;
+    private final int index;
+
+    // Typed to the field, and adapted to Object for get and set
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    private final MethodHandle objectGetter;
+    private final MethodHandle objectSetter;
+
+    private volatile Field javaField;
 
     public FastField(FastClass owner, FieldAccess access, String field) {
         this.access = access;
         this.field = field;
         this.owner = owner;
+        this.index = indexOf(access, field);
+        this.getter = null;
+        this.setter = null;
+        this.objectGetter = null;
+        this.objectSetter = null;
+    }
+
+    FastField(FastClass owner, FieldAccess access, Field field) {
+        this(owner, access, field.getName());
+        this.javaField = field;
+    }
+
+    FastField(FastClass owner, Field field) {
+        int modifiers = field.getModifiers();
+        boolean reachable = (modifiers & (Modifier.PRIVATE | Modifier.STATIC | Modifier.FINAL)) == 0;
+        MethodHandle getter = reachable ? null : Handles.getter(field);
+        MethodHandle setter = reachable ? null : Handles.setter(field);
+
+        this.field = field.getName();
+        this.owner = owner;
+        this.javaField = field;
+        if (getter == null) {
+            this.access = owner.fieldAccess();
+            this.index = indexOf(this.access, this.field);
+            this.getter = null;
+            this.setter = null;
+            this.objectGetter = null;
+            this.objectSetter = null;
+        } else {
+            this.access = null;
+            this.index = -1;
+            this.getter = getter;
+            this.setter = setter;
+            this.objectGetter = getter.asType(OBJECT_GETTER);
+            this.objectSetter = setter == null ? null : setter.asType(OBJECT_SETTER);
+        }
+    }
+
+    private static int indexOf(FieldAccess access, String field) {
+        // Private fields cannot be accessed, but are still listed by FastClass.fields()
+        String[] names = access.getFieldNames();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(field)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private int index() {
+        if (this.access == null) {
+            throw new IllegalArgumentException("Field " + this.field + " is final");
+        }
+
+        int index = this.index;
+        if (index < 0) {
+            // Throws the same exception as looking up the field by name
+            return this.access.getIndex(this.field);
+        }
+
+        return index;
     }
 
     public void set(Object instance, Object value) {
-        this.access.set(instance, this.field, value);
+        if (this.objectSetter != null) {
+            try {
+                this.objectSetter.invokeExact(instance, value);
+                return;
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        this.access.set(instance, this.index(), value);
     }
 
+    @SuppressWarnings("unchecked")
     public <T> T get(Object instance) {
-        return (T) this.access.get(instance, this.field);
+        if (this.objectGetter != null) {
+            try {
+                return (T) (Object) this.objectGetter.invokeExact(instance);
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        return (T) this.access.get(instance, this.index());
+    }
+
+    public boolean getBoolean(Object instance) {
+        if (this.getter != null) {
+            try {
+                return (boolean) this.getter.invokeExact(instance);
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        return this.access.getBoolean(instance, this.index());
+    }
+
+    public void setBoolean(Object instance, boolean value) {
+        if (this.setter != null) {
+            try {
+                this.setter.invokeExact(instance, value);
+                return;
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        this.access.setBoolean(instance, this.index(), value);
+    }
+
+    public byte getByte(Object instance) {
+        if (this.getter != null) {
+            try {
+                return (byte) this.getter.invokeExact(instance);
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        return this.access.getByte(instance, this.index());
+    }
+
+    public void setByte(Object instance, byte value) {
+        if (this.setter != null) {
+            try {
+                this.setter.invokeExact(instance, value);
+                return;
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        this.access.setByte(instance, this.index(), value);
+    }
+
+    public short getShort(Object instance) {
+        if (this.getter != null) {
+            try {
+                return (short) this.getter.invokeExact(instance);
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        return this.access.getShort(instance, this.index());
+    }
+
+    public void setShort(Object instance, short value) {
+        if (this.setter != null) {
+            try {
+                this.setter.invokeExact(instance, value);
+                return;
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        this.access.setShort(instance, this.index(), value);
+    }
+
+    public char getChar(Object instance) {
+        if (this.getter != null) {
+            try {
+                return (char) this.getter.invokeExact(instance);
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        return this.access.getChar(instance, this.index());
+    }
+
+    public void setChar(Object instance, char value) {
+        if (this.setter != null) {
+            try {
+                this.setter.invokeExact(instance, value);
+                return;
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        this.access.setChar(instance, this.index(), value);
+    }
+
+    public int getInt(Object instance) {
+        if (this.getter != null) {
+            try {
+                return (int) this.getter.invokeExact(instance);
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        return this.access.getInt(instance, this.index());
+    }
+
+    public void setInt(Object instance, int value) {
+        if (this.setter != null) {
+            try {
+                this.setter.invokeExact(instance, value);
+                return;
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        this.access.setInt(instance, this.index(), value);
+    }
+
+    public long getLong(Object instance) {
+        if (this.getter != null) {
+            try {
+                return (long) this.getter.invokeExact(instance);
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        return this.access.getLong(instance, this.index());
+    }
+
+    public void setLong(Object instance, long value) {
+        if (this.setter != null) {
+            try {
+                this.setter.invokeExact(instance, value);
+                return;
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        this.access.setLong(instance, this.index(), value);
+    }
+
+    public float getFloat(Object instance) {
+        if (this.getter != null) {
+            try {
+                return (float) this.getter.invokeExact(instance);
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        return this.access.getFloat(instance, this.index());
+    }
+
+    public void setFloat(Object instance, float value) {
+        if (this.setter != null) {
+            try {
+                this.setter.invokeExact(instance, value);
+                return;
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        this.access.setFloat(instance, this.index(), value);
+    }
+
+    public double getDouble(Object instance) {
+        if (this.getter != null) {
+            try {
+                return (double) this.getter.invokeExact(instance);
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        return this.access.getDouble(instance, this.index());
+    }
+
+    public void setDouble(Object instance, double value) {
+        if (this.setter != null) {
+            try {
+                this.setter.invokeExact(instance, value);
+                return;
+            } catch (Throwable t) {
+                throw Handles.rethrow(t);
+            }
+        }
+
+        this.access.setDouble(instance, this.index(), value);
+    }
+
+    public String name() {
+        return this.field;
     }
 
     public Field toField() {
-        try {
-            return owner.asClass().getDeclaredField(this.field);
-        } catch (NoSuchFieldException ignored) {
+        Field field = this.javaField;
+        if (field == null) {
+            try {
+                field = this.javaField = owner.asClass().getDeclaredField(this.field);
+            } catch (NoSuchFieldException ignored) {
+            }
         }
 
-        return null;
+        return field;
     }
 }
@@ -20,20 +20,42 @@ package net.tridentsdk.reflect;
 import com.esotericsoftware.reflectasm.MethodAccess;
 import net.tridentsdk.docs.InternalUseOnly;
 
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
 /**
  * Wrapper for the provided ReflectASM method library
  *
+ * <p>Methods are looked up by name and number of parameters, the method found for each number of arguments is kept so
+ * that calling with it again goes straight to the accessor, or to the invoker bound to the method with the
+ * {@link ReflectionBackend#METHOD_HANDLES} backend.</p>
+ *
  * @author The TridentSDK Team
  * @since 0.3-alpha-DP
  */
 public class FastMethod {
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final Bound[] NONE_BOUND = new Bound[0];
+
     private final MethodAccess access;
+    private final FastClass owner;
     private final String name;
     private final Object instance;
 
+    // Indexed by the number of parameters, replaced with a larger copy to add to it
+    private volatile Bound[] bound = NONE_BOUND;
+
     @InternalUseOnly
     public FastMethod(Object instance, MethodAccess access, String name) {
         this.access = access;
+        this.owner = null;
+        this.name = name;
+        this.instance = instance;
+    }
+
+    FastMethod(Object instance, FastClass owner, String name) {
+        this.access = null;
+        this.owner = owner;
         this.name = name;
         this.instance = instance;
     }
@@ -46,7 +68,12 @@ public class FastMethod {
      * @return the return type of the method, or {@code null} for {@code void} methods
      */
     public Object invoke(Object instance, Object... args) {
-        return this.access.invoke(instance, this.name, args);
+        Bound bound = this.bind(args.length);
+        if (bound.invoker != null) {
+            return bound.invoker.invoke(instance, args);
+        }
+
+        return bound.access.invoke(instance, bound.index, args);
     }
 
     /**
@@ -56,7 +83,36 @@ public class FastMethod {
      * @return the return type of the method, or {@code null} for {@code void} methods
      */
     public Object invoke(Object instance) {
-        return this.access.invoke(instance, this.name);
+        return this.invoke(instance, NO_ARGS);
+    }
+
+    private Bound bind(int parameters) {
+        Bound[] bounds = this.bound;
+        if (parameters < bounds.length && bounds[parameters] != null) {
+            return bounds[parameters];
+        }
+
+        Handles.Invoker invoker = null;
+        if (this.owner != null) {
+            Method method = Handles.findMethod(this.owner.asClass(), this.name, parameters);
+            if (method != null) {
+                invoker = Handles.invoker(method);
+            }
+        }
+
+        Bound bound;
+        if (invoker != null) {
+            bound = new Bound(null, -1, invoker);
+        } else {
+            MethodAccess access = this.access == null ? this.owner.methodAccess() : this.access;
+            bound = new Bound(access, access.getIndex(this.name, parameters), null);
+        }
+
+        // Racing threads may each add one, in which case one of them is bound again on the next call
+        bounds = Arrays.copyOf(bounds, Math.max(bounds.length, parameters + 1));
+        bounds[parameters] = bound;
+        this.bound = bounds;
+        return bound;
     }
 
     /**
@@ -67,4 +123,16 @@ public class FastMethod {
     public Object instance() {
         return instance;
     }
+
+    private static final class Bound {
+        final MethodAccess access;
+        final int index;
+        final Handles.Invoker invoker;
+
+        Bound(MethodAccess access, int index, Handles.Invoker invoker) {
+            this.access = access;
+            this.index = index;
+            this.invoker = invoker;
+        }
+    }
 }
@@ -0,0 +1,341 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.reflect;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+/**
+ * Binds method handles to members for the {@link ReflectionBackend#METHOD_HANDLES} backend
+ *
+ * <p>Every method returns {@code null} if the member cannot be bound, in which case the caller falls back to
+ * ReflectASM.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+final class Handles {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType SUPPLIER = MethodType.methodType(Supplier.class);
+    private static final MethodType SUPPLIER_GET = MethodType.methodType(Object.class);
+    // The invokers generated for each number of parameters, returning the result or void
+    private static final Class<?>[] CALLS = { Call0.class, Call1.class, Call2.class, Call3.class };
+    private static final Class<?>[] RUNS = { Run0.class, Run1.class, Run2.class, Run3.class };
+
+    private Handles() {
+    }
+
+    /**
+     * Throws the given throwable without wrapping it, as a ReflectASM accessor would
+     *
+     * @param t the throwable thrown by a method handle
+     * @return never returns, the return type allows {@code throw Handles.rethrow(t)}
+     */
+    static RuntimeException rethrow(Throwable t) {
+        Handles.<RuntimeException>sneakyThrow(t);
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> void sneakyThrow(Throwable t) throws T {
+        throw (T) t;
+    }
+
+    /**
+     * Finds a field declared by the class or one of its superclasses
+     *
+     * @param cls the class to search
+     * @param name the name of the field
+     * @return the field, or {@code null} if there is none
+     */
+    static Field findField(Class<?> cls, String name) {
+        for (Class<?> c = cls; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (field.getName().equals(name)) {
+                    return field;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds a method declared by the class or one of its superclasses with the given number of parameters
+     *
+     * @param cls the class to search
+     * @param name the name of the method
+     * @param parameters the number of parameters
+     * @return the method, or {@code null} if there is none
+     */
+    static Method findMethod(Class<?> cls, String name, int parameters) {
+        for (Class<?> c = cls; c != null; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                if (method.getParameterCount() == parameters && !method.isBridge() && method.getName().equals(name)) {
+                    return method;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Binds a getter taking the instance, which is ignored for static fields
+     *
+     * @param field the field
+     * @return the getter of type {@code (Object)T}, where T is the field type
+     */
+    static MethodHandle getter(Field field) {
+        try {
+            field.setAccessible(true);
+            MethodHandle handle = LOOKUP.unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+
+            return handle.asType(MethodType.methodType(field.getType(), Object.class));
+        } catch (IllegalAccessException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Binds a setter taking the instance, which is ignored for static fields
+     *
+     * @param field the field
+     * @return the setter of type {@code (Object,T)void}, where T is the field type, or {@code null} if the field is
+     * final
+     */
+    static MethodHandle setter(Field field) {
+        try {
+            field.setAccessible(true);
+            MethodHandle handle = LOOKUP.unreflectSetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+
+            return handle.asType(MethodType.methodType(void.class, Object.class, field.getType()));
+        } catch (IllegalAccessException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Binds a method to an invoker
+     *
+     * <p>Public instance methods of public classes visible from the SDK which take up to 3 parameters are spun into a
+     * lambda of a fixed arity, which the JIT treats as any other call. Otherwise the method handle, spread over the
+     * arguments, is invoked directly.</p>
+     *
+     * @param method the method
+     * @return the invoker, or {@code null} if the method cannot be accessed
+     */
+    static Invoker invoker(Method method) {
+        MethodHandle handle;
+        try {
+            method.setAccessible(true);
+            handle = LOOKUP.unreflect(method);
+        } catch (IllegalAccessException | SecurityException e) {
+            return null;
+        }
+
+        int parameters = method.getParameterCount();
+        Class<?> cls = method.getDeclaringClass();
+        if (parameters < CALLS.length && !Modifier.isStatic(method.getModifiers()) &&
+                Modifier.isPublic(cls.getModifiers()) && Modifier.isPublic(method.getModifiers()) && visible(cls)) {
+            // Arguments are cast and unboxed to the parameters, and the result is boxed
+            MethodType erased = MethodType.genericMethodType(parameters + 1);
+            MethodType instantiated = handle.type().wrap();
+            boolean returns = method.getReturnType() != void.class;
+            if (!returns) {
+                erased = erased.changeReturnType(void.class);
+                instantiated = instantiated.changeReturnType(void.class);
+            }
+
+            Class<?> type = returns ? CALLS[parameters] : RUNS[parameters];
+            try {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, returns ? "call" : "run",
+                        MethodType.methodType(type), erased, handle, instantiated);
+                return (Invoker) site.getTarget().invoke();
+            } catch (Throwable ignored) {
+                // Use the handle instead
+            }
+        }
+
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+
+        MethodHandle spread = handle.asType(MethodType.genericMethodType(parameters + 1))
+                .asSpreader(Object[].class, parameters);
+        return (instance, args) -> {
+            try {
+                return (Object) spread.invokeExact(instance, args);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        };
+    }
+
+    /**
+     * Binds the no-arg constructor of the class
+     *
+     * <p>Public constructors of classes visible from the SDK are spun into a lambda, which the JIT treats as any
+     * other call. Otherwise, such as for classes loaded by plugins, the constructor handle is invoked directly.</p>
+     *
+     * @param cls the class
+     * @return the constructor, or {@code null} if there is no no-arg constructor
+     */
+    static Supplier<Object> constructor(Class<?> cls) {
+        MethodHandle handle;
+        Constructor<?> constructor;
+        try {
+            constructor = cls.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            handle = LOOKUP.unreflectConstructor(constructor);
+        } catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+            return null;
+        }
+
+        if (Modifier.isPublic(cls.getModifiers()) && Modifier.isPublic(constructor.getModifiers()) && visible(cls)) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get", SUPPLIER, SUPPLIER_GET, handle,
+                        MethodType.methodType(cls));
+                return (Supplier<Object>) site.getTarget().invokeExact();
+            } catch (Throwable ignored) {
+                // Use the handle instead
+            }
+        }
+
+        MethodHandle exact = handle.asType(SUPPLIER_GET);
+        return () -> {
+            try {
+                return (Object) exact.invokeExact();
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        };
+    }
+
+    /**
+     * Invokes a method with the arguments as an array, see {@link #invoker(Method)}
+     */
+    interface Invoker {
+        Object invoke(Object instance, Object[] args);
+    }
+
+    // The lambdas generated for methods with a fixed number of parameters, invoke spreads the arguments over them
+
+    @FunctionalInterface
+    interface Call0 extends Invoker {
+        Object call(Object instance);
+
+        @Override
+        default Object invoke(Object instance, Object[] args) {
+            return this.call(instance);
+        }
+    }
+
+    @FunctionalInterface
+    interface Call1 extends Invoker {
+        Object call(Object instance, Object a);
+
+        @Override
+        default Object invoke(Object instance, Object[] args) {
+            return this.call(instance, args[0]);
+        }
+    }
+
+    @FunctionalInterface
+    interface Call2 extends Invoker {
+        Object call(Object instance, Object a, Object b);
+
+        @Override
+        default Object invoke(Object instance, Object[] args) {
+            return this.call(instance, args[0], args[1]);
+        }
+    }
+
+    @FunctionalInterface
+    interface Call3 extends Invoker {
+        Object call(Object instance, Object a, Object b, Object c);
+
+        @Override
+        default Object invoke(Object instance, Object[] args) {
+            return this.call(instance, args[0], args[1], args[2]);
+        }
+    }
+
+    @FunctionalInterface
+    interface Run0 extends Invoker {
+        void run(Object instance);
+
+        @Override
+        default Object invoke(Object instance, Object[] args) {
+            this.run(instance);
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    interface Run1 extends Invoker {
+        void run(Object instance, Object a);
+
+        @Override
+        default Object invoke(Object instance, Object[] args) {
+            this.run(instance, args[0]);
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    interface Run2 extends Invoker {
+        void run(Object instance, Object a, Object b);
+
+        @Override
+        default Object invoke(Object instance, Object[] args) {
+            this.run(instance, args[0], args[1]);
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    interface Run3 extends Invoker {
+        void run(Object instance, Object a, Object b, Object c);
+
+        @Override
+        default Object invoke(Object instance, Object[] args) {
+            this.run(instance, args[0], args[1], args[2]);
+            return null;
+        }
+    }
+
+    // Lambdas are linked against the SDK's class loader
+    private static boolean visible(Class<?> cls) {
+        try {
+            return Class.forName(cls.getName(), false, Handles.class.getClassLoader()) == cls;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.reflect;
+
+import net.tridentsdk.util.TridentLogger;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The injectable constructors and fields of a class, found once and kept for every {@link Injector} call on the class
+ *
+ * <p>Members are bound to method handles when the plan is built. The producers for them are resolved on first use,
+ * and again only after a producer is bound with {@link Injector#with(Producer)}.</p>
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+@ThreadSafe
+final class InjectionPlan {
+    private static final ClassValue<InjectionPlan> PLANS = new ClassValue<InjectionPlan>() {
+        @Override
+        protected InjectionPlan computeValue(Class<?> type) {
+            return new InjectionPlan(type);
+        }
+    };
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType STATIC_SETTER = MethodType.methodType(void.class, Object.class);
+
+    private final Class<?> type;
+    private final Injection[] constructors;
+    private final MethodHandle defaultConstructor;
+    private final Injection[] fields;
+    private final Injection[] staticFields;
+
+    private volatile Producers producers;
+
+    private InjectionPlan(Class<?> type) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<Injection> constructors = new ArrayList<>();
+        MethodHandle defaultConstructor = null;
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            Inject inject = constructor.getAnnotation(Inject.class);
+            if (inject == null && constructor.getParameterCount() > 0) {
+                continue;
+            }
+
+            try {
+                constructor.setAccessible(true);
+                MethodHandle handle = lookup.unreflectConstructor(constructor)
+                        .asSpreader(Object[].class, constructor.getParameterCount())
+                        .asType(CONSTRUCTOR);
+                if (inject != null) {
+                    constructors.add(new Injection(handle, constructor.getParameterTypes(), inject.meta()));
+                } else {
+                    defaultConstructor = handle;
+                }
+            } catch (IllegalAccessException | SecurityException e) {
+                TridentLogger.get().error(e);
+            }
+        }
+
+        List<Injection> fields = new ArrayList<>();
+        List<Injection> staticFields = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            Inject inject = field.getAnnotation(Inject.class);
+            if (inject == null) {
+                continue;
+            }
+
+            try {
+                field.setAccessible(true);
+                MethodHandle handle = lookup.unreflectSetter(field);
+                Class<?>[] types = { field.getType() };
+                if (Modifier.isStatic(field.getModifiers())) {
+                    staticFields.add(new Injection(handle.asType(STATIC_SETTER), types, inject.meta()));
+                } else {
+                    fields.add(new Injection(handle.asType(SETTER), types, inject.meta()));
+                }
+            } catch (IllegalAccessException | SecurityException e) {
+                TridentLogger.get().error(e);
+            }
+        }
+
+        this.type = type;
+        this.constructors = constructors.toArray(new Injection[constructors.size()]);
+        this.defaultConstructor = defaultConstructor;
+        this.fields = fields.toArray(new Injection[fields.size()]);
+        this.staticFields = staticFields.toArray(new Injection[staticFields.size()]);
+    }
+
+    /**
+     * Obtains the plan for the given class, building it if this is the first use
+     *
+     * @param type the class to inject
+     * @return the plan for the class
+     */
+    static InjectionPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    private Producers producers() {
+        Producers producers = this.producers;
+        int version = Injector.version();
+        if (producers == null || producers.version != version) {
+            producers = this.producers = new Producers(version, this.constructors, this.fields, this.staticFields);
+        }
+
+        return producers;
+    }
+
+    /**
+     * Creates a new instance using the first injectable constructor which accepts the given arguments, then injects
+     * its fields
+     *
+     * @param args the arguments which are not injected, in order of declaration
+     * @return the new instance, or {@code null} if it could not be created
+     */
+    Object newObject(Object[] args) {
+        Producers producers = this.producers();
+        for (int i = 0; i < this.constructors.length; i++) {
+            Injection constructor = this.constructors[i];
+            Class<?>[] parameters = constructor.types;
+            if (!accepts(args, parameters)) {
+                continue;
+            }
+
+            Producer<?>[] produced = producers.constructors[i];
+            Object[] arguments = new Object[parameters.length];
+            int next = 0;
+            for (int j = 0; j < parameters.length; j++) {
+                Class<?> c = parameters[j];
+                if (next < args.length && args[next].getClass() == c) {
+                    arguments[j] = args[next++];
+                    continue;
+                }
+
+                Producer<?> producer = produced[j];
+                if (producer == null) {
+                    TridentLogger.get().error(new IllegalArgumentException(
+                            "Constructor " + this.type.getName() + "(" +
+                                    Arrays.toString(parameters)
+                                            .replaceAll("class ", "")
+                                            .replaceAll("\\[", "")
+                                            .replaceAll("\\]", "") + ") " +
+                                    "does not provide or registered parameter " + c.getName()));
+                    return null;
+                }
+
+                arguments[j] = produce(producer, constructor.meta);
+            }
+
+            return this.construct(constructor.handle, arguments, producers);
+        }
+
+        if (this.defaultConstructor == null) {
+            TridentLogger.get().error(new InstantiationException(this.type.getName()));
+            return null;
+        }
+
+        return this.construct(this.defaultConstructor, new Object[0], producers);
+    }
+
+    private Object construct(MethodHandle constructor, Object[] arguments, Producers producers) {
+        Object instance;
+        try {
+            instance = (Object) constructor.invokeExact(arguments);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            TridentLogger.get().error(t);
+            return null;
+        }
+
+        this.inject(instance, producers);
+        return instance;
+    }
+
+    /**
+     * Injects the instance fields of the given object, and the static fields of its class
+     *
+     * @param instance the object to inject
+     */
+    void inject(Object instance) {
+        this.inject(instance, this.producers());
+    }
+
+    private void inject(Object instance, Producers producers) {
+        for (int i = 0; i < this.fields.length; i++) {
+            Injection field = this.fields[i];
+            Producer<?> producer = producers.fields[i];
+            if (producer == null) {
+                this.unbound(field);
+                continue;
+            }
+
+            try {
+                field.handle.invokeExact(instance, produce(producer, field.meta));
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                TridentLogger.get().error(t);
+            }
+        }
+
+        this.injectStatic(producers);
+    }
+
+    /**
+     * Injects the static fields of the class
+     */
+    void injectStatic() {
+        this.injectStatic(this.producers());
+    }
+
+    private void injectStatic(Producers producers) {
+        for (int i = 0; i < this.staticFields.length; i++) {
+            Injection field = this.staticFields[i];
+            Producer<?> producer = producers.staticFields[i];
+            if (producer == null) {
+                this.unbound(field);
+                continue;
+            }
+
+            try {
+                field.handle.invokeExact(produce(producer, field.meta));
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                TridentLogger.get().error(t);
+            }
+        }
+    }
+
+    private void unbound(Injection field) {
+        TridentLogger.get().error(new IllegalArgumentException("Class " + this.type.getName() +
+                " does not have bound injector for type " + field.types[0].getName()));
+    }
+
+    private static Object produce(Producer<?> producer, Class<?> meta) {
+        return meta == Class.class ? producer.produce() : producer.produce(meta);
+    }
+
+    // The classes of the arguments must appear in the parameters in the same order
+    private static boolean accepts(Object[] args, Class<?>[] parameters) {
+        int next = 0;
+        for (Object o : args) {
+            Class<?> c = o.getClass();
+            while (next < parameters.length && parameters[next] != c) {
+                next++;
+            }
+
+            if (next == parameters.length) {
+                return false;
+            }
+            next++;
+        }
+
+        return true;
+    }
+
+    /**
+     * A constructor or field, along with the types it needs produced
+     */
+    private static final class Injection {
+        final MethodHandle handle;
+        final Class<?>[] types;
+        final Class<?> meta;
+
+        Injection(MethodHandle handle, Class<?>[] types, Class<?> meta) {
+            this.handle = handle;
+            this.types = types;
+            this.meta = meta;
+        }
+    }
+
+    /**
+     * The producers bound to each type needed by the plan, as of the given version of the injector's bindings
+     */
+    private static final class Producers {
+        final int version;
+        final Producer<?>[][] constructors;
+        final Producer<?>[] fields;
+        final Producer<?>[] staticFields;
+
+        Producers(int version, Injection[] constructors, Injection[] fields, Injection[] staticFields) {
+            this.version = version;
+            this.constructors = new Producer<?>[constructors.length][];
+            for (int i = 0; i < constructors.length; i++) {
+                this.constructors[i] = resolve(constructors[i].types);
+            }
+            this.fields = resolveFirst(fields);
+            this.staticFields = resolveFirst(staticFields);
+        }
+
+        private static Producer<?>[] resolve(Class<?>[] types) {
+            Producer<?>[] producers = new Producer<?>[types.length];
+            for (int i = 0; i < types.length; i++) {
+                producers[i] = Injector.producer(types[i]);
+            }
+
+            return producers;
+        }
+
+        private static Producer<?>[] resolveFirst(Injection[] injections) {
+            Producer<?>[] producers = new Producer<?>[injections.length];
+            for (int i = 0; i < injections.length; i++) {
+                producers[i] = Injector.producer(injections[i].types[0]);
+            }
+
+            return producers;
+        }
+    }
+}
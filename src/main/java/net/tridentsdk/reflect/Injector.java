@@ -16,25 +16,17 @@
  */
 package net.tridentsdk.reflect;
 
-import com.google.common.collect.Iterators;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.PeekingIterator;
-import net.tridentsdk.util.TridentLogger;
 
 import javax.annotation.concurrent.ThreadSafe;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Modifier;
-import java.util.Arrays;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
 /**
  * Injects the target class, or creates a new instance of an injected class
  *
+ * <p>The injectable members of each class are found once, on the first injection into that class, and kept as an
+ * injection plan.</p>
+ *
  * @author The TridentSDK Team
  * @since 0.3-alpha-DP
  * @param <T> the type to inject for
@@ -42,6 +34,8 @@ import java.util.Map;
 @ThreadSafe
 public final class Injector<T> {
     private static final Map<Class<?>, Producer<?>> injectors = Maps.newConcurrentMap();
+    // Incremented on every binding, so that injection plans know to look up their producers again
+    private static volatile int version;
 
     private final Class<T> clazz;
 
@@ -70,7 +64,10 @@ public final class Injector<T> {
      * @param producer the producing class
      */
     public void with(Producer<T> producer) {
-        injectors.put(this.clazz, producer);
+        synchronized (injectors) {
+            injectors.put(this.clazz, producer);
+            version++;
+        }
     }
 
     /**
@@ -102,156 +99,37 @@ public final class Injector<T> {
      * @param clazz the class with static fields to inject
      */
     public static void staticInject(Class<?> clazz) {
-        for (Field field : findFields(clazz)) {
-            if (!Modifier.isStatic(field.getModifiers())) continue;
-            setField(null, field);
-        }
+        InjectionPlan.of(clazz).injectStatic();
     }
 
     /**
      * Creates a new object which has injectable fields, using the injectable constructor
      *
+     * <p>The static fields of the class are injected as well</p>
+     *
      * @param clazz the class to instantiate
      * @param args the parameters, not including the injectable classes, in order of declaration
      * @param <T> the type to return
      * @return the new object
      */
     public static <T> T newObject(Class<T> clazz, Object... args) {
-        for (Map.Entry<Constructor, Class<?>[]> entry : findConstructors(clazz).entrySet()) {
-            List<Object> arguments = Lists.newArrayList();
-            Constructor constructor = entry.getKey();
-            Class<?>[] constructorParameters = entry.getValue();
-            PeekingIterator<Object> iterator = Iterators.peekingIterator(Iterators.forArray(args));
-
-            if (!checkArray(args, constructorParameters))
-                continue;
-
-            for (Class<?> c : constructorParameters) {
-                Producer<?> producer = injectors.get(c);
-                Inject inject = (Inject) constructor.getAnnotation(Inject.class);
-
-                if (iterator.hasNext()) {
-                    if (iterator.peek().getClass() == c) {
-                        arguments.add(iterator.next());
-                        continue;
-                    }
-                }
-
-                if (producer == null) {
-                    if (iterator.hasNext()) {
-                        if (iterator.peek().getClass() == c) {
-                            arguments.add(iterator.next());
-                            continue;
-                        }
-                    }
-
-                    TridentLogger.get().error(new IllegalArgumentException(
-                            "Constructor " + clazz.getName() + "(" +
-                                    Arrays.toString(constructorParameters)
-                                            .replaceAll("class ", "")
-                                            .replaceAll("\\[", "")
-                                            .replaceAll("\\]", "") + ") " +
-                                    "does not provide or registered parameter " + c.getName()));
-                    return null;
-                } else {
-                    if (inject.meta() == Class.class) {
-                        arguments.add(producer.produce());
-                    } else {
-                        arguments.add(producer.produce(inject.meta()));
-                    }
-                }
-            }
-
-            try {
-                T t = (T) constructor.newInstance(arguments.toArray());
-                for (Field field : findFields(clazz)) {
-                    setField(t, field);
-                }
-                return t;
-            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-                TridentLogger.get().error(e);
-                return null;
-            }
-        }
-
-        try {
-            T t = clazz.newInstance();
-            for (Field field : findFields(clazz)) {
-                setField(t, field);
-            }
-            return t;
-        } catch (InstantiationException | IllegalAccessException e) {
-            TridentLogger.get().error(e);
-            return null;
-        }
+        return (T) InjectionPlan.of(clazz).newObject(args);
     }
 
     /**
-     * Injects all fields of an existing object
+     * Injects all fields of an existing object, including the static fields of its class
      *
      * @param instance the instance of the object to inject
      */
     public static void injectAll(Object instance) {
-        for (Field field : findFields(instance.getClass())) {
-            setField(instance, field);
-        }
+        InjectionPlan.of(instance.getClass()).inject(instance);
     }
 
-    private static void setField(Object instance, Field field) {
-        field.setAccessible(true);
-
-        Class<?> type = field.getType();
-        Producer<?> producer = injectors.get(type);
-        if (producer == null) {
-            TridentLogger.get().error(new IllegalArgumentException("Class " +
-                    instance.getClass().getName() + " does not have bound injector for type " + type.getName()));
-            return;
-        }
-
-        Inject inject = field.getAnnotation(Inject.class);
-        try {
-            if (inject.meta() == Class.class) {
-                field.set(instance, producer.produce());
-            } else {
-                field.set(instance, producer.produce(inject.meta()));
-            }
-        } catch (IllegalAccessException e) {
-            TridentLogger.get().error(e);
-        }
-    }
-
-    private static List<Field> findFields(Class<?> c) {
-        List<Field> fields = Lists.newArrayList();
-        for (Field field : c.getDeclaredFields()) {
-            if (field.getAnnotation(Inject.class) != null)
-                fields.add(field);
-        }
-        return fields;
+    static Producer<?> producer(Class<?> type) {
+        return injectors.get(type);
     }
 
-    private static Map<Constructor, Class<?>[]> findConstructors(Class<?> c) {
-        Map<Constructor, Class<?>[]> map = Maps.newHashMap();
-        for (Constructor constructor : c.getDeclaredConstructors()) {
-            if (constructor.getAnnotation(Inject.class) != null)
-                map.put(constructor, constructor.getParameterTypes());
-        }
-
-        for (Constructor constructor : c.getConstructors()) {
-            if (map.containsKey(constructor)) continue;
-            if (constructor.getAnnotation(Inject.class) != null)
-                map.put(constructor, constructor.getParameterTypes());
-        }
-
-        return map;
-    }
-
-    private static boolean checkArray(Object[] args, Class<?>[] params) {
-        Iterator<Class<?>> iterator = Iterators.forArray(params);
-        for (Object o : args) {
-            if (!Iterators.contains(iterator, o.getClass()))
-                return false;
-        }
-
-        return true;
+    static int version() {
+        return version;
     }
-}
\ No newline at end of file
+}
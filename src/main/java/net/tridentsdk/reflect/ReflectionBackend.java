@@ -0,0 +1,44 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.reflect;
+
+/**
+ * The way a {@link FastClass} accesses the members of its class
+ *
+ * @author The TridentSDK Team
+ * @since 0.4-alpha
+ */
+public enum ReflectionBackend {
+    /**
+     * Generates a ReflectASM accessor class for the fields, methods and constructor of the class
+     *
+     * <p>Private members cannot be accessed.</p>
+     */
+    ASM,
+
+    /**
+     * Binds a generated lambda to the constructor and to public methods of up to 3 parameters where the class can be
+     * linked from the SDK, and a method handle to other members
+     *
+     * <p>Private members can be accessed, including those of classes loaded by plugins. Members bound to a lambda are
+     * about as fast as direct calls, and fields which ReflectASM can reach use its accessor. Private, static and final
+     * fields and the other methods go through method handles, which are slower than ReflectASM. Members which cannot
+     * be bound fall back to {@link #ASM}.</p>
+     */
+    METHOD_HANDLES
+}
@@ -0,0 +1,144 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tridentsdk.concurrent;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TimingWheelSchedulerTest {
+    // Mocked so that the ids of other tests' runnables are not taken
+    private static ScheduledRunnable recorder(TimingWheelScheduler scheduler, List<Long> ticks) {
+        ScheduledRunnable runnable = Mockito.mock(ScheduledRunnable.class);
+        Mockito.doAnswer(invocation -> ticks.add(scheduler.currentTick())).when(runnable).run();
+        return runnable;
+    }
+
+    private static void tick(TimingWheelScheduler scheduler, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            scheduler.tick();
+        }
+    }
+
+    @Test
+    public void testRun() {
+        TimingWheelScheduler scheduler = new TimingWheelScheduler(Runnable::run);
+        List<Long> syncTicks = new ArrayList<>();
+        List<Long> asyncTicks = new ArrayList<>();
+        ScheduledRunnable sync = recorder(scheduler, syncTicks);
+        ScheduledRunnable async = recorder(scheduler, asyncTicks);
+        scheduler.syncRun(null, sync);
+        scheduler.asyncRun(null, async);
+        Assert.assertEquals(2, scheduler.size());
+
+        tick(scheduler, 3);
+        Assert.assertEquals(Arrays.asList(1L), syncTicks);
+        Assert.assertEquals(Arrays.asList(1L), asyncTicks);
+        Assert.assertTrue(scheduler.isEmpty());
+
+        InOrder syncOrder = Mockito.inOrder(sync);
+        syncOrder.verify(sync).beforeRun();
+        syncOrder.verify(sync).run();
+        syncOrder.verify(sync).afterSyncRun();
+        InOrder asyncOrder = Mockito.inOrder(async);
+        asyncOrder.verify(async).beforeRun();
+        asyncOrder.verify(async).run();
+        asyncOrder.verify(async).afterAsyncRun();
+        Mockito.verify(sync, Mockito.never()).afterAsyncRun();
+        Mockito.verify(async, Mockito.never()).afterSyncRun();
+    }
+
+    @Test
+    public void testLater() {
+        TimingWheelScheduler scheduler = new TimingWheelScheduler(Runnable::run);
+        tick(scheduler, 10);
+
+        // Delays which cross the first, second and third levels of the wheel
+        long[] delays = { 1, 63, 64, 65, 4095, 4096, 4097, 300000 };
+        List<List<Long>> ticks = new ArrayList<>();
+        for (long delay : delays) {
+            List<Long> recorded = new ArrayList<>();
+            scheduler.syncLater(null, recorder(scheduler, recorded), delay);
+            ticks.add(recorded);
+        }
+
+        tick(scheduler, 300010);
+        for (int i = 0; i < delays.length; i++) {
+            Assert.assertEquals(Arrays.asList(10 + delays[i]), ticks.get(i));
+        }
+    }
+
+    @Test
+    public void testRepeat() {
+        TimingWheelScheduler scheduler = new TimingWheelScheduler(Runnable::run);
+        List<Long> ticks = new ArrayList<>();
+        ScheduledRunnable runnable = recorder(scheduler, ticks);
+        ScheduledTask task = scheduler.syncRepeat(null, runnable, 5, 100);
+        Mockito.verify(runnable).markSchedule(task);
+        Assert.assertEquals(100, task.interval());
+
+        tick(scheduler, 205);
+        Assert.assertEquals(Arrays.asList(5L, 105L, 205L), ticks);
+
+        task.setInterval(2);
+        tick(scheduler, 104);
+        Assert.assertEquals(Arrays.asList(5L, 105L, 205L, 305L, 307L, 309L), ticks);
+
+        task.cancel();
+        Assert.assertTrue(scheduler.isEmpty());
+        tick(scheduler, 10);
+        Assert.assertEquals(6, ticks.size());
+    }
+
+    @Test
+    public void testCancel() {
+        TimingWheelScheduler scheduler = new TimingWheelScheduler(Runnable::run);
+        List<Long> early = new ArrayList<>();
+        List<Long> late = new ArrayList<>();
+        List<Long> kept = new ArrayList<>();
+
+        scheduler.asyncLater(null, recorder(scheduler, early), 10).cancel();
+        ScheduledTask task = scheduler.asyncLater(null, recorder(scheduler, late), 5000);
+        scheduler.asyncLater(null, recorder(scheduler, kept), 5000);
+        tick(scheduler, 100);
+        task.cancel();
+        Assert.assertEquals(1, scheduler.size());
+
+        tick(scheduler, 5000);
+        Assert.assertTrue(early.isEmpty());
+        Assert.assertTrue(late.isEmpty());
+        Assert.assertEquals(Arrays.asList(5000L), kept);
+    }
+
+    @Test
+    public void testManyRepeating() {
+        TimingWheelScheduler scheduler = new TimingWheelScheduler(Runnable::run);
+        List<Long> ticks = new ArrayList<>();
+        ScheduledRunnable runnable = recorder(scheduler, ticks);
+        for (int i = 0; i < 1000; i++) {
+            scheduler.syncRepeat(null, runnable, i % 20, 20);
+        }
+
+        tick(scheduler, 100);
+        Assert.assertEquals(5000, ticks.size());
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tridentsdk.concurrent;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WorkStealingThreadPoolTest {
+    private WorkStealingThreadPool pool;
+
+    @After
+    public void shutdown() {
+        if (this.pool != null) {
+            this.pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testExecute() throws Exception {
+        this.pool = new WorkStealingThreadPool("Test", 4);
+        Assert.assertEquals(4, this.pool.workers().size());
+
+        CountDownLatch done = new CountDownLatch(10000);
+        for (int i = 0; i < 10000; i++) {
+            this.pool.execute(done::countDown);
+        }
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        Assert.assertEquals("Test", this.pool.submit(() -> "Test").get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testAffinity() throws Exception {
+        this.pool = new WorkStealingThreadPool("Test", 4);
+        SelectableThread thread = this.pool.selectCore();
+        Set<Thread> ran = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(1000);
+        for (int i = 0; i < 1000; i++) {
+            thread.execute(() -> {
+                ran.add(Thread.currentThread());
+                done.countDown();
+            });
+        }
+
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(1, ran.size());
+        Assert.assertTrue(ran.contains(thread.asThread()));
+        Assert.assertSame(thread.asThread(), thread.submitTask(Thread::currentThread).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSteal() throws Exception {
+        this.pool = new WorkStealingThreadPool("Test", 2);
+        // The subtasks are pushed onto the deque of the worker which blocks, so only a thief can run them
+        Future<Boolean> parent = this.pool.submit(() -> {
+            CountDownLatch children = new CountDownLatch(10);
+            for (int i = 0; i < 10; i++) {
+                this.pool.execute(children::countDown);
+            }
+            return children.await(10, TimeUnit.SECONDS);
+        });
+
+        Assert.assertTrue(parent.get(20, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testScale() throws Exception {
+        this.pool = new WorkStealingThreadPool("Test", 1);
+        this.pool.setMaxThreads(2);
+        this.pool.setThreadExpiryTime(50);
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        this.pool.selectCore().execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        SelectableThread scaled = this.pool.selectScaled();
+        Assert.assertNotSame(this.pool.selectCore(), scaled);
+        Assert.assertEquals(2, this.pool.workers().size());
+
+        // At the maximum, an occupied worker is returned rather than a new one
+        scaled.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        this.pool.selectScaled().execute(() -> {
+        });
+        Assert.assertEquals(2, this.pool.workers().size());
+
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (this.pool.workers().size() > 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(1, this.pool.workers().size());
+        scaled.asThread().join(10000);
+        Assert.assertFalse(scaled.asThread().isAlive());
+
+        // Tasks given to a worker only run on that worker, so an expired one rejects them
+        try {
+            scaled.execute(() -> {
+            });
+            Assert.fail();
+        } catch (RejectedExecutionException expected) {
+        }
+    }
+
+    @Test
+    public void testExpiringAffinity() throws Exception {
+        this.pool = new WorkStealingThreadPool("Test", 1);
+        this.pool.setMaxThreads(2);
+        this.pool.setThreadExpiryTime(1);
+        this.pool.setMustEmptyBeforeExpire(false);
+
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable block = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+        };
+        this.pool.selectCore().execute(block);
+        SelectableThread scaled = this.pool.selectScaled();
+        scaled.execute(block);
+
+        int tasks = 100;
+        CountDownLatch done = new CountDownLatch(tasks);
+        AtomicInteger elsewhere = new AtomicInteger();
+        for (int i = 0; i < tasks; i++) {
+            scaled.execute(() -> {
+                if (Thread.currentThread() != scaled.asThread()) {
+                    elsewhere.incrementAndGet();
+                }
+                done.countDown();
+            });
+        }
+
+        release.countDown();
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, elsewhere.get());
+    }
+
+    @Test
+    public void testReserved() throws Exception {
+        this.pool = new WorkStealingThreadPool("Test", 1);
+        this.pool.setMaxThreads(2);
+        this.pool.setThreadExpiryTime(1);
+
+        CountDownLatch release = new CountDownLatch(1);
+        this.pool.selectCore().execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+
+        // A selected worker does not expire before the task is given to it, however long that takes
+        for (int i = 0; i < 20; i++) {
+            SelectableThread scaled = this.pool.selectScaled();
+            Thread.sleep(5);
+            CountDownLatch done = new CountDownLatch(1);
+            scaled.execute(done::countDown);
+            Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+        release.countDown();
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testShutdown() {
+        this.pool = new WorkStealingThreadPool("Test", 1);
+        this.pool.shutdown();
+        this.pool.execute(() -> {
+        });
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.event;
+
+import net.tridentsdk.base.Block;
+import net.tridentsdk.base.Substance;
+import net.tridentsdk.event.block.BlockEvent;
+import net.tridentsdk.event.weather.RainEvent;
+import net.tridentsdk.event.weather.WeatherEvent;
+import net.tridentsdk.plugin.annotation.IgnoreRegistration;
+import net.tridentsdk.world.World;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+public class EventBusTest {
+    private static final List<String> calls = new ArrayList<>();
+
+    public static class OrderedListener implements Listener {
+        @ListenerOpts(importance = Importance.HIGHEST)
+        public void last(RainEvent event) {
+            calls.add("last");
+        }
+
+        @ListenerOpts(importance = Importance.LOWEST)
+        public void first(RainEvent event) {
+            calls.add("first");
+        }
+
+        public void weather(WeatherEvent event) {
+            calls.add("weather");
+        }
+
+        @IgnoreRegistration
+        public void ignored(RainEvent event) {
+            calls.add("ignored");
+        }
+    }
+
+    static class HiddenListener implements Listener {
+        private void rain(RainEvent event) {
+            calls.add("hidden");
+        }
+    }
+
+    @Test
+    public void testFire() {
+        calls.clear();
+        EventBus bus = new EventBus();
+        bus.registerListener(null, new OrderedListener());
+        Assert.assertEquals(3, bus.size());
+
+        bus.fire(new RainEvent(null));
+        Assert.assertEquals(Arrays.asList("first", "weather", "last"), calls);
+
+        calls.clear();
+        bus.registerListener(null, new HiddenListener());
+        bus.fire(new RainEvent(null));
+        Assert.assertEquals(Arrays.asList("first", "weather", "hidden", "last"), calls);
+
+        calls.clear();
+        bus.unregister(OrderedListener.class);
+        bus.fire(new RainEvent(null));
+        Assert.assertEquals(Arrays.asList("hidden"), calls);
+    }
+
+    @Test
+    public void testHasListeners() {
+        calls.clear();
+        EventBus bus = new EventBus();
+        Assert.assertFalse(bus.hasListeners(RainEvent.class));
+        Assert.assertNull(bus.fire(RainEvent.class, () -> {
+            throw new AssertionError("Created without listeners");
+        }));
+
+        bus.registerListener(null, new HiddenListener());
+        Assert.assertTrue(bus.hasListeners(RainEvent.class));
+        Assert.assertFalse(bus.hasListeners(WeatherEvent.class));
+        Assert.assertNotNull(bus.fire(RainEvent.class, () -> new RainEvent(null)));
+        Assert.assertEquals(Arrays.asList("hidden"), calls);
+
+        bus.unregister(HiddenListener.class);
+        Assert.assertFalse(bus.hasListeners(RainEvent.class));
+    }
+
+    public static class AsyncListener implements Listener {
+        final CountDownLatch together = new CountDownLatch(2);
+        final List<String> seen = new CopyOnWriteArrayList<>();
+
+        @ListenerOpts(importance = Importance.LOWEST)
+        public void cancel(RainEvent event) throws InterruptedException {
+            Thread.sleep(20);
+            event.cancel(true);
+        }
+
+        @ListenerOpts(importance = Importance.HIGH, parallel = true)
+        public void first(RainEvent event) throws InterruptedException {
+            this.together.countDown();
+            this.seen.add("first " + this.together.await(5, TimeUnit.SECONDS) + " " + event.isIgnored());
+        }
+
+        @ListenerOpts(importance = Importance.HIGH, parallel = true)
+        public void second(RainEvent event) throws InterruptedException {
+            this.together.countDown();
+            this.seen.add("second " + this.together.await(5, TimeUnit.SECONDS) + " " + event.isIgnored());
+        }
+    }
+
+    public static class SlowListener implements Listener {
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile boolean after;
+
+        @ListenerOpts(timeout = 50)
+        public void slow(RainEvent event) throws InterruptedException {
+            this.release.await(5, TimeUnit.SECONDS);
+        }
+
+        @ListenerOpts(importance = Importance.HIGHEST)
+        public void after(RainEvent event) {
+            this.after = true;
+        }
+    }
+
+    @Test
+    public void testFireAsync() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            EventBus bus = new EventBus(executor);
+            AsyncListener listener = new AsyncListener();
+            bus.registerListener(null, listener);
+
+            RainEvent event = new RainEvent(null);
+            Assert.assertSame(event, bus.fireAsync(event).get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(2, listener.seen.size());
+            Assert.assertTrue(listener.seen.contains("first true true"));
+            Assert.assertTrue(listener.seen.contains("second true true"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Long> timeouts = new CopyOnWriteArrayList<>();
+        try {
+            EventBus bus = new EventBus(executor) {
+                @Override
+                protected void timedOut(EventNotifier notifier, Event event, long timeout) {
+                    timeouts.add(timeout);
+                }
+            };
+            SlowListener listener = new SlowListener();
+            bus.registerListener(null, listener);
+
+            bus.fireAsync(new RainEvent(null)).get(5, TimeUnit.SECONDS);
+            Assert.assertTrue(listener.after);
+            Assert.assertEquals(Collections.singletonList(50L), timeouts);
+            listener.release.countDown();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTimings() {
+        calls.clear();
+        EventBus bus = new EventBus();
+        bus.registerListener(null, new OrderedListener());
+
+        bus.fire(new RainEvent(null));
+        Assert.assertTrue(bus.timings().isEmpty());
+
+        bus.setInstrumented(true);
+        Assert.assertTrue(bus.isInstrumented());
+        for (int i = 0; i < 5; i++) {
+            bus.fire(new RainEvent(null));
+        }
+
+        List<ListenerTiming> timings = bus.timings();
+        Assert.assertEquals(3, timings.size());
+        for (int i = 0; i < timings.size(); i++) {
+            ListenerTiming timing = timings.get(i);
+            Assert.assertEquals(OrderedListener.class, timing.listener());
+            Assert.assertEquals(5, timing.invocations());
+            Assert.assertTrue(timing.maxNanos() <= timing.totalNanos());
+            Assert.assertTrue(timing.percentileNanos(0.5) > 0);
+            // The HotSpot JVMs running the tests track allocation
+            Assert.assertTrue(timing.allocatedBytes() >= 0);
+            if (i > 0) {
+                Assert.assertTrue(timings.get(i - 1).totalNanos() >= timing.totalNanos());
+            }
+
+            long counted = 0;
+            for (int j = 0; j < timing.buckets(); j++) {
+                counted += timing.histogram(j);
+            }
+            Assert.assertEquals(5, counted);
+        }
+
+        bus.setInstrumented(false);
+        bus.resetTimings();
+        bus.fire(new RainEvent(null));
+        Assert.assertTrue(bus.timings().isEmpty());
+    }
+
+    public static class CountEvent extends Event implements Coalescable<CountEvent> {
+        final String key;
+        final int count;
+
+        CountEvent(String key, int count) {
+            this.key = key;
+            this.count = count;
+        }
+
+        @Override
+        public Object coalesceKey() {
+            return this.key;
+        }
+
+        @Override
+        public CountEvent coalesce(CountEvent later) {
+            return new CountEvent(this.key, this.count + later.count);
+        }
+    }
+
+    public static class CoalescingListener implements Listener {
+        public void every(CountEvent event) {
+            calls.add("every " + event.key);
+        }
+
+        @ListenerOpts(coalesce = true)
+        public void merged(CountEvent event) {
+            calls.add("merged " + event.key + " " + event.count);
+        }
+    }
+
+    @Test
+    public void testCoalesce() {
+        calls.clear();
+        EventBus bus = new EventBus();
+        bus.flushCoalesced();
+        bus.registerListener(null, new CoalescingListener());
+        Assert.assertTrue(bus.hasListeners(CountEvent.class));
+
+        bus.fire(new CountEvent("a", 1));
+        bus.fire(new CountEvent("b", 1));
+        bus.fire(new CountEvent("a", 2));
+        Assert.assertEquals(Arrays.asList("every a", "every b", "every a"), calls);
+
+        calls.clear();
+        bus.flushCoalesced();
+        Collections.sort(calls);
+        Assert.assertEquals(Arrays.asList("merged a 3", "merged b 1"), calls);
+
+        calls.clear();
+        bus.flushCoalesced();
+        Assert.assertTrue(calls.isEmpty());
+
+        bus.fire(new CountEvent("a", 5));
+        calls.clear();
+        bus.flushCoalesced();
+        Assert.assertEquals(Arrays.asList("merged a 5"), calls);
+    }
+
+    public static class FilteredListener implements Listener {
+        @ListenerFilter(world = "arena")
+        public void arena(RainEvent event) {
+            calls.add("arena " + event.isIgnored());
+        }
+
+        @ListenerOpts(importance = Importance.LOW)
+        @ListenerFilter(world = { "arena", "lobby" }, cancelled = ListenerFilter.Cancelled.NOT_CANCELLED)
+        public void uncancelled(RainEvent event) {
+            calls.add("uncancelled");
+            event.cancel(true);
+        }
+
+        @ListenerFilter(substance = { Substance.CHEST, Substance.TRAPPED_CHEST })
+        public void chest(TouchEvent event) {
+            calls.add("chest");
+        }
+    }
+
+    public static class TouchEvent extends BlockEvent {
+        TouchEvent(Block block) {
+            super(block);
+        }
+    }
+
+    private static World world(String name) {
+        World world = Mockito.mock(World.class);
+        Mockito.when(world.name()).thenReturn(name);
+        return world;
+    }
+
+    @Test
+    public void testFilter() {
+        calls.clear();
+        EventBus bus = new EventBus();
+        bus.registerListener(null, new FilteredListener());
+
+        bus.fire(new RainEvent(world("arena")));
+        Assert.assertEquals(Arrays.asList("uncancelled", "arena true"), calls);
+
+        calls.clear();
+        bus.fire(new RainEvent(world("lobby")));
+        bus.fire(new RainEvent(world("world")));
+        bus.fire(new RainEvent(null));
+        Assert.assertEquals(Arrays.asList("uncancelled"), calls);
+
+        calls.clear();
+        Block chest = Mockito.mock(Block.class);
+        Mockito.when(chest.substance()).thenReturn(Substance.CHEST);
+        Block stone = Mockito.mock(Block.class);
+        Mockito.when(stone.substance()).thenReturn(Substance.STONE);
+        bus.fire(new TouchEvent(stone));
+        bus.fire(new TouchEvent(chest));
+        Assert.assertEquals(Arrays.asList("chest"), calls);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInapplicableFilter() throws Exception {
+        ListenerFilter filter = FilteredListener.class.getMethod("chest", TouchEvent.class)
+                .getAnnotation(ListenerFilter.class);
+        ListenerFilters.compile(filter, RainEvent.class);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tridentsdk.event;
+
+import net.tridentsdk.base.Block;
+import net.tridentsdk.entity.Entity;
+import net.tridentsdk.event.block.BlockFlowEvent;
+import net.tridentsdk.event.entity.EntityMoveEvent;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class EventPoolTest {
+    @After
+    public void disableDebug() {
+        EventPool.setDebug(false);
+    }
+
+    @Test
+    public void testRecycle() {
+        EventPool<BlockFlowEvent> pool = new EventPool<>(BlockFlowEvent::new, 4);
+        Block from = Mockito.mock(Block.class);
+        Block to = Mockito.mock(Block.class);
+
+        BlockFlowEvent event = pool.acquire().init(from, to);
+        event.cancel(true);
+        Assert.assertSame(from, event.from());
+        Assert.assertSame(to, event.to());
+        Assert.assertEquals(0, pool.idle());
+
+        pool.release(event);
+        Assert.assertEquals(1, pool.idle());
+
+        BlockFlowEvent recycled = pool.acquire();
+        Assert.assertSame(event, recycled);
+        Assert.assertNull(recycled.from());
+        Assert.assertNull(recycled.to());
+        Assert.assertFalse(recycled.isIgnored());
+    }
+
+    @Test
+    public void testCapacity() {
+        EventPool<BlockFlowEvent> pool = new EventPool<>(BlockFlowEvent::new, 1);
+        BlockFlowEvent first = pool.acquire();
+        BlockFlowEvent second = pool.acquire();
+        Assert.assertNotSame(first, second);
+
+        pool.release(first);
+        pool.release(second);
+        Assert.assertEquals(1, pool.idle());
+    }
+
+    @Test
+    public void testRetained() {
+        EventPool<BlockFlowEvent> pool = new EventPool<>(BlockFlowEvent::new, 4);
+        BlockFlowEvent event = pool.acquire();
+        pool.release(event);
+
+        try {
+            event.to();
+            Assert.fail("Released event was accessed");
+        } catch (IllegalStateException expected) {
+            Assert.assertNull(expected.getCause());
+        }
+
+        try {
+            pool.release(event);
+            Assert.fail("Event was released twice");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void testPoison() {
+        EventPool.setDebug(true);
+        EventPool<BlockFlowEvent> pool = new EventPool<>(BlockFlowEvent::new, 4);
+        BlockFlowEvent event = pool.acquire();
+        pool.release(event);
+        Assert.assertEquals(0, pool.idle());
+        Assert.assertNotSame(event, pool.acquire());
+
+        try {
+            event.isIgnored();
+            Assert.fail("Poisoned event was accessed");
+        } catch (IllegalStateException expected) {
+            Assert.assertNotNull(expected.getCause());
+        }
+    }
+
+    public static class MoveListener implements Listener {
+        final List<EntityMoveEvent> moves = new ArrayList<>();
+
+        @ListenerOpts(coalesce = true)
+        public void move(EntityMoveEvent event) {
+            this.moves.add(event);
+        }
+    }
+
+    @Test
+    public void testCoalesceDetached() {
+        EventPool<EntityMoveEvent> pool = new EventPool<>(EntityMoveEvent::new, 4);
+        Entity entity = Mockito.mock(Entity.class);
+        EventBus bus = new EventBus();
+        MoveListener listener = new MoveListener();
+        bus.registerListener(null, listener);
+
+        EntityMoveEvent event = pool.acquire().init(entity, null, null);
+        bus.fire(event);
+        pool.release(event);
+        bus.flushCoalesced();
+
+        Assert.assertEquals(1, listener.moves.size());
+        EntityMoveEvent move = listener.moves.get(0);
+        Assert.assertNotSame(event, move);
+        Assert.assertSame(entity, move.entity());
+    }
+}
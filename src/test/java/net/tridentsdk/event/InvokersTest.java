@@ -0,0 +1,111 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tridentsdk.event;
+
+import net.tridentsdk.event.weather.RainEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+public class InvokersTest {
+    public static class PublicListener implements Listener {
+        int calls;
+
+        public void rain(RainEvent event) {
+            this.calls++;
+        }
+    }
+
+    private static class PrivateListener implements Listener {
+        int calls;
+
+        private void rain(RainEvent event) {
+            this.calls++;
+        }
+    }
+
+    // Defines PublicListener again, as a plugin's class loader would
+    private static class PluginLoader extends ClassLoader {
+        PluginLoader() {
+            super(InvokersTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(PublicListener.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+
+            synchronized (this.getClassLoadingLock(name)) {
+                Class<?> loaded = this.findLoadedClass(name);
+                if (loaded != null) {
+                    return loaded;
+                }
+
+                try (InputStream in = this.getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[4096];
+                    for (int read; (read = in.read(buffer)) > 0; ) {
+                        out.write(buffer, 0, read);
+                    }
+                    return this.defineClass(name, out.toByteArray(), 0, out.size());
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+
+    private static void check(Class<?> type, boolean generated) throws Exception {
+        Method method = type.getDeclaredMethod("rain", RainEvent.class);
+        ListenerInvoker invoker = Invokers.bind(method);
+
+        // Generated invokers are defined next to the listener, rather than being a lambda in Invokers
+        if (generated) {
+            Assert.assertTrue(invoker.getClass().getName().startsWith(type.getName() + "$$Lambda"));
+        }
+
+        Constructor<?> constructor = type.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        Listener listener = (Listener) constructor.newInstance();
+        invoker.invoke(listener, new RainEvent(null));
+
+        Field calls = type.getDeclaredField("calls");
+        calls.setAccessible(true);
+        Assert.assertEquals(1, calls.getInt(listener));
+    }
+
+    @Test
+    public void testGenerated() throws Exception {
+        check(PublicListener.class, true);
+        check(PrivateListener.class, true);
+    }
+
+    @Test
+    public void testPluginLoader() throws Exception {
+        Class<?> type = new PluginLoader().loadClass(PublicListener.class.getName());
+        Assert.assertNotSame(PublicListener.class, type);
+        // Later versions do not give a lookup in another class loader the access needed to define the invoker
+        check(type, System.getProperty("java.specification.version").startsWith("1."));
+    }
+}
@@ -20,6 +20,10 @@ package net.tridentsdk.meta.nbt;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+
 public class CompoundTagTest {
 
     @Test
@@ -67,6 +71,39 @@ public class CompoundTagTest {
         Assert.assertEquals(tag.listTags().size(), 0);
     }
 
+    @Test
+    public void testScalars() throws Exception {
+        CompoundTag tag = new CompoundTag("tag");
+        tag.putByte("Byte", (byte) 3);
+        tag.putInt("Int", 42);
+        tag.putDouble("Double", 1.5D);
+        tag.addTag(new LongTag("Long").setValue(7L));
+
+        Assert.assertEquals(tag.getByte("Byte", (byte) 0), 3);
+        Assert.assertEquals(tag.getInt("Int", 0), 42);
+        Assert.assertEquals(tag.getDouble("Double", 0D), 1.5D, 0D);
+        Assert.assertEquals(tag.getLong("Long", 0L), 7L);
+        Assert.assertEquals(tag.getInt("NoTag", -1), -1);
+        Assert.assertEquals(tag.typeOf("Int"), TagType.INT);
+
+        NBTTag boxed = tag.getTag("Int");
+        Assert.assertEquals(((IntTag) boxed).value(), 42);
+        Assert.assertSame(tag.getTag("Int"), boxed);
+
+        tag.putInt("Int", 43);
+        Assert.assertEquals(tag.getInt("Int", 0), 43);
+        Assert.assertEquals(tag.listTags().size(), 4);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new NBTEncoder(new DataOutputStream(out)).encode(tag);
+        CompoundTag decoded = new NBTDecoder(ByteBuffer.wrap(out.toByteArray())).decode();
+
+        Assert.assertEquals(decoded.getByte("Byte", (byte) 0), 3);
+        Assert.assertEquals(decoded.getInt("Int", 0), 43);
+        Assert.assertEquals(decoded.getDouble("Double", 0D), 1.5D, 0D);
+        Assert.assertEquals(decoded.getLong("Long", 0L), 7L);
+    }
+
     @Test
     public void testGetType() throws Exception {
         CompoundTag tag = new CompoundTag("tag");
@@ -0,0 +1,107 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+public class CompressionTest {
+    private static CompoundTag sample() {
+        CompoundTag tag = new CompoundTag("Level");
+        tag.putInt("xPos", 4);
+        tag.addTag(new StringTag("Name").setValue("chunk"));
+
+        // Larger than the compression buffers, and not very compressible
+        byte[] blocks = new byte[40000];
+        new Random(7).nextBytes(blocks);
+        tag.addTag(new ByteArrayTag("Blocks").setValue(blocks));
+        return tag;
+    }
+
+    private static void check(CompoundTag expected, CompoundTag actual) {
+        Assert.assertEquals(actual.name(), expected.name());
+        Assert.assertEquals(actual.getInt("xPos", 0), 4);
+        Assert.assertEquals(actual.<StringTag>getTagAs("Name").value(), "chunk");
+        Assert.assertArrayEquals(actual.<ByteArrayTag>getTagAs("Blocks").value(),
+                expected.<ByteArrayTag>getTagAs("Blocks").value());
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        CompoundTag tag = sample();
+        for (Compression compression : Compression.values()) {
+            byte[] data = NBTEncoder.encodeCompressed(tag, compression);
+            Assert.assertEquals(Compression.detect(data[0], data[1]), compression);
+            check(tag, NBTDecoder.decodeCompressed(data, compression));
+        }
+    }
+
+    @Test
+    public void testGzipCompatibility() throws Exception {
+        CompoundTag tag = sample();
+
+        byte[] data = NBTEncoder.encodeCompressed(tag, Compression.GZIP);
+        check(tag, new NBTDecoder(new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(data)))).decode());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DataOutputStream stream = new DataOutputStream(new GZIPOutputStream(out))) {
+            new NBTEncoder(stream).encode(tag);
+        }
+        check(tag, NBTDecoder.decodeCompressed(out.toByteArray(), Compression.GZIP));
+    }
+
+    @Test
+    public void testZlibCompatibility() throws Exception {
+        CompoundTag tag = sample();
+
+        byte[] data = NBTEncoder.encodeCompressed(tag, Compression.ZLIB);
+        check(tag, new NBTDecoder(new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)))).decode());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DataOutputStream stream = new DataOutputStream(new DeflaterOutputStream(out))) {
+            new NBTEncoder(stream).encode(tag);
+        }
+        check(tag, NBTDecoder.decodeCompressed(out.toByteArray(), Compression.ZLIB));
+    }
+
+    @Test
+    public void testLevel() throws Exception {
+        CompoundTag tag = new CompoundTag("tag");
+        tag.addTag(new ByteArrayTag("Zeros").setValue(new byte[10000]));
+
+        ByteArrayOutputStream stored = new ByteArrayOutputStream();
+        NBTEncoder.encodeCompressed(tag, stored, Compression.ZLIB, 0);
+        ByteArrayOutputStream best = new ByteArrayOutputStream();
+        NBTEncoder.encodeCompressed(tag, best, Compression.ZLIB, 9);
+
+        Assert.assertTrue(stored.size() > 10000);
+        Assert.assertTrue(best.size() < 1000);
+        Assert.assertEquals(NBTDecoder.decodeCompressed(best.toByteArray(), Compression.ZLIB)
+                .<ByteArrayTag>getTagAs("Zeros").length(), 10000);
+    }
+}
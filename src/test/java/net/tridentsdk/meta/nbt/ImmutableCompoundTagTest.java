@@ -0,0 +1,133 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class ImmutableCompoundTagTest {
+
+    @Test
+    public void testWith() throws Exception {
+        ImmutableCompoundTag empty = ImmutableCompoundTag.of("item");
+        ImmutableCompoundTag item = empty.withString("id", "sword").withShort("Damage", (short) 3);
+
+        Assert.assertEquals(empty.size(), 0);
+        Assert.assertEquals(item.size(), 2);
+        Assert.assertEquals(item.getShort("Damage", (short) 0), 3);
+        Assert.assertEquals(item.<StringTag>getTagAs("id").value(), "sword");
+
+        ImmutableCompoundTag damaged = item.withShort("Damage", (short) 4);
+        Assert.assertEquals(damaged.size(), 2);
+        Assert.assertEquals(damaged.getShort("Damage", (short) 0), 4);
+        Assert.assertEquals(item.getShort("Damage", (short) 0), 3);
+
+        ImmutableCompoundTag removed = damaged.without("Damage");
+        Assert.assertEquals(removed.size(), 1);
+        Assert.assertEquals(removed.containsTag("Damage"), false);
+        Assert.assertSame(removed.without("Damage"), removed);
+    }
+
+    @Test
+    public void testSharing() throws Exception {
+        CompoundTag display = new CompoundTag("display");
+        display.addTag(new StringTag("Name").setValue("Excalibur"));
+        ListTag enchantments = new ListTag("ench", TagType.COMPOUND);
+        enchantments.addTag(new CompoundTag(null));
+        CompoundTag tag = new CompoundTag("tag");
+        tag.addTag(display);
+        tag.addTag(enchantments);
+
+        ImmutableCompoundTag item = NBTBuilder.newBase("item").compoundTag(tag).endCompoundTag().freeze();
+        ImmutableCompoundTag other = item.withShort("Damage", (short) 1);
+        Assert.assertSame(other.getTag("tag"), item.getTag("tag"));
+
+        ImmutableCompoundTag nested = item.getTagAs("tag");
+        Assert.assertTrue(nested.getTag("ench") instanceof ImmutableListTag);
+
+        // The source and obtained leaves are copies
+        display.addTag(new StringTag("Name").setValue("Changed"));
+        ImmutableCompoundTag frozenDisplay = nested.getTagAs("display");
+        frozenDisplay.<StringTag>getTagAs("Name").setValue("Changed");
+        Assert.assertEquals(frozenDisplay.<StringTag>getTagAs("Name").value(), "Excalibur");
+
+        try {
+            item.addTag(new IntTag("x"));
+            Assert.fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+
+        try {
+            item.putInt("x", 1);
+            Assert.fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void testMany() throws Exception {
+        ImmutableCompoundTag tag = ImmutableCompoundTag.of("tag");
+        // "Aa" and "BB" have the same hash
+        tag = tag.withInt("Aa", -1).withInt("BB", -2);
+        for (int i = 0; i < 2000; i++) {
+            tag = tag.withInt("key" + i, i);
+        }
+
+        Assert.assertEquals(tag.size(), 2002);
+        Assert.assertEquals(tag.listTags().size(), 2002);
+        Assert.assertEquals(tag.getInt("Aa", 0), -1);
+        Assert.assertEquals(tag.getInt("BB", 0), -2);
+        for (int i = 0; i < 2000; i++) {
+            Assert.assertEquals(tag.getInt("key" + i, -1), i);
+        }
+
+        for (int i = 0; i < 2000; i += 2) {
+            tag = tag.without("key" + i);
+        }
+        tag = tag.without("Aa");
+
+        Assert.assertEquals(tag.size(), 1001);
+        Assert.assertEquals(tag.getInt("BB", 0), -2);
+        for (int i = 0; i < 2000; i++) {
+            Assert.assertEquals(tag.getInt("key" + i, -1), i % 2 == 0 ? -1 : i);
+        }
+    }
+
+    @Test
+    public void testEncoding() throws Exception {
+        CompoundTag source = new CompoundTag("root");
+        source.putLong("Long", 5L);
+        source.addTag(new ByteArrayTag("Bytes").setValue(new byte[] { 1, 2 }));
+        source.addTag(new IntListTag("Ints", new int[] { 3, 4 }));
+
+        ImmutableCompoundTag frozen = ImmutableCompoundTag.copyOf(source);
+        byte[] data = NBTEncoder.encodeToArray(frozen);
+        CompoundTag decoded = new NBTDecoder(ByteBuffer.wrap(data)).decode();
+
+        Assert.assertEquals(decoded.getLong("Long", 0L), 5L);
+        Assert.assertArrayEquals(decoded.<ByteArrayTag>getTagAs("Bytes").value(), new byte[] { 1, 2 });
+        Assert.assertArrayEquals(decoded.<IntListTag>getTagAs("Ints").toIntArray(), new int[] { 3, 4 });
+
+        CompoundTag copy = frozen.mutableCopy();
+        copy.putLong("Long", 6L);
+        Assert.assertEquals(frozen.getLong("Long", 0L), 5L);
+        Assert.assertTrue(copy.getTag("Ints") instanceof IntListTag);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+
+public class IntListTagTest {
+
+    @Test
+    public void testInts() throws Exception {
+        ListTag list = ListTag.create("tag", TagType.INT);
+        Assert.assertTrue(list instanceof IntListTag);
+
+        IntListTag tag = (IntListTag) list;
+        for (int i = 0; i < 10; i++) {
+            tag.addInt(i);
+        }
+        tag.addTag(new IntTag(null).setValue(10));
+
+        Assert.assertEquals(tag.size(), 11);
+        Assert.assertEquals(tag.getInt(10), 10);
+        Assert.assertEquals(((IntTag) tag.getTag(3)).value(), 3);
+        Assert.assertEquals(tag.containsTag(new IntTag(null).setValue(4)), true);
+
+        tag.removeTag(new IntTag(null).setValue(4));
+        Assert.assertEquals(tag.size(), 10);
+        Assert.assertEquals(tag.getInt(4), 5);
+
+        tag.setInt(0, -1);
+        Assert.assertEquals(tag.listTags().get(0).asType(IntTag.class).value(), -1);
+
+        tag.clearTags();
+        Assert.assertEquals(tag.size(), 0);
+    }
+
+    @Test
+    public void testViews() throws Exception {
+        IntListTag tag = new IntListTag("tag", new int[] { 1, 2, 3 });
+        ((IntTag) tag.getTag(0)).setValue(5);
+        Assert.assertEquals(tag.getInt(0), 5);
+
+        IntTag view = tag.listTags().get(2).asType(IntTag.class);
+        tag.setInt(2, 7);
+        Assert.assertEquals(view.value(), 7);
+
+        DoubleListTag doubles = new DoubleListTag("doubles", new double[] { 1.5 });
+        ((DoubleTag) doubles.getTag(0)).setValue(2.5);
+        Assert.assertEquals(doubles.getDouble(0), 2.5, 0);
+
+        tag.removeTag(new IntTag(null).setValue(5));
+        try {
+            view.value();
+            Assert.fail();
+        } catch (IndexOutOfBoundsException ignored) {
+        }
+    }
+
+    @Test
+    public void testEncoding() throws Exception {
+        CompoundTag root = new CompoundTag("root");
+        root.addTag(new IntListTag("Ints", new int[] { 1, 2, 3 }));
+        ListTag boxed = new ListTag("Boxed", TagType.INT);
+        boxed.addTag(new IntTag(null).setValue(4));
+        root.addTag(boxed);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new NBTEncoder(new DataOutputStream(out)).encode(root);
+        CompoundTag decoded = new NBTDecoder(ByteBuffer.wrap(out.toByteArray())).decode();
+
+        IntListTag ints = decoded.getTagAs("Ints");
+        Assert.assertArrayEquals(ints.toIntArray(), new int[] { 1, 2, 3 });
+        IntListTag other = decoded.getTagAs("Boxed");
+        Assert.assertArrayEquals(other.toIntArray(), new int[] { 4 });
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+
+public class LazyCompoundTagTest {
+    private static byte[] encode(CompoundTag tag) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new NBTEncoder(new DataOutputStream(bytes)).encode(tag);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] sample() throws Exception {
+        return encode(NBTBuilder.newBase("Entity")
+                .stringTag("id", "Zombie")
+                .floatTag("Health", 20F)
+                .beginCompoundTag("Equipment")
+                    .intTag("Slot", 2)
+                    .stringTag("Item", "iron_sword")
+                .endCompoundTag()
+                .beginListTag("Motion", TagType.DOUBLE)
+                    .tag(0.5)
+                    .tag(0.0)
+                .endListTag()
+                .endCompoundTag()
+                .build());
+    }
+
+    @Test
+    public void testDecodeOnAccess() throws Exception {
+        CompoundTag tag = new NBTDecoder(ByteBuffer.wrap(sample())).decodeLazy();
+        Assert.assertTrue(tag instanceof LazyCompoundTag);
+
+        LazyCompoundTag lazy = (LazyCompoundTag) tag;
+        Assert.assertTrue(lazy.containsTag("Health"));
+        Assert.assertFalse(lazy.isDecoded("Health"));
+        Assert.assertFalse(lazy.containsTag("Missing"));
+
+        Assert.assertEquals(20F, lazy.<FloatTag>getTagAs("Health").value(), 0);
+        Assert.assertTrue(lazy.isDecoded("Health"));
+        Assert.assertFalse(lazy.isDecoded("Equipment"));
+
+        LazyCompoundTag equipment = lazy.getTagAs("Equipment");
+        Assert.assertEquals("iron_sword", equipment.<StringTag>getTagAs("Item").value());
+        Assert.assertFalse(equipment.isDecoded("Slot"));
+
+        Assert.assertEquals(4, lazy.listTags().size());
+        Assert.assertTrue(lazy.isDecoded("Motion"));
+        Assert.assertTrue(lazy.getTag("Missing") instanceof NullTag);
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        byte[] bytes = sample();
+        CompoundTag tag = new NBTDecoder(ByteBuffer.wrap(bytes)).decodeLazy();
+        Assert.assertArrayEquals(bytes, encode(tag));
+
+        tag.<CompoundTag>getTagAs("Equipment").addTag(new IntTag("Count").setValue(1));
+        tag.removeTag("id");
+
+        CompoundTag reread = new NBTDecoder(ByteBuffer.wrap(encode(tag))).decode();
+        Assert.assertFalse(reread.containsTag("id"));
+        Assert.assertEquals(1, reread.<CompoundTag>getTagAs("Equipment").<IntTag>getTagAs("Count").value());
+        Assert.assertEquals(2, reread.<CompoundTag>getTagAs("Equipment").<IntTag>getTagAs("Slot").value());
+        Assert.assertEquals(20F, reread.<FloatTag>getTagAs("Health").value(), 0);
+    }
+}
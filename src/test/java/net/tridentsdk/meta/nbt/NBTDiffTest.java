@@ -0,0 +1,150 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class NBTDiffTest {
+    private static CompoundTag player() {
+        CompoundTag player = new CompoundTag("");
+        player.putFloat("Health", 20F);
+        player.addTag(new StringTag("Name").setValue("Steve"));
+        player.addTag(new DoubleListTag("Pos", new double[] { 1D, 64D, 1D }));
+
+        ListTag inventory = new ListTag("Inventory", TagType.COMPOUND);
+        for (int i = 0; i < 36; i++) {
+            CompoundTag item = new CompoundTag(null);
+            item.putByte("Slot", (byte) i);
+            item.addTag(new StringTag("id").setValue("minecraft:stone"));
+            item.putByte("Count", (byte) 64);
+            inventory.addTag(item);
+        }
+        player.addTag(inventory);
+
+        CompoundTag abilities = new CompoundTag("abilities");
+        abilities.putByte("flying", (byte) 0);
+        player.addTag(abilities);
+        return player;
+    }
+
+    private static CompoundTag copy(CompoundTag tag) throws Exception {
+        return new NBTDecoder(ByteBuffer.wrap(NBTEncoder.encodeToArray(tag))).decode();
+    }
+
+    private static void check(CompoundTag before, CompoundTag after) throws Exception {
+        byte[] patch = NBTDiff.compute(before, after);
+        CompoundTag target = copy(before);
+        NBTDiff.apply(target, patch);
+
+        Assert.assertTrue(NBTDiff.equal(target, after));
+        Assert.assertTrue(NBTDiff.isEmpty(NBTDiff.compute(target, after)));
+    }
+
+    @Test
+    public void testUnchanged() throws Exception {
+        CompoundTag player = player();
+        Assert.assertTrue(NBTDiff.isEmpty(NBTDiff.compute(player, copy(player))));
+        Assert.assertTrue(NBTDiff.equal(player, copy(player)));
+    }
+
+    @Test
+    public void testChanges() throws Exception {
+        CompoundTag before = player();
+        CompoundTag after = copy(before);
+
+        after.putFloat("Health", 12.5F);
+        after.removeTag("Name");
+        after.addTag(new IntArrayTag("Ids").setValue(new int[] { 1, 2 }));
+        after.<DoubleListTag>getTagAs("Pos").setDouble(1, 70D);
+        after.<CompoundTag>getTagAs("abilities").putByte("flying", (byte) 1);
+        after.<ListTag>getTagAs("Inventory").getTag(5).asType(CompoundTag.class).putByte("Count", (byte) 3);
+
+        Assert.assertFalse(NBTDiff.equal(before, after));
+        check(before, after);
+
+        byte[] patch = NBTDiff.compute(before, after);
+        Assert.assertTrue(patch.length * 10 < NBTEncoder.sizeOf(after));
+    }
+
+    @Test
+    public void testReplaced() throws Exception {
+        CompoundTag before = player();
+        CompoundTag after = copy(before);
+
+        // Type changes and resized lists are written whole
+        after.addTag(new StringTag("Health").setValue("full"));
+        after.<ListTag>getTagAs("Inventory").removeTag(after.<ListTag>getTagAs("Inventory").getTag(0));
+        after.addTag(new CompoundTag("Name"));
+        check(before, after);
+    }
+
+    @Test
+    public void testLazy() throws Exception {
+        CompoundTag before = player();
+        byte[] data = NBTEncoder.encodeToArray(before);
+
+        LazyCompoundTag lazy = (LazyCompoundTag) new NBTDecoder(ByteBuffer.wrap(data)).decodeLazy();
+        LazyCompoundTag other = (LazyCompoundTag) new NBTDecoder(ByteBuffer.wrap(data)).decodeLazy();
+        other.putFloat("Health", 1F);
+
+        byte[] patch = NBTDiff.compute(lazy, other);
+        Assert.assertFalse(lazy.isDecoded("Inventory"));
+        Assert.assertFalse(other.isDecoded("Inventory"));
+
+        NBTDiff.apply(before, patch);
+        Assert.assertEquals(before.getFloat("Health", 0F), 1F, 0F);
+    }
+
+    @Test
+    public void testInvalid() throws Exception {
+        CompoundTag before = player();
+        CompoundTag after = copy(before);
+        after.putFloat("Health", 12.5F);
+        after.removeTag("Name");
+        after.<CompoundTag>getTagAs("abilities").putByte("flying", (byte) 1);
+        after.<DoubleListTag>getTagAs("Pos").setDouble(1, 70D);
+        byte[] patch = NBTDiff.compute(before, after);
+
+        // A patch which cannot be applied does not change the target at all
+        CompoundTag target = copy(before);
+        target.removeTag("abilities");
+        CompoundTag unchanged = copy(target);
+        try {
+            NBTDiff.apply(target, patch);
+            Assert.fail();
+        } catch (NBTException expected) {
+        }
+        Assert.assertTrue(NBTDiff.equal(target, unchanged));
+
+        after = copy(before);
+        after.<DoubleListTag>getTagAs("Pos").setDouble(1, 70D);
+        patch = NBTDiff.compute(before, after);
+        target = copy(before);
+        target.addTag(ImmutableListTag.copyOf(target.getTagAs("Pos")));
+        for (CompoundTag immutable : new CompoundTag[] { ImmutableCompoundTag.copyOf(before), target }) {
+            try {
+                NBTDiff.apply(immutable, patch);
+                Assert.fail();
+            } catch (NBTException expected) {
+            }
+        }
+    }
+}
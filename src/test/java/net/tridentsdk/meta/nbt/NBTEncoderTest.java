@@ -0,0 +1,88 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+
+public class NBTEncoderTest {
+    private static final String TEXT = "Café ☃ \u0000 😀";
+
+    private static CompoundTag sample() {
+        CompoundTag tag = new CompoundTag("root");
+        tag.putShort("Short", (short) 2);
+        tag.putDouble("Double", 0.5D);
+        tag.addTag(new StringTag("Text ü").setValue(TEXT));
+        tag.addTag(new ByteArrayTag("Bytes").setValue(new byte[] { 1, 2, 3 }));
+        tag.addTag(new IntArrayTag("Ints").setValue(new int[] { 4, 5 }));
+        tag.addTag(new IntListTag("Packed", new int[] { 6, 7, 8 }));
+
+        ListTag strings = new ListTag("Strings", TagType.STRING);
+        strings.addTag(new StringTag(null).setValue("a"));
+        strings.addTag(new StringTag(null).setValue("ß"));
+        tag.addTag(strings);
+
+        CompoundTag child = new CompoundTag("Child");
+        child.putLong("Long", 9L);
+        tag.addTag(child);
+        return tag;
+    }
+
+    private static byte[] encode(CompoundTag tag) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new NBTEncoder(new DataOutputStream(out)).encode(tag);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testSize() throws Exception {
+        CompoundTag tag = sample();
+        byte[] expected = encode(tag);
+
+        Assert.assertEquals(NBTEncoder.sizeOf(tag), expected.length);
+        Assert.assertArrayEquals(NBTEncoder.encodeToArray(tag), expected);
+    }
+
+    @Test
+    public void testStrings() throws Exception {
+        byte[] data = NBTEncoder.encodeToArray(sample());
+
+        CompoundTag decoded = new NBTDecoder(ByteBuffer.wrap(data)).decode();
+        Assert.assertEquals(decoded.<StringTag>getTagAs("Text ü").value(), TEXT);
+
+        // Strings are written the same way as DataOutput#writeUTF
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(data));
+        Assert.assertEquals(input.readByte(), TagType.COMPOUND.id());
+        Assert.assertEquals(input.readUTF(), "root");
+    }
+
+    @Test
+    public void testLazy() throws Exception {
+        byte[] data = NBTEncoder.encodeToArray(sample());
+
+        CompoundTag lazy = new NBTDecoder(ByteBuffer.wrap(data)).decodeLazy();
+        Assert.assertEquals(NBTEncoder.sizeOf(lazy), data.length);
+        Assert.assertArrayEquals(NBTEncoder.encodeToArray(lazy), data);
+    }
+}
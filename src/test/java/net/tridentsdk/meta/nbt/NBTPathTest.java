@@ -0,0 +1,135 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class NBTPathTest {
+    private static CompoundTag player() {
+        CompoundTag player = new CompoundTag("");
+        player.addTag(new DoubleListTag("Pos", new double[] { 1.5D, 64D, -3D }));
+        player.addTag(new IntArrayTag("Ids").setValue(new int[] { 7, 8 }));
+
+        ListTag inventory = new ListTag("Inventory", TagType.COMPOUND);
+        for (int i = 0; i < 5; i++) {
+            CompoundTag item = new CompoundTag(null);
+            item.putByte("Slot", (byte) i);
+            if (i == 3) {
+                CompoundTag display = new CompoundTag("display");
+                display.addTag(new StringTag("Name").setValue("Sword"));
+                CompoundTag tag = new CompoundTag("tag");
+                tag.addTag(display);
+                item.addTag(tag);
+            }
+            inventory.addTag(item);
+        }
+        player.addTag(inventory);
+
+        player.addTag(new StringTag("a.b").setValue("dotted"));
+        return player;
+    }
+
+    private static void check(NBTTag tag, Object value) {
+        Assert.assertNotNull(tag);
+        switch (tag.type()) {
+            case STRING:
+                Assert.assertEquals(((StringTag) tag).value(), value);
+                break;
+            case DOUBLE:
+                Assert.assertEquals(((DoubleTag) tag).value(), value);
+                break;
+            case INT:
+                Assert.assertEquals(((IntTag) tag).value(), value);
+                break;
+            default:
+                Assert.fail(tag.type().toString());
+        }
+    }
+
+    @Test
+    public void testFind() throws Exception {
+        CompoundTag player = player();
+        ByteBuffer data = ByteBuffer.wrap(NBTEncoder.encodeToArray(player));
+
+        for (Object source : new Object[] { player, data }) {
+            NBTPath name = NBTPath.compile("Inventory[3].tag.display.Name");
+            NBTPath y = NBTPath.compile("Pos[1]");
+            NBTPath id = NBTPath.compile("Ids[1]");
+            NBTPath dotted = NBTPath.compile("\"a.b\"");
+
+            if (source instanceof CompoundTag) {
+                check(name.find(player), "Sword");
+                check(y.find(player), 64D);
+                check(id.find(player), 8);
+                check(dotted.find(player), "dotted");
+                Assert.assertSame(NBTPath.compile("").find(player), player);
+            } else {
+                check(name.find(data), "Sword");
+                check(y.find(data), 64D);
+                check(id.find(data), 8);
+                check(dotted.find(data), "dotted");
+                Assert.assertEquals(data.position(), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testMissing() throws Exception {
+        CompoundTag player = player();
+        ByteBuffer data = ByteBuffer.wrap(NBTEncoder.encodeToArray(player));
+
+        for (String expression : new String[] { "Inventory[2].tag", "Inventory[5]", "Pos[3]", "Missing", "Pos.x",
+                "Ids[0][0]" }) {
+            NBTPath path = NBTPath.compile(expression);
+            Assert.assertNull(expression, path.find(player));
+            Assert.assertNull(expression, path.find(data));
+        }
+
+        CompoundTag empty = new CompoundTag("empty");
+        empty.addTag(new ByteArrayTag("Bytes"));
+        empty.addTag(new IntArrayTag("Ints"));
+        Assert.assertNull(NBTPath.compile("Bytes[0]").find(empty));
+        Assert.assertNull(NBTPath.compile("Ints[0]").find(empty));
+    }
+
+    @Test
+    public void testLazy() throws Exception {
+        ByteBuffer data = ByteBuffer.wrap(NBTEncoder.encodeToArray(player()));
+        LazyCompoundTag lazy = (LazyCompoundTag) new NBTDecoder(data).decodeLazy();
+
+        check(NBTPath.compile("Pos[0]").find(lazy), 1.5D);
+        Assert.assertEquals(lazy.isDecoded("Pos"), true);
+        Assert.assertEquals(lazy.isDecoded("Inventory"), false);
+    }
+
+    @Test
+    public void testInvalid() throws Exception {
+        for (String expression : new String[] { "[0]", "a.", ".a", "a[x]", "a[-1]", "a]", "\"a", "a..b" }) {
+            try {
+                NBTPath.compile(expression);
+                Assert.fail(expression);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+
+        Assert.assertEquals(NBTPath.compile("a[1].b").toString(), "a[1].b");
+    }
+}
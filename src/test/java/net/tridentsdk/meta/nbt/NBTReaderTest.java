@@ -0,0 +1,204 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+
+public class NBTReaderTest {
+    private static byte[] encode(CompoundTag tag) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new NBTEncoder(new DataOutputStream(bytes)).encode(tag);
+        return bytes.toByteArray();
+    }
+
+    private static NBTReader reader(byte[] bytes) {
+        return new NBTReader(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    private static CompoundTag sample() {
+        return NBTBuilder.newBase("Player")
+                .stringTag("Name", "Steve")
+                .beginCompoundTag("Abilities")
+                    .byteTag("flying", (byte) 1)
+                    .floatTag("walkSpeed", 0.1F)
+                .endCompoundTag()
+                .beginListTag("Pos", TagType.DOUBLE)
+                    .tag(1.5)
+                    .tag(64.0)
+                    .tag(-3.0)
+                .endListTag()
+                .intArrayTag("Ints", 1, 2, 3)
+                .byteArrayTag("Bytes", (byte) 4, (byte) 5)
+                .intTag("XpLevel", 30)
+                .endCompoundTag()
+                .build();
+    }
+
+    @Test
+    public void testWalk() throws Exception {
+        NBTReader reader = reader(encode(sample()));
+
+        Assert.assertEquals(TagType.COMPOUND, reader.nextTag());
+        Assert.assertEquals("Player", reader.name());
+        reader.enterCompound();
+
+        Assert.assertEquals(TagType.STRING, reader.nextTag());
+        Assert.assertEquals("Name", reader.name());
+        Assert.assertEquals("Steve", reader.readString());
+
+        Assert.assertEquals(TagType.COMPOUND, reader.nextTag());
+        reader.enterCompound();
+        Assert.assertEquals(TagType.BYTE, reader.nextTag());
+        Assert.assertEquals(1, reader.readByte());
+        reader.exitCompound();
+
+        Assert.assertEquals(TagType.LIST, reader.nextTag());
+        Assert.assertEquals(3, reader.enterList());
+        Assert.assertEquals(TagType.DOUBLE, reader.listType());
+        Assert.assertEquals(TagType.DOUBLE, reader.nextTag());
+        Assert.assertNull(reader.name());
+        Assert.assertEquals(1.5, reader.readDouble(), 0);
+        Assert.assertEquals(TagType.DOUBLE, reader.nextTag());
+        Assert.assertEquals(64, reader.readDouble(), 0);
+        reader.exitList();
+
+        Assert.assertEquals(TagType.INT_ARRAY, reader.nextTag());
+        Assert.assertArrayEquals(new int[] { 1, 2, 3 }, reader.readIntArray());
+        Assert.assertEquals(TagType.BYTE_ARRAY, reader.nextTag());
+
+        Assert.assertEquals(TagType.INT, reader.nextTag());
+        Assert.assertEquals(30, reader.readInt());
+
+        Assert.assertEquals(TagType.END, reader.nextTag());
+        reader.exitCompound();
+        Assert.assertEquals(0, reader.depth());
+    }
+
+    @Test
+    public void testSkip() throws Exception {
+        NBTReader reader = reader(encode(sample()));
+        reader.nextTag();
+        reader.enterCompound();
+
+        int xp = -1;
+        while (reader.nextTag() != TagType.END) {
+            if ("XpLevel".equals(reader.name())) {
+                xp = reader.readInt();
+            }
+        }
+        reader.exitCompound();
+
+        Assert.assertEquals(30, xp);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWrongType() throws Exception {
+        NBTReader reader = reader(encode(sample()));
+        reader.nextTag();
+        reader.readInt();
+    }
+
+    @Test
+    public void testDecode() throws Exception {
+        byte[] bytes = encode(sample());
+        CompoundTag tag = new NBTDecoder(new DataInputStream(new ByteArrayInputStream(bytes))).decode();
+
+        Assert.assertEquals("Player", tag.name());
+        Assert.assertEquals("Steve", tag.<StringTag>getTagAs("Name").value());
+        Assert.assertEquals(0.1F, tag.<CompoundTag>getTagAs("Abilities").<FloatTag>getTagAs("walkSpeed").value(), 0);
+        Assert.assertEquals(3, tag.<ListTag>getTagAs("Pos").listTags().size());
+        Assert.assertEquals(30, tag.<IntTag>getTagAs("XpLevel").value());
+        Assert.assertArrayEquals(bytes, encode(tag));
+    }
+
+    @Test
+    public void testBufferViews() throws Exception {
+        byte[] bytes = encode(sample());
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 1);
+        buffer.put((byte) 0).put(bytes).flip();
+        buffer.position(1);
+
+        CompoundTag tag = new NBTDecoder(buffer).decode();
+        Assert.assertEquals(1, buffer.position());
+
+        IntArrayTag ints = tag.getTagAs("Ints");
+        Assert.assertEquals(3, ints.length());
+        Assert.assertTrue(ints.buffer().isReadOnly());
+        Assert.assertEquals(2, ints.buffer().get(1));
+
+        ByteArrayTag array = tag.getTagAs("Bytes");
+        Assert.assertEquals(2, array.length());
+        Assert.assertArrayEquals(bytes, encode(tag));
+
+        array.value()[0] = 9;
+        Assert.assertEquals(9, array.buffer().get(0));
+        Assert.assertEquals(4, buffer.get(buffer.position() + indexOf(bytes, (byte) 4)));
+        Assert.assertEquals("Steve", tag.<StringTag>getTagAs("Name").value());
+    }
+
+    @Test
+    public void testMalformedLength() throws Exception {
+        // A length which overflows when multiplied by 4, and a negative one
+        for (int length : new int[] { 0x40000001, -1 }) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(TagType.INT_ARRAY.id());
+            out.writeUTF("Ints");
+            out.writeInt(length);
+            out.writeInt(7);
+
+            NBTReader buffered = new NBTReader(ByteBuffer.wrap(bytes.toByteArray()));
+            buffered.nextTag();
+            check(buffered::readIntArrayBuffer);
+
+            NBTReader streamed = reader(bytes.toByteArray());
+            streamed.nextTag();
+            check(streamed::skipValue);
+        }
+    }
+
+    private interface Read {
+        void read() throws Exception;
+    }
+
+    private static void check(Read read) throws Exception {
+        try {
+            read.read();
+            Assert.fail();
+        } catch (java.io.IOException e) {
+            Assert.assertTrue(e.getCause() instanceof NBTException);
+        }
+    }
+
+    private static int indexOf(byte[] bytes, byte value) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
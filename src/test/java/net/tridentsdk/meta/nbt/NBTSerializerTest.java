@@ -17,9 +17,12 @@
 
 package net.tridentsdk.meta.nbt;
 
+import com.google.common.collect.Lists;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.List;
+
 public class NBTSerializerTest {
 
     @Test
@@ -32,6 +35,13 @@ public class NBTSerializerTest {
             Assert.fail();
         }
 
+        // Numbers are written unboxed
+        TagTable table = serialized.storedTags();
+        for (String name : new String[] { "testByte", "testShort", "testInt", "testLong", "testFloat", "testDouble" }) {
+            Assert.assertNull(table.tagAt(table.find(name)));
+        }
+        Assert.assertEquals(25.5F, serialized.getFloat("testFloat", 0F), 0F);
+
         TestSerializable deserialized = NBTSerializer.deserialize(new TestSerializable(), serialized);
 
         if (deserialized == null) {
@@ -57,6 +67,53 @@ public class NBTSerializerTest {
         Assert.assertEquals(deserialized.getTestIntArray()[4], 5);
     }
 
+    @Test
+    public void testNested() throws Exception {
+        Holder holder = new Holder();
+        holder.enabled = true;
+        holder.child = new Child();
+        holder.child.value = 7;
+        holder.names = Lists.newArrayList("a", "b");
+
+        CompoundTag serialized = NBTSerializer.serialize(holder);
+        Assert.assertEquals(1, serialized.<ByteTag>getTagAs("enabled").value());
+
+        Holder deserialized = NBTSerializer.deserialize(Holder.class, serialized);
+        Assert.assertTrue(deserialized.enabled);
+        Assert.assertEquals(7, deserialized.child.value);
+        Assert.assertTrue(deserialized.child.processed);
+        Assert.assertEquals(Lists.newArrayList("a", "b"), deserialized.names);
+
+        Assert.assertSame(NBTCodec.of(Holder.class), NBTCodec.of(Holder.class));
+    }
+
+    @Test
+    public void testRequired() throws Exception {
+        CompoundTag tag = new CompoundTag("Child");
+        tag.addTag(new IntTag("value").setValue(3));
+        Assert.assertEquals(3, NBTSerializer.deserialize(Child.class, tag).value);
+    }
+
+    public static class Holder implements NBTSerializable {
+        @NBTField(name = "enabled", type = TagType.BYTE)
+        private boolean enabled;
+        @NBTField(name = "child", type = TagType.COMPOUND)
+        private Child child;
+        @NBTField(name = "names", type = TagType.LIST)
+        private List<String> names;
+    }
+
+    public static class Child implements NBTSerializable {
+        @NBTField(name = "value", type = TagType.INT, required = true)
+        private int value;
+        private boolean processed;
+
+        @Override
+        public void process() {
+            this.processed = true;
+        }
+    }
+
     public class TestSerializable implements NBTSerializable {
 
         @NBTField(name = "testNull", type = TagType.NULL)
@@ -0,0 +1,109 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.meta.nbt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SNBTTest {
+    @Test
+    public void testScalars() {
+        CompoundTag tag = SNBT.parse("{a:1b, b:-2s, c:3, d:4L, e:1.5f, f:2.5, g:true, h:1e3d, i:hello, j:\"x \\\"y\\\"\"}");
+        Assert.assertEquals(1, tag.getByte("a", (byte) 0));
+        Assert.assertEquals(-2, tag.getShort("b", (short) 0));
+        Assert.assertEquals(3, tag.getInt("c", 0));
+        Assert.assertEquals(4L, tag.getLong("d", 0));
+        Assert.assertEquals(1.5F, tag.getFloat("e", 0), 0F);
+        Assert.assertEquals(2.5D, tag.getDouble("f", 0), 0D);
+        Assert.assertEquals(1, tag.getByte("g", (byte) 0));
+        Assert.assertEquals(1000D, tag.getDouble("h", 0), 0D);
+        Assert.assertEquals("hello", ((StringTag) tag.getTag("i")).value());
+        Assert.assertEquals("x \"y\"", ((StringTag) tag.getTag("j")).value());
+    }
+
+    @Test
+    public void testOutOfRange() {
+        CompoundTag tag = SNBT.parse("{a:300b, b:99999999999, c:1.5b, d:1-2}");
+        Assert.assertEquals(TagType.STRING, tag.getTag("a").type());
+        Assert.assertEquals(TagType.STRING, tag.getTag("b").type());
+        Assert.assertEquals(TagType.STRING, tag.getTag("c").type());
+        Assert.assertEquals(TagType.STRING, tag.getTag("d").type());
+    }
+
+    @Test
+    public void testCollections() {
+        CompoundTag tag = SNBT.parse("{Pos:[1.5d,64d,-3d], Ids:[I;7,8], Bytes:[B;1b,2b], Empty:[]," +
+                "Items:[{Slot:0b},{Slot:1b,tag:{display:{Name:'Sword'}}}]}");
+        Assert.assertTrue(tag.getTag("Pos") instanceof DoubleListTag);
+        Assert.assertArrayEquals(new int[] { 7, 8 }, ((IntArrayTag) tag.getTag("Ids")).value());
+        Assert.assertArrayEquals(new byte[] { 1, 2 }, ((ByteArrayTag) tag.getTag("Bytes")).value());
+        Assert.assertEquals(0, ((ListTag) tag.getTag("Empty")).size());
+
+        ListTag items = (ListTag) tag.getTag("Items");
+        Assert.assertEquals(2, items.size());
+        Assert.assertEquals("Sword", ((StringTag) NBTPath.compile("Items[1].tag.display.Name").find(tag)).value());
+    }
+
+    @Test
+    public void testRoundTrip() {
+        String snbt = "{a:1b,b:-2s,c:3,d:4L,e:1.5f,f:1.0E10d,\"a key\":\"quote\\\"d\",l:[I;1,2],m:[1,2,3]," +
+                "n:[{x:\"\"}],o:[],p:[B;],\"\":1}";
+        CompoundTag tag = SNBT.parse(snbt);
+        String printed = SNBT.print(tag);
+        Assert.assertTrue(NBTDiff.equal(tag, SNBT.parse(printed)));
+        Assert.assertEquals(printed, SNBT.print(SNBT.parse(printed)));
+    }
+
+    @Test
+    public void testNonFinite() {
+        CompoundTag tag = new CompoundTag(null);
+        tag.putFloat("a", Float.NaN);
+        tag.putDouble("b", Double.POSITIVE_INFINITY);
+        tag.putFloat("c", Float.NEGATIVE_INFINITY);
+
+        CompoundTag parsed = SNBT.parse(SNBT.print(tag));
+        Assert.assertTrue(Float.isNaN(parsed.getFloat("a", 0F)));
+        Assert.assertEquals(Double.POSITIVE_INFINITY, parsed.getDouble("b", 0D), 0D);
+        Assert.assertEquals(Float.NEGATIVE_INFINITY, parsed.getFloat("c", 0F), 0F);
+
+        // Without a float or double suffix they are strings
+        CompoundTag strings = SNBT.parse("{a:NaN,b:Infinityb}");
+        Assert.assertEquals(TagType.STRING, strings.getTag("a").type());
+        Assert.assertEquals(TagType.STRING, strings.getTag("b").type());
+    }
+
+    @Test
+    public void testCached() {
+        ImmutableCompoundTag first = SNBT.parseCached("{id:\"minecraft:stone\",Count:64b}");
+        Assert.assertSame(first, SNBT.parseCached("{id:\"minecraft:stone\",Count:64b}"));
+        Assert.assertEquals(64, first.getByte("Count", (byte) 0));
+    }
+
+    @Test
+    public void testInvalid() {
+        String[] invalid = { "", "{", "{a:}", "{a:1,}", "{a 1}", "{a:[1,1b]}", "{a:[I;1b]}", "{a:'x}", "{}x" };
+        for (String s : invalid) {
+            try {
+                SNBT.parse(s);
+                Assert.fail(s);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.plugin.index;
+
+import com.google.common.collect.ImmutableMap;
+import net.tridentsdk.event.Listener;
+import net.tridentsdk.plugin.Plugin;
+import net.tridentsdk.plugin.PluginLoadException;
+import net.tridentsdk.plugin.PluginLoader;
+import net.tridentsdk.plugin.annotation.CommandDesc;
+import net.tridentsdk.plugin.annotation.IgnoreRegistration;
+import net.tridentsdk.plugin.cmd.Command;
+import net.tridentsdk.reflect.Inject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public class PluginIndexTest {
+    public static class MainClass extends Plugin {
+    }
+
+    public static class JoinListener implements Listener {
+        @Inject
+        private MainClass plugin;
+    }
+
+    @IgnoreRegistration
+    public static class IgnoredListener implements Listener {
+    }
+
+    public abstract static class AbstractListener implements Listener {
+    }
+
+    @CommandDesc(name = "spawn")
+    public static class SpawnCommand extends Command {
+    }
+
+    private static PluginIndex compiled() throws IOException {
+        try (InputStream stream = PluginIndexTest.class.getClassLoader().getResourceAsStream(PluginIndex.RESOURCE)) {
+            Assert.assertNotNull(stream);
+            return PluginIndex.read(stream);
+        }
+    }
+
+    @Test
+    public void testProcessor() throws IOException {
+        PluginIndex index = compiled();
+        Assert.assertEquals(EnumSet.of(PluginIndex.Kind.LISTENER, PluginIndex.Kind.INJECTED),
+                index.kinds(JoinListener.class.getName()));
+        Assert.assertEquals(EnumSet.of(PluginIndex.Kind.PLUGIN), index.kinds(MainClass.class.getName()));
+        Assert.assertEquals(EnumSet.of(PluginIndex.Kind.COMMAND), index.kinds(SpawnCommand.class.getName()));
+        Assert.assertTrue(index.kinds(IgnoredListener.class.getName()).isEmpty());
+        Assert.assertTrue(index.kinds(AbstractListener.class.getName()).isEmpty());
+        Assert.assertFalse(index.classes().contains(PluginIndexTest.class.getName()));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Map<String, Set<PluginIndex.Kind>> classes = new LinkedHashMap<>();
+        classes.put("a.B", EnumSet.of(PluginIndex.Kind.LISTENER));
+        classes.put("a.C$D", EnumSet.of(PluginIndex.Kind.COMMAND, PluginIndex.Kind.INJECTED));
+
+        StringWriter writer = new StringWriter();
+        new PluginIndex(classes).write(writer);
+        byte[] bytes = writer.toString().getBytes(StandardCharsets.UTF_8);
+        PluginIndex index = PluginIndex.read(new ByteArrayInputStream(bytes));
+        Assert.assertEquals(Collections.singletonList("a.B"), index.classes(PluginIndex.Kind.LISTENER));
+        Assert.assertEquals(Collections.singletonList("a.C$D"), index.classes(PluginIndex.Kind.INJECTED));
+        Assert.assertTrue(index.classes(PluginIndex.Kind.PLUGIN).isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotAnIndex() throws IOException {
+        PluginIndex.read(new ByteArrayInputStream("a.B\n".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testLoader() {
+        Map<String, Class<?>> loaded = ImmutableMap.<String, Class<?>>of(
+                JoinListener.class.getName(), JoinListener.class);
+        PluginLoader loader = new PluginLoader() {
+            @Override
+            public void link(Class<?> c) {
+            }
+
+            @Override
+            public Class<?> defineClass(String name, byte[] source) {
+                return null;
+            }
+
+            @Override
+            public void putClass(Class<?> cls) {
+            }
+
+            @Override
+            public Map<String, Class<?>> loadedClasses() {
+                return loaded;
+            }
+
+            @Override
+            public void unloadClasses() {
+            }
+        };
+
+        Map<String, Set<PluginIndex.Kind>> classes = new LinkedHashMap<>();
+        classes.put(JoinListener.class.getName(), EnumSet.of(PluginIndex.Kind.LISTENER));
+        classes.put(SpawnCommand.class.getName(), EnumSet.of(PluginIndex.Kind.COMMAND));
+        PluginIndex index = new PluginIndex(classes);
+        Assert.assertEquals(Collections.<Class<?>>singletonList(JoinListener.class),
+                loader.indexedClasses(index, PluginIndex.Kind.LISTENER));
+        try {
+            loader.indexedClasses(index, PluginIndex.Kind.COMMAND);
+            Assert.fail();
+        } catch (PluginLoadException expected) {
+        }
+    }
+}
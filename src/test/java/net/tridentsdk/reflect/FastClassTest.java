@@ -0,0 +1,141 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.reflect;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FastClassTest {
+    public static class Subject {
+        public int count;
+        public double ratio;
+        public String label;
+        private long hidden;
+
+        public int add(int a) {
+            return this.count + a;
+        }
+
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        public void reset(int value) {
+            this.count = value;
+        }
+
+        private int twice() {
+            return this.count * 2;
+        }
+    }
+
+    @Test
+    public void testCached() {
+        Assert.assertSame(FastClass.get(Subject.class), FastClass.get(new Subject()));
+    }
+
+    @Test
+    public void testFields() {
+        Subject subject = new Subject();
+        FastClass cls = FastClass.get(Subject.class);
+
+        FastField count = cls.fieldBy("count");
+        count.setInt(subject, 5);
+        Assert.assertEquals(5, subject.count);
+        Assert.assertEquals(5, count.getInt(subject));
+        Assert.assertEquals(5, (int) count.<Integer>get(subject));
+
+        FastField ratio = cls.fieldBy("ratio");
+        ratio.setDouble(subject, 0.5D);
+        Assert.assertEquals(0.5D, ratio.getDouble(subject), 0D);
+
+        cls.fieldBy("label").set(subject, "x");
+        Assert.assertEquals("x", subject.label);
+
+        Assert.assertNotNull(cls.fieldBy("hidden").toField());
+        Assert.assertNotSame(cls.fields(), cls.fields());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPrivateField() {
+        FastClass.get(Subject.class).fieldBy("hidden").getLong(new Subject());
+    }
+
+    @Test
+    public void testMethods() {
+        Subject subject = new Subject();
+        subject.count = 2;
+        FastMethod add = FastClass.get(Subject.class).methodBy(subject, "add");
+        Assert.assertEquals(5, add.invoke(subject, 3));
+        Assert.assertEquals(7, add.invoke(subject, 3, 4));
+        Assert.assertEquals(6, add.invoke(subject, 4));
+    }
+
+    @Test
+    public void testHandles() {
+        FastClass cls = FastClass.get(Subject.class, ReflectionBackend.METHOD_HANDLES);
+        Assert.assertEquals(ReflectionBackend.METHOD_HANDLES, cls.backend());
+        Assert.assertNotSame(FastClass.get(Subject.class), cls);
+
+        Subject subject = cls.constructor().newInstance();
+        FastField count = cls.fieldBy("count");
+        count.setInt(subject, 2);
+        Assert.assertEquals(2, count.getInt(subject));
+        count.set(subject, 3);
+        Assert.assertEquals(3, (int) count.<Integer>get(subject));
+
+        FastField hidden = cls.fieldBy("hidden");
+        hidden.setLong(subject, 9L);
+        Assert.assertEquals(9L, hidden.getLong(subject));
+
+        FastMethod add = cls.methodBy(subject, "add");
+        Assert.assertEquals(5, add.invoke(subject, 2));
+        Assert.assertEquals(7, add.invoke(subject, 3, 4));
+        Assert.assertEquals(6, add.invoke(subject, 3));
+
+        Assert.assertNull(cls.methodBy(subject, "reset").invoke(subject, 4));
+        Assert.assertEquals(4, subject.count);
+        Assert.assertEquals(8, cls.methodBy(subject, "twice").invoke(subject));
+    }
+
+    @Test
+    public void testInvokers() throws Exception {
+        // Public methods are bound to lambdas, other methods to their handles
+        Assert.assertTrue(Handles.invoker(Subject.class.getMethod("add", int.class)) instanceof Handles.Call1);
+        Assert.assertTrue(Handles.invoker(Subject.class.getMethod("add", int.class, int.class))
+                instanceof Handles.Call2);
+        Assert.assertTrue(Handles.invoker(Subject.class.getMethod("reset", int.class)) instanceof Handles.Run1);
+
+        Handles.Invoker twice = Handles.invoker(Subject.class.getDeclaredMethod("twice"));
+        Assert.assertFalse(twice instanceof Handles.Call0);
+        Subject subject = new Subject();
+        subject.count = 3;
+        Assert.assertEquals(6, twice.invoke(subject, new Object[0]));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testHandlesThrow() {
+        FastClass.get(Thrower.class, ReflectionBackend.METHOD_HANDLES).methodBy(null, "fail").invoke(new Thrower());
+    }
+
+    public static class Thrower {
+        public void fail() {
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.reflect;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InjectorTest {
+    public static class Service {
+        final String name;
+
+        Service(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Counter {
+    }
+
+    public static class Listener {
+        @Inject
+        private Counter counter;
+        private final Service service;
+        private final Integer priority;
+
+        @Inject
+        public Listener(Service service, Integer priority) {
+            this.service = service;
+            this.priority = priority;
+        }
+    }
+
+    public static class Plain {
+        @Inject
+        static Counter shared;
+        @Inject(meta = String.class)
+        Service service;
+    }
+
+    @Test
+    public void testNewObject() {
+        final Counter counter = new Counter();
+        Injector.inject(Counter.class).with(counter);
+        Injector.inject(Service.class).with(new Service("first"));
+
+        Listener listener = Injector.newObject(Listener.class, 5);
+        Assert.assertNotNull(listener);
+        Assert.assertSame(counter, listener.counter);
+        Assert.assertEquals("first", listener.service.name);
+        Assert.assertEquals(5, (int) listener.priority);
+
+        // Rebinding is seen by the next injection
+        Injector.inject(Service.class).with(new Service("second"));
+        Assert.assertEquals("second", Injector.newObject(Listener.class, 6).service.name);
+
+        Service given = new Service("given");
+        Assert.assertSame(given, Injector.newObject(Listener.class, given, 7).service);
+    }
+
+    @Test
+    public void testFields() {
+        Counter counter = new Counter();
+        Injector.inject(Counter.class).with(counter);
+        Injector.inject(Service.class).with(new Producer<Service>() {
+            @Override
+            public Service produce() {
+                return new Service("default");
+            }
+
+            @Override
+            public Service produce(Class<?> metadata) {
+                return new Service(metadata.getSimpleName());
+            }
+        });
+
+        Plain.shared = null;
+        Plain plain = Injector.newObject(Plain.class);
+        Assert.assertEquals("String", plain.service.name);
+        Assert.assertSame(counter, Plain.shared);
+
+        plain.service = null;
+        Plain.shared = null;
+        Injector.injectAll(plain);
+        Assert.assertEquals("String", plain.service.name);
+        Assert.assertSame(counter, Plain.shared);
+
+        Plain.shared = null;
+        Injector.staticInject(Plain.class);
+        Assert.assertSame(counter, Plain.shared);
+    }
+}